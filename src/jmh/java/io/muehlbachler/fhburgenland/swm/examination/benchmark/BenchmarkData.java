@@ -0,0 +1,196 @@
+package io.muehlbachler.fhburgenland.swm.examination.benchmark;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.muehlbachler.fhburgenland.swm.examination.ExaminationApplication;
+
+/**
+ * Boots the application against a fresh in-memory H2 database, or the file backed one of the
+ * 'prod' profile, and seeds it with generated data.
+ * Persons and notes get deterministic IDs and contents, so runs are comparable.
+ * Note content consists of words from a fixed vocabulary, see {@link #word(int)}.
+ */
+
+public final class BenchmarkData {
+    /**
+     * Number of distinct words note contents are generated from.
+     */
+    public static final int VOCABULARY = 10_000;
+
+    private static final int INSERT_CHUNK = 10_000;
+    private static final int WORDS_PER_NOTE = 3;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Starts the application without a web server on its own in-memory database.
+     * Properties are passed as command line arguments, so they override application.properties.
+     *
+     * @param properties Additional properties in 'key=value' form.
+     * @return The running application context.
+     */
+    public static ConfigurableApplicationContext start(String... properties) {
+        return start(WebApplicationType.NONE, properties);
+    }
+
+    /**
+     * Starts the application with its web server on a random port and its own in-memory
+     * database. The port is available as the 'local.server.port' property.
+     *
+     * @param properties Additional properties in 'key=value' form.
+     * @return The running application context.
+     */
+    public static ConfigurableApplicationContext startServer(String... properties) {
+        return start(WebApplicationType.SERVLET,
+                Stream.concat(Stream.of("server.port=0"), Arrays.stream(properties))
+                        .toArray(String[]::new));
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType type,
+                                                        String... properties) {
+        String database = "benchmark-" + UUID.randomUUID();
+        Stream<String> urls = Stream.of("spring.datasource.url=jdbc:h2:mem:" + database,
+                "spring.r2dbc.url=r2dbc:h2:mem:///" + database);
+        String[] args = Stream.concat(urls, Arrays.stream(properties))
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(ExaminationApplication.class)
+                .web(type)
+                .logStartupInfo(false)
+                .run(args);
+    }
+
+    /**
+     * Starts the application without a web server with the 'prod' profile, i.e. on the file
+     * backed database in the given directory. An existing database is opened, not reseeded.
+     *
+     * @param directory The storage directory of the database.
+     * @param properties Additional properties in 'key=value' form.
+     * @return The running application context.
+     */
+    public static ConfigurableApplicationContext startPersistent(Path directory,
+                                                                 String... properties) {
+        Stream<String> storage = Stream.of("spring.profiles.active=prod",
+                "examination.storage.directory=" + directory.toAbsolutePath());
+        String[] args = Stream.concat(storage, Arrays.stream(properties))
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(ExaminationApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(args);
+    }
+
+    /**
+     * Returns the deterministic ID of the i-th generated person.
+     *
+     * @param i The index of the person.
+     * @return The ID of the person.
+     */
+    public static String personId(long i) {
+        return new UUID(0L, i).toString();
+    }
+
+    /**
+     * Returns the i-th word of the vocabulary, e.g. 'w0042'.
+     * All words have the same length, so no word is a substring of another one.
+     *
+     * @param i The index of the word.
+     * @return The word.
+     */
+    public static String word(int i) {
+        return String.format("w%04d", i % VOCABULARY);
+    }
+
+    /**
+     * Inserts generated persons, named 'First{i % firstNames}' and 'Last{i % lastNames}'.
+     *
+     * @param jdbc The template to insert with.
+     * @param count The number of persons to insert.
+     * @param firstNames The number of distinct first names.
+     * @param lastNames The number of distinct last names.
+     */
+    public static void seedPersons(JdbcTemplate jdbc, int count, int firstNames, int lastNames) {
+        for (int start = 0; start < count; start += INSERT_CHUNK) {
+            int offset = start;
+            int size = Math.min(INSERT_CHUNK, count - start);
+            jdbc.batchUpdate("insert into PERSON (id, first_name, last_name) values (?, ?, ?)",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            int index = offset + i;
+                            ps.setObject(1, new UUID(0L, index));
+                            ps.setString(2, "First" + index % firstNames);
+                            ps.setString(3, "Last" + index % lastNames);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return size;
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Inserts generated notes, spread round-robin over the first 'persons' generated persons.
+     * Each note consists of three random words of the vocabulary.
+     *
+     * @param jdbc The template to insert with.
+     * @param count The number of notes to insert.
+     * @param persons The number of persons the notes belong to.
+     */
+    public static void seedNotes(JdbcTemplate jdbc, int count, int persons) {
+        seedNotes(jdbc, count, persons, WORDS_PER_NOTE);
+    }
+
+    /**
+     * Inserts generated notes, spread round-robin over the first 'persons' generated persons.
+     * Each note consists of 'words' random words of the vocabulary, i.e. 6 * words - 1 chars.
+     *
+     * @param jdbc The template to insert with.
+     * @param count The number of notes to insert.
+     * @param persons The number of persons the notes belong to.
+     * @param words The number of words per note.
+     */
+    public static void seedNotes(JdbcTemplate jdbc, int count, int persons, int words) {
+        Random random = new Random(count);
+        for (int start = 0; start < count; start += INSERT_CHUNK) {
+            int offset = start;
+            int size = Math.min(INSERT_CHUNK, count - start);
+            jdbc.batchUpdate("insert into NOTE (id, person_id, content) values (?, ?, ?)",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            int index = offset + i;
+                            StringBuilder content = new StringBuilder();
+                            for (int w = 0; w < words; w++) {
+                                content.append(w == 0 ? "" : " ")
+                                        .append(word(random.nextInt(VOCABULARY)));
+                            }
+                            ps.setObject(1, new UUID(1L, index));
+                            ps.setObject(2, new UUID(0L, index % persons));
+                            ps.setString(3, content.toString());
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return size;
+                        }
+                    });
+        }
+    }
+}
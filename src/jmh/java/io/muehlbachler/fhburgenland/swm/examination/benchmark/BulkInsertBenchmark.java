@@ -0,0 +1,110 @@
+package io.muehlbachler.fhburgenland.swm.examination.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.Note;
+import io.muehlbachler.fhburgenland.swm.examination.model.Person;
+import io.muehlbachler.fhburgenland.swm.examination.service.PersonService;
+
+/**
+ * Compares importing records one save at a time with the batched bulk methods.
+ * Each invocation imports 'records' records, so records per second is records / score.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BulkInsertBenchmark {
+    @Param({"10000"})
+    private int records;
+
+    @Param({"100", "500", "1000"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private PersonService personService;
+    private String personId;
+
+    /**
+     * Starts the application with the batch size under test.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.start("examination.bulk.batch-size=" + batchSize);
+        personService = context.getBean(PersonService.class);
+        personId = personService.create(new Person(null, "Bulk", "Owner", null)).getId()
+                .toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Imports persons with one save and transaction per person.
+     *
+     * @param blackhole Consumes the created persons.
+     */
+    @Benchmark
+    public void personsOneByOne(Blackhole blackhole) {
+        for (Person person : persons()) {
+            blackhole.consume(personService.create(person));
+        }
+    }
+
+    @Benchmark
+    public List<Person> personsBulk() {
+        return personService.createAll(persons());
+    }
+
+    /**
+     * Imports notes with one save and transaction per note.
+     *
+     * @param blackhole Consumes the created notes.
+     */
+    @Benchmark
+    public void notesOneByOne(Blackhole blackhole) {
+        for (Note note : notes()) {
+            blackhole.consume(personService.createNote(personId, note));
+        }
+    }
+
+    @Benchmark
+    public Object notesBulk() {
+        return personService.createNotes(personId, notes());
+    }
+
+    private List<Person> persons() {
+        return IntStream.range(0, records)
+                .mapToObj(i -> new Person(null, "First" + i, "Last" + i, null))
+                .toList();
+    }
+
+    private List<Note> notes() {
+        return IntStream.range(0, records)
+                .mapToObj(i -> new Note(null, null, "Note " + i))
+                .toList();
+    }
+}
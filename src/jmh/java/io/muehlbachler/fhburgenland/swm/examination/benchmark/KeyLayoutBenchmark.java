@@ -0,0 +1,121 @@
+package io.muehlbachler.fhburgenland.swm.examination.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.util.FileSystemUtils;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.UuidKeys;
+
+/**
+ * Compares the key layout of NOTE before and after V3__uuid_keys.sql on a file based H2 table.
+ * 'varchar-v4' stores random UUIDs in their 36 character form as before, 'uuid-v4' and 'uuid-v7'
+ * store them as 16 byte UUIDs, random and time-ordered respectively.
+ * Each invocation batch inserts 'rows' notes into a table already holding 'existing' ones.
+ * After the trial, the compacted database file size, i.e. table plus primary key and
+ * person_id index, is printed per layout.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class KeyLayoutBenchmark {
+    private static final int BATCH_SIZE = 500;
+    private static final int NOTES_PER_PERSON = 10;
+
+    @Param({"varchar-v4", "uuid-v4", "uuid-v7"})
+    private String layout;
+
+    @Param({"1000000"})
+    private int existing;
+
+    @Param({"10000"})
+    private int rows;
+
+    private Path directory;
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    /**
+     * Creates the table in the layout under test and fills it with the existing notes.
+     *
+     * @throws IOException If the database directory cannot be created.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("key-layout");
+        dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:file:" + directory.resolve("notes").toAbsolutePath(), "sa", "", true);
+        jdbc = new JdbcTemplate(dataSource);
+
+        String keyType = layout.startsWith("varchar") ? "varchar(255)" : "UUID";
+        jdbc.execute("CREATE TABLE NOTE (id " + keyType + " PRIMARY KEY, person_id " + keyType
+                + " not null, content varchar(255) not null)");
+        jdbc.execute("CREATE INDEX idx_note_person_id ON NOTE (person_id)");
+        insert(existing);
+    }
+
+    /**
+     * Prints the size of the compacted database and removes it.
+     *
+     * @throws IOException If the database directory cannot be removed.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        long notes = jdbc.queryForObject("select count(*) from NOTE", Long.class);
+        jdbc.execute("SHUTDOWN COMPACT");
+        dataSource.destroy();
+
+        long bytes = Files.size(directory.resolve("notes.mv.db"));
+        System.out.printf("%n%s: %d notes, %d bytes, %.1f bytes per note%n",
+                layout, notes, bytes, (double) bytes / notes);
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public int[][] insertNotes() {
+        return insert(rows);
+    }
+
+    private int[][] insert(int count) {
+        UUID[] persons = IntStream.range(0, count / NOTES_PER_PERSON + 1)
+                .mapToObj(i -> nextKey())
+                .toArray(UUID[]::new);
+        return jdbc.batchUpdate("insert into NOTE (id, person_id, content) values (?, ?, ?)",
+                IntStream.range(0, count).boxed().toList(), BATCH_SIZE, (ps, i) -> {
+                    ps.setObject(1, column(nextKey()));
+                    ps.setObject(2, column(persons[i / NOTES_PER_PERSON]));
+                    ps.setString(3, BenchmarkData.word(i) + " " + BenchmarkData.word(i + 1));
+                });
+    }
+
+    private UUID nextKey() {
+        return layout.endsWith("v7") ? UuidKeys.next() : UUID.randomUUID();
+    }
+
+    private Object column(UUID key) {
+        return layout.startsWith("varchar") ? key.toString() : key;
+    }
+}
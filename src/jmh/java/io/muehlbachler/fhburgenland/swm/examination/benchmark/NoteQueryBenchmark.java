@@ -0,0 +1,95 @@
+package io.muehlbachler.fhburgenland.swm.examination.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.muehlbachler.fhburgenland.swm.examination.dto.NoteView;
+import io.muehlbachler.fhburgenland.swm.examination.repository.NoteRepository;
+import io.muehlbachler.fhburgenland.swm.examination.search.NoteContentIndex;
+import io.muehlbachler.fhburgenland.swm.examination.service.impl.NoteServiceImpl;
+
+/**
+ * Compares content queries answered by the content index with the LIKE scan of the repository.
+ * Notes have 'words' words, 40 make about 240 chars like a short paragraph; the query is a
+ * single vocabulary word, so about words * notes / 10000 notes match.
+ * The size of the postings lists is printed once the index is built; the heap of 12 GB has to
+ * hold the in-memory database as well as the index of 10 million notes.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class NoteQueryBenchmark {
+    @Param({"10000", "1000000", "10000000"})
+    private int notes;
+
+    @Param({"40"})
+    private int words;
+
+    @Param({"w0042"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private NoteServiceImpl noteService;
+    private NoteRepository noteRepository;
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Seeds the database and builds the content index over the seeded notes.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.start();
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        int persons = Math.max(1, notes / 10);
+        BenchmarkData.seedPersons(jdbc, persons, persons, persons);
+        BenchmarkData.seedNotes(jdbc, notes, persons, words);
+
+        noteService = context.getBean(NoteServiceImpl.class);
+        noteRepository = context.getBean(NoteRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        noteService.rebuildIndex();
+        System.out.printf("%nindex: %d notes, %d bytes of postings%n", notes,
+                context.getBean(NoteContentIndex.class).postingsBytes());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<NoteView> indexed() {
+        return noteService.queryViewsByContent(query);
+    }
+
+    @Benchmark
+    public List<NoteView> repository() {
+        return transactionTemplate.execute(status -> {
+            try (Stream<NoteView> views = noteRepository.streamViewsByContentContaining(query)) {
+                return views.toList();
+            }
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package io.muehlbachler.fhburgenland.swm.examination.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.muehlbachler.fhburgenland.swm.examination.dto.PersonView;
+import io.muehlbachler.fhburgenland.swm.examination.service.PersonService;
+
+/**
+ * Measures PersonService.findViewsByName for each query shape, with and without the name indexes.
+ * 'indexed=false' drops the indexes of V2__indexes.sql after seeding, as the schema was before.
+ * With 1000 distinct first and last names, each name matches persons / 1000 persons.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PersonFinderBenchmark {
+    private static final int DISTINCT_NAMES = 1000;
+
+    @Param({"1000000"})
+    private int persons;
+
+    @Param({"true", "false"})
+    private boolean indexed;
+
+    private ConfigurableApplicationContext context;
+    private PersonService personService;
+
+    /**
+     * Seeds the persons and drops the name indexes if running unindexed.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.start();
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        BenchmarkData.seedPersons(jdbc, persons, DISTINCT_NAMES, DISTINCT_NAMES + 1);
+        if (!indexed) {
+            jdbc.execute("DROP INDEX idx_person_first_name_last_name");
+            jdbc.execute("DROP INDEX idx_person_last_name");
+        }
+        personService = context.getBean(PersonService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PersonView> firstAndLastName() {
+        return personService.findViewsByName("First42", "Last42");
+    }
+
+    @Benchmark
+    public List<PersonView> firstNameOnly() {
+        return personService.findViewsByName("First42", "");
+    }
+
+    @Benchmark
+    public List<PersonView> lastNameOnly() {
+        return personService.findViewsByName("", "Last42");
+    }
+}
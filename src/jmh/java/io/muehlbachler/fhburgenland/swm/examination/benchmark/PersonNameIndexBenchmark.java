@@ -0,0 +1,72 @@
+package io.muehlbachler.fhburgenland.swm.examination.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.muehlbachler.fhburgenland.swm.examination.search.PersonNameIndex;
+
+/**
+ * Measures the latency distribution, p99 included, of name index lookups. Persons are named
+ * like the seeded ones, with persons / 100 distinct first and persons / 10 distinct last names,
+ * and indexed directly, so the numbers cover the lookup without loading the matching persons.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class PersonNameIndexBenchmark {
+    @Param({"100000", "5000000"})
+    private int persons;
+
+    @Param({"las", "last1234"})
+    private String query;
+
+    private PersonNameIndex index;
+
+    /**
+     * Builds the index over the generated names.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new PersonNameIndex();
+        int firstNames = Math.max(1, persons / 100);
+        int lastNames = Math.max(1, persons / 10);
+        for (int i = 0; i < persons; i++) {
+            index.add(new UUID(0L, i), "First" + i % firstNames, "Last" + i % lastNames);
+        }
+        index.rebuild(List.of());
+    }
+
+    @Benchmark
+    public Optional<List<String>> suggest() {
+        return index.suggest(query, 0, 10);
+    }
+
+    @Benchmark
+    public Optional<List<PersonNameIndex.Match>> prefix() {
+        return index.search(query, 0, 10);
+    }
+
+    @Benchmark
+    public Optional<List<PersonNameIndex.Match>> fuzzy() {
+        return index.search(query, 2, 10);
+    }
+}
@@ -0,0 +1,77 @@
+package io.muehlbachler.fhburgenland.swm.examination.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.muehlbachler.fhburgenland.swm.examination.dto.PersonView;
+import io.muehlbachler.fhburgenland.swm.examination.model.Note;
+import io.muehlbachler.fhburgenland.swm.examination.service.PersonService;
+
+/**
+ * Measures the hot paths of PersonService against a seeded H2 database.
+ * getAllViews reads every person with their notes as read models, createNote inserts a note for
+ * a seeded person.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PersonServiceBenchmark {
+    @Param({"1000", "10000", "100000"})
+    private int persons;
+
+    @Param({"2"})
+    private int notesPerPerson;
+
+    private ConfigurableApplicationContext context;
+    private PersonService personService;
+    private String personId;
+
+    /**
+     * Seeds the persons and their notes.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.start();
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        BenchmarkData.seedPersons(jdbc, persons, persons, persons);
+        BenchmarkData.seedNotes(jdbc, persons * notesPerPerson, persons);
+        personService = context.getBean(PersonService.class);
+        personId = BenchmarkData.personId(persons / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PersonView> getAllViews() {
+        return personService.getAllViews();
+    }
+
+    @Benchmark
+    public Optional<Note> createNote() {
+        return personService.createNote(personId, new Note(null, null, "Benchmark note"));
+    }
+}
@@ -0,0 +1,154 @@
+package io.muehlbachler.fhburgenland.swm.examination.benchmark;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.Person;
+import io.muehlbachler.fhburgenland.swm.examination.repository.NoteRepository;
+import io.muehlbachler.fhburgenland.swm.examination.repository.PersonRepository;
+import io.muehlbachler.fhburgenland.swm.examination.search.NoteContentIndex;
+import io.muehlbachler.fhburgenland.swm.examination.service.NoteService;
+import io.muehlbachler.fhburgenland.swm.examination.service.PersonService;
+import io.muehlbachler.fhburgenland.swm.examination.service.impl.NoteServiceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Compares answering read requests from JPA entities with answering them from read models.
+ * Every operation loads the data and serializes it to JSON like the controllers do.
+ * The entity model runs in a transaction, as open-in-view does for requests, so lazy notes
+ * can be initialized; the view model needs none. Caches are disabled to measure the database.
+ * As the services only serve views, the entity model reads through the repositories and
+ * JPQL the way the services did before: the person with their notes fetched along, pages with
+ * batch fetched notes, and the notes of content query candidates by ID.
+ * Run with '-PjmhProfilers=gc' to report the allocation per request ('gc.alloc.rate.norm').
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReadModelBenchmark {
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"entity", "view"})
+    private String model;
+
+    @Param({"10000"})
+    private int persons;
+
+    @Param({"5"})
+    private int notesPerPerson;
+
+    private ConfigurableApplicationContext context;
+    private PersonService personService;
+    private NoteService noteService;
+    private PersonRepository personRepository;
+    private NoteRepository noteRepository;
+    private NoteContentIndex noteContentIndex;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private ObjectWriter writer;
+    private int next;
+
+    /**
+     * Seeds the persons and their notes.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.start("examination.cache.maximum-size=0");
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        BenchmarkData.seedPersons(jdbc, persons, persons, persons / 10);
+        BenchmarkData.seedNotes(jdbc, persons * notesPerPerson, persons);
+        // the index was built on startup, before the notes were seeded
+        context.getBean(NoteServiceImpl.class).rebuildIndex();
+        personService = context.getBean(PersonService.class);
+        noteService = context.getBean(NoteService.class);
+        personRepository = context.getBean(PersonRepository.class);
+        noteRepository = context.getBean(NoteRepository.class);
+        noteContentIndex = context.getBean(NoteContentIndex.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        writer = context.getBean(ObjectMapper.class).writer();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] getPerson() {
+        String id = BenchmarkData.personId(next++ % persons);
+        return "view".equals(model)
+                ? serialize(personService.getView(id))
+                : transactionTemplate.execute(status ->
+                        serialize(personRepository.findById(UUID.fromString(id))));
+    }
+
+    @Benchmark
+    public byte[] listPage() {
+        return "view".equals(model)
+                ? serialize(personService.getViewPage(null, PAGE_SIZE))
+                : transactionTemplate.execute(status ->
+                        serialize(entityManager.createQuery(
+                                        "select p from Person p order by p.id", Person.class)
+                                .setMaxResults(PAGE_SIZE)
+                                .getResultList()));
+    }
+
+    @Benchmark
+    public byte[] queryByLastName() {
+        return "view".equals(model)
+                ? serialize(personService.findViewsByName("", "Last42"))
+                : transactionTemplate.execute(status ->
+                        serialize(entityManager.createQuery("select distinct p from Person p"
+                                        + " left join fetch p.notes where p.lastName = :lastName",
+                                        Person.class)
+                                .setParameter("lastName", "Last42")
+                                .getResultList()));
+    }
+
+    @Benchmark
+    public byte[] queryNotes() {
+        String query = BenchmarkData.word(42);
+        return "view".equals(model)
+                ? serialize(noteService.queryViewsByContent(query))
+                : transactionTemplate.execute(status -> serialize(noteRepository.findAllById(
+                        noteContentIndex.candidates(query).orElse(Set.of()))));
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package io.muehlbachler.fhburgenland.swm.examination.benchmark;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.Note;
+import io.muehlbachler.fhburgenland.swm.examination.model.Person;
+
+/**
+ * Measures the Jackson serialization of a person as returned by the controllers.
+ * Uses the same ObjectMapper defaults as Spring Boot, without a database.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"1", "10", "100"})
+    private int notes;
+
+    private ObjectWriter writer;
+    private Person withNotes;
+    private Person withoutNotes;
+
+    /**
+     * Builds a person with notes loaded and one without.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        UUID id = UUID.randomUUID();
+        List<Note> noteList = IntStream.range(0, notes)
+                .mapToObj(i -> new Note(UUID.randomUUID(), null,
+                        BenchmarkData.word(i) + " " + BenchmarkData.word(i + 1)))
+                .toList();
+        withNotes = new Person(id, "John", "Doe", noteList);
+        withoutNotes = new Person(id, "John", "Doe", null);
+    }
+
+    @Benchmark
+    public byte[] personWithNotes() throws JsonProcessingException {
+        return writer.writeValueAsBytes(withNotes);
+    }
+
+    @Benchmark
+    public byte[] personWithoutNotes() throws JsonProcessingException {
+        return writer.writeValueAsBytes(withoutNotes);
+    }
+}
@@ -0,0 +1,94 @@
+package io.muehlbachler.fhburgenland.swm.examination.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Compares the time until the application is ready with 'persons' persons and their notes.
+ * In 'memory' mode, every start migrates a fresh database and has to reseed the data;
+ * in 'file' mode, the database seeded once during setup is reopened as is.
+ * Both include rebuilding the note content index from the stored notes.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StorageStartupBenchmark {
+    private static final int NOTES_PER_PERSON = 5;
+
+    @Param({"memory", "file"})
+    private String mode;
+
+    @Param({"0", "100000"})
+    private int persons;
+
+    private Path directory;
+
+    /**
+     * Seeds the file backed database once, so the benchmark only reopens it.
+     *
+     * @throws IOException If the storage directory cannot be created.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("storage-startup");
+        if ("file".equals(mode)) {
+            try (ConfigurableApplicationContext context =
+                         BenchmarkData.startPersistent(directory)) {
+                seed(context);
+            }
+        }
+    }
+
+    /**
+     * Removes the file backed database.
+     *
+     * @throws IOException If the storage directory cannot be removed.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    /**
+     * Starts the application until it holds the data, then stops it again.
+     */
+    @Benchmark
+    public void startUntilReady() {
+        if ("file".equals(mode)) {
+            BenchmarkData.startPersistent(directory).close();
+            return;
+        }
+        try (ConfigurableApplicationContext context = BenchmarkData.start()) {
+            seed(context);
+        }
+    }
+
+    private void seed(ConfigurableApplicationContext context) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        BenchmarkData.seedPersons(jdbc, persons, persons, persons);
+        BenchmarkData.seedNotes(jdbc, persons * NOTES_PER_PERSON, Math.max(1, persons));
+    }
+}
@@ -0,0 +1,79 @@
+package io.muehlbachler.fhburgenland.swm.examination.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.Person;
+import io.muehlbachler.fhburgenland.swm.examination.service.PersonService;
+
+/**
+ * Compares the steady-state write throughput of the in-memory and the file backed database.
+ * Every operation creates a person in its own transaction through the service; the file mode
+ * additionally pays for the MVStore writing its chunks and the periodic checkpoints.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(4)
+@Fork(1)
+public class StorageWriteBenchmark {
+    @Param({"memory", "file"})
+    private String mode;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private PersonService personService;
+
+    /**
+     * Starts the application on the storage mode under test.
+     *
+     * @throws IOException If the storage directory cannot be created.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("storage-write");
+        context = "file".equals(mode)
+                ? BenchmarkData.startPersistent(directory,
+                        "examination.storage.checkpoint-interval=PT10S")
+                : BenchmarkData.start();
+        personService = context.getBean(PersonService.class);
+    }
+
+    /**
+     * Stops the application and removes the file backed database.
+     *
+     * @throws IOException If the storage directory cannot be removed.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Person createPerson() {
+        return personService.create(new Person(null, "Write", "Throughput", null));
+    }
+}
@@ -0,0 +1,109 @@
+package io.muehlbachler.fhburgenland.swm.examination.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Requests large listings over HTTP from a running server and reports, per request, the time
+ * to the last byte as score, and the time to the first byte and the bytes on the wire as
+ * secondary results. Every iteration is a single request, so the counters are per request.
+ * '/person/' is streamed by the JsonStreamer; '/person/summary' lists the same rows through
+ * the buffered message converter, without compression. Run with -PjmhProfilers=gc for the
+ * allocation per request, which covers the server and the client in this JVM.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 30)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StreamingResponseBenchmark {
+    @Param({"100000"})
+    private int persons;
+
+    @Param({"/person/", "/person/summary"})
+    private String path;
+
+    @Param({"identity", "gzip", "deflate"})
+    private String encoding;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    /**
+     * The measurements of a single request besides its duration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Response {
+        public long wireBytes;
+        public long firstByteMicros;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            wireBytes = 0;
+            firstByteMicros = 0;
+        }
+    }
+
+    /**
+     * Starts the server and seeds the persons.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startServer();
+        BenchmarkData.seedPersons(context.getBean(JdbcTemplate.class), persons, persons / 10,
+                persons / 10);
+        client = HttpClient.newHttpClient();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:"
+                        + context.getEnvironment().getProperty("local.server.port") + path))
+                .header("Accept-Encoding", encoding)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long request(Response response) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<InputStream> answer =
+                client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream body = answer.body()) {
+            int read = body.read(buffer);
+            response.firstByteMicros = (System.nanoTime() - start) / 1000;
+            while (read >= 0) {
+                response.wireBytes += read;
+                read = body.read(buffer);
+            }
+        }
+        return response.wireBytes;
+    }
+}
@@ -0,0 +1,75 @@
+package io.muehlbachler.fhburgenland.swm.examination.loadtest;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Records request latencies, errors and requests rejected by load shedding of a single worker.
+ * Not thread-safe; every worker records into its own instance and they are merged at the end.
+ */
+
+final class LatencyRecorder {
+    private long[] samples = new long[1024];
+    private int size;
+    private long errors;
+    private long rejected;
+    private boolean sorted;
+
+    void record(long nanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+        sorted = false;
+    }
+
+    void error() {
+        errors++;
+    }
+
+    void reject() {
+        rejected++;
+    }
+
+    long count() {
+        return size;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    long rejected() {
+        return rejected;
+    }
+
+    /**
+     * Returns the latency below which the given share of the requests completed.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The latency in nanoseconds, or 0 if nothing was recorded.
+     */
+    long percentile(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            Arrays.sort(samples, 0, size);
+            sorted = true;
+        }
+        int index = (int) Math.ceil(percentile / 100 * size) - 1;
+        return samples[Math.max(0, Math.min(index, size - 1))];
+    }
+
+    static LatencyRecorder merge(Collection<LatencyRecorder> recorders) {
+        LatencyRecorder merged = new LatencyRecorder();
+        for (LatencyRecorder recorder : recorders) {
+            for (int i = 0; i < recorder.size; i++) {
+                merged.record(recorder.samples[i]);
+            }
+            merged.errors += recorder.errors;
+            merged.rejected += recorder.rejected;
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,201 @@
+package io.muehlbachler.fhburgenland.swm.examination.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import io.muehlbachler.fhburgenland.swm.examination.ExaminationApplication;
+
+/**
+ * Load test harness comparing the application with platform and with virtual request threads.
+ * For every mode, it starts the application on a random port with its own in-memory database,
+ * seeds it through the bulk endpoints and lets 'loadTest.concurrency' clients request
+ * 'loadTest.paths' round-robin for 'loadTest.duration' after a warmup.
+ * Reports throughput and latency percentiles overall and per path.
+ * The concurrency limits are off, so the modes are compared by how they serve the load rather
+ * than by how much of it is shed; with 'loadTest.concurrencyLimits=true' they stay on and
+ * requests shed by them (503) are counted as rejected, not as errors.
+ * Set 'loadTest.url' to run against an already running instance instead.
+ */
+
+public final class LoadTest {
+    static final String JOHN_DOE = "81150016-8501-4b97-9168-01113e21d8a5";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    private LoadTest() {
+    }
+
+    /**
+     * Runs the load test for every configured mode and prints the results.
+     *
+     * @param args Unused, the harness is configured with 'loadTest.*' system properties.
+     * @throws Exception If the application cannot be started or the test is interrupted.
+     */
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.getInteger("loadTest.concurrency", 1000);
+        int persons = Integer.getInteger("loadTest.persons", 1000);
+        Duration warmup = Duration.parse(System.getProperty("loadTest.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("loadTest.duration", "PT30S"));
+        List<String> paths = List.of(System.getProperty("loadTest.paths",
+                "/person/" + JOHN_DOE + ",/person/,/note/query?query=Note").split(","));
+        String url = System.getProperty("loadTest.url");
+        boolean concurrencyLimits = Boolean.getBoolean("loadTest.concurrencyLimits");
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+
+        if (url != null) {
+            report("external", concurrency, duration,
+                    run(client, url, paths, concurrency, warmup, duration));
+            return;
+        }
+        for (String mode : System.getProperty("loadTest.modes", "platform,virtual").split(",")) {
+            try (ConfigurableApplicationContext context = start(mode,
+                    "--examination.concurrency-limit.enabled=" + concurrencyLimits)) {
+                String baseUrl = "http://localhost:"
+                        + context.getEnvironment().getProperty("local.server.port");
+                seed(client, baseUrl, persons);
+                report(mode, concurrency, duration,
+                        run(client, baseUrl, paths, concurrency, warmup, duration));
+            }
+        }
+    }
+
+    static ConfigurableApplicationContext start(String mode, String... args) {
+        return new SpringApplicationBuilder(ExaminationApplication.class)
+                .logStartupInfo(false)
+                .profiles("virtual".equals(mode) ? new String[] {"virtual"} : new String[0])
+                .run(Stream.concat(Stream.of("--server.port=0",
+                                "--spring.datasource.url=jdbc:h2:mem:loadtest-" + mode,
+                                "--spring.r2dbc.url=r2dbc:h2:mem:///loadtest-" + mode),
+                        Arrays.stream(args)).toArray(String[]::new));
+    }
+
+    static void seed(HttpClient client, String baseUrl, int persons)
+            throws IOException, InterruptedException {
+        String personsJson = IntStream.range(0, persons)
+                .mapToObj(i -> "{\"firstName\":\"First" + i + "\",\"lastName\":\"Last" + i + "\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+        String notesJson = IntStream.range(0, persons)
+                .mapToObj(i -> "{\"content\":\"Note " + i + "\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+        post(client, baseUrl + "/person/bulk", personsJson);
+        post(client, baseUrl + "/person/" + JOHN_DOE + "/note/bulk", notesJson);
+    }
+
+    private static void post(HttpClient client, String url, String json)
+            throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(url))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(json))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("Seeding " + url + " failed: " + response.statusCode());
+        }
+    }
+
+    private static Map<String, LatencyRecorder> run(HttpClient client, String baseUrl,
+                                                    List<String> paths, int concurrency,
+                                                    Duration warmup, Duration duration)
+            throws InterruptedException {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long deadline = measureFrom + duration.toNanos();
+        List<Map<String, LatencyRecorder>> perWorker = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            Map<String, LatencyRecorder> recorders = new HashMap<>();
+            perWorker.add(recorders);
+            int offset = w;
+            workers.add(Thread.ofVirtual().start(() ->
+                    work(client, baseUrl, paths, offset, measureFrom, deadline, recorders)));
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        Map<String, LatencyRecorder> results = new TreeMap<>();
+        for (String path : paths) {
+            results.put(path, LatencyRecorder.merge(perWorker.stream()
+                    .map(recorders -> recorders.getOrDefault(path, new LatencyRecorder()))
+                    .toList()));
+        }
+        return results;
+    }
+
+    private static void work(HttpClient client, String baseUrl, List<String> paths, int offset,
+                             long measureFrom, long deadline,
+                             Map<String, LatencyRecorder> recorders) {
+        for (int i = offset; System.nanoTime() < deadline; i++) {
+            String path = paths.get(i % paths.size());
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+            long begin = System.nanoTime();
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding())
+                        .statusCode();
+            } catch (IOException e) {
+                status = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long end = System.nanoTime();
+
+            if (begin >= measureFrom) {
+                LatencyRecorder recorder = recorders.computeIfAbsent(path,
+                        key -> new LatencyRecorder());
+                if (status == SERVICE_UNAVAILABLE) {
+                    recorder.reject();
+                } else if (status > 0 && status < 400) {
+                    recorder.record(end - begin);
+                } else {
+                    recorder.error();
+                }
+            }
+        }
+    }
+
+    private static void report(String mode, int concurrency, Duration duration,
+                               Map<String, LatencyRecorder> results) {
+        LatencyRecorder total = LatencyRecorder.merge(results.values());
+        System.out.printf("%s: concurrency=%d requests=%d errors=%d rejected=%d "
+                        + "throughput=%.0f req/s %s%n",
+                mode, concurrency, total.count(), total.errors(), total.rejected(),
+                total.count() / (duration.toMillis() / 1000.0), percentiles(total));
+        results.forEach((path, recorder) -> System.out.printf(
+                "  %-60s requests=%d errors=%d rejected=%d %s%n", path, recorder.count(),
+                recorder.errors(), recorder.rejected(), percentiles(recorder)));
+    }
+
+    static String percentiles(LatencyRecorder recorder) {
+        return String.format("p50=%.2fms p99=%.2fms p99.9=%.2fms",
+                recorder.percentile(50) / NANOS_PER_MILLI,
+                recorder.percentile(99) / NANOS_PER_MILLI,
+                recorder.percentile(99.9) / NANOS_PER_MILLI);
+    }
+}
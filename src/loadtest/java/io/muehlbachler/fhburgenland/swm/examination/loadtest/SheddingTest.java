@@ -0,0 +1,174 @@
+package io.muehlbachler.fhburgenland.swm.examination.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Load test of the concurrency limits, showing that saturated scans do not starve lookups.
+ * 'loadTest.lookupConcurrency' clients request a person by ID in three scenarios, each against
+ * a freshly started and seeded application: alone ('baseline'), next to
+ * 'loadTest.scanConcurrency' clients requesting the person list and a note content query
+ * ('limited'), and the same with the limits disabled ('unlimited').
+ * Scan clients wait for the Retry-After of a rejection, as well-behaved clients do.
+ * Reports the latency percentiles and rejections of lookups and scans per scenario; the
+ * lookup p99 of 'limited' should stay close to 'baseline', while that of 'unlimited' grows
+ * with the scan load.
+ */
+
+public final class SheddingTest {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int SERVICE_UNAVAILABLE = 503;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final List<String> LOOKUP_PATHS = List.of("/person/" + LoadTest.JOHN_DOE);
+    private static final List<String> SCAN_PATHS = List.of("/person/", "/note/query?query=Note");
+
+    private SheddingTest() {
+    }
+
+    private record Scenario(String name, boolean scans, String... args) {
+    }
+
+    /**
+     * Runs the scenarios and prints the results.
+     *
+     * @param args Unused, the harness is configured with 'loadTest.*' system properties.
+     * @throws Exception If the application cannot be started or the test is interrupted.
+     */
+    public static void main(String[] args) throws Exception {
+        int lookupConcurrency = Integer.getInteger("loadTest.lookupConcurrency", 50);
+        int scanConcurrency = Integer.getInteger("loadTest.scanConcurrency", 500);
+        int persons = Integer.getInteger("loadTest.persons", 10_000);
+        Duration warmup = Duration.parse(System.getProperty("loadTest.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("loadTest.duration", "PT30S"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+
+        Map<String, LatencyRecorder> lookups = new LinkedHashMap<>();
+        for (Scenario scenario : List.of(new Scenario("baseline", false),
+                new Scenario("limited", true),
+                new Scenario("unlimited", true, "--examination.concurrency-limit.enabled=false"))) {
+            try (ConfigurableApplicationContext context = LoadTest.start(
+                    "shedding-" + scenario.name(), scenario.args())) {
+                String baseUrl = "http://localhost:"
+                        + context.getEnvironment().getProperty("local.server.port");
+                LoadTest.seed(client, baseUrl, persons);
+
+                long measureFrom = System.nanoTime() + warmup.toNanos();
+                long deadline = measureFrom + duration.toNanos();
+                List<Thread> workers = new ArrayList<>();
+                List<LatencyRecorder> lookupRecorders = start(workers, lookupConcurrency,
+                        client, baseUrl, LOOKUP_PATHS, measureFrom, deadline);
+                List<LatencyRecorder> scanRecorders = start(workers,
+                        scenario.scans() ? scanConcurrency : 0, client, baseUrl, SCAN_PATHS,
+                        measureFrom, deadline);
+                for (Thread worker : workers) {
+                    worker.join();
+                }
+
+                LatencyRecorder lookup = LatencyRecorder.merge(lookupRecorders);
+                LatencyRecorder scan = LatencyRecorder.merge(scanRecorders);
+                System.out.printf("%s:%n", scenario.name());
+                report("lookup", lookupConcurrency, lookup);
+                if (scenario.scans()) {
+                    report("scan", scanConcurrency, scan);
+                }
+                lookups.put(scenario.name(), lookup);
+            }
+        }
+        System.out.printf("lookup p99: %s%n", String.join(" ", lookups.entrySet().stream()
+                .map(entry -> String.format("%s=%.2fms", entry.getKey(),
+                        entry.getValue().percentile(99) / NANOS_PER_MILLI))
+                .toList()));
+    }
+
+    private static List<LatencyRecorder> start(List<Thread> workers, int concurrency,
+                                               HttpClient client, String baseUrl,
+                                               List<String> paths, long measureFrom,
+                                               long deadline) {
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            recorders.add(recorder);
+            int offset = w;
+            workers.add(Thread.ofVirtual().start(() ->
+                    work(client, baseUrl, paths, offset, measureFrom, deadline, recorder)));
+        }
+        return recorders;
+    }
+
+    private static void work(HttpClient client, String baseUrl, List<String> paths, int offset,
+                             long measureFrom, long deadline, LatencyRecorder recorder) {
+        for (int i = offset; System.nanoTime() < deadline; i++) {
+            HttpRequest request = HttpRequest.newBuilder(
+                            URI.create(baseUrl + paths.get(i % paths.size())))
+                    .timeout(REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+            long begin = System.nanoTime();
+            HttpResponse<Void> response;
+            try {
+                response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            } catch (IOException e) {
+                response = null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long end = System.nanoTime();
+
+            boolean measured = begin >= measureFrom;
+            if (response != null && response.statusCode() == SERVICE_UNAVAILABLE) {
+                if (measured) {
+                    recorder.reject();
+                }
+                if (!retryAfter(response, deadline)) {
+                    return;
+                }
+            } else if (measured) {
+                if (response != null && response.statusCode() < 400) {
+                    recorder.record(end - begin);
+                } else {
+                    recorder.error();
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for the Retry-After of a rejected request, at most until the deadline.
+     *
+     * @return False if the worker was interrupted while waiting.
+     */
+    private static boolean retryAfter(HttpResponse<Void> response, long deadline) {
+        long seconds = response.headers().firstValueAsLong("Retry-After").orElse(1);
+        long millis = Math.min(seconds * 1000, (deadline - System.nanoTime()) / 1_000_000);
+        try {
+            Thread.sleep(Math.max(0, millis));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void report(String name, int concurrency, LatencyRecorder recorder) {
+        System.out.printf("  %-8s concurrency=%d requests=%d errors=%d rejected=%d %s%n", name,
+                concurrency, recorder.count(), recorder.errors(), recorder.rejected(),
+                LoadTest.percentiles(recorder));
+    }
+}
@@ -0,0 +1,220 @@
+package io.muehlbachler.fhburgenland.swm.examination.changes;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.muehlbachler.fhburgenland.swm.examination.model.Change;
+import io.muehlbachler.fhburgenland.swm.examination.repository.ChangeRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serves the change log to consumers that follow it with long polls.
+ * A sequence is assigned when an entry is inserted, but the entry only becomes readable when
+ * its transaction commits, so a lower sequence may show up after a higher one. A read therefore
+ * ends before the first gap in the sequence, unless the entry after the gap was appended more
+ * than the commit timeout ago: such gaps are left by rolled back transactions and stay open.
+ * Polls that find nothing wait for new entries. They are answered by a single poller thread,
+ * which reads the log once for all of them whenever an append committed in this instance, and
+ * every poll interval for those of other instances.
+ * Publishes the number of waiting polls as 'examination.changes.waiting'.
+ */
+
+@Slf4j
+public class ChangeFeed implements SmartLifecycle {
+    /**
+     * The maximum number of entries returned by one read.
+     */
+    public static final int MAX_LIMIT = 1000;
+
+    private final ChangeRepository changeRepository;
+    private final Settings settings;
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean signaled = new AtomicBoolean();
+    private ScheduledExecutorService poller;
+    private volatile boolean running;
+
+    /**
+     * Configures the change feed.
+     *
+     * @param maxWait The longest a poll may wait for new entries.
+     * @param commitTimeout How long a gap in the sequence is waited for to be filled.
+     * @param pollInterval The delay between two reads for waiting polls without a signal.
+     */
+    public record Settings(Duration maxWait, Duration commitTimeout, Duration pollInterval) {
+    }
+
+    private record Waiter(long since, int limit, CompletableFuture<List<Change>> result) {
+    }
+
+    /**
+     * Creates the change feed; polls wait for new entries once it is started.
+     *
+     * @param changeRepository The repository reading the change log.
+     * @param meterRegistry The registry to publish the metrics to.
+     * @param settings The settings of the feed.
+     */
+    public ChangeFeed(ChangeRepository changeRepository, MeterRegistry meterRegistry,
+                      Settings settings) {
+        this.changeRepository = changeRepository;
+        this.settings = settings;
+        Gauge.builder("examination.changes.waiting", waiters, Set::size)
+                .description("Change feed polls waiting for new entries")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reads the entries after a sequence, waiting for some if there are none yet.
+     * Purpose: To let consumers follow the change log at a cost proportional to the changes.
+     * Input: 'since' (long) - The last sequence the consumer has seen, 0 for the beginning,
+     * 'limit' (int) - The page size, 'wait' (Duration) - How long to wait for new entries.
+     * Output: The next entries in sequence order, at most 'limit' and MAX_LIMIT; an empty list
+     * if none were appended within the wait, capped at the maximum wait.
+     * Errors: A failing read completes the result exceptionally or throws, before waiting.
+     *
+     * @param since The last sequence seen by the consumer.
+     * @param limit The maximum number of entries to return.
+     * @param wait How long to wait if there are no entries after the sequence yet.
+     * @return The entries, once there are some or the wait is over.
+     */
+    public CompletableFuture<List<Change>> read(long since, int limit, Duration wait) {
+        long after = Math.max(0, since);
+        int size = Math.clamp(limit, 1, MAX_LIMIT);
+        List<Change> changes = visible(after, size, changeRepository
+                .findBySequenceGreaterThanOrderBySequenceAsc(after, Limit.of(size)));
+        Duration timeout = wait.compareTo(settings.maxWait()) > 0 ? settings.maxWait() : wait;
+        if (!changes.isEmpty() || !timeout.isPositive() || !running) {
+            return CompletableFuture.completedFuture(changes);
+        }
+
+        Waiter waiter = new Waiter(after, size, new CompletableFuture<>());
+        waiters.add(waiter);
+        waiter.result().completeOnTimeout(List.of(), timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> waiters.remove(waiter));
+        // an append committed between the read and the registration would go unnoticed
+        signal();
+        return waiter.result();
+    }
+
+    /**
+     * Wakes up the waiting polls once appended entries are committed.
+     *
+     * @param event The appended entries.
+     */
+    @TransactionalEventListener
+    public void appended(ChangesAppended event) {
+        signal();
+    }
+
+    /**
+     * Reads the log once for all waiting polls and answers those with new entries.
+     * Polls behind a full page of entries are answered one after the other, while the others
+     * wait for the next read.
+     */
+    void poll() {
+        List<Waiter> waiting = List.copyOf(waiters);
+        if (waiting.isEmpty()) {
+            return;
+        }
+        long after = waiting.stream().mapToLong(Waiter::since).min().orElseThrow();
+        List<Change> changes = changeRepository.findBySequenceGreaterThanOrderBySequenceAsc(after,
+                Limit.of(MAX_LIMIT));
+        for (Waiter waiter : waiting) {
+            List<Change> visible = visible(waiter.since(), waiter.limit(), changes.stream()
+                    .filter(change -> change.getSequence() > waiter.since())
+                    .toList());
+            if (!visible.isEmpty()) {
+                waiter.result().complete(visible);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        poller = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("change-feed").daemon().factory());
+        long interval = settings.pollInterval().toMillis();
+        poller.scheduleWithFixedDelay(this::pollSafely, interval, interval,
+                TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    /**
+     * Stops waiting and answers the waiting polls with an empty list.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        poller.shutdownNow();
+        List.copyOf(waiters).forEach(waiter -> waiter.result().complete(List.of()));
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts after and stops before the web server, so its graceful shutdown does not wait for
+     * polls to time out.
+     *
+     * @return The lifecycle phase.
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE;
+    }
+
+    private List<Change> visible(long after, int limit, List<Change> changes) {
+        Instant settled = Instant.now().minus(settings.commitTimeout());
+        List<Change> visible = new ArrayList<>();
+        long expected = after + 1;
+        for (Change change : changes) {
+            boolean gap = change.getSequence() != expected;
+            if (visible.size() == limit || gap && change.getRecordedAt().isAfter(settled)) {
+                break;
+            }
+            visible.add(change);
+            expected = change.getSequence() + 1;
+        }
+        return visible;
+    }
+
+    private void signal() {
+        if (!running || waiters.isEmpty() || !signaled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            poller.execute(() -> {
+                signaled.set(false);
+                pollSafely();
+            });
+        } catch (RejectedExecutionException e) {
+            // stopped meanwhile, the waiting polls have been answered
+            signaled.set(false);
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.error("Reading the change log failed", e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package io.muehlbachler.fhburgenland.swm.examination.changes;
+
+/**
+ * Published when entries are appended to the change log.
+ * Transactional listeners receive it after the appending transaction committed, when the
+ * entries have become readable.
+ *
+ * @param count The number of appended entries.
+ */
+
+public record ChangesAppended(int count) {
+}
@@ -0,0 +1,70 @@
+package io.muehlbachler.fhburgenland.swm.examination.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+/**
+ * Configures the read-through caches of the services.
+ * Caches are bounded in size and expire after write, both configurable per application.
+ * Hit, miss and eviction counters are published as 'cache.*' metrics through actuator.
+ * Caching wraps the transactions of the services, so a hit does not begin a transaction and
+ * evictions happen after the commit, when a concurrent read can no longer cache the old state.
+ */
+
+@Configuration(proxyBeanMethods = false)
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+    /**
+     * Name of the cache holding persons by their ID.
+     */
+    public static final String PERSONS = "persons";
+    /**
+     * Name of the cache holding notes by their ID.
+     */
+    public static final String NOTES = "notes";
+
+    /**
+     * Creates the cache manager holding the person and note caches.
+     *
+     * @param maximumSize The maximum number of entries per cache.
+     * @param expireAfterWrite The time after which an entry is evicted.
+     * @param meterRegistry The registry to publish the cache statistics to.
+     * @return The cache manager.
+     */
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${examination.cache.maximum-size:10000}") long maximumSize,
+            @Value("${examination.cache.expire-after-write:10m}") Duration expireAfterWrite,
+            MeterRegistry meterRegistry) {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                cache(PERSONS, maximumSize, expireAfterWrite, meterRegistry),
+                cache(NOTES, maximumSize, expireAfterWrite, meterRegistry)));
+        return cacheManager;
+    }
+
+    private static GuavaCache cache(String name, long maximumSize, Duration expireAfterWrite,
+                                    MeterRegistry meterRegistry) {
+        Cache<Object, Object> cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, name);
+        return new GuavaCache(name, cache);
+    }
+}
@@ -0,0 +1,40 @@
+package io.muehlbachler.fhburgenland.swm.examination.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.muehlbachler.fhburgenland.swm.examination.changes.ChangeFeed;
+import io.muehlbachler.fhburgenland.swm.examination.repository.ChangeRepository;
+
+/**
+ * Configures the feed of the change log served at '/changes'.
+ * The commit timeout must exceed the longest writing transaction, plus the replica lag if
+ * reads go to replicas, or consumers may skip entries committed after it.
+ */
+
+@Configuration(proxyBeanMethods = false)
+public class ChangeFeedConfig {
+    /**
+     * Creates the change feed from the 'examination.changes.*' properties.
+     *
+     * @param changeRepository The repository reading the change log.
+     * @param meterRegistry The registry to publish the metrics to.
+     * @param maxWait The longest a poll may wait, below the async request timeout.
+     * @param commitTimeout How long a gap in the sequence is waited for to be filled.
+     * @param pollInterval The delay between two reads for waiting polls without a signal.
+     * @return The change feed.
+     */
+    @Bean
+    public ChangeFeed changeFeed(
+            ChangeRepository changeRepository, MeterRegistry meterRegistry,
+            @Value("${examination.changes.max-wait:20s}") Duration maxWait,
+            @Value("${examination.changes.commit-timeout:10s}") Duration commitTimeout,
+            @Value("${examination.changes.poll-interval:1s}") Duration pollInterval) {
+        return new ChangeFeed(changeRepository, meterRegistry,
+                new ChangeFeed.Settings(maxWait, commitTimeout, pollInterval));
+    }
+}
@@ -0,0 +1,91 @@
+package io.muehlbachler.fhburgenland.swm.examination.config;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.muehlbachler.fhburgenland.swm.examination.limit.AdaptiveLimit;
+import io.muehlbachler.fhburgenland.swm.examination.limit.ConcurrencyLimitInterceptor;
+import io.muehlbachler.fhburgenland.swm.examination.limit.EndpointClass;
+
+/**
+ * Configures the adaptive concurrency limits of the person and note endpoints.
+ * Every endpoint class has its own limit from 'examination.concurrency-limit.(class).*':
+ * 'initial-limit', 'min-limit', 'max-limit' and the 'latency-threshold' above which a request
+ * counts as slow; 'examination.concurrency-limit.backoff-ratio' and '.retry-after' apply to all.
+ * Disabled with 'examination.concurrency-limit.enabled=false'.
+ */
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "examination.concurrency-limit.enabled", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+    private static final String PREFIX = "examination.concurrency-limit.";
+
+    /**
+     * Creates the interceptor with a limit per endpoint class.
+     *
+     * @param environment The environment holding the settings of the limits.
+     * @param meterRegistry The registry to publish the metrics of the limits to.
+     * @param backoffRatio The factor a limit is multiplied with when a request was slow.
+     * @param retryAfter The delay after which rejected clients are asked to retry.
+     * @return The interceptor.
+     */
+    @Bean
+    public ConcurrencyLimitInterceptor concurrencyLimitInterceptor(
+            Environment environment, MeterRegistry meterRegistry,
+            @Value("${examination.concurrency-limit.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${examination.concurrency-limit.retry-after:1s}") Duration retryAfter) {
+        Map<EndpointClass, AdaptiveLimit> limits = new EnumMap<>(EndpointClass.class);
+        limits.put(EndpointClass.LOOKUP, limit(environment, meterRegistry, EndpointClass.LOOKUP,
+                200, 1_000, Duration.ofMillis(50), backoffRatio));
+        limits.put(EndpointClass.SCAN, limit(environment, meterRegistry, EndpointClass.SCAN,
+                8, 64, Duration.ofSeconds(1), backoffRatio));
+        limits.put(EndpointClass.WRITE, limit(environment, meterRegistry, EndpointClass.WRITE,
+                32, 256, Duration.ofMillis(500), backoffRatio));
+        return new ConcurrencyLimitInterceptor(limits, retryAfter);
+    }
+
+    /**
+     * Registers the interceptor for all handlers; only annotated ones are limited.
+     *
+     * @param concurrencyLimitInterceptor The interceptor.
+     * @return The configurer adding the interceptor.
+     */
+    @Bean
+    public WebMvcConfigurer concurrencyLimitConfigurer(
+            ConcurrencyLimitInterceptor concurrencyLimitInterceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(concurrencyLimitInterceptor);
+            }
+        };
+    }
+
+    /**
+     * Builds the limit of an endpoint class from its properties, defaulting to the given values.
+     * The limit never drops below 'min-limit', one by default, so a class is never shut out.
+     */
+    private static AdaptiveLimit limit(Environment environment, MeterRegistry meterRegistry,
+                                       EndpointClass endpointClass, int initialLimit,
+                                       int maxLimit, Duration latencyThreshold,
+                                       double backoffRatio) {
+        String prefix = PREFIX + endpointClass.key() + ".";
+        return new AdaptiveLimit(endpointClass, new AdaptiveLimit.Settings(
+                environment.getProperty(prefix + "initial-limit", Integer.class, initialLimit),
+                environment.getProperty(prefix + "min-limit", Integer.class, 1),
+                environment.getProperty(prefix + "max-limit", Integer.class, maxLimit),
+                environment.getProperty(prefix + "latency-threshold", Duration.class,
+                        latencyThreshold),
+                backoffRatio), meterRegistry);
+    }
+}
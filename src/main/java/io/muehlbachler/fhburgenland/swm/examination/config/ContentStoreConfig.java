@@ -0,0 +1,55 @@
+package io.muehlbachler.fhburgenland.swm.examination.config;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.muehlbachler.fhburgenland.swm.examination.content.NoteContentStore;
+import io.muehlbachler.fhburgenland.swm.examination.repository.NoteRepository;
+
+/**
+ * Configures the content store for large notes, enabled by 'examination.content-store.enabled'.
+ * Without it, the whole content is kept in the NOTE row, which limits it to 255 characters.
+ */
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "examination.content-store.enabled", havingValue = "true")
+public class ContentStoreConfig {
+    /**
+     * Creates the content store from the 'examination.content-store.*' properties.
+     *
+     * @param noteRepository The repository to check which notes of a segment are stored.
+     * @param meterRegistry The registry to publish the metrics to.
+     * @param directory The directory of the segment files.
+     * @param segmentSize The size of a segment file, which also bounds the content of a note.
+     * @param previewLength The characters of the content kept in the NOTE row, at most 255.
+     * @param compactionInterval The delay between two compaction passes.
+     * @param compactionThreshold The share of dead bytes from which a segment is compacted.
+     * @param grace How long a sealed segment is left alone before it is compacted.
+     * @return The content store.
+     */
+    @Bean
+    public NoteContentStore noteContentStore(
+            NoteRepository noteRepository, MeterRegistry meterRegistry,
+            @Value("${examination.content-store.directory}") Path directory,
+            @Value("${examination.content-store.segment-size:64MB}") DataSize segmentSize,
+            @Value("${examination.content-store.preview-length:100}") int previewLength,
+            @Value("${examination.content-store.compaction-interval:1m}")
+            Duration compactionInterval,
+            @Value("${examination.content-store.compaction-threshold:0.5}")
+            double compactionThreshold,
+            @Value("${examination.content-store.grace:5m}") Duration grace) {
+        return new NoteContentStore(noteRepository, meterRegistry,
+                new NoteContentStore.Settings(directory,
+                        Math.toIntExact(segmentSize.toBytes()), Math.min(previewLength, 255),
+                        compactionInterval, compactionThreshold, grace),
+                Clock.systemUTC());
+    }
+}
@@ -0,0 +1,32 @@
+package io.muehlbachler.fhburgenland.swm.examination.config;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Configures the JDBC data source used by JPA, the JDBC batches and Flyway.
+ * Spring Boot backs off from its own data source as soon as an R2DBC connection factory exists,
+ * so it is declared here from the same 'spring.datasource.*' properties.
+ * Both the JDBC pool and the R2DBC pool connect to the same database.
+ */
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class DataSourceConfig {
+    /**
+     * Creates the pooled JDBC data source.
+     *
+     * @param properties The 'spring.datasource.*' properties.
+     * @return The data source, further configured by 'spring.datasource.hikari.*'.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
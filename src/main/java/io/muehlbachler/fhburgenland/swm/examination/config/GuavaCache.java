@@ -0,0 +1,79 @@
+package io.muehlbachler.fhburgenland.swm.examination.config;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import com.google.common.cache.Cache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Adapts a Guava cache to the Spring cache abstraction.
+ * Null values are not stored, so lookups that found nothing are simply not cached.
+ */
+
+public class GuavaCache extends AbstractValueAdaptingCache {
+    private final String name;
+    private final Cache<Object, Object> cache;
+
+    /**
+     * Creates a named Spring cache on top of a Guava cache.
+     *
+     * @param name The name of the cache.
+     * @param cache The Guava cache holding the entries.
+     */
+    public GuavaCache(String name, Cache<Object, Object> cache) {
+        super(false);
+        this.name = name;
+        this.cache = cache;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Cache<Object, Object> getNativeCache() {
+        return cache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Returns the cached value, loading and caching it on a miss.
+     * Concurrent misses for the same key load the value only once.
+     *
+     * @param key The key to look up.
+     * @param valueLoader Loads the value on a miss.
+     * @return The cached or loaded value.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        try {
+            return (T) fromStoreValue(cache.get(key, () -> toStoreValue(valueLoader.call())));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        cache.put(key, toStoreValue(value));
+    }
+
+    @Override
+    public void evict(Object key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,29 @@
+package io.muehlbachler.fhburgenland.swm.examination.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.muehlbachler.fhburgenland.swm.examination.metrics.ResultSizeAspect;
+
+/**
+ * Configures the application specific metrics.
+ * Request ('http.server.requests'), repository ('spring.data.repository.invocations') and
+ * service ('examination.service', via '@Timed') timers are provided by Spring Boot;
+ * this adds the row-count distributions of the list-returning service methods.
+ * Histograms are enabled per metric in application.properties and scraped at /actuator/prometheus.
+ */
+
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+    /**
+     * Creates the aspect recording the number of returned rows.
+     *
+     * @param meterRegistry The registry to publish the distributions to.
+     * @return The aspect.
+     */
+    @Bean
+    public ResultSizeAspect resultSizeAspect(MeterRegistry meterRegistry) {
+        return new ResultSizeAspect(meterRegistry);
+    }
+}
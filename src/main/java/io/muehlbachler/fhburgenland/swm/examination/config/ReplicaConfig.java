@@ -0,0 +1,92 @@
+package io.muehlbachler.fhburgenland.swm.examination.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.muehlbachler.fhburgenland.swm.examination.replica.Replica;
+import io.muehlbachler.fhburgenland.swm.examination.replica.ReplicaMonitor;
+import io.muehlbachler.fhburgenland.swm.examination.replica.ReplicaRoutingDataSource;
+import io.muehlbachler.fhburgenland.swm.examination.replica.ReplicaRoutingPostProcessor;
+
+/**
+ * Configures read replicas for the JDBC data source, enabled by 'examination.replicas.enabled'.
+ * Read-only transactions, i.e. the queries of the services, go to the replicas listed in
+ * 'examination.replicas.urls', everything else and Flyway to the primary. The replicas share
+ * the credentials of 'spring.datasource.*' and get a read-only pool each.
+ * The R2DBC stack keeps using the primary only.
+ */
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "examination.replicas.enabled", havingValue = "true")
+@EnableScheduling
+public class ReplicaConfig {
+    /**
+     * Creates the pools of the replicas and the monitor checking them.
+     *
+     * @param properties The 'spring.datasource.*' properties, providing the credentials.
+     * @param meterRegistry The registry to publish the pool, lag and availability metrics to.
+     * @param urls The JDBC URLs of the replicas.
+     * @param poolSize The maximum number of connections per replica.
+     * @param timeout The time to wait for a connection to or a check of a replica.
+     * @param lagQuery The query returning the time of the latest write.
+     * @param maxLag The lag up to which a replica receives reads.
+     * @return The monitor, owning the pools.
+     */
+    @Bean(destroyMethod = "close")
+    public ReplicaMonitor replicaMonitor(
+            DataSourceProperties properties, MeterRegistry meterRegistry,
+            @Value("${examination.replicas.urls}") List<String> urls,
+            @Value("${examination.replicas.pool-size:10}") int poolSize,
+            @Value("${examination.replicas.timeout:1s}") Duration timeout,
+            @Value("${examination.replicas.lag-query}") String lagQuery,
+            @Value("${examination.replicas.max-lag:1s}") Duration maxLag) {
+        List<Replica> replicas = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + replicas.size());
+            pool.setJdbcUrl(url);
+            pool.setUsername(properties.determineUsername());
+            pool.setPassword(properties.determinePassword());
+            pool.setDriverClassName(properties.determineDriverClassName());
+            pool.setMaximumPoolSize(poolSize);
+            pool.setConnectionTimeout(timeout.toMillis());
+            pool.setInitializationFailTimeout(-1);
+            pool.setReadOnly(true);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new Replica(pool.getPoolName(), pool));
+        }
+        return new ReplicaMonitor(replicas, lagQuery, maxLag, timeout, meterRegistry);
+    }
+
+    /**
+     * Routes the data source between the primary and the replicas once it is configured.
+     * Declared with its concrete type, so it is known to be ordered before it is created.
+     *
+     * @param monitor The monitor holding the replicas, resolved when the data source is created.
+     * @param meterRegistry The registry to publish the routing counters to.
+     * @param selection 'round-robin' or 'least-loaded'.
+     * @return The post processor replacing the data source.
+     */
+    @Bean
+    public static ReplicaRoutingPostProcessor replicaRoutingPostProcessor(
+            ObjectProvider<ReplicaMonitor> monitor, ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${examination.replicas.selection:round-robin}") String selection) {
+        return new ReplicaRoutingPostProcessor(monitor, meterRegistry,
+                ReplicaRoutingDataSource.Selection.valueOf(
+                        selection.toUpperCase(Locale.ROOT).replace('-', '_')));
+    }
+}
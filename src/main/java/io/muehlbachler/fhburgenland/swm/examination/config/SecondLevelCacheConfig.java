@@ -0,0 +1,121 @@
+package io.muehlbachler.fhburgenland.swm.examination.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.Note;
+import io.muehlbachler.fhburgenland.swm.examination.model.Person;
+import io.muehlbachler.fhburgenland.swm.examination.repository.PersonRepository;
+
+/**
+ * Configures the second-level cache of Hibernate, held on the heap by Ehcache through JCache.
+ * Persons, notes, the note IDs of persons and the results of the name finders each have a
+ * region bounded by 'examination.second-level-cache.(region).maximum-size' entries, which
+ * expire 'time-to-live' after they were written. Hibernate fails to start on a region that is
+ * not declared here, so no cache is ever created unbounded.
+ * With 'examination.second-level-cache.statistics=true', Hibernate collects statistics and
+ * hit, miss and put counters per region are published as 'hibernate.second.level.cache.*' and
+ * 'hibernate.cache.query.*' metrics through actuator; collecting them costs on every access.
+ * Disabled with 'examination.second-level-cache.enabled=false'.
+ */
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "examination.second-level-cache.enabled", matchIfMissing = true)
+public class SecondLevelCacheConfig {
+    private static final String PREFIX = "examination.second-level-cache.";
+    /**
+     * The region Hibernate records the last change of each table in. It must outlive every
+     * cached query result, or stale results would be taken as current, so it never expires.
+     */
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+
+    /**
+     * Creates the cache manager holding the regions of the second-level cache.
+     * Each application context gets its own manager, so contexts sharing a JVM, as in tests,
+     * do not share or close each other's regions.
+     *
+     * @param environment The environment to read the sizes and times to live of the regions from.
+     * @return The cache manager.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(Environment environment) {
+        ConfigurationBuilder configuration = ConfigurationBuilder.newConfigurationBuilder()
+                .withCache(Person.CACHE_REGION,
+                        region(environment, Person.CACHE_REGION, 10_000, Duration.ofMinutes(10)))
+                .withCache(Person.NOTES_CACHE_REGION,
+                        region(environment, Person.NOTES_CACHE_REGION, 10_000,
+                                Duration.ofMinutes(10)))
+                .withCache(Note.CACHE_REGION,
+                        region(environment, Note.CACHE_REGION, 50_000, Duration.ofMinutes(10)))
+                .withCache(PersonRepository.NAMES_CACHE_REGION,
+                        region(environment, PersonRepository.NAMES_CACHE_REGION, 1_000,
+                                Duration.ofMinutes(5)))
+                .withCache(QUERY_RESULTS_REGION,
+                        region(environment, "query-results", 100, Duration.ofMinutes(5)))
+                .withCache(UPDATE_TIMESTAMPS_REGION,
+                        region(environment, "update-timestamps", 1_000, Duration.ZERO));
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        return provider.getCacheManager(URI.create("urn:examination:second-level-cache:"
+                + UUID.randomUUID()), configuration.build());
+    }
+
+    /**
+     * Enables the second-level and query caches of Hibernate on the regions of the manager.
+     *
+     * @param secondLevelCacheManager The cache manager holding the regions.
+     * @param statistics Whether Hibernate collects the statistics the cache metrics are read from.
+     * @return The customizer adding the cache settings to the Hibernate properties.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(
+            CacheManager secondLevelCacheManager,
+            @Value("${examination.second-level-cache.statistics:false}") boolean statistics) {
+        return properties -> {
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+            if (statistics) {
+                properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            }
+        };
+    }
+
+    /**
+     * Builds a region from its 'maximum-size' and 'time-to-live' properties.
+     * A time to live of zero keeps the entries until they are evicted for size.
+     */
+    private static CacheConfigurationBuilder<Object, Object> region(
+            Environment environment, String name, long maximumSize, Duration timeToLive) {
+        long size = environment.getProperty(PREFIX + name + ".maximum-size", Long.class,
+                maximumSize);
+        Duration ttl = environment.getProperty(PREFIX + name + ".time-to-live", Duration.class,
+                timeToLive);
+        return CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                        ResourcePoolsBuilder.heap(size))
+                .withExpiry(ttl.isZero() ? ExpiryPolicyBuilder.noExpiration()
+                        : ExpiryPolicyBuilder.timeToLiveExpiration(ttl));
+    }
+}
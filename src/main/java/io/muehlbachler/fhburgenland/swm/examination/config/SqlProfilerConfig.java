@@ -0,0 +1,97 @@
+package io.muehlbachler.fhburgenland.swm.examination.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.muehlbachler.fhburgenland.swm.examination.profiler.ProfilingDataSource;
+import io.muehlbachler.fhburgenland.swm.examination.profiler.SqlCallerAspect;
+import io.muehlbachler.fhburgenland.swm.examination.profiler.SqlProfiler;
+import io.muehlbachler.fhburgenland.swm.examination.profiler.SqlProfilerEndpoint;
+import io.muehlbachler.fhburgenland.swm.examination.profiler.SqlProfilerFilter;
+
+/**
+ * Configures the SQL profiler for the JDBC data source.
+ * Every statement of JPA, the JDBC batches and Flyway is recorded and attributed to its service
+ * method, slow statements are logged and repeated statements within a request are flagged.
+ * Disabled with 'examination.sql-profiler.enabled=false'.
+ */
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "examination.sql-profiler.enabled", matchIfMissing = true)
+public class SqlProfilerConfig {
+    /**
+     * Creates the profiler.
+     *
+     * @param slowThreshold The execution time above which a statement is logged.
+     * @param repeatThreshold The executions of one statement within a request that flag it.
+     * @return The profiler.
+     */
+    @Bean
+    public SqlProfiler sqlProfiler(
+            @Value("${examination.sql-profiler.slow-threshold:100ms}") Duration slowThreshold,
+            @Value("${examination.sql-profiler.repeat-threshold:10}") int repeatThreshold) {
+        return new SqlProfiler(slowThreshold, repeatThreshold);
+    }
+
+    /**
+     * Wraps the data source once it is fully configured.
+     *
+     * @param profiler The profiler, resolved when the data source is created.
+     * @return The post processor wrapping data sources into a {@link ProfilingDataSource}.
+     */
+    @Bean
+    public static BeanPostProcessor profilingDataSourcePostProcessor(
+            ObjectProvider<SqlProfiler> profiler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource
+                        && !(bean instanceof ProfilingDataSource)) {
+                    return new ProfilingDataSource(dataSource, profiler.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Creates the aspect attributing statements to service methods.
+     *
+     * @param profiler The profiler.
+     * @return The aspect.
+     */
+    @Bean
+    public SqlCallerAspect sqlCallerAspect(SqlProfiler profiler) {
+        return new SqlCallerAspect(profiler);
+    }
+
+    /**
+     * Creates the filter scoping the N+1 detection to requests.
+     *
+     * @param profiler The profiler.
+     * @return The filter.
+     */
+    @Bean
+    public SqlProfilerFilter sqlProfilerFilter(SqlProfiler profiler) {
+        return new SqlProfilerFilter(profiler);
+    }
+
+    /**
+     * Creates the actuator endpoint listing the top statements.
+     *
+     * @param profiler The profiler.
+     * @return The endpoint.
+     */
+    @Bean
+    public SqlProfilerEndpoint sqlProfilerEndpoint(SqlProfiler profiler) {
+        return new SqlProfilerEndpoint(profiler);
+    }
+}
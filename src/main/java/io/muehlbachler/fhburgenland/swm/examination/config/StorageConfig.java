@@ -0,0 +1,50 @@
+package io.muehlbachler.fhburgenland.swm.examination.config;
+
+import java.nio.file.Path;
+import java.time.Clock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import io.muehlbachler.fhburgenland.swm.examination.storage.BackupEndpoint;
+import io.muehlbachler.fhburgenland.swm.examination.storage.StorageMaintenance;
+
+/**
+ * Configures the maintenance of the file backed database of the 'prod' profile.
+ * The database itself is configured in application-prod.properties; this adds the periodic
+ * checkpoint and the online backup endpoint.
+ */
+
+@Configuration(proxyBeanMethods = false)
+@Profile("prod")
+@EnableScheduling
+public class StorageConfig {
+    /**
+     * Creates the job checkpointing the database every 'examination.storage.checkpoint-interval'.
+     *
+     * @param jdbcTemplate The template to run the checkpoints with.
+     * @return The maintenance job.
+     */
+    @Bean
+    public StorageMaintenance storageMaintenance(JdbcTemplate jdbcTemplate) {
+        return new StorageMaintenance(jdbcTemplate);
+    }
+
+    /**
+     * Creates the actuator endpoint writing backups to 'examination.storage.backup-directory'.
+     *
+     * @param jdbcTemplate The template to run the backups with.
+     * @param directory The directory to write the backups to.
+     * @return The endpoint.
+     */
+    @Bean
+    public BackupEndpoint backupEndpoint(
+            JdbcTemplate jdbcTemplate,
+            @Value("${examination.storage.backup-directory}") Path directory) {
+        return new BackupEndpoint(jdbcTemplate, directory, Clock.systemUTC());
+    }
+}
@@ -0,0 +1,40 @@
+package io.muehlbachler.fhburgenland.swm.examination.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.muehlbachler.fhburgenland.swm.examination.streaming.JsonStreamer;
+
+/**
+ * Configures how large listings are streamed to clients.
+ * The streamed endpoints negotiate their compression themselves, independent of
+ * 'server.compression', which only covers the embedded Tomcat and offers gzip alone.
+ */
+
+@Configuration(proxyBeanMethods = false)
+public class StreamingConfig {
+    /**
+     * Creates the JSON streamer from the 'examination.streaming.*' properties.
+     *
+     * @param objectMapper The mapper configured for the application.
+     * @param compression Whether streamed bodies are compressed at all.
+     * @param minSize The size a body must exceed to be compressed.
+     * @param level The deflate compression level, 1 (fastest) to 9 (smallest).
+     * @param poolSize The maximum number of pooled output buffers and deflaters.
+     * @return The JSON streamer.
+     */
+    @Bean
+    public JsonStreamer jsonStreamer(
+            ObjectMapper objectMapper,
+            @Value("${examination.streaming.compression.enabled:true}") boolean compression,
+            @Value("${examination.streaming.compression.min-size:2KB}") DataSize minSize,
+            @Value("${examination.streaming.compression.level:6}") int level,
+            @Value("${examination.streaming.buffer-pool-size:64}") int poolSize) {
+        return new JsonStreamer(objectMapper, compression, Math.toIntExact(minSize.toBytes()),
+                level, poolSize);
+    }
+}
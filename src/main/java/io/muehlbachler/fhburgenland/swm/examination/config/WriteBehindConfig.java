@@ -0,0 +1,57 @@
+package io.muehlbachler.fhburgenland.swm.examination.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.muehlbachler.fhburgenland.swm.examination.repository.NoteRepository;
+import io.muehlbachler.fhburgenland.swm.examination.repository.PersonRepository;
+import io.muehlbachler.fhburgenland.swm.examination.service.NoteService;
+import io.muehlbachler.fhburgenland.swm.examination.writebehind.NoteWriteBehind;
+
+/**
+ * Configures the write-behind mode for note creation, enabled by
+ * 'examination.write-behind.enabled'.
+ * Without it, notes are written synchronously before the request returns.
+ */
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "examination.write-behind.enabled", havingValue = "true")
+public class WriteBehindConfig {
+    /**
+     * Creates the write-behind queue from the 'examination.write-behind.*' properties.
+     *
+     * @param noteService The service storing the notes.
+     * @param noteRepository The repository to check which replayed notes are stored already.
+     * @param personRepository The repository marking the persons of stored notes as modified.
+     * @param cacheManager The cache manager holding the person cache.
+     * @param meterRegistry The registry to publish the metrics to.
+     * @param directory The directory of the journal.
+     * @param capacity The maximum number of queued and in-flight notes.
+     * @param enqueueTimeout How long enqueueing waits for space in a full queue.
+     * @param flushDelay The delay between two flushes.
+     * @param retention How long journal segments are kept after their notes were stored.
+     * @return The write-behind queue.
+     */
+    @Bean
+    public NoteWriteBehind noteWriteBehind(
+            NoteService noteService, NoteRepository noteRepository,
+            PersonRepository personRepository, CacheManager cacheManager,
+            MeterRegistry meterRegistry,
+            @Value("${examination.write-behind.directory}") Path directory,
+            @Value("${examination.write-behind.capacity:10000}") int capacity,
+            @Value("${examination.write-behind.enqueue-timeout:100ms}") Duration enqueueTimeout,
+            @Value("${examination.write-behind.flush-delay:50ms}") Duration flushDelay,
+            @Value("${examination.write-behind.retention:0s}") Duration retention) {
+        return new NoteWriteBehind(noteService, noteRepository, personRepository,
+                cacheManager.getCache(CacheConfig.PERSONS), meterRegistry,
+                new NoteWriteBehind.Settings(directory, capacity, enqueueTimeout, flushDelay,
+                        retention));
+    }
+}
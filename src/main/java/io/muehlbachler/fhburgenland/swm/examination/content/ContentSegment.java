@@ -0,0 +1,258 @@
+package io.muehlbachler.fhburgenland.swm.examination.content;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * A segment file of the content store, mapped into memory as a whole.
+ * Records are a header of length, CRC32 and note ID followed by the body; the file is
+ * preallocated, so the first record with a zero ID ends it. The CRC covers the ID and the body,
+ * so a record torn by a crash ends the scan of its segment.
+ * Only absolute reads and writes are used on the mapping, so readers never disturb each other
+ * or the writer. Appending must be serialized by the caller, forcing need not be: a force
+ * covers every record appended before it, so writers waiting for one are served together.
+ */
+
+final class ContentSegment {
+    /**
+     * The bytes of a record header: length, CRC32 and the two halves of the note ID.
+     */
+    static final int HEADER_BYTES = 2 * Integer.BYTES + 2 * Long.BYTES;
+
+    private static final String PREFIX = "content-";
+    private static final String SUFFIX = ".segment";
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final AtomicLong liveBytes = new AtomicLong();
+    private final Object forceLock = new Object();
+    private volatile int position;
+    private int forced;
+    private volatile Instant sealedAt;
+    private volatile boolean verified;
+
+    /**
+     * A record found by scanning a segment.
+     *
+     * @param id The ID of the note.
+     * @param offset The offset of the body in the segment.
+     * @param length The length of the body in bytes.
+     */
+    record Entry(UUID id, int offset, int length) {
+    }
+
+    private ContentSegment(Path path, MappedByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Creates a new, empty segment file of a fixed size.
+     *
+     * @param directory The directory of the store.
+     * @param number The number of the segment, higher than that of all existing ones.
+     * @param size The size of the file in bytes.
+     * @return The segment, open for appending.
+     * @throws IOException If the file exists or cannot be created and mapped.
+     */
+    static ContentSegment create(Path directory, long number, int size) throws IOException {
+        Path path = directory.resolve(PREFIX + number + SUFFIX);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new ContentSegment(path,
+                    channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+    }
+
+    /**
+     * Maps an existing segment file; its records are found by {@link #scan()}.
+     *
+     * @param path The segment file.
+     * @return The segment.
+     * @throws IOException If the file cannot be mapped.
+     */
+    static ContentSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return new ContentSegment(path,
+                    channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Returns the number of a segment file.
+     *
+     * @param file The file.
+     * @return The number of the segment, or -1 if the file is no segment.
+     */
+    static long number(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(),
+                    name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the bytes written to the segment, headers included.
+     */
+    int position() {
+        return position;
+    }
+
+    /**
+     * Returns the bytes of the records the index still points to, headers included.
+     */
+    long liveBytes() {
+        return liveBytes.get();
+    }
+
+    void addLive(int length) {
+        liveBytes.addAndGet(HEADER_BYTES + length);
+    }
+
+    void removeLive(int length) {
+        liveBytes.addAndGet(-(HEADER_BYTES + length));
+    }
+
+    Instant sealedAt() {
+        return sealedAt;
+    }
+
+    void seal(Instant at) {
+        force(position);
+        sealedAt = at;
+    }
+
+    /**
+     * Tells whether the notes of this segment were checked against the database already.
+     */
+    boolean verified() {
+        return verified;
+    }
+
+    void verify() {
+        verified = true;
+    }
+
+    /**
+     * Appends a record; it is on the disk once {@link #force(int)} returned for its end.
+     *
+     * @param id The ID of the note.
+     * @param body The body, read from its position to its limit; the position is not changed.
+     * @return The offset of the body, or -1 if the record does not fit into the segment.
+     */
+    int append(UUID id, ByteBuffer body) {
+        int length = body.remaining();
+        if (position + HEADER_BYTES + length > buffer.capacity()) {
+            return -1;
+        }
+        int offset = position + HEADER_BYTES;
+        buffer.put(offset, body, body.position(), length);
+        CRC32 crc = new CRC32();
+        ByteBuffer ids = ByteBuffer.allocate(2 * Long.BYTES)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .flip();
+        crc.update(ids.duplicate());
+        crc.update(buffer.slice(offset, length));
+        buffer.putInt(position, length)
+                .putInt(position + Integer.BYTES, (int) crc.getValue())
+                .put(position + 2 * Integer.BYTES, ids, 0, ids.remaining());
+        position = offset + length;
+        return offset;
+    }
+
+    /**
+     * Forces the records up to an end offset to the disk, unless an earlier force covered them.
+     * Every record appended so far is forced along, so a writer arriving during a force is
+     * mostly served by the next one instead of forcing on its own.
+     *
+     * @param end The end offset of the last record that has to be on the disk.
+     */
+    void force(int end) {
+        synchronized (forceLock) {
+            if (end <= forced) {
+                return;
+            }
+            int appended = position;
+            buffer.force(forced, appended - forced);
+            forced = appended;
+        }
+    }
+
+    /**
+     * Returns a read-only view of a body, which stays valid after the segment is deleted.
+     *
+     * @param offset The offset of the body.
+     * @param length The length of the body in bytes.
+     * @return The body.
+     */
+    ByteBuffer read(int offset, int length) {
+        return buffer.slice(offset, length).asReadOnlyBuffer();
+    }
+
+    /**
+     * Reads the records of the segment, up to the first empty, incomplete or corrupt one, and
+     * continues appending after the last one.
+     *
+     * @return The records in the order they were appended.
+     */
+    List<Entry> scan() {
+        List<Entry> entries = new ArrayList<>();
+        int at = 0;
+        while (at + HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(at);
+            int checksum = buffer.getInt(at + Integer.BYTES);
+            UUID id = new UUID(buffer.getLong(at + 2 * Integer.BYTES),
+                    buffer.getLong(at + 2 * Integer.BYTES + Long.BYTES));
+            int offset = at + HEADER_BYTES;
+            if ((id.getMostSignificantBits() == 0 && id.getLeastSignificantBits() == 0)
+                    || length < 0 || length > buffer.capacity() - offset) {
+                break;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(at + 2 * Integer.BYTES, 2 * Long.BYTES));
+            crc.update(buffer.slice(offset, length));
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            entries.add(new Entry(id, offset, length));
+            at = offset + length;
+        }
+        position = at;
+        forced = at;
+        return entries;
+    }
+
+    /**
+     * Deletes the segment file. The mapping, and with it the bodies still being read, stays
+     * valid until it is garbage collected.
+     *
+     * @throws IOException If the file cannot be deleted.
+     */
+    void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Override
+    public String toString() {
+        return path.toString();
+    }
+}
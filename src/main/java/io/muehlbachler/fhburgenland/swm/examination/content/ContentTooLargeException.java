@@ -0,0 +1,22 @@
+package io.muehlbachler.fhburgenland.swm.examination.content;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the content of a note does not fit into a segment of the content store.
+ * Answered with 413, as the same note will never fit.
+ */
+
+@ResponseStatus(value = HttpStatus.PAYLOAD_TOO_LARGE, reason = "Note content is too large")
+public class ContentTooLargeException extends RuntimeException {
+    /**
+     * Creates the exception.
+     *
+     * @param size The size of the content in bytes.
+     * @param maximum The largest size a segment can hold.
+     */
+    public ContentTooLargeException(int size, int maximum) {
+        super("Note content of " + size + " bytes exceeds " + maximum + " bytes");
+    }
+}
@@ -0,0 +1,349 @@
+package io.muehlbachler.fhburgenland.swm.examination.content;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.springframework.context.SmartLifecycle;
+
+import com.google.common.collect.Iterables;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.muehlbachler.fhburgenland.swm.examination.repository.NoteRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the full content of large notes off the heap, in append-only segment files that are
+ * mapped into memory. The NOTE row only holds a preview and the size of the content.
+ * Bodies are appended to the active segment and forced to the disk before the note is stored;
+ * only the append holds the store's lock, so concurrent writers share a force of the
+ * segment rather than forcing one after another. A full segment is sealed and a new one
+ * started. An in-memory index maps each note ID to its body and is rebuilt by scanning the
+ * segments on start, the latest record of an ID winning.
+ * Reads return a slice of the mapping, so a body is copied only into the response.
+ * Records become dead when their note is written again, or when the transaction storing the
+ * note rolled back. Once a segment has been sealed for the grace period, its notes are checked
+ * against the database, and if the dead share reaches the threshold, its live records are
+ * copied to the active segment and the file is deleted.
+ * Publishes 'examination.content-store.size' (bytes in segments), '.live' (bytes still
+ * referenced), '.segments' and the counter '.reclaimed' (bytes of deleted segments).
+ */
+
+@Slf4j
+public class NoteContentStore implements SmartLifecycle {
+    private static final int VERIFY_CHUNK_SIZE = 1000;
+
+    private final NoteRepository noteRepository;
+    private final Settings settings;
+    private final Clock clock;
+    private final Map<UUID, Location> index = new ConcurrentHashMap<>();
+    private final List<ContentSegment> sealed = new CopyOnWriteArrayList<>();
+    private final Counter reclaimed;
+    private long nextNumber;
+    private volatile ContentSegment active;
+    private ScheduledExecutorService compactor;
+    private volatile boolean running;
+
+    /**
+     * Configures the content store.
+     *
+     * @param directory The directory holding the segment files.
+     * @param segmentSize The size of a segment file in bytes, which also bounds a body.
+     * @param previewLength The characters of the content kept in the NOTE row.
+     * @param compactionInterval The delay between two compaction passes.
+     * @param compactionThreshold The share of dead bytes from which a segment is compacted.
+     * @param grace How long a segment is left alone after being sealed, which must exceed
+     *              the longest transaction storing notes.
+     */
+    public record Settings(Path directory, int segmentSize, int previewLength,
+                           Duration compactionInterval, double compactionThreshold,
+                           Duration grace) {
+    }
+
+    private record Location(ContentSegment segment, int offset, int length) {
+    }
+
+    /**
+     * Creates the content store; it accepts bodies once started.
+     *
+     * @param noteRepository The repository to check which notes of a segment are stored.
+     * @param meterRegistry The registry to publish the metrics to.
+     * @param settings The settings of the store.
+     * @param clock The clock deciding when sealed segments are compacted.
+     */
+    public NoteContentStore(NoteRepository noteRepository, MeterRegistry meterRegistry,
+                            Settings settings, Clock clock) {
+        this.noteRepository = noteRepository;
+        this.settings = settings;
+        this.clock = clock;
+        Gauge.builder("examination.content-store.size", this,
+                        store -> store.segments().mapToLong(ContentSegment::position).sum())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("examination.content-store.live", this,
+                        store -> store.segments().mapToLong(ContentSegment::liveBytes).sum())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("examination.content-store.segments", this,
+                        store -> store.segments().count())
+                .register(meterRegistry);
+        this.reclaimed = Counter.builder("examination.content-store.reclaimed")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the characters of the content kept in the NOTE row.
+     *
+     * @return The length of the preview.
+     */
+    public int previewLength() {
+        return settings.previewLength();
+    }
+
+    /**
+     * Appends the content of a note and forces it to the disk.
+     * A note written again supersedes its earlier content.
+     *
+     * @param id The ID of the note.
+     * @param content The content, encoded as UTF-8.
+     * @throws ContentTooLargeException If the content does not fit into a segment.
+     * @throws UncheckedIOException If a new segment cannot be created.
+     */
+    public void put(UUID id, byte[] content) {
+        int maximum = settings.segmentSize() - ContentSegment.HEADER_BYTES;
+        if (content.length > maximum) {
+            throw new ContentTooLargeException(content.length, maximum);
+        }
+        Location location;
+        synchronized (this) {
+            location = append(id, ByteBuffer.wrap(content));
+            location.segment().addLive(location.length());
+        }
+        location.segment().force(location.offset() + location.length());
+        Location previous = index.put(id, location);
+        if (previous != null) {
+            previous.segment().removeLive(previous.length());
+        }
+    }
+
+    /**
+     * Returns the content of a note as a read-only slice of the mapped segment.
+     * The slice stays readable even if the segment is compacted meanwhile.
+     *
+     * @param id The ID of the note.
+     * @return The content encoded as UTF-8, or empty if the store has none for the note.
+     */
+    public Optional<ByteBuffer> get(UUID id) {
+        Location location = index.get(id);
+        return location == null ? Optional.empty()
+                : Optional.of(location.segment().read(location.offset(), location.length()));
+    }
+
+    /**
+     * Maps the existing segments, rebuilds the index and starts compacting.
+     */
+    @Override
+    public void start() {
+        try {
+            Files.createDirectories(settings.directory());
+            List<Path> files;
+            try (Stream<Path> list = Files.list(settings.directory())) {
+                files = list.filter(file -> ContentSegment.number(file) >= 0)
+                        .sorted((a, b) -> Long.compare(ContentSegment.number(a),
+                                ContentSegment.number(b)))
+                        .toList();
+            }
+            for (Path file : files) {
+                recover(ContentSegment.open(file));
+            }
+            nextNumber = files.isEmpty() ? 0 : ContentSegment.number(files.getLast()) + 1;
+            active = ContentSegment.create(settings.directory(), nextNumber++,
+                    settings.segmentSize());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Opened the note content store with {} bodies in {} segments", index.size(),
+                sealed.size());
+        compactor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("note-content-compactor").daemon().factory());
+        long interval = settings.compactionInterval().toMillis();
+        compactor.scheduleWithFixedDelay(this::compactSafely, interval, interval,
+                TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    /**
+     * Stops compacting and deletes the active segment if nothing was appended to it.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (active.position() == 0) {
+                try {
+                    active.delete();
+                } catch (IOException e) {
+                    log.error("Deleting the empty content segment {} failed", active, e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the write-behind queue, whose replay stores notes.
+     *
+     * @return The lifecycle phase.
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 8192;
+    }
+
+    /**
+     * Runs a compaction pass over the segments sealed longer than the grace period.
+     * Their notes are checked against the database once, dropping the bodies of notes that were
+     * never stored; segments whose dead share reaches the threshold are rewritten and deleted.
+     */
+    void compact() {
+        Instant cutoff = clock.instant().minus(settings.grace());
+        for (ContentSegment segment : sealed) {
+            if (segment.sealedAt().isAfter(cutoff)) {
+                continue;
+            }
+            if (!segment.verified()) {
+                dropUnstored(segment);
+                segment.verify();
+            }
+            long dead = segment.position() - segment.liveBytes();
+            if (dead < settings.compactionThreshold() * segment.position()) {
+                continue;
+            }
+            relocate(segment);
+            sealed.remove(segment);
+            try {
+                segment.delete();
+                reclaimed.increment(segment.position());
+                log.info("Compacted the content segment {}, reclaiming {} bytes", segment, dead);
+            } catch (IOException e) {
+                log.error("Deleting the content segment {} failed", segment, e);
+            }
+        }
+    }
+
+    private void compactSafely() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            log.error("Compacting the note content store failed", e);
+        }
+    }
+
+    private void recover(ContentSegment segment) throws IOException {
+        List<ContentSegment.Entry> entries = segment.scan();
+        if (entries.isEmpty()) {
+            segment.delete();
+            return;
+        }
+        for (ContentSegment.Entry entry : entries) {
+            segment.addLive(entry.length());
+            Location previous = index.put(entry.id(),
+                    new Location(segment, entry.offset(), entry.length()));
+            if (previous != null) {
+                previous.segment().removeLive(previous.length());
+            }
+        }
+        segment.seal(clock.instant());
+        sealed.add(segment);
+    }
+
+    private Location append(UUID id, ByteBuffer content) {
+        int offset = active.append(id, content);
+        if (offset < 0) {
+            active.seal(clock.instant());
+            sealed.add(active);
+            try {
+                active = ContentSegment.create(settings.directory(), nextNumber++,
+                        settings.segmentSize());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            offset = active.append(id, content);
+        }
+        return new Location(active, offset, content.remaining());
+    }
+
+    private void dropUnstored(ContentSegment segment) {
+        Set<UUID> ids = new HashSet<>();
+        index.forEach((id, location) -> {
+            if (location.segment() == segment) {
+                ids.add(id);
+            }
+        });
+        for (List<UUID> chunk : Iterables.partition(ids, VERIFY_CHUNK_SIZE)) {
+            Set<UUID> stored = new HashSet<>(noteRepository.findIdsByIdIn(chunk));
+            chunk.stream().filter(id -> !stored.contains(id)).forEach(id -> {
+                Location location = index.get(id);
+                if (location != null && location.segment() == segment
+                        && index.remove(id, location)) {
+                    segment.removeLive(location.length());
+                }
+            });
+        }
+    }
+
+    private void relocate(ContentSegment segment) {
+        index.forEach((id, location) -> {
+            if (location.segment() != segment) {
+                return;
+            }
+            synchronized (this) {
+                Location moved = append(id, segment.read(location.offset(), location.length()));
+                // Only take over the copy if the note was not written again meanwhile
+                if (index.replace(id, location, moved)) {
+                    moved.segment().addLive(moved.length());
+                    segment.removeLive(location.length());
+                }
+            }
+        });
+        // Copies in segments sealed meanwhile were forced on sealing
+        ContentSegment current = active;
+        current.force(current.position());
+    }
+
+    private Stream<ContentSegment> segments() {
+        ContentSegment current = active;
+        return current == null ? sealed.stream()
+                : Stream.concat(sealed.stream(), Stream.of(current));
+    }
+}
@@ -0,0 +1,52 @@
+package io.muehlbachler.fhburgenland.swm.examination.controller;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.muehlbachler.fhburgenland.swm.examination.changes.ChangeFeed;
+import io.muehlbachler.fhburgenland.swm.examination.model.Change;
+
+/**
+ * Serves the change log of person and note writes.
+ * Consumers keep the sequence of the last entry they received and poll for the entries after
+ * it, instead of listing all persons to find what changed.
+ */
+
+@RestController
+@RequestMapping("changes")
+public class ChangeController {
+    private static final int DEFAULT_LIMIT = 100;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    /**
+     * Lists the changes after a sequence, optionally waiting for new ones (long polling).
+     * Purpose: To let consumers sync incrementally and resume where they stopped.
+     * Input: 'since' (long) - The last sequence received, 'limit' (Integer) - The page size,
+     * 'wait' (long) - Seconds to wait if there are no changes yet.
+     * Output: JSON array of Change - The next changes in sequence order, empty if none
+     * were recorded within the wait.
+     * Errors: Might throw exceptions related to data access.
+     *
+     * @param since The last sequence the consumer has received, 0 to start at the beginning.
+     * @param limit The maximum number of changes to return, 100 if omitted, at most 1000.
+     * @param wait The number of seconds to wait for changes, at most the configured maximum.
+     * @return The changes, once there are some or the wait is over.
+     */
+    @GetMapping
+    public CompletableFuture<List<Change>> list(
+            @RequestParam(value = "since", defaultValue = "0") long since,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "wait", defaultValue = "0") long wait) {
+        return changeFeed.read(since, limit == null ? DEFAULT_LIMIT : limit,
+                Duration.ofSeconds(Math.max(0, wait)));
+    }
+}
@@ -0,0 +1,91 @@
+package io.muehlbachler.fhburgenland.swm.examination.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import io.muehlbachler.fhburgenland.swm.examination.dto.Revision;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Evaluates conditional GET requests against the revision of a resource or collection.
+ * Collection revisions are looked up before the body is loaded, so a matching 'If-None-Match'
+ * or 'If-Modified-Since' short-circuits to 304 Not Modified without running the query.
+ * Single resources use the revision their view carries, which is served from the cache.
+ */
+
+final class ConditionalRequests {
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Checks the request preconditions, setting the ETag and Last-Modified headers.
+     *
+     * @param request The current request.
+     * @param revision The current revision, or null if unknown.
+     * @return Whether the client's representation is still current.
+     */
+    static boolean isNotModified(WebRequest request, Revision revision) {
+        if (revision == null) {
+            return false;
+        }
+        return request.checkNotModified(revision.etag(),
+                revision.modifiedAt() == null ? -1 : revision.modifiedAt().toEpochMilli());
+    }
+
+    /**
+     * Creates the response for a request whose preconditions matched.
+     *
+     * @param <T> The type of the body that is not sent.
+     * @return A 304 Not Modified response.
+     */
+    static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+    }
+
+    /**
+     * Creates a 200 OK response carrying the validators of the revision.
+     *
+     * @param <T> The type of the body.
+     * @param revision The revision of the body, or null to send no validators.
+     * @param body The body.
+     * @return The response.
+     */
+    static <T> ResponseEntity<T> ok(Revision revision, T body) {
+        return ok(revision).body(body);
+    }
+
+    /**
+     * Starts a 200 OK response carrying the validators of the revision.
+     *
+     * @param revision The revision of the body, or null to send no validators.
+     * @return The builder of the response, to add further headers and the body.
+     */
+    static ResponseEntity.BodyBuilder ok(Revision revision) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (revision != null) {
+            response.eTag(revision.etag());
+            if (revision.modifiedAt() != null) {
+                response.lastModified(revision.modifiedAt());
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Sets the validators of the revision on a response whose body is written directly.
+     *
+     * @param response The response, not committed yet.
+     * @param revision The revision of the body, or null to send no validators.
+     */
+    static void setValidators(HttpServletResponse response, Revision revision) {
+        if (revision == null) {
+            return;
+        }
+        response.setHeader(HttpHeaders.ETAG, revision.etag());
+        if (revision.modifiedAt() != null) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, revision.modifiedAt().toEpochMilli());
+        }
+    }
+}
@@ -1,17 +1,36 @@
 package io.muehlbachler.fhburgenland.swm.examination.controller;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import io.muehlbachler.fhburgenland.swm.examination.model.Note;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import io.muehlbachler.fhburgenland.swm.examination.content.NoteContentStore;
+import io.muehlbachler.fhburgenland.swm.examination.dto.NoteView;
+import io.muehlbachler.fhburgenland.swm.examination.dto.Revision;
+import io.muehlbachler.fhburgenland.swm.examination.limit.ConcurrencyLimited;
+import io.muehlbachler.fhburgenland.swm.examination.limit.EndpointClass;
 import io.muehlbachler.fhburgenland.swm.examination.service.NoteService;
+import io.muehlbachler.fhburgenland.swm.examination.streaming.JsonStreamer;
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * Manages endpoints related to notes.
@@ -19,41 +38,135 @@ import io.muehlbachler.fhburgenland.swm.examination.service.NoteService;
  * Ensures proper handling of input and output.
  * Avoids unexpected behavior due to invalid data.
  * Provides a RESTful interface for note-related operations.
+ * Reads are answered with read models, which are never managed by the persistence context.
+ * Content kept in the content store is streamed from its mapped segment into the response.
+ * Endpoints are lookups unless marked otherwise, each class under its own concurrency limit.
  */
 
 @RestController
+@ConcurrencyLimited(EndpointClass.LOOKUP)
 @RequestMapping("note")
 public class NoteController {
     @Autowired
     private NoteService noteService;
+    @Autowired
+    private JsonStreamer jsonStreamer;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired(required = false)
+    private NoteContentStore noteContentStore;
 
     /**
      * Retrieves a note by its ID.
      * Purpose: To find a specific note by its unique identifier.
      * Input: 'id' (String) - The unique identifier of the note.
-     * Output: ResponseEntity< Note> - Contains the found note, or an empty if not found.
+     * Output: ResponseEntity< NoteView> - Contains the found note, or an empty if not found.
      * Errors: If 'id' is null or invalid, might result in a bad request error.
+     * Tagged with the note's version; 304 Not Modified if the client's copy is current.
+     * The revision is taken from the view, so a cached view answers without any query.
+     * If the content store holds the full content, it replaces the preview of the view and is
+     * written from the mapped segment while the JSON is serialized, never held on the heap.
      *
      * @param id The unique identifier of the note.
+     * @param request The request, for its conditional headers.
      * @return A ResponseEntity containing the note, if found.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Note> get(@PathVariable String id) {
-        return ResponseEntity.of(noteService.get(id));
+    public ResponseEntity<?> get(@PathVariable String id, WebRequest request) {
+        Optional<NoteView> note = noteService.getView(id);
+        if (note.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (ConditionalRequests.isNotModified(request, note.get().revision())) {
+            return ConditionalRequests.notModified();
+        }
+        Optional<ByteBuffer> content = noteContentStore == null
+                ? Optional.empty() : noteContentStore.get(note.get().id());
+        if (content.isEmpty()) {
+            return ConditionalRequests.ok(note.get().revision(), note.get());
+        }
+        return ConditionalRequests.ok(note.get().revision())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(withContent(note.get(), content.get()));
+    }
+
+    /**
+     * Checks whether a note exists.
+     * Purpose: To answer HEAD requests without loading the note, as GET would.
+     * Input: 'id' (String) - The unique identifier of the note.
+     * Output: ResponseEntity< Void> - Empty, 200 if the note exists, 404 otherwise.
+     * Errors: A malformed 'id' is answered like a missing note.
+     *
+     * @param id The unique identifier of the note.
+     * @return An empty ResponseEntity with the status telling whether the note exists.
+     */
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> exists(@PathVariable String id) {
+        return noteService.exists(id)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Counts all notes, or those matching a content string.
+     * Purpose: To tell how many notes a query would return without loading them.
+     * Input: 'query' (String) - The text to search for in the content of notes, optional.
+     * Output: long - The number of matching notes, or of all notes without a query.
+     * Errors: Might throw exceptions related to data access issues.
+     *
+     * @param query The string to search for within the notes' content, if any.
+     * @return The number of matching notes.
+     */
+    @ConcurrencyLimited(EndpointClass.SCAN)
+    @GetMapping("/count")
+    public long count(@RequestParam(value = "query", required = false) String query) {
+        return query == null ? noteService.count() : noteService.countByContent(query);
     }
 
     /**
      * Queries notes based on a specified content string.
      * Purpose: To retrieve a list of notes that contain a specified query string in their content.
      * Input: 'query' (String) - The text used to search in the content of notes.
-     * Output: List< Note> - A list of notes containing the query string in their content.
+     * Output: JSON array of NoteView - The notes containing the query string, written to the
+     * response while they are read; compressed if the client accepts it.
      * Errors: handling needed for null or special character to avoid unexpected behavior.
+     * Tagged with the collection revision; 304 Not Modified if the client's copy is current.
      *
      * @param query The string to search for within the notes' content.
-     * @return A list of notes that contain the query string.
+     * @param request The request, for its conditional and Accept-Encoding headers.
+     * @param response The response the notes are written to.
+     * @throws IOException If writing the response fails.
      */
+    @ConcurrencyLimited(EndpointClass.SCAN)
     @GetMapping("/query")
-    public List<Note> query(@RequestParam("query") String query) {
-        return noteService.queryByContent(query);
+    public void query(@RequestParam("query") String query, WebRequest request,
+                      HttpServletResponse response) throws IOException {
+        Revision revision = noteService.getCollectionRevision();
+        if (ConditionalRequests.isNotModified(request, revision)) {
+            return;
+        }
+        ConditionalRequests.setValidators(response, revision);
+        jsonStreamer.writeArray(request, response,
+                notes -> noteService.streamViewsByContent(query, notes));
+    }
+
+    /**
+     * Writes a note like its view, with the content read from the store.
+     * Jackson escapes the content through its own small buffer as it is decoded.
+     */
+    private StreamingResponseBody withContent(NoteView note, ByteBuffer content) {
+        return outputStream -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(outputStream)
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                 Reader reader = new InputStreamReader(new ByteBufferBackedInputStream(content),
+                         StandardCharsets.UTF_8)) {
+                json.writeStartObject();
+                json.writeStringField("id", note.id().toString());
+                json.writeFieldName("content");
+                json.writeString(reader, -1);
+                json.writeNumberField("version", note.version());
+                json.writeEndObject();
+            }
+        };
     }
 }
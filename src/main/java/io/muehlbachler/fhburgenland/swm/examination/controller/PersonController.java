@@ -1,62 +1,221 @@
 package io.muehlbachler.fhburgenland.swm.examination.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.google.common.collect.AbstractIterator;
+
+import io.muehlbachler.fhburgenland.swm.examination.dto.BulkResult;
+import io.muehlbachler.fhburgenland.swm.examination.dto.PersonSummary;
+import io.muehlbachler.fhburgenland.swm.examination.dto.PersonView;
+import io.muehlbachler.fhburgenland.swm.examination.dto.Revision;
+import io.muehlbachler.fhburgenland.swm.examination.limit.ConcurrencyLimited;
+import io.muehlbachler.fhburgenland.swm.examination.limit.EndpointClass;
 import io.muehlbachler.fhburgenland.swm.examination.model.Note;
 import io.muehlbachler.fhburgenland.swm.examination.model.Person;
 import io.muehlbachler.fhburgenland.swm.examination.service.PersonService;
+import io.muehlbachler.fhburgenland.swm.examination.streaming.JsonStreamer;
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * Manages endpoints related to persons.
  * Performs CRUD operations on persons and their associated notes.
  * Ensures proper validation and error handling.
  * Provides a RESTful interface for person-related operations.
+ * Reads are answered with read models, which are never managed by the persistence context.
+ * Endpoints are lookups unless marked otherwise, each class under its own concurrency limit.
  */
 
 @RestController
+@ConcurrencyLimited(EndpointClass.LOOKUP)
 @RequestMapping("person")
 public class PersonController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
 
     @Autowired
     private PersonService personService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JsonStreamer jsonStreamer;
+    @Value("${examination.bulk.chunk-size:5000}")
+    private int chunkSize;
 
 
     /**
-     * Lists all persons.
-     * Purpose: To retrieve a list of all persons from the database.
-     * Output: List< Person> - A list of all persons.
+     * Lists all persons, or a single page of them.
+     * Purpose: To retrieve persons from the database, optionally paged with a keyset on the ID.
+     * Input: 'after' (String) - The last ID of the previous page, 'limit' (Integer) - Page size.
+     * Output: JSON array of PersonView - All persons, or the requested page if any parameter is
+     * given, written to the response while they are read; compressed if the client accepts it.
      * Errors: Might throw exceptions related to data access or network issues.
+     * Tagged with the collection revision; 304 Not Modified if the client's copy is current.
      *
-     * @return A list of all persons.
+     * @param after The last ID of the previous page, if paging.
+     * @param limit The maximum number of persons to return, if paging.
+     * @param request The request, for its conditional and Accept-Encoding headers.
+     * @param response The response the persons are written to.
+     * @throws IOException If writing the response fails.
      */
+    @ConcurrencyLimited(EndpointClass.SCAN)
     @GetMapping("/")
-    public List<Person> list() {
-        return personService.getAll();
+    public void list(@RequestParam(value = "after", required = false) String after,
+                     @RequestParam(value = "limit", required = false) Integer limit,
+                     WebRequest request, HttpServletResponse response) throws IOException {
+        Revision revision = personService.getCollectionRevision();
+        if (ConditionalRequests.isNotModified(request, revision)) {
+            return;
+        }
+        ConditionalRequests.setValidators(response, revision);
+        if (after == null && limit == null) {
+            jsonStreamer.writeArray(request, response, personService::streamViews);
+            return;
+        }
+        jsonStreamer.writeArray(request, response, personService.getViewPage(after,
+                limit == null ? DEFAULT_PAGE_SIZE : limit)::forEach);
+    }
+
+    /**
+     * Lists all persons without their notes.
+     * Purpose: To retrieve the names of all persons without loading any notes.
+     * Output: List< PersonSummary> - A summary of every person.
+     * Errors: Might throw exceptions related to data access or network issues.
+     * Tagged with the collection revision; 304 Not Modified if the client's copy is current.
+     *
+     * @param request The request, for its conditional headers.
+     * @return A list of summaries of all persons.
+     */
+    @ConcurrencyLimited(EndpointClass.SCAN)
+    @GetMapping("/summary")
+    public ResponseEntity<List<PersonSummary>> listSummaries(WebRequest request) {
+        Revision revision = personService.getCollectionRevision();
+        if (ConditionalRequests.isNotModified(request, revision)) {
+            return ConditionalRequests.notModified();
+        }
+        return ConditionalRequests.ok(revision, personService.getAllSummaries());
+    }
+
+    /**
+     * Streams the read models of all persons as newline delimited JSON.
+     * Purpose: To list the whole table while keeping the heap usage flat.
+     * Output: StreamingResponseBody - Writes one PersonView per line as it is read from the
+     * cursor, in the same shape as the list endpoint.
+     * Errors: Errors while writing abort the stream, leaving a truncated response.
+     *
+     * @return A body writing all persons to the response.
+     */
+    @ConcurrencyLimited(EndpointClass.SCAN)
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody stream() {
+        return outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                personService.streamViews(person -> {
+                    try {
+                        writer.write(person);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
     }
 
     /**
      * Retrieves a person by their ID.
      * Purpose: To find a specific person by their unique identifier.
      * Input: 'id' (String) - The unique identifier of the person.
-     * Output: ResponseEntity< Person>- found person, or an empty ResponseEntity if not found.
+     * Output: ResponseEntity< PersonView>- found person, or an empty ResponseEntity if not found.
      * Errors: If 'id' is null or invalid, might result in a bad request error.
+     * Tagged with the person's version; 304 Not Modified if the client's copy is current.
+     * The revision is taken from the view, so a cached view answers without any query.
      *
      * @param id The unique identifier of the person.
+     * @param request The request, for its conditional headers.
      * @return A ResponseEntity containing the person, if found.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Person> get(@PathVariable String id) {
-        return ResponseEntity.of(personService.get(id));
+    public ResponseEntity<PersonView> get(@PathVariable String id, WebRequest request) {
+        return personService.getView(id)
+                .map(person -> ConditionalRequests.isNotModified(request, person.revision())
+                        ? ConditionalRequests.<PersonView>notModified()
+                        : ConditionalRequests.ok(person.revision(), person))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Checks whether a person exists.
+     * Purpose: To answer HEAD requests without loading the person, as GET would.
+     * Input: 'id' (String) - The unique identifier of the person.
+     * Output: ResponseEntity< Void> - Empty, 200 if the person exists, 404 otherwise.
+     * Errors: A malformed 'id' is answered like a missing person.
+     *
+     * @param id The unique identifier of the person.
+     * @return An empty ResponseEntity with the status telling whether the person exists.
+     */
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> exists(@PathVariable String id) {
+        return personService.exists(id)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Counts all persons.
+     * Purpose: To tell how many persons exist without listing them.
+     * Output: long - The number of persons.
+     * Errors: Might throw exceptions related to data access issues.
+     *
+     * @return The number of persons.
+     */
+    @GetMapping("/count")
+    public long count() {
+        return personService.count();
+    }
+
+    /**
+     * Counts the notes of a person.
+     * Purpose: To tell how many notes a person has without loading the person or the notes.
+     * Input: 'id' (String) - The unique identifier of the person.
+     * Output: ResponseEntity< Long> - The number of notes, or not found for a missing person.
+     * Errors: A malformed 'id' is answered like a missing person.
+     *
+     * @param id The unique identifier of the person.
+     * @return A ResponseEntity containing the number of notes, if the person exists.
+     */
+    @GetMapping("/{id}/note/count")
+    public ResponseEntity<Long> countNotes(@PathVariable String id) {
+        return ResponseEntity.of(personService.countNotes(id));
     }
 
     /**
@@ -69,30 +228,213 @@ public class PersonController {
      * @param person The person object to be created.
      * @return The created person.
      */
+    @ConcurrencyLimited(EndpointClass.WRITE)
     @PostMapping("/")
     public Person create(@RequestBody Person person) {
         return personService.create(person);
     }
 
+    /**
+     * Creates many persons at once from a JSON array.
+     * Purpose: To import persons in bulk with batched inserts, without holding the whole body.
+     * Input: body( InputStream) - The request body, a JSON array of persons; nested notes are
+     * ignored.
+     * Output: BulkResult - The number of persons created.
+     * Errors: Persons are inserted chunk by chunk while the array is read; a malformed body
+     * results in a bad request, leaving the chunks read before it in place.
+     *
+     * @param body The request body with a JSON array of persons.
+     * @return The number of persons created.
+     * @throws IOException If the body cannot be read.
+     */
+    @ConcurrencyLimited(EndpointClass.WRITE)
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkResult createBulk(InputStream body) throws IOException {
+        return createInChunks(body, Person.class,
+                persons -> Optional.of(personService.importAll(persons))).orElseThrow();
+    }
+
+    /**
+     * Creates many persons at once from newline delimited JSON.
+     * Purpose: To import persons in bulk, one JSON document per line.
+     * Input: body( InputStream) - The request body with one person per line.
+     * Output: BulkResult - The number of persons created.
+     * Errors: Persons are inserted chunk by chunk while the lines are read; a malformed line
+     * results in a bad request, leaving the chunks read before it in place.
+     *
+     * @param body The request body with one person per line.
+     * @return The number of persons created.
+     * @throws IOException If the body cannot be read.
+     */
+    @ConcurrencyLimited(EndpointClass.WRITE)
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BulkResult createBulkNdjson(InputStream body) throws IOException {
+        return createBulk(body);
+    }
+
     /**
      * Queries persons by first and/or last name.
      * Purpose: To find persons using their first or last names.
      * Input: 'firstName' (String), 'lastName' (String) - The names to search for.
-     * Output: List< Person> - A list of persons that match the search criteria.
+     * Output: JSON array of PersonView - The persons that match the search criteria, written
+     * to the response page by page; compressed if the client accepts it.
      * Errors: handling for null or empty input parameters, returning an empty list.
+     * Tagged with the collection revision; 304 Not Modified if the client's copy is current.
      *
      * @param firstName The first name to search for.
      * @param lastName The last name to search for.
-     * @return A list of persons that match the name criteria.
+     * @param request The request, for its conditional and Accept-Encoding headers.
+     * @param response The response the persons are written to.
+     * @throws IOException If writing the response fails.
      */
     @GetMapping("/query")
-    public List<Person> query(@RequestParam("firstName") String firstName,
-                              @RequestParam("lastName") String lastName) {
-        return personService.findByName(firstName, lastName);
+    public void query(@RequestParam("firstName") String firstName,
+                      @RequestParam("lastName") String lastName,
+                      WebRequest request, HttpServletResponse response) throws IOException {
+        Revision revision = personService.getCollectionRevision();
+        if (ConditionalRequests.isNotModified(request, revision)) {
+            return;
+        }
+        ConditionalRequests.setValidators(response, revision);
+        jsonStreamer.writeArray(request, response,
+                persons -> personService.streamViewsByName(firstName, lastName, persons));
     }
 
+    /**
+     * Searches persons by the beginning of their first or last name.
+     * Purpose: To find persons while their name is typed, case-insensitive and typo tolerant.
+     * Input: 'name' (String) - The beginning of a name, 'fuzziness' (int) - The edit distance
+     * allowed, up to 2, 'limit' (int) - The maximum number of persons.
+     * Output: List< PersonView> - The best matching persons, closest and shortest names first.
+     * Errors: for an empty name, an empty list is returned.
+     *
+     * @param name The beginning of a first or last name.
+     * @param fuzziness The edit distance allowed, 0 for a plain prefix search.
+     * @param limit The maximum number of persons to return.
+     * @return The matching persons in rank order.
+     */
+    @GetMapping("/search")
+    public List<PersonView> search(@RequestParam("name") String name,
+                                   @RequestParam(value = "fuzziness", defaultValue = "0")
+                                   int fuzziness,
+                                   @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return personService.searchByName(name, fuzziness, limit);
+    }
+
+    /**
+     * Suggests first and last names completing the beginning of a name.
+     * Purpose: To autocomplete names from memory, without querying the database.
+     * Input: 'name' (String) - The beginning of a name, 'fuzziness' (int) - The edit distance
+     * allowed, up to 2, 'limit' (int) - The maximum number of names.
+     * Output: List< String> - Distinct names, closest and shortest first.
+     * Errors: for an empty name, an empty list is returned.
+     *
+     * @param name The beginning of a first or last name.
+     * @param fuzziness The edit distance allowed, 0 for a plain prefix search.
+     * @param limit The maximum number of names to return.
+     * @return The suggested names in rank order.
+     */
+    @GetMapping("/suggest")
+    public List<String> suggest(@RequestParam("name") String name,
+                                @RequestParam(value = "fuzziness", defaultValue = "0")
+                                int fuzziness,
+                                @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return personService.suggestNames(name, fuzziness, limit);
+    }
+
+    @ConcurrencyLimited(EndpointClass.WRITE)
     @PostMapping("/{id}/note")
     public ResponseEntity<Note> createNote(@PathVariable String id, @RequestBody Note note) {
         return ResponseEntity.of(personService.createNote(id, note));
     }
+
+    /**
+     * Creates many notes at once for a person from a JSON array.
+     * Purpose: To import notes of a person in bulk with batched inserts, without holding the
+     * whole body.
+     * Input: 'id' (String) - The ID of the person, body( InputStream) - A JSON array of notes.
+     * Output: ResponseEntity< BulkResult> - The number of notes created, or not found for a
+     * missing person.
+     * Errors: Notes are inserted chunk by chunk while the array is read; a malformed body
+     * results in a bad request, leaving the chunks read before it in place.
+     *
+     * @param id The unique identifier of the person.
+     * @param body The request body with a JSON array of notes.
+     * @return A ResponseEntity containing the number of notes created, if the person exists.
+     * @throws IOException If the body cannot be read.
+     */
+    @ConcurrencyLimited(EndpointClass.WRITE)
+    @PostMapping(value = "/{id}/note/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkResult> createNotesBulk(@PathVariable String id,
+                                                      InputStream body) throws IOException {
+        return ResponseEntity.of(createInChunks(body, Note.class,
+                notes -> personService.importNotes(id, notes)));
+    }
+
+    /**
+     * Creates many notes at once for a person from newline delimited JSON.
+     * Purpose: To import notes of a person in bulk, one JSON document per line.
+     * Input: 'id' (String) - The ID of the person, body( InputStream) - One note per line.
+     * Output: ResponseEntity< BulkResult> - The number of notes created, or not found for a
+     * missing person.
+     * Errors: Notes are inserted chunk by chunk while the lines are read; a malformed line
+     * results in a bad request, leaving the chunks read before it in place.
+     *
+     * @param id The unique identifier of the person.
+     * @param body The request body with one note per line.
+     * @return A ResponseEntity containing the number of notes created, if the person exists.
+     * @throws IOException If the body cannot be read.
+     */
+    @ConcurrencyLimited(EndpointClass.WRITE)
+    @PostMapping(value = "/{id}/note/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkResult> createNotesBulkNdjson(@PathVariable String id,
+                                                            InputStream body) throws IOException {
+        return createNotesBulk(id, body);
+    }
+
+    /**
+     * Reads the values of a JSON array or of newline delimited JSON one by one, handing them
+     * to 'create' in chunks of 'examination.bulk.chunk-size', so that at most one chunk is held
+     * and each is committed before the next is read. 'create' gets all chunks at once, so what
+     * it does for the whole import, like checking the parent or updating caches, is done once.
+     *
+     * @return The number of values created, or empty if 'create' returned empty.
+     */
+    private <T> Optional<BulkResult> createInChunks(
+            InputStream body, Class<T> type, Function<Iterator<List<T>>, Optional<Long>> create)
+            throws IOException {
+        try (MappingIterator<T> values = objectMapper.readerFor(type).readValues(body)) {
+            return create.apply(chunks(values)).map(BulkResult::new);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed JSON body", e);
+        } catch (UncheckedIOException e) {
+            if (e.getCause() instanceof JsonProcessingException) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed JSON body",
+                        e.getCause());
+            }
+            throw e.getCause();
+        }
+    }
+
+    private <T> Iterator<List<T>> chunks(MappingIterator<T> values) {
+        return new AbstractIterator<>() {
+            @Override
+            protected List<T> computeNext() {
+                try {
+                    List<T> chunk = readChunk(values);
+                    return chunk.isEmpty() ? endOfData() : chunk;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    private <T> List<T> readChunk(MappingIterator<T> values) throws IOException {
+        List<T> chunk = new ArrayList<>();
+        while (chunk.size() < chunkSize && values.hasNextValue()) {
+            chunk.add(values.nextValue());
+        }
+        return chunk;
+    }
 }
@@ -0,0 +1,61 @@
+package io.muehlbachler.fhburgenland.swm.examination.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.NoteRow;
+import io.muehlbachler.fhburgenland.swm.examination.service.ReactiveNoteService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Manages the non-blocking endpoints related to notes.
+ * Query results are returned as a JSON array, or streamed as NDJSON or server-sent events
+ * if requested with 'Accept: application/x-ndjson' or 'Accept: text/event-stream'.
+ */
+
+@RestController
+@RequestMapping("reactive/note")
+public class ReactiveNoteController {
+    @Autowired
+    private ReactiveNoteService noteService;
+
+    /**
+     * Retrieves a note by its ID.
+     * Purpose: To find a specific note by its unique identifier.
+     * Input: 'id' (String) - The unique identifier of the note.
+     * Output: Mono< ResponseEntity< NoteRow>> - The note, or not found.
+     * Errors: If 'id' is invalid, results in not found.
+     *
+     * @param id The unique identifier of the note.
+     * @return A ResponseEntity containing the note, if found.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<NoteRow>> get(@PathVariable String id) {
+        return noteService.get(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Queries notes based on a specified content string.
+     * Purpose: To retrieve the notes containing a query string, optionally as a stream.
+     * Input: 'query' (String) - The text used to search in the content of notes.
+     * Output: Flux< NoteRow> - The notes containing the query string in their content.
+     * Errors: Errors while streaming abort the stream, leaving a truncated response.
+     *
+     * @param query The string to search for within the notes' content.
+     * @return The notes that contain the query string.
+     */
+    @GetMapping(value = "/query", produces = {MediaType.APPLICATION_JSON_VALUE,
+        MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<NoteRow> query(@RequestParam("query") String query) {
+        return noteService.queryByContent(query);
+    }
+}
@@ -0,0 +1,96 @@
+package io.muehlbachler.fhburgenland.swm.examination.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.NoteRow;
+import io.muehlbachler.fhburgenland.swm.examination.model.PersonRow;
+import io.muehlbachler.fhburgenland.swm.examination.service.ReactivePersonService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Manages the non-blocking endpoints related to persons.
+ * Lists are returned as a JSON array, or streamed as NDJSON or server-sent events
+ * if requested with 'Accept: application/x-ndjson' or 'Accept: text/event-stream'.
+ * Streams are written one element at a time and the next row is only requested once the
+ * previous one was written, so slow clients hold neither a thread nor the whole result.
+ */
+
+@RestController
+@RequestMapping("reactive/person")
+public class ReactivePersonController {
+    @Autowired
+    private ReactivePersonService personService;
+
+    /**
+     * Lists all persons.
+     * Purpose: To retrieve all persons without their notes, optionally as a stream.
+     * Output: Flux< PersonRow> - All persons.
+     * Errors: Errors while streaming abort the stream, leaving a truncated response.
+     *
+     * @return All persons.
+     */
+    @GetMapping(value = "/", produces = {MediaType.APPLICATION_JSON_VALUE,
+        MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<PersonRow> list() {
+        return personService.getAll();
+    }
+
+    /**
+     * Retrieves a person by their ID.
+     * Purpose: To find a specific person by their unique identifier.
+     * Input: 'id' (String) - The unique identifier of the person.
+     * Output: Mono< ResponseEntity< PersonRow>> - The person, or not found.
+     * Errors: If 'id' is invalid, results in not found.
+     *
+     * @param id The unique identifier of the person.
+     * @return A ResponseEntity containing the person, if found.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<PersonRow>> get(@PathVariable String id) {
+        return personService.get(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Queries persons by first and/or last name.
+     * Purpose: To find persons using their first or last names, optionally as a stream.
+     * Input: 'firstName' (String), 'lastName' (String) - The names to search for.
+     * Output: Flux< PersonRow> - The persons that match the search criteria.
+     * Errors: for empty input parameters, nothing is returned.
+     *
+     * @param firstName The first name to search for.
+     * @param lastName The last name to search for.
+     * @return The persons that match the name criteria.
+     */
+    @GetMapping(value = "/query", produces = {MediaType.APPLICATION_JSON_VALUE,
+        MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<PersonRow> query(@RequestParam("firstName") String firstName,
+                                 @RequestParam("lastName") String lastName) {
+        return personService.findByName(firstName, lastName);
+    }
+
+    /**
+     * Lists the notes of a person.
+     * Purpose: To retrieve the notes of a person, optionally as a stream.
+     * Input: 'id' (String) - The ID of the person.
+     * Output: Flux< NoteRow> - The notes of the person, none if the person does not exist.
+     * Errors: Errors while streaming abort the stream, leaving a truncated response.
+     *
+     * @param id The unique identifier of the person.
+     * @return The notes of the person.
+     */
+    @GetMapping(value = "/{id}/note", produces = {MediaType.APPLICATION_JSON_VALUE,
+        MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<NoteRow> listNotes(@PathVariable String id) {
+        return personService.getNotes(id);
+    }
+}
@@ -0,0 +1,11 @@
+package io.muehlbachler.fhburgenland.swm.examination.dto;
+
+/**
+ * Represents the outcome of a bulk import.
+ * Returned instead of the created records, so the response does not grow with the request.
+ *
+ * @param created The number of records created.
+ */
+
+public record BulkResult(long created) {
+}
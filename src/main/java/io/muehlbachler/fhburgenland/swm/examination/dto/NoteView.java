@@ -0,0 +1,47 @@
+package io.muehlbachler.fhburgenland.swm.examination.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Read model of a note, serialized like the {@link
+ * io.muehlbachler.fhburgenland.swm.examination.model.Note} entity.
+ * Fetched with a constructor expression, so it is never managed by the persistence context.
+ * With the content store, the content of a long note is only its preview; such views are
+ * serialized with '"truncated": true', the full content is served by GET /note/{id}.
+ *
+ * @param id The unique identifier of the note.
+ * @param personId The ID of the person the note belongs to, to group notes by person.
+ * @param content The text of the note.
+ * @param version The version of the note.
+ * @param modifiedAt The time of the last modification, for conditional requests.
+ * @param contentSize The size of the full content in bytes if the content store holds it and
+ *                    'content' is only the preview; null if 'content' is complete.
+ */
+
+public record NoteView(UUID id, @JsonIgnore UUID personId, String content, long version,
+                       @JsonIgnore Instant modifiedAt, @JsonIgnore Integer contentSize) {
+    /**
+     * Tells whether the content is only the preview of a longer note.
+     *
+     * @return True if the full content is kept in the content store.
+     */
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    public boolean truncated() {
+        return contentSize != null;
+    }
+
+    /**
+     * Returns the revision of the note for conditional requests.
+     *
+     * @return The revision.
+     */
+    public Revision revision() {
+        return new Revision(version, modifiedAt);
+    }
+}
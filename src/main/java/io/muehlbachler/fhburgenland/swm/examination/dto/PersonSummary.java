@@ -0,0 +1,15 @@
+package io.muehlbachler.fhburgenland.swm.examination.dto;
+
+import java.util.UUID;
+
+/**
+ * Represents a person without its notes.
+ * Read-only projection fetched with a constructor expression, bypassing the persistence context.
+ *
+ * @param id The unique identifier of the person.
+ * @param firstName The first name of the person.
+ * @param lastName The last name of the person.
+ */
+
+public record PersonSummary(UUID id, String firstName, String lastName) {
+}
@@ -0,0 +1,57 @@
+package io.muehlbachler.fhburgenland.swm.examination.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Read model of a person with their notes, serialized like the {@link
+ * io.muehlbachler.fhburgenland.swm.examination.model.Person} entity.
+ * The person is fetched with a constructor expression and its notes are attached afterwards
+ * with {@link #withNotes(List)}, as a constructor expression cannot fetch a collection.
+ *
+ * @param id The unique identifier of the person.
+ * @param firstName The first name of the person.
+ * @param lastName The last name of the person.
+ * @param notes The notes of the person.
+ * @param version The version of the person, growing whenever the notes change.
+ * @param modifiedAt The time of the last modification, for conditional requests.
+ */
+
+public record PersonView(UUID id, String firstName, String lastName, List<NoteView> notes,
+                         long version, @JsonIgnore Instant modifiedAt) {
+    /**
+     * Creates the view of a person whose notes are not attached yet.
+     *
+     * @param id The unique identifier of the person.
+     * @param firstName The first name of the person.
+     * @param lastName The last name of the person.
+     * @param version The version of the person.
+     * @param modifiedAt The time of the last modification.
+     */
+    public PersonView(UUID id, String firstName, String lastName, long version,
+                      Instant modifiedAt) {
+        this(id, firstName, lastName, List.of(), version, modifiedAt);
+    }
+
+    /**
+     * Returns a copy of this view with the given notes.
+     *
+     * @param notes The notes of the person.
+     * @return The view with its notes.
+     */
+    public PersonView withNotes(List<NoteView> notes) {
+        return new PersonView(id, firstName, lastName, notes, version, modifiedAt);
+    }
+
+    /**
+     * Returns the revision of the person for conditional requests.
+     *
+     * @return The revision.
+     */
+    public Revision revision() {
+        return new Revision(version, modifiedAt);
+    }
+}
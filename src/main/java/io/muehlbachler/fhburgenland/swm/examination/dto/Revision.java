@@ -0,0 +1,44 @@
+package io.muehlbachler.fhburgenland.swm.examination.dto;
+
+import java.time.Instant;
+
+/**
+ * Represents the revision of a resource or of a whole collection, used as its HTTP validator.
+ * Resources are identified by their version; collections by the tail of the change log, which
+ * grows with every insert and update.
+ *
+ * @param tag The opaque value of the strong entity tag.
+ * @param modifiedAt The time of the last modification, null if unknown.
+ */
+
+public record Revision(String tag, Instant modifiedAt) {
+    /**
+     * Creates the revision of a single resource.
+     *
+     * @param version The version of the resource.
+     * @param modifiedAt The time of the last modification of the resource.
+     */
+    public Revision(long version, Instant modifiedAt) {
+        this(Long.toString(version), modifiedAt);
+    }
+
+    /**
+     * Creates the revision of a collection.
+     *
+     * @param sequence The latest sequence of the change log.
+     * @param entries The number of change log entries within the revision window.
+     * @param modifiedAt The time of the latest change log entry.
+     */
+    public Revision(long sequence, long entries, Instant modifiedAt) {
+        this(sequence + "-" + entries, modifiedAt);
+    }
+
+    /**
+     * Returns the quoted strong entity tag, e.g. '"3"'.
+     *
+     * @return The entity tag.
+     */
+    public String etag() {
+        return "\"" + tag + "\"";
+    }
+}
@@ -0,0 +1,118 @@
+package io.muehlbachler.fhburgenland.swm.examination.limit;
+
+import java.time.Duration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * A concurrency limit adapted to the latency of the requests it admits (AIMD).
+ * A request completing within the latency threshold while at least half of the limit is in use
+ * raises the limit by one over a window of 'limit' such requests; a slower one multiplies it by
+ * the backoff ratio. Only requests admitted after the last decrease can decrease it again, so
+ * the requests that were in flight together count once, and the limit settles where the
+ * latency stays below the threshold. Requests beyond the limit are rejected at once, not queued.
+ * Publishes 'examination.concurrency-limit.limit', '.in-flight' and the counter '.rejected',
+ * tagged with the endpoint 'class'.
+ */
+
+public class AdaptiveLimit {
+    private final Settings settings;
+    private final long thresholdNanos;
+    private final Counter rejected;
+    private double limit;
+    private int inFlight;
+    private boolean decreased;
+    private long decreasedAt;
+
+    /**
+     * Configures a limit.
+     *
+     * @param initialLimit The limit to start with.
+     * @param minLimit The limit never decreased below.
+     * @param maxLimit The limit never increased above.
+     * @param latencyThreshold The latency above which a request decreases the limit.
+     * @param backoffRatio The factor, below one, the limit is multiplied with on a decrease.
+     */
+    public record Settings(int initialLimit, int minLimit, int maxLimit,
+                           Duration latencyThreshold, double backoffRatio) {
+    }
+
+    /**
+     * Creates a limit.
+     *
+     * @param endpointClass The endpoint class the limit applies to, tagging the metrics.
+     * @param settings The settings of the limit.
+     * @param meterRegistry The registry to publish the metrics to.
+     */
+    public AdaptiveLimit(EndpointClass endpointClass, Settings settings,
+                         MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.thresholdNanos = settings.latencyThreshold().toNanos();
+        this.limit = Math.clamp(settings.initialLimit(), settings.minLimit(),
+                settings.maxLimit());
+        Gauge.builder("examination.concurrency-limit.limit", this, AdaptiveLimit::limit)
+                .tag("class", endpointClass.key())
+                .register(meterRegistry);
+        Gauge.builder("examination.concurrency-limit.in-flight", this, AdaptiveLimit::inFlight)
+                .tag("class", endpointClass.key())
+                .register(meterRegistry);
+        this.rejected = Counter.builder("examination.concurrency-limit.rejected")
+                .tag("class", endpointClass.key())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits a request if the limit is not reached.
+     *
+     * @return True if the request was admitted and must be released, false if it is rejected.
+     */
+    public boolean tryAcquire() {
+        synchronized (this) {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return true;
+            }
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Releases an admitted request and adapts the limit to its latency.
+     *
+     * @param startNanos The {@link System#nanoTime()} the request was admitted at.
+     * @param endNanos The {@link System#nanoTime()} the request completed at.
+     */
+    public synchronized void release(long startNanos, long endNanos) {
+        int used = inFlight--;
+        if (endNanos - startNanos > thresholdNanos) {
+            if (!decreased || startNanos - decreasedAt > 0) {
+                limit = Math.max(settings.minLimit(), limit * settings.backoffRatio());
+                decreased = true;
+                decreasedAt = endNanos;
+            }
+        } else if (2 * used >= limit) {
+            limit = Math.min(settings.maxLimit(), limit + 1 / limit);
+        }
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return The number of requests admitted at the same time.
+     */
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * Returns the requests admitted and not yet released.
+     *
+     * @return The number of requests in flight.
+     */
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,102 @@
+package io.muehlbachler.fhburgenland.swm.examination.limit;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sheds load by admitting the requests of '@ConcurrencyLimited' handlers only within the limit
+ * of their endpoint class, so saturated scans cannot starve the lookups.
+ * A rejected request is answered at once with 503 Service Unavailable and a Retry-After header,
+ * before its handler runs; the response has no body, so rejecting costs next to nothing.
+ * A request holds its permit until it completes, including the asynchronous part of streamed
+ * responses, and its latency adapts the limit on release.
+ */
+
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+    private static final String PERMIT = ConcurrencyLimitInterceptor.class.getName() + ".PERMIT";
+
+    private final Map<EndpointClass, AdaptiveLimit> limits;
+    private final String retryAfter;
+    private final Map<Method, Optional<AdaptiveLimit>> handlerLimits = new ConcurrentHashMap<>();
+
+    private record Permit(AdaptiveLimit limit, long startNanos) {
+    }
+
+    /**
+     * Creates the interceptor.
+     *
+     * @param limits The limit of every endpoint class.
+     * @param retryAfter The delay after which rejected clients are asked to retry.
+     */
+    public ConcurrencyLimitInterceptor(Map<EndpointClass, AdaptiveLimit> limits,
+                                       Duration retryAfter) {
+        this.limits = limits;
+        this.retryAfter = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    /**
+     * Admits or rejects a request to a limited handler.
+     * Purpose: To keep the requests in flight per endpoint class within its limit.
+     * Input: 'request' - the request, 'response' - its response, 'handler' - the handler.
+     * Output: True to proceed; false after answering 503 with Retry-After.
+     * Errors: Only the initial dispatch is counted, asynchronous dispatches pass.
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+                             Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST
+                || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        Optional<AdaptiveLimit> limit = handlerLimits.computeIfAbsent(handlerMethod.getMethod(),
+                method -> resolve(handlerMethod));
+        if (limit.isEmpty()) {
+            return true;
+        }
+        if (!limit.get().tryAcquire()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+            return false;
+        }
+        request.setAttribute(PERMIT, new Permit(limit.get(), System.nanoTime()));
+        return true;
+    }
+
+    /**
+     * Releases the permit of a completed request. Not called when the handler started
+     * asynchronous processing; the permit is then released once the asynchronous dispatch
+     * completes.
+     */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT) instanceof Permit permit) {
+            request.removeAttribute(PERMIT);
+            permit.limit().release(permit.startNanos(), System.nanoTime());
+        }
+    }
+
+    private Optional<AdaptiveLimit> resolve(HandlerMethod handlerMethod) {
+        ConcurrencyLimited limited = AnnotatedElementUtils.findMergedAnnotation(
+                handlerMethod.getMethod(), ConcurrencyLimited.class);
+        if (limited == null) {
+            limited = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(),
+                    ConcurrencyLimited.class);
+        }
+        return limited == null ? Optional.empty()
+                : Optional.ofNullable(limits.get(limited.value()));
+    }
+}
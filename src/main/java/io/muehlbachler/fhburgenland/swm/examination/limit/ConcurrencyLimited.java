@@ -0,0 +1,24 @@
+package io.muehlbachler.fhburgenland.swm.examination.limit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a handler method, or all handler methods of a controller, under the concurrency limit
+ * of an endpoint class. An annotation on the method overrides the one on the controller.
+ *
+ * @see ConcurrencyLimitInterceptor
+ */
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface ConcurrencyLimited {
+    /**
+     * Returns the endpoint class whose limit applies.
+     *
+     * @return The endpoint class.
+     */
+    EndpointClass value();
+}
@@ -0,0 +1,32 @@
+package io.muehlbachler.fhburgenland.swm.examination.limit;
+
+import java.util.Locale;
+
+/**
+ * The classes of endpoints that share a concurrency limit.
+ * Endpoints of one class have a similar cost, so the latency of one tells about the others.
+ */
+
+public enum EndpointClass {
+    /**
+     * Point reads by ID or index, answered in milliseconds.
+     */
+    LOOKUP,
+    /**
+     * Reads of a whole table or of a scan over it.
+     */
+    SCAN,
+    /**
+     * Inserts, single and bulk.
+     */
+    WRITE;
+
+    /**
+     * Returns the name used in properties and metric tags.
+     *
+     * @return The lower case name, e.g. 'lookup'.
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
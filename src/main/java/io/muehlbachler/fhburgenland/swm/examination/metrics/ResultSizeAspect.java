@@ -0,0 +1,65 @@
+package io.muehlbachler.fhburgenland.swm.examination.metrics;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Records the number of rows returned by the list-returning methods of '@Timed' classes.
+ * Every method gets its own 'examination.service.rows' distribution, tagged like the timers
+ * of the TimedAspect with 'class' and 'method'. Summaries are looked up once per method,
+ * so a call only costs a map lookup and a record.
+ */
+
+@Aspect
+public class ResultSizeAspect {
+    /**
+     * Name of the row-count distribution.
+     */
+    public static final String METRIC_NAME = "examination.service.rows";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the aspect.
+     *
+     * @param meterRegistry The registry to publish the distributions to.
+     */
+    public ResultSizeAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Records the size of a returned collection.
+     * Purpose: To track how many rows list-returning service methods hand out.
+     * Input: 'joinPoint' - the completed call, 'result' - its return value.
+     * Errors: Results other than collections, e.g. streams or optionals, are ignored.
+     */
+    @AfterReturning(pointcut = "@within(io.micrometer.core.annotation.Timed)",
+            returning = "result")
+    public void recordSize(JoinPoint joinPoint, Object result) {
+        if (result instanceof Collection<?> collection) {
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            summaries.computeIfAbsent(method, this::summary).record(collection.size());
+        }
+    }
+
+    private DistributionSummary summary(Method method) {
+        return DistributionSummary.builder(METRIC_NAME)
+                .description("Number of rows returned per call")
+                .baseUnit("rows")
+                .tag("class", method.getDeclaringClass().getName())
+                .tag("method", method.getName())
+                .register(meterRegistry);
+    }
+}
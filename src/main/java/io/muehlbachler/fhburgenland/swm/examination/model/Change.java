@@ -0,0 +1,71 @@
+package io.muehlbachler.fhburgenland.swm.examination.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+
+/**
+ * Represents an entry of the change log, recording that a person or note was written.
+ * Entries are appended in the transaction of the write and never modified, so the sequence
+ * gives consumers a position to resume from. They only name the entity; its current state is
+ * read from its own endpoint.
+ */
+
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Immutable
+@Table(name = "CHANGE_LOG")
+public class Change {
+    @Id
+    private long sequence;
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    private Kind entity;
+    private UUID entityId;
+    private UUID personId;
+    private Instant recordedAt;
+
+    /**
+     * The kinds of entities whose writes are recorded.
+     */
+    public enum Kind {
+        PERSON,
+        NOTE
+    }
+
+    /**
+     * Creates an entry as read from the change log.
+     *
+     * @param sequence The position of the entry in the log.
+     * @param entity The kind of the written entity.
+     * @param entityId The ID of the written entity.
+     * @param personId The ID of the person the entity is or belongs to, if any.
+     * @param recordedAt The time the entry was appended.
+     */
+    public Change(long sequence, Kind entity, UUID entityId, UUID personId, Instant recordedAt) {
+        this.sequence = sequence;
+        this.entity = entity;
+        this.entityId = entityId;
+        this.personId = personId;
+        this.recordedAt = recordedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Change [sequence=" + this.sequence + ", " + this.entity + "=" + this.entityId + "]";
+    }
+}
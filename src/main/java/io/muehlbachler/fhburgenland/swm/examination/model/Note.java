@@ -1,19 +1,25 @@
 package io.muehlbachler.fhburgenland.swm.examination.model;
 
+import java.time.Instant;
+import java.util.UUID;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
 
 
 /**
@@ -21,23 +27,55 @@ import lombok.AllArgsConstructor;
  * Encapsulates information about a note, including its content and associated person.
  * Ensures proper serialization and database mapping.
  * Provides utility methods like toString for debugging.
+ * Versioned for optimistic locking.
+ * Held in the second-level cache.
  */
 
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Note.CACHE_REGION)
 public class Note {
+    /**
+     * The second-level cache region of notes.
+     */
+    public static final String CACHE_REGION = "note";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     @Setter(AccessLevel.NONE)
-    private String id;
+    private UUID id;
     @JsonIgnore
     @ManyToOne(cascade = CascadeType.ALL)
     @JoinColumn(name = "person_id")
     private Person person;
     private String content;
+    /**
+     * The size in bytes of the full content held by the content store, of which 'content' is
+     * only the preview; null if 'content' is complete.
+     */
+    @JsonIgnore
+    private Integer contentSize;
+    @Version
+    private long version;
+    @JsonIgnore
+    @UpdateTimestamp
+    private Instant modifiedAt;
+
+    /**
+     * Creates a note that has not been stored yet.
+     *
+     * @param id The unique identifier of the note, or null to have one generated.
+     * @param person The person the note belongs to.
+     * @param content The text of the note.
+     */
+    public Note(UUID id, Person person, String content) {
+        this.id = id;
+        this.person = person;
+        this.content = content;
+    }
 
     @Override
     public String toString() {
@@ -0,0 +1,19 @@
+package io.muehlbachler.fhburgenland.swm.examination.model;
+
+import java.util.UUID;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Represents a row of the NOTE table for the reactive API.
+ * Unlike {@link Note}, it references its person by ID only.
+ *
+ * @param id The unique identifier of the note.
+ * @param personId The ID of the person the note belongs to.
+ * @param content The text of the note.
+ */
+
+@Table("NOTE")
+public record NoteRow(@Id UUID id, UUID personId, String content) {
+}
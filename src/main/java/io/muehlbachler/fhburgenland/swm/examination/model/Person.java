@@ -1,41 +1,91 @@
 package io.muehlbachler.fhburgenland.swm.examination.model;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.UUID;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
 
 /**
  * Represents a person entity.
  * Encapsulates information about a person, including their name and associated notes.
  * Ensures proper serialization and database mapping.
  * Provides utility methods like toString for debugging.
+ * Versioned for optimistic locking; the version also grows whenever the notes change.
+ * The version is null until the person is stored, or when an update leaves it out.
+ * Held in the second-level cache, together with the IDs of its notes.
  */
 
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Person.CACHE_REGION)
 public class Person {
+    /**
+     * The second-level cache region of persons.
+     */
+    public static final String CACHE_REGION = "person";
+
+    /**
+     * The second-level cache region of the note IDs of persons.
+     */
+    public static final String NOTES_CACHE_REGION = "person-notes";
+
+    /**
+     * Number of persons whose notes are initialized together in a single query.
+     * Matches the default page size of the person listing.
+     */
+    public static final int NOTES_BATCH_SIZE = 100;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     @Setter(AccessLevel.NONE)
-    private String id;
+    private UUID id;
     private String firstName;
     private String lastName;
     @OneToMany(mappedBy = "person", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = Person.NOTES_BATCH_SIZE)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Person.NOTES_CACHE_REGION)
     private List<Note> notes;
+    @Version
+    private Long version;
+    @JsonIgnore
+    @UpdateTimestamp
+    private Instant modifiedAt;
+
+    /**
+     * Creates a person that has not been stored yet.
+     *
+     * @param id The unique identifier of the person, or null to have one generated.
+     * @param firstName The first name of the person.
+     * @param lastName The last name of the person.
+     * @param notes The notes of the person.
+     */
+    public Person(UUID id, String firstName, String lastName, List<Note> notes) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.notes = notes;
+    }
 
     @Override
     public String toString() {
@@ -0,0 +1,19 @@
+package io.muehlbachler.fhburgenland.swm.examination.model;
+
+import java.util.UUID;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Represents a row of the PERSON table for the reactive API.
+ * Unlike {@link Person}, it carries no notes, as R2DBC does not load associations.
+ *
+ * @param id The unique identifier of the person.
+ * @param firstName The first name of the person.
+ * @param lastName The last name of the person.
+ */
+
+@Table("PERSON")
+public record PersonRow(@Id UUID id, String firstName, String lastName) {
+}
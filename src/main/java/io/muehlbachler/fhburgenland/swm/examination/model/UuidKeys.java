@@ -0,0 +1,65 @@
+package io.muehlbachler.fhburgenland.swm.examination.model;
+
+import java.security.SecureRandom;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates and parses the UUID primary keys of persons and notes.
+ * Keys are stored as 16 byte UUID columns and exchanged in their canonical string form.
+ * New keys are time-ordered version 7 UUIDs (RFC 9562), so inserts append to the end of the
+ * primary key index instead of splitting pages all over it like random version 4 UUIDs.
+ */
+
+public final class UuidKeys {
+    private static final int CANONICAL_LENGTH = 36;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final long VARIANT_RFC = 0x8000000000000000L;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    // Unix milliseconds of the last key, followed by a 12 bit sequence within that millisecond
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidKeys() {
+    }
+
+    /**
+     * Generates a new time-ordered key.
+     * Purpose: To assign IDs up front, e.g. for JDBC batch inserts.
+     * Output: UUID - A version 7 UUID, greater than all keys generated before by this JVM.
+     * Errors: More than 4096 keys per millisecond borrow from the following milliseconds.
+     *
+     * @return The new key.
+     */
+    public static UUID next() {
+        long now = System.currentTimeMillis() << SEQUENCE_BITS;
+        long stamp = LAST.updateAndGet(last -> Math.max(last + 1, now));
+        long mostSigBits = (stamp >>> SEQUENCE_BITS) << 16 | VERSION_7 | stamp & SEQUENCE_MASK;
+        long leastSigBits = RANDOM.nextLong() & VARIANT_MASK | VARIANT_RFC;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Parses a key from its canonical string form.
+     * Purpose: To accept IDs from the REST API without letting malformed ones reach the database.
+     * Input: 'id' (String) - The ID in the form 'xxxxxxxx-xxxx-xxxx-xxxx-xxxxxxxxxxxx'.
+     * Output: Optional< UUID> - The key, or empty if 'id' is null or not a canonical UUID.
+     *
+     * @param id The ID to parse.
+     * @return The parsed key, if valid.
+     */
+    public static Optional<UUID> parse(String id) {
+        if (id == null || id.length() != CANONICAL_LENGTH) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(UUID.fromString(id));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
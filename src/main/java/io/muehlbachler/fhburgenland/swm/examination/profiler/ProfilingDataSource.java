@@ -0,0 +1,184 @@
+package io.muehlbachler.fhburgenland.swm.examination.profiler;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Data source reporting every executed statement to the {@link SqlProfiler}.
+ * Wraps connections, statements and result sets in dynamic proxies: the execution time is
+ * measured around 'execute*', rows are the update counts or, for queries, the rows read until
+ * the result set is closed. Unwrapping yields the pooled target, so pool metrics keep working.
+ */
+
+public class ProfilingDataSource extends DelegatingDataSource {
+    private static final String UNKNOWN_SQL = "<unknown>";
+
+    private final SqlProfiler profiler;
+
+    /**
+     * Creates a profiling data source.
+     *
+     * @param target The data source to obtain connections from.
+     * @param profiler The profiler to report statements to.
+     */
+    public ProfilingDataSource(DataSource target, SqlProfiler profiler) {
+        super(target);
+        this.profiler = profiler;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, super.getConnection(), new ConnectionHandler());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, super.getConnection(username, password),
+                new ConnectionHandler());
+    }
+
+    private static <T> T wrap(Class<T> type, T target, DelegatingHandler handler) {
+        handler.target = target;
+        return type.cast(Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(),
+                new Class<?>[] {type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private abstract static class DelegatingHandler implements InvocationHandler {
+        protected Object target;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return switch (method.getName()) {
+                case "unwrap" -> ((Class<?>) args[0]).isInstance(proxy)
+                        ? proxy : ProfilingDataSource.invoke(target, method, args);
+                case "isWrapperFor" -> ((Class<?>) args[0]).isInstance(proxy)
+                        || (boolean) ProfilingDataSource.invoke(target, method, args);
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> handle(method, args);
+            };
+        }
+
+        protected abstract Object handle(Method method, Object[] args) throws Throwable;
+    }
+
+    private final class ConnectionHandler extends DelegatingHandler {
+        @Override
+        protected Object handle(Method method, Object[] args) throws Throwable {
+            Object result = ProfilingDataSource.invoke(target, method, args);
+            return switch (method.getName()) {
+                case "createStatement" ->
+                        wrap(Statement.class, (Statement) result, new StatementHandler(null));
+                case "prepareStatement" -> wrap(PreparedStatement.class,
+                        (PreparedStatement) result, new StatementHandler((String) args[0]));
+                case "prepareCall" -> wrap(CallableStatement.class,
+                        (CallableStatement) result, new StatementHandler((String) args[0]));
+                default -> result;
+            };
+        }
+    }
+
+    private final class StatementHandler extends DelegatingHandler {
+        private final String preparedSql;
+        private String batchSql;
+
+        private StatementHandler(String preparedSql) {
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        protected Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("addBatch".equals(name) && args != null && args.length == 1) {
+                batchSql = batchSql == null ? (String) args[0] : batchSql + ";" + args[0];
+            }
+            if (!name.startsWith("execute")) {
+                return ProfilingDataSource.invoke(target, method, args);
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String text
+                    ? text : preparedSql != null ? preparedSql : batchSql;
+            if (sql == null) {
+                sql = UNKNOWN_SQL;
+            }
+            long begin = System.nanoTime();
+            Object result;
+            try {
+                result = ProfilingDataSource.invoke(target, method, args);
+            } catch (Throwable e) {
+                profiler.record(sql, System.nanoTime() - begin, 0, true);
+                throw e;
+            }
+            long nanos = System.nanoTime() - begin;
+            if ("executeBatch".equals(name) || "executeLargeBatch".equals(name)) {
+                batchSql = null;
+            }
+
+            if (result instanceof ResultSet resultSet) {
+                return wrap(ResultSet.class, resultSet, new ResultSetHandler(sql, nanos));
+            }
+            profiler.record(sql, nanos, rows(result), false);
+            return result;
+        }
+
+        private static long rows(Object result) {
+            long rows = 0;
+            if (result instanceof Number count) {
+                rows = count.longValue();
+            } else if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    rows += Math.max(0, count);
+                }
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    rows += Math.max(0, count);
+                }
+            }
+            return Math.max(0, rows);
+        }
+    }
+
+    private final class ResultSetHandler extends DelegatingHandler {
+        private final String sql;
+        private final long nanos;
+        private long rows;
+        private boolean recorded;
+
+        private ResultSetHandler(String sql, long nanos) {
+            this.sql = sql;
+            this.nanos = nanos;
+        }
+
+        @Override
+        protected Object handle(Method method, Object[] args) throws Throwable {
+            Object result = ProfilingDataSource.invoke(target, method, args);
+            if ("next".equals(method.getName()) && (boolean) result) {
+                rows++;
+            } else if ("close".equals(method.getName()) && !recorded) {
+                recorded = true;
+                profiler.record(sql, nanos, rows, false);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package io.muehlbachler.fhburgenland.swm.examination.profiler;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Attributes the statements executed by service methods to these methods.
+ * Applies to the same '@Timed' service classes as the service timers.
+ */
+
+@Aspect
+public class SqlCallerAspect {
+    private final SqlProfiler profiler;
+
+    /**
+     * Creates the aspect.
+     *
+     * @param profiler The profiler to announce the running service method to.
+     */
+    public SqlCallerAspect(SqlProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Runs a service method with itself as the caller of its statements.
+     *
+     * @param joinPoint The service method call.
+     * @return The result of the service method.
+     * @throws Throwable Whatever the service method throws.
+     */
+    @Around("@within(io.micrometer.core.annotation.Timed)")
+    public Object attribute(ProceedingJoinPoint joinPoint) throws Throwable {
+        String previous = profiler.enter(joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            profiler.enter(previous);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package io.muehlbachler.fhburgenland.swm.examination.profiler;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects execution statistics per normalized SQL statement.
+ * Statements are recorded by the {@link ProfilingDataSource} with their execution time and row
+ * count, and attributed to the service method running on the current thread.
+ * Statements slower than 'slowThreshold' are logged. Within a request, a statement executed
+ * 'repeatThreshold' times or more is logged and counted as a likely N+1 pattern.
+ */
+
+@Slf4j
+public class SqlProfiler {
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST =
+            Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_NORMALIZED = 10_000;
+    private static final String UNKNOWN_CALLER = "<none>";
+
+    private final ThreadLocal<Trace> trace = ThreadLocal.withInitial(Trace::new);
+    private final Map<String, String> normalized = new ConcurrentHashMap<>();
+    private final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private final long slowThresholdNanos;
+    private final int repeatThreshold;
+
+    /**
+     * Creates a profiler.
+     *
+     * @param slowThreshold The execution time above which a statement is logged.
+     * @param repeatThreshold The number of executions of one statement within a request above
+     *                        which the request is flagged.
+     */
+    public SqlProfiler(Duration slowThreshold, int repeatThreshold) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    /**
+     * Normalizes a statement, so that executions differing in literals or in the length of
+     * 'in' lists are grouped together.
+     *
+     * @param sql The statement as sent to the driver.
+     * @return The statement with literals replaced by '?', 'in' lists collapsed to 'in (?)' and
+     *         whitespace collapsed.
+     */
+    public static String normalize(String sql) {
+        String result = STRING_LITERAL.matcher(sql).replaceAll("?");
+        result = NUMBER_LITERAL.matcher(result).replaceAll("?");
+        result = IN_LIST.matcher(result).replaceAll("in (?)");
+        return WHITESPACE.matcher(result).replaceAll(" ").trim();
+    }
+
+    /**
+     * Records an executed statement.
+     * Purpose: To aggregate timing and row counts and to detect slow and repeated statements.
+     * Input: 'sql' - the statement, 'nanos' - its execution time, 'rows' - rows returned or
+     *        affected, 'failed' - whether the execution threw.
+     */
+    public void record(String sql, long nanos, long rows, boolean failed) {
+        String key = normalized.get(sql);
+        if (key == null) {
+            key = normalize(sql);
+            if (normalized.size() < MAX_NORMALIZED) {
+                normalized.put(sql, key);
+            }
+        }
+        Trace current = trace.get();
+        String caller = current.caller == null ? UNKNOWN_CALLER : current.caller;
+
+        statements.computeIfAbsent(key, StatementStats::new).record(nanos, rows, failed, caller);
+        if (nanos > slowThresholdNanos) {
+            log.warn("Slow query ({} ms, {} rows) from {}: {}",
+                    TimeUnit.NANOSECONDS.toMillis(nanos), rows, caller, key);
+        }
+        if (current.executions != null) {
+            current.executions.merge(key, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Sets the service method subsequent statements of this thread are attributed to.
+     *
+     * @param caller The caller, e.g. 'PersonServiceImpl.getAll', or null to clear it.
+     * @return The previous caller, to be restored once the method returns.
+     */
+    public String enter(String caller) {
+        Trace current = trace.get();
+        String previous = current.caller;
+        current.caller = caller;
+        return previous;
+    }
+
+    /**
+     * Starts counting statement executions of the request handled by this thread.
+     */
+    public void beginRequest() {
+        trace.get().executions = new HashMap<>();
+    }
+
+    /**
+     * Stops counting statement executions and flags statements repeated within the request.
+     *
+     * @param request A description of the request for the log, e.g. 'GET /person/'.
+     */
+    public void endRequest(String request) {
+        Trace current = trace.get();
+        Map<String, Integer> executions = current.executions;
+        current.executions = null;
+        if (executions == null) {
+            return;
+        }
+        executions.forEach((sql, count) -> {
+            if (count >= repeatThreshold) {
+                statements.get(sql).repeatedRequests.increment();
+                log.warn("Possible N+1: {} executed {} times during {}", sql, count, request);
+            }
+        });
+    }
+
+    /**
+     * Returns the top statements.
+     *
+     * @param order The order, descending by 'time' (total), 'max', 'count', 'rows' (mean) or
+     *              'repeated' (flagged requests). Unknown orders fall back to 'time'.
+     * @param limit The maximum number of statements.
+     * @return The statistics of the top statements.
+     */
+    public List<StatementReport> top(String order, int limit) {
+        Comparator<StatementReport> comparator = switch (order == null ? "" : order) {
+            case "max" -> Comparator.comparingDouble(StatementReport::maxMillis);
+            case "count" -> Comparator.comparingLong(StatementReport::count);
+            case "rows" -> Comparator.comparingDouble(StatementReport::meanRows);
+            case "repeated" -> Comparator.comparingLong(StatementReport::repeatedRequests);
+            default -> Comparator.comparingDouble(StatementReport::totalMillis);
+        };
+        return statements.values().stream()
+                .map(StatementStats::report)
+                .sorted(comparator.reversed())
+                .limit(Math.max(0, limit))
+                .toList();
+    }
+
+    /**
+     * Discards all collected statistics.
+     */
+    public void reset() {
+        statements.clear();
+    }
+
+    private static final class Trace {
+        private String caller;
+        private Map<String, Integer> executions;
+    }
+
+    private static final class StatementStats {
+        private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+        private final String sql;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+        private final LongAdder repeatedRequests = new LongAdder();
+        private final Set<String> callers = ConcurrentHashMap.newKeySet();
+
+        private StatementStats(String sql) {
+            this.sql = sql;
+        }
+
+        private void record(long nanos, long rowCount, boolean failed, String caller) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            rows.add(rowCount);
+            if (failed) {
+                errors.increment();
+            }
+            callers.add(caller);
+        }
+
+        private StatementReport report() {
+            long executions = count.sum();
+            double total = totalNanos.sum() / NANOS_PER_MILLI;
+            return new StatementReport(sql, executions, errors.sum(), total,
+                    executions == 0 ? 0 : total / executions, maxNanos.get() / NANOS_PER_MILLI,
+                    executions == 0 ? 0 : (double) rows.sum() / executions,
+                    repeatedRequests.sum(), Set.copyOf(callers));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package io.muehlbachler.fhburgenland.swm.examination.profiler;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+/**
+ * Actuator endpoint listing the top statements of the {@link SqlProfiler} at /actuator/sql,
+ * e.g. '/actuator/sql?order=count&amp;limit=20'. A DELETE resets the statistics.
+ */
+
+@Endpoint(id = "sql")
+public class SqlProfilerEndpoint {
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final SqlProfiler profiler;
+
+    /**
+     * Creates the endpoint.
+     *
+     * @param profiler The profiler to report on.
+     */
+    public SqlProfilerEndpoint(SqlProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Lists the top statements.
+     *
+     * @param order 'time' (default), 'max', 'count', 'rows' or 'repeated'.
+     * @param limit The maximum number of statements, 10 by default.
+     * @return The statistics of the top statements.
+     */
+    @ReadOperation
+    public List<StatementReport> statements(@Nullable String order, @Nullable Integer limit) {
+        return profiler.top(order, limit == null ? DEFAULT_LIMIT : limit);
+    }
+
+    /**
+     * Discards the collected statistics.
+     */
+    @DeleteOperation
+    public void reset() {
+        profiler.reset();
+    }
+}
@@ -0,0 +1,40 @@
+package io.muehlbachler.fhburgenland.swm.examination.profiler;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Scopes the N+1 detection of the {@link SqlProfiler} to a request.
+ * Only statements executed on the request thread are counted; work handed off to other threads,
+ * e.g. by the reactive endpoints, is profiled but not checked for repetition.
+ */
+
+public class SqlProfilerFilter extends OncePerRequestFilter {
+    private final SqlProfiler profiler;
+
+    /**
+     * Creates the filter.
+     *
+     * @param profiler The profiler to scope.
+     */
+    public SqlProfilerFilter(SqlProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        profiler.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            profiler.endRequest(request.getMethod() + " " + request.getRequestURI());
+        }
+    }
+}
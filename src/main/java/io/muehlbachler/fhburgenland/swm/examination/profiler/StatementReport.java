@@ -0,0 +1,22 @@
+package io.muehlbachler.fhburgenland.swm.examination.profiler;
+
+import java.util.Set;
+
+/**
+ * Represents the statistics of one normalized SQL statement.
+ *
+ * @param sql The normalized statement.
+ * @param count The number of executions.
+ * @param errors The number of failed executions.
+ * @param totalMillis The total execution time.
+ * @param meanMillis The mean execution time.
+ * @param maxMillis The maximum execution time.
+ * @param meanRows The mean number of rows returned or affected.
+ * @param repeatedRequests The number of requests flagged as N+1 for this statement.
+ * @param callers The service methods the statement was executed from.
+ */
+
+public record StatementReport(String sql, long count, long errors, double totalMillis,
+                              double meanMillis, double maxMillis, double meanRows,
+                              long repeatedRequests, Set<String> callers) {
+}
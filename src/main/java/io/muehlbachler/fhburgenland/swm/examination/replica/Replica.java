@@ -0,0 +1,81 @@
+package io.muehlbachler.fhburgenland.swm.examination.replica;
+
+import java.time.Duration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * A read replica with its own connection pool, as last seen by the {@link ReplicaMonitor}.
+ * A replica is unavailable until its first successful check, so nothing is routed to a replica
+ * before its lag is known.
+ */
+
+public final class Replica {
+    private final String name;
+    private final HikariDataSource dataSource;
+    private volatile boolean available;
+    private volatile Duration lag;
+
+    /**
+     * Creates an unavailable replica.
+     *
+     * @param name The name of the replica, also the name of its pool.
+     * @param dataSource The pool of connections to the replica.
+     */
+    public Replica(String name, HikariDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Returns the name of the replica.
+     *
+     * @return The name, unique among the replicas.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Returns the pool of connections to the replica.
+     *
+     * @return The data source.
+     */
+    public HikariDataSource dataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Tells whether read-only transactions may be routed to the replica.
+     *
+     * @return True if the last check reached the replica and its lag was acceptable.
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Returns how far the replica was behind the primary at the last check.
+     *
+     * @return The lag, or null if the replica could not be reached.
+     */
+    public Duration lag() {
+        return lag;
+    }
+
+    /**
+     * Returns the number of connections to the replica currently in use.
+     *
+     * @return The active connections, 0 before the pool has started.
+     */
+    public int activeConnections() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+
+    void update(Duration lag, boolean available) {
+        this.lag = lag;
+        this.available = available;
+    }
+}
@@ -0,0 +1,138 @@
+package io.muehlbachler.fhburgenland.swm.examination.replica;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Checks the read replicas every 'examination.replicas.check-interval' and decides which of
+ * them read-only transactions may be routed to.
+ * The lag of a replica is how far its watermark, the result of the lag query, trails the one of
+ * the primary. A replica is available if it answers within the timeout and lags by at most the
+ * maximum lag; otherwise its reads fall back to the primary until a later check succeeds.
+ * Publishes 'examination.replicas.lag' and 'examination.replicas.available' per replica.
+ * Owns the pools of the replicas and closes them on shutdown.
+ */
+
+@Slf4j
+public class ReplicaMonitor implements Closeable {
+    private final List<Replica> replicas;
+    private final List<JdbcTemplate> templates;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final int timeoutSeconds;
+    private volatile JdbcTemplate primary;
+
+    /**
+     * Creates the monitor; all replicas are unavailable until the first check.
+     *
+     * @param replicas The replicas to check.
+     * @param lagQuery The query returning the watermark, the time of the latest write.
+     * @param maxLag The lag up to which a replica is available.
+     * @param timeout The time a replica gets to answer the lag query.
+     * @param meterRegistry The registry to publish the lag and availability to.
+     */
+    public ReplicaMonitor(List<Replica> replicas, String lagQuery, Duration maxLag,
+                          Duration timeout, MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas);
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.timeoutSeconds = (int) Math.max(1, timeout.toSeconds());
+        this.templates = this.replicas.stream().map(r -> template(r.dataSource())).toList();
+        for (Replica replica : this.replicas) {
+            Gauge.builder("examination.replicas.lag", replica,
+                            r -> r.lag() == null ? Double.NaN : r.lag().toMillis() / 1000.0)
+                    .tag("replica", replica.name())
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("examination.replicas.available", replica,
+                            r -> r.isAvailable() ? 1 : 0)
+                    .tag("replica", replica.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Returns the monitored replicas.
+     *
+     * @return The replicas, in their configured order.
+     */
+    public List<Replica> replicas() {
+        return replicas;
+    }
+
+    /**
+     * Sets the primary the replicas are compared with; until then no replica becomes available.
+     *
+     * @param primary The data source of the primary, not the routing one.
+     */
+    public void setPrimary(DataSource primary) {
+        this.primary = template(primary);
+    }
+
+    /**
+     * Reads the watermark of the primary and then of every replica, updating their availability.
+     * A replica that fails the check is unavailable; if the primary fails, the replicas keep
+     * their state, as their lag cannot be told.
+     */
+    @Scheduled(fixedDelayString = "${examination.replicas.check-interval:5s}")
+    public void check() {
+        if (primary == null) {
+            return;
+        }
+        Instant primaryMark;
+        try {
+            primaryMark = watermark(primary);
+        } catch (DataAccessException e) {
+            log.warn("Reading the watermark of the primary failed", e);
+            return;
+        }
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(i);
+            boolean wasAvailable = replica.isAvailable();
+            try {
+                Duration lag = Duration.between(watermark(templates.get(i)), primaryMark);
+                lag = lag.isNegative() ? Duration.ZERO : lag;
+                replica.update(lag, lag.compareTo(maxLag) <= 0);
+            } catch (DataAccessException e) {
+                replica.update(null, false);
+                log.debug("Checking replica {} failed", replica.name(), e);
+            }
+            if (wasAvailable != replica.isAvailable()) {
+                log.info("Replica {} is {} (lag {})", replica.name(),
+                        replica.isAvailable() ? "available" : "unavailable", replica.lag());
+            }
+        }
+    }
+
+    /**
+     * Closes the pools of all replicas.
+     */
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource().close());
+    }
+
+    private JdbcTemplate template(DataSource dataSource) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setQueryTimeout(timeoutSeconds);
+        return template;
+    }
+
+    private Instant watermark(JdbcTemplate template) {
+        OffsetDateTime mark = template.queryForObject(lagQuery, OffsetDateTime.class);
+        return mark == null ? Instant.EPOCH : mark.toInstant();
+    }
+}
@@ -0,0 +1,152 @@
+package io.muehlbachler.fhburgenland.swm.examination.replica;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Routes read-only transactions to the available read replicas and everything else to the primary.
+ * The target is chosen when a transaction first needs a physical connection, so this data source
+ * must be wrapped into a {@link LazyConnectionDataSourceProxy}, see {@link #lazy}: transaction
+ * managers fetch their connection before the read-only flag of the transaction is published.
+ * Without an available replica, read-only transactions fall back to the primary.
+ * Counts the routed transactions per replica in 'examination.replicas.routed' and the fallbacks
+ * in 'examination.replicas.fallback'.
+ */
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private static final String PRIMARY = "primary";
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final List<Replica> replicas;
+    private final Selection selection;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Counter> routed = new HashMap<>();
+    private final Counter fallbacks;
+
+    /**
+     * How a read-only transaction picks one of the available replicas.
+     */
+    public enum Selection {
+        /**
+         * Takes the available replicas in turns.
+         */
+        ROUND_ROBIN,
+        /**
+         * Takes the available replica with the fewest connections in use, ties in turns.
+         */
+        LEAST_LOADED
+    }
+
+    /**
+     * Creates the routing data source; it is usable once initialized.
+     *
+     * @param primary The data source of the primary.
+     * @param replicas The replicas, tried in this order by the round-robin.
+     * @param selection How a replica is picked.
+     * @param meterRegistry The registry to publish the routing counters to.
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas,
+                                    Selection selection, MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : this.replicas) {
+            targets.put(replica.name(), replica.dataSource());
+            routed.put(replica.name(), meterRegistry.counter("examination.replicas.routed",
+                    "replica", replica.name()));
+        }
+        this.fallbacks = meterRegistry.counter("examination.replicas.fallback");
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    /**
+     * Creates an initialized routing data source behind a lazy connection proxy.
+     *
+     * @param primary The data source of the primary.
+     * @param replicas The replicas.
+     * @param selection How a replica is picked.
+     * @param meterRegistry The registry to publish the routing counters to.
+     * @return The data source to hand to the transaction managers.
+     */
+    public static DataSource lazy(DataSource primary, List<Replica> replicas,
+                                  Selection selection, MeterRegistry meterRegistry) {
+        ReplicaRoutingDataSource routing =
+                new ReplicaRoutingDataSource(primary, replicas, selection, meterRegistry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Runs work on the primary, even in read-only transactions it begins.
+     * For reads that must see the latest writes, such as checking which notes are stored.
+     *
+     * @param work The work to run.
+     * @param <T> The type of the result.
+     * @return The result of the work.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        if (PINNED.get() != null) {
+            return work.get();
+        }
+        PINNED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            PINNED.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || PINNED.get() != null) {
+            return PRIMARY;
+        }
+        Replica replica = select();
+        if (replica == null) {
+            fallbacks.increment();
+            return PRIMARY;
+        }
+        routed.get(replica.name()).increment();
+        return replica.name();
+    }
+
+    private Replica select() {
+        if (replicas.isEmpty()) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        Replica chosen = null;
+        int chosenLoad = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.isAvailable()) {
+                continue;
+            }
+            if (selection == Selection.ROUND_ROBIN) {
+                return replica;
+            }
+            int load = replica.activeConnections();
+            if (load < chosenLoad) {
+                chosen = replica;
+                chosenLoad = load;
+            }
+        }
+        return chosen;
+    }
+}
@@ -0,0 +1,55 @@
+package io.muehlbachler.fhburgenland.swm.examination.replica;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Replaces the pooled 'dataSource' bean by a {@link ReplicaRoutingDataSource} over it and the
+ * replicas, once the pool is configured.
+ * Runs before the unordered post processors, so wrappers such as the SQL profiler wrap the
+ * routing data source and see the statements of the replicas as well.
+ */
+
+public class ReplicaRoutingPostProcessor implements BeanPostProcessor, Ordered {
+    private static final String DATA_SOURCE = "dataSource";
+
+    private final ObjectProvider<ReplicaMonitor> monitor;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ReplicaRoutingDataSource.Selection selection;
+
+    /**
+     * Creates the post processor.
+     *
+     * @param monitor The monitor holding the replicas, resolved when the data source is created.
+     * @param meterRegistry The registry to publish the routing counters to.
+     * @param selection How read-only transactions pick a replica.
+     */
+    public ReplicaRoutingPostProcessor(ObjectProvider<ReplicaMonitor> monitor,
+                                       ObjectProvider<MeterRegistry> meterRegistry,
+                                       ReplicaRoutingDataSource.Selection selection) {
+        this.monitor = monitor;
+        this.meterRegistry = meterRegistry;
+        this.selection = selection;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!DATA_SOURCE.equals(beanName) || !(bean instanceof HikariDataSource primary)) {
+            return bean;
+        }
+        ReplicaMonitor replicaMonitor = monitor.getObject();
+        replicaMonitor.setPrimary(primary);
+        return ReplicaRoutingDataSource.lazy(primary, replicaMonitor.replicas(), selection,
+                meterRegistry.getObject());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
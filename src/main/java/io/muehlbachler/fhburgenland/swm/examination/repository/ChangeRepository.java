@@ -0,0 +1,67 @@
+package io.muehlbachler.fhburgenland.swm.examination.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+
+import io.muehlbachler.fhburgenland.swm.examination.dto.Revision;
+import io.muehlbachler.fhburgenland.swm.examination.model.Change;
+
+
+/**
+ * Manages the change log of person and note writes.
+ * The log is append-only: entries are only inserted with the writes they record, which is
+ * done with plain JDBC by ChangeRepositoryCustomImpl, and read in sequence order.
+ */
+
+public interface ChangeRepository extends Repository<Change, Long>, ChangeRepositoryCustom {
+    /**
+     * The trailing sequences whose entries are counted into the revision of the collections.
+     * Appends committing out of sequence order are only seen if they fall into this window.
+     */
+    long REVISION_WINDOW = 1000;
+
+    /**
+     * Finds the entries appended after a sequence.
+     * Purpose: To read the change log from the position a consumer has reached.
+     * Input: 'sequence' (long) - The last sequence seen, 'limit' (Limit) - The page size.
+     * Output: At most 'limit' entries with a greater sequence, in sequence order.
+     * Errors: Might throw exceptions related to database access issues.
+     *
+     * @param sequence The last sequence seen by the consumer, 0 to start at the beginning.
+     * @param limit The maximum number of entries to return.
+     * @return The entries after the sequence.
+     */
+    List<Change> findBySequenceGreaterThanOrderBySequenceAsc(long sequence, Limit limit);
+
+    /**
+     * Finds the revision of the persons and notes, which changes with every write recorded.
+     * Purpose: To validate conditional requests for listings and queries without an aggregate
+     * over the tables they read.
+     * Output: The latest sequence, the entries within the revision window and the time of the
+     * latest append; "0-0" without a time if the log is empty.
+     * Errors: Might throw exceptions related to database access issues.
+     *
+     * @return The revision of the person and note collections.
+     */
+    default Revision findRevision() {
+        return findRevisionWithin(REVISION_WINDOW);
+    }
+
+    /**
+     * Finds the revision of the collections from the entries of the trailing sequences.
+     * Purpose: To read the revision with a range scan on the primary key. Counting the entries
+     * catches an append that commits after one with a higher sequence.
+     * Input: 'window' (long) - The number of trailing sequences to count the entries of.
+     * Errors: Might throw exceptions related to database access issues.
+     *
+     * @param window The number of trailing sequences to count the entries of.
+     * @return The revision of the person and note collections.
+     */
+    @Query("select new io.muehlbachler.fhburgenland.swm.examination.dto.Revision("
+            + "coalesce(max(c.sequence), 0L), count(c), max(c.recordedAt)) from Change c "
+            + "where c.sequence > (select coalesce(max(l.sequence), 0L) from Change l) - :window")
+    Revision findRevisionWithin(long window);
+}
@@ -0,0 +1,37 @@
+package io.muehlbachler.fhburgenland.swm.examination.repository;
+
+import java.util.Collection;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.Note;
+import io.muehlbachler.fhburgenland.swm.examination.model.Person;
+
+/**
+ * Custom repository fragment for the change log.
+ * Appends entries within the transaction of the write they record.
+ * Implemented by ChangeRepositoryCustomImpl and mixed into ChangeRepository.
+ */
+
+public interface ChangeRepositoryCustom {
+
+    /**
+     * Records that persons were written.
+     * Purpose: To append the writes to the change log atomically with the writes themselves.
+     * Input: 'persons' (Collection< Person>) - The written persons, with their IDs assigned.
+     * Errors: Must be called within the writing transaction; outside of one the entries are
+     * committed on their own and consumers are not woken up.
+     *
+     * @param persons The written persons.
+     */
+    void appendPersons(Collection<Person> persons);
+
+    /**
+     * Records that notes were written.
+     * Purpose: To append the writes to the change log atomically with the writes themselves.
+     * Input: 'notes' (Collection< Note>) - The written notes, with their IDs assigned.
+     * Errors: Must be called within the writing transaction; outside of one the entries are
+     * committed on their own and consumers are not woken up.
+     *
+     * @param notes The written notes.
+     */
+    void appendNotes(Collection<Note> notes);
+}
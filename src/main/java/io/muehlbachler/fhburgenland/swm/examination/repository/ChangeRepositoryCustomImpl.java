@@ -0,0 +1,60 @@
+package io.muehlbachler.fhburgenland.swm.examination.repository;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.muehlbachler.fhburgenland.swm.examination.changes.ChangesAppended;
+import io.muehlbachler.fhburgenland.swm.examination.model.Change;
+import io.muehlbachler.fhburgenland.swm.examination.model.Note;
+import io.muehlbachler.fhburgenland.swm.examination.model.Person;
+
+/**
+ * Implementation of the custom change log fragment.
+ * Appends with JDBC batches, which join the transaction of the caller, and announces the
+ * entries with a {@link ChangesAppended} event that listeners receive once it committed.
+ */
+
+public class ChangeRepositoryCustomImpl implements ChangeRepositoryCustom {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Value("${examination.bulk.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public void appendPersons(Collection<Person> persons) {
+        append(Change.Kind.PERSON, persons, Person::getId, Person::getId);
+    }
+
+    @Override
+    public void appendNotes(Collection<Note> notes) {
+        append(Change.Kind.NOTE, notes, Note::getId,
+                note -> note.getPerson() == null ? null : note.getPerson().getId());
+    }
+
+    private <T> void append(Change.Kind kind, Collection<T> entities, Function<T, UUID> id,
+                            Function<T, UUID> personId) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        jdbcTemplate.batchUpdate("insert into CHANGE_LOG (entity, entity_id, person_id,"
+                        + " recorded_at) values (?, ?, ?, ?)",
+                entities, batchSize, (ps, entity) -> {
+                    ps.setString(1, kind.name());
+                    ps.setObject(2, id.apply(entity));
+                    ps.setObject(3, personId.apply(entity));
+                    ps.setObject(4, now);
+                });
+        eventPublisher.publishEvent(new ChangesAppended(entities.size()));
+    }
+}
@@ -1,29 +1,155 @@
 package io.muehlbachler.fhburgenland.swm.examination.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
+import io.muehlbachler.fhburgenland.swm.examination.dto.NoteView;
 import io.muehlbachler.fhburgenland.swm.examination.model.Note;
+import jakarta.persistence.QueryHint;
 
 
 /**
  * Manages database operations for notes.
  * Provides methods for CRUD operations and custom queries.
  * Ensures proper handling of database interactions.
+ * Finders returning whole notes load them read-only, as no caller modifies what it reads.
  */
 
-public interface NoteRepository extends CrudRepository<Note, String> {
+public interface NoteRepository extends CrudRepository<Note, UUID>, NoteRepositoryCustom {
 
     /**
-     * Finds notes whose content contains the specified string.
-     * Purpose: To retrieve a list of notes that contain a given string in their content.
+     * Finds notes by their IDs as read-only entities.
+     * Purpose: To check which notes of a batch are already stored, without snapshotting them.
+     * Input: 'ids' (Iterable< UUID>) - The IDs of the notes.
+     * Output: The notes found; changes to them are never flushed.
+     * Errors: Might throw exceptions if 'ids' is null or contains null.
+     *
+     * @param ids The IDs of the notes.
+     * @return The notes found, in no particular order.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Iterable<Note> findAllById(Iterable<UUID> ids);
+
+    /**
+     * Finds the read model of a note by ID.
+     * Purpose: To read a note without managing, snapshotting and dirty checking an entity.
+     * Input: 'id' (UUID) - The unique identifier of the note.
+     * Output: The view of the note, or empty if not found.
+     * Errors: might throw exceptions related to database access issues.
+     *
+     * @param id The unique identifier of the note.
+     * @return An Optional containing the view of the note, if found.
+     */
+    @Query("select new io.muehlbachler.fhburgenland.swm.examination.dto.NoteView("
+            + "n.id, n.person.id, n.content, n.version, n.modifiedAt, n.contentSize) from Note n"
+            + " where n.id = :id")
+    Optional<NoteView> findViewById(UUID id);
+
+    /**
+     * Finds which of the given notes are stored.
+     * Purpose: To tell the content store which of its bodies belong to stored notes.
+     * Input: 'ids' (Collection< UUID>) - The IDs of the notes.
+     * Output: The IDs of the notes that exist, in no particular order.
+     * Errors: might throw exceptions related to database access issues.
+     *
+     * @param ids The IDs of the notes.
+     * @return The IDs of the stored notes.
+     */
+    @Query("select n.id from Note n where n.id in :ids")
+    List<UUID> findIdsByIdIn(Collection<UUID> ids);
+
+    /**
+     * Finds the read models of the notes with the given IDs.
+     * Purpose: To load candidates of the content index without loading entities.
+     * Input: 'ids' (Collection< UUID>) - The IDs of the notes.
+     * Output: The views of the notes that exist, in no particular order.
+     * Errors: might throw exceptions related to database access issues.
+     *
+     * @param ids The IDs of the notes.
+     * @return The views of the notes.
+     */
+    @Query("select new io.muehlbachler.fhburgenland.swm.examination.dto.NoteView("
+            + "n.id, n.person.id, n.content, n.version, n.modifiedAt, n.contentSize) from Note n"
+            + " where n.id in :ids")
+    List<NoteView> findViewsByIdIn(Collection<UUID> ids);
+
+    /**
+     * Streams the read models of all notes.
+     * Purpose: To populate the content index without loading every note entity at once.
+     * Output: The views of all notes; the stream must be closed and consumed within a
+     * transaction.
+     * Errors: might throw exceptions related to database access issues.
+     *
+     * @return The views of all notes, read from a database cursor.
+     */
+    @Query("select new io.muehlbachler.fhburgenland.swm.examination.dto.NoteView("
+            + "n.id, n.person.id, n.content, n.version, n.modifiedAt, n.contentSize) from Note n")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<NoteView> streamAllViews();
+
+    /**
+     * Streams the read models of notes whose content contains the specified string.
+     * Purpose: To write content scans of any size without materializing their results.
+     * Input: 'content' (String) - The text to search for within the notes' content.
+     * Output: The views of the matching notes; the stream must be closed and consumed within a
+     * transaction.
+     * Errors: might throw exceptions related to invalid query syntax.
+     *
+     * @param content The string to search for within the notes' content.
+     * @return The views of the matching notes, read from a database cursor.
+     */
+    @Query("select new io.muehlbachler.fhburgenland.swm.examination.dto.NoteView("
+            + "n.id, n.person.id, n.content, n.version, n.modifiedAt, n.contentSize) from Note n"
+            + " where n.content like %:content%")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<NoteView> streamViewsByContentContaining(String content);
+
+    /**
+     * Finds the read models of the notes of the given persons, ordered by ID.
+     * Purpose: To attach notes to person views with a query on the foreign key.
+     * Input: 'personIds' (Collection< UUID>) - The IDs of the persons.
+     * Output: The views of all notes of these persons.
+     * Errors: might throw exceptions related to database access issues.
+     *
+     * @param personIds The IDs of the persons.
+     * @return The views of their notes.
+     */
+    @Query("select new io.muehlbachler.fhburgenland.swm.examination.dto.NoteView("
+            + "n.id, n.person.id, n.content, n.version, n.modifiedAt, n.contentSize) from Note n"
+            + " where n.person.id in :personIds order by n.id")
+    List<NoteView> findViewsByPersonIdIn(Collection<UUID> personIds);
+
+    /**
+     * Counts notes whose content contains the specified string.
+     * Purpose: To count matching notes with a single COUNT query instead of loading them.
      * Input: 'content' (String) - The text to search for within the notes' content.
-     * Output: List< Note> - A list of notes where the content contains the specified string.
+     * Output: long - The number of notes where the content contains the specified string.
      * Errors: might throw exceptions related to invalid query syntax.
      *
      * @param content The string to search for within the notes' content.
-     * @return A list of notes that contain the specified string in their content.
+     * @return The number of matching notes.
+     */
+    long countByContentContaining(String content);
+
+    /**
+     * Counts notes among the given IDs whose content contains the specified string.
+     * Purpose: To verify candidates of the content index with a COUNT query on the primary key.
+     * Input: 'ids' (Collection< UUID>) - The candidate IDs, 'content' (String) - The text.
+     * Output: long - The number of candidates where the content contains the specified string.
+     * Errors: might throw exceptions related to database access issues.
+     *
+     * @param ids The IDs of the candidate notes.
+     * @param content The string to search for within the notes' content.
+     * @return The number of matching candidates.
      */
-    List<Note> findByContentContaining(String content);
+    long countByIdInAndContentContaining(Collection<UUID> ids, String content);
 }
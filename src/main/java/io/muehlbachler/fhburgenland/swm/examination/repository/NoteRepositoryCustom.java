@@ -0,0 +1,39 @@
+package io.muehlbachler.fhburgenland.swm.examination.repository;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.Note;
+
+/**
+ * Custom repository fragment for Note entities.
+ * Provides data access that cannot be expressed as derived queries.
+ * Implemented by NoteRepositoryCustomImpl and mixed into NoteRepository.
+ */
+
+public interface NoteRepositoryCustom {
+
+    /**
+     * Inserts notes with JDBC batches, bypassing the persistence context.
+     * Purpose: To ingest large numbers of notes without one statement and transaction each.
+     * Input: 'notes' (List< Note>) - The notes to insert, with IDs and persons already assigned.
+     * Errors: Each chunk is committed on its own; a failing chunk leaves earlier ones in place.
+     *
+     * @param notes The notes to insert.
+     */
+    default void insertAll(List<Note> notes) {
+        insertAll(notes, chunk -> { });
+    }
+
+    /**
+     * Inserts notes with JDBC batches and reports every chunk once it is committed.
+     * Purpose: To update in-memory state such as the content index only for stored notes.
+     * Input: 'notes' (List< Note>) - The notes to insert, with IDs and persons already assigned,
+     * 'committed' (Consumer< List< Note>>) - Receives each chunk after its commit.
+     * Errors: A failing chunk is not reported, nor is any later one.
+     *
+     * @param notes The notes to insert.
+     * @param committed Receives each chunk after its transaction committed.
+     */
+    void insertAll(List<Note> notes, Consumer<List<Note>> committed);
+}
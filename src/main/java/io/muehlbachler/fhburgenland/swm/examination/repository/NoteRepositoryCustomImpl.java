@@ -0,0 +1,82 @@
+package io.muehlbachler.fhburgenland.swm.examination.repository;
+
+import java.sql.Types;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.hibernate.Cache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.collect.Lists;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.Note;
+import io.muehlbachler.fhburgenland.swm.examination.model.Person;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnit;
+
+/**
+ * Implementation of the custom Note repository fragment.
+ * Uses plain JDBC where going through the persistence context is too costly.
+ */
+
+public class NoteRepositoryCustomImpl implements NoteRepositoryCustom {
+    private static final String NOTES_ROLE = Person.class.getName() + ".notes";
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ChangeRepository changeRepository;
+    @Value("${examination.bulk.batch-size:500}")
+    private int batchSize;
+    @Value("${examination.bulk.chunk-size:5000}")
+    private int chunkSize;
+
+    /**
+     * Inserts notes with JDBC batches of 'examination.bulk.batch-size' statements,
+     * committing a transaction every 'examination.bulk.chunk-size' notes together with their
+     * entries in the change log.
+     * Hibernate does not see these inserts, so the cached notes of the affected persons are
+     * evicted from the second-level cache once each chunk is committed.
+     * The chunk is handed to 'committed' by a synchronization of its transaction, so it is
+     * only reported once that, or the transaction it joined, has committed.
+     *
+     * @param notes The notes to insert.
+     * @param committed Receives each chunk after its transaction committed.
+     */
+    @Override
+    public void insertAll(List<Note> notes, Consumer<List<Note>> committed) {
+        for (List<Note> chunk : Lists.partition(notes, chunkSize)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(
+                        "insert into NOTE (id, person_id, content, content_size)"
+                                + " values (?, ?, ?, ?)",
+                        chunk, batchSize, (ps, note) -> {
+                            ps.setObject(1, note.getId());
+                            ps.setObject(2, note.getPerson().getId());
+                            ps.setString(3, note.getContent());
+                            ps.setObject(4, note.getContentSize(), Types.INTEGER);
+                        });
+                changeRepository.appendNotes(chunk);
+                TransactionSynchronizationManager.registerSynchronization(
+                        new TransactionSynchronization() {
+                            @Override
+                            public void afterCommit() {
+                                committed.accept(chunk);
+                            }
+                        });
+            });
+            Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+            chunk.stream().map(note -> note.getPerson().getId()).distinct()
+                    .forEach(personId -> cache.evictCollectionData(NOTES_ROLE, personId));
+        }
+    }
+}
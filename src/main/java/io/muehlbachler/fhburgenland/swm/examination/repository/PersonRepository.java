@@ -1,53 +1,273 @@
 package io.muehlbachler.fhburgenland.swm.examination.repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.annotation.Transactional;
 
+import io.muehlbachler.fhburgenland.swm.examination.dto.PersonSummary;
+import io.muehlbachler.fhburgenland.swm.examination.dto.PersonView;
 import io.muehlbachler.fhburgenland.swm.examination.model.Person;
+import jakarta.persistence.QueryHint;
 
 /**
  * Repository interface for managing Person entities.
  * Provides CRUD operations and custom query methods for persons.
  * Ensures proper data access and manipulation.
+ * Finders returning whole persons fetch their notes along, so serializing them causes no N+1.
+ * View finders return read models without notes, which never enter the persistence context.
+ * Entity finders carry the Hibernate read-only hint: nothing they load is snapshotted for dirty
+ * checking, and changes to it are never flushed, so updates go through save or queries.
+ * The view name finders serving /person/query cache their result rows in the second-level
+ * query cache, which Hibernate invalidates on every write to the persons it performs itself.
  */
 
-public interface PersonRepository extends CrudRepository<Person, String> {
+public interface PersonRepository extends CrudRepository<Person, UUID>, PersonRepositoryCustom {
+    /**
+     * The second-level cache region of the results of the name finders.
+     */
+    String NAMES_CACHE_REGION = "person-names";
+
+    /**
+     * Finds a person by ID together with their notes.
+     * Purpose: To load a person completely, so it can be cached and serialized without a session.
+     * Input: 'id' (UUID) - The unique identifier of the person.
+     * Output: The person with their notes initialized, or empty if not found.
+     * Errors: Might throw exceptions if 'id' is null.
+     *
+     * @param id The unique identifier of the person.
+     * @return An Optional containing the person, if found.
+     */
+    @Override
+    @EntityGraph(attributePaths = "notes")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Optional<Person> findById(UUID id);
+
+    /**
+     * Finds a person by ID without the read-only hint and without their notes.
+     * Purpose: To change a person through the persistence context, so that flushing it updates
+     * just its own second-level cache entry instead of evicting the region like 'touch'.
+     * Input: 'id' (UUID) - The unique identifier of the person.
+     * Output: The managed person, or empty if not found.
+     * Errors: Might throw exceptions related to database access issues.
+     *
+     * @param id The unique identifier of the person.
+     * @return An Optional containing the managed person, if found.
+     */
+    Optional<Person> findWritableById(UUID id);
+
+    /**
+     * Finds all persons without their notes.
+     * Purpose: To list persons when the notes are not needed at all.
+     * Output: A list of summaries of all persons.
+     * Errors: Might throw exceptions related to database access issues.
+     *
+     * @return A list of summaries of all persons.
+     */
+    @Query("select new io.muehlbachler.fhburgenland.swm.examination.dto.PersonSummary("
+            + "p.id, p.firstName, p.lastName) from Person p")
+    List<PersonSummary> findAllSummaries();
+
+    /**
+     * Finds the read model of a person by ID.
+     * Purpose: To read a person without managing, snapshotting and dirty checking an entity.
+     * Input: 'id' (UUID) - The unique identifier of the person.
+     * Output: The view of the person without notes, or empty if not found.
+     * Errors: Might throw exceptions related to database access issues.
+     *
+     * @param id The unique identifier of the person.
+     * @return An Optional containing the view of the person, if found.
+     */
+    @Query("select new io.muehlbachler.fhburgenland.swm.examination.dto.PersonView("
+            + "p.id, p.firstName, p.lastName, p.version, p.modifiedAt) from Person p"
+            + " where p.id = :id")
+    Optional<PersonView> findViewById(UUID id);
+
+    /**
+     * Finds the read models of all persons, ordered by ID.
+     * Purpose: To list persons without loading entities.
+     * Output: The views of all persons without notes.
+     * Errors: Might throw exceptions related to database access issues.
+     *
+     * @return The views of all persons.
+     */
+    @Query("select new io.muehlbachler.fhburgenland.swm.examination.dto.PersonView("
+            + "p.id, p.firstName, p.lastName, p.version, p.modifiedAt) from Person p"
+            + " order by p.id")
+    List<PersonView> findAllViews();
+
+    /**
+     * Finds the read models of the first persons, ordered by ID.
+     * Purpose: To fetch the first page of persons without loading entities.
+     * Input: 'limit' (Limit) - The page size.
+     * Output: The views of at most 'limit' persons with the lowest IDs, without notes.
+     * Errors: Might throw exceptions related to database access issues.
+     *
+     * @param limit The maximum number of persons to return.
+     * @return The views of the first page.
+     */
+    @Query("select new io.muehlbachler.fhburgenland.swm.examination.dto.PersonView("
+            + "p.id, p.firstName, p.lastName, p.version, p.modifiedAt) from Person p"
+            + " order by p.id")
+    List<PersonView> findViews(Limit limit);
 
     /**
-     * Finds persons by their first name.
-     * Purpose: To retrieve a list of persons with a specific first name.
+     * Finds the read models of the persons following a given ID, ordered by ID.
+     * Purpose: To page through persons with a keyset on the primary key without loading entities.
+     * Input: 'after' (UUID) - The last ID of the previous page, 'limit' (Limit) - The page size.
+     * Output: The views of at most 'limit' persons with an ID greater than 'after'.
+     * Errors: Might throw exceptions related to database access issues.
+     *
+     * @param after The last ID of the previous page.
+     * @param limit The maximum number of persons to return.
+     * @return The views of the requested page.
+     */
+    @Query("select new io.muehlbachler.fhburgenland.swm.examination.dto.PersonView("
+            + "p.id, p.firstName, p.lastName, p.version, p.modifiedAt) from Person p"
+            + " where p.id > :after order by p.id")
+    List<PersonView> findViewsByIdGreaterThan(UUID after, Limit limit);
+
+    /**
+     * Finds the read models of persons by their first name.
+     * Purpose: To search persons by first name without loading entities.
      * Input: 'firstName' (String) - The first name to search for.
-     * Output: A list of persons with the specified first name.
-     * Errors: Might throw exceptions related to database access issues or invalid query syntax.
+     * Output: The views of the persons with the specified first name, without notes.
+     * Errors: Might throw exceptions related to database access issues.
      *
      * @param firstName The first name to search for.
-     * @return A list of persons with the specified first name.
+     * @return The views of the matching persons.
      */
-    List<Person> findByFirstName(String firstName);
+    @Query("select new io.muehlbachler.fhburgenland.swm.examination.dto.PersonView("
+            + "p.id, p.firstName, p.lastName, p.version, p.modifiedAt) from Person p"
+            + " where p.firstName = :firstName")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = NAMES_CACHE_REGION)})
+    List<PersonView> findViewsByFirstName(String firstName);
 
     /**
-     * Finds persons by their last name.
-     * Purpose: To retrieve a list of persons with a specific last name.
+     * Finds the read models of persons by their last name.
+     * Purpose: To search persons by last name without loading entities.
      * Input: 'lastName' (String) - The last name to search for.
-     * Output: A list of persons with the specified last name.
-     * Errors: Might throw exceptions related to database access issues or invalid query syntax.
+     * Output: The views of the persons with the specified last name, without notes.
+     * Errors: Might throw exceptions related to database access issues.
      *
      * @param lastName The last name to search for.
-     * @return A list of persons with the specified last name.
+     * @return The views of the matching persons.
      */
-    List<Person> findByLastName(String lastName);
+    @Query("select new io.muehlbachler.fhburgenland.swm.examination.dto.PersonView("
+            + "p.id, p.firstName, p.lastName, p.version, p.modifiedAt) from Person p"
+            + " where p.lastName = :lastName")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = NAMES_CACHE_REGION)})
+    List<PersonView> findViewsByLastName(String lastName);
 
     /**
-     * Finds persons by both first and last name.
-     * Purpose: To retrieve a list of persons with a specific combination of first and last name.
+     * Finds the read models of persons by both first and last name.
+     * Purpose: To search persons by their full name without loading entities.
      * Input: 'firstName' (String), 'lastName' (String) - The first and last names to search for.
-     * Output: A list of persons with the specified combination of first and last names.
-     * Errors: Might throw exceptions related to database access issues or invalid query syntax.
+     * Output: The views of the persons matching both names, without notes.
+     * Errors: Might throw exceptions related to database access issues.
      *
      * @param firstName The first name to search for.
      * @param lastName The last name to search for.
-     * @return A list of persons matching both the specified first and last names.
+     * @return The views of the matching persons.
+     */
+    @Query("select new io.muehlbachler.fhburgenland.swm.examination.dto.PersonView("
+            + "p.id, p.firstName, p.lastName, p.version, p.modifiedAt) from Person p"
+            + " where p.firstName = :firstName and p.lastName = :lastName")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = NAMES_CACHE_REGION)})
+    List<PersonView> findViewsByFirstNameAndLastName(String firstName, String lastName);
+
+    /**
+     * Finds the read models of persons by their IDs.
+     * Purpose: To load the persons found by the name index without loading entities.
+     * Input: 'ids' (Collection< UUID>) - The IDs of the persons.
+     * Output: The views of the persons found, without notes, in no particular order.
+     * Errors: Might throw exceptions related to database access issues.
+     *
+     * @param ids The IDs of the persons.
+     * @return The views of the persons found.
+     */
+    @Query("select new io.muehlbachler.fhburgenland.swm.examination.dto.PersonView("
+            + "p.id, p.firstName, p.lastName, p.version, p.modifiedAt) from Person p"
+            + " where p.id in :ids")
+    List<PersonView> findViewsByIdIn(Collection<UUID> ids);
+
+    /**
+     * Finds the read models of persons whose first or last name starts with a prefix.
+     * Purpose: To answer name searches while the name index is not populated yet.
+     * Input: 'prefix' (String) - The lower case prefix, 'limit' (Limit) - The maximum results.
+     * Output: The views of at most 'limit' matching persons, ordered by name.
+     * Errors: Might throw exceptions related to database access issues; scans the table.
+     *
+     * @param prefix The lower case prefix of a first or last name.
+     * @param limit The maximum number of persons to return.
+     * @return The views of the matching persons.
+     */
+    @Query("select new io.muehlbachler.fhburgenland.swm.examination.dto.PersonView("
+            + "p.id, p.firstName, p.lastName, p.version, p.modifiedAt) from Person p"
+            + " where lower(p.firstName) like concat(:prefix, '%')"
+            + " or lower(p.lastName) like concat(:prefix, '%')"
+            + " order by p.lastName, p.firstName, p.id")
+    List<PersonView> findViewsByNamePrefix(String prefix, Limit limit);
+
+    /**
+     * Streams all persons without their notes from a database cursor.
+     * Purpose: To populate the name index without materializing the table on the heap.
+     * Output: The summaries of all persons; the stream must be closed and consumed within a
+     * transaction.
+     * Errors: Might throw exceptions related to database access issues.
+     *
+     * @return The summaries of all persons.
+     */
+    @Query("select new io.muehlbachler.fhburgenland.swm.examination.dto.PersonSummary("
+            + "p.id, p.firstName, p.lastName) from Person p")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<PersonSummary> streamAllSummaries();
+
+    /**
+     * Counts the notes of a person.
+     * Purpose: To count the notes of a person with a single query, without loading either.
+     * Input: 'id' (UUID) - The unique identifier of the person.
+     * Output: The number of notes of the person, or empty if the person does not exist.
+     * Errors: Might throw exceptions related to database access issues.
+     *
+     * @param id The unique identifier of the person.
+     * @return An Optional containing the number of notes, if the person exists.
+     */
+    @Query("select count(n) from Person p left join p.notes n where p.id = :id group by p.id")
+    Optional<Long> countNotesById(UUID id);
+
+    /**
+     * Marks a person as modified without loading it.
+     * Purpose: To change the revision of a person whose notes were added or changed.
+     * Input: 'id' (UUID) - The unique identifier, 'modifiedAt' (Instant) - The modification time.
+     * Output: The number of updated persons, 0 if the person does not exist.
+     * Errors: Might throw exceptions related to database access issues.
+     * Being a bulk update, it evicts all persons and their notes from the second-level cache.
+     *
+     * @param id The unique identifier of the person.
+     * @param modifiedAt The time of the modification.
+     * @return The number of updated persons.
      */
-    List<Person> findByFirstNameAndLastName(String firstName, String lastName);
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Person p set p.version = p.version + 1, p.modifiedAt = :modifiedAt "
+            + "where p.id = :id")
+    int touch(UUID id, Instant modifiedAt);
 }
@@ -0,0 +1,32 @@
+package io.muehlbachler.fhburgenland.swm.examination.repository;
+
+import java.util.List;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.Person;
+
+/**
+ * Custom repository fragment for Person entities.
+ * Provides data access that cannot be expressed as derived queries.
+ * Implemented by PersonRepositoryCustomImpl and mixed into PersonRepository.
+ */
+
+public interface PersonRepositoryCustom {
+
+    /**
+     * Inserts persons with JDBC batches, bypassing the persistence context.
+     * Purpose: To ingest large numbers of persons without one statement and transaction each.
+     * Input: 'persons' (List< Person>) - The persons to insert, with their IDs already assigned.
+     * Errors: Each chunk is committed on its own; a failing chunk leaves earlier ones in place.
+     * The cached results of the name finders are left as they are, see evictNameQueries.
+     *
+     * @param persons The persons to insert.
+     */
+    void insertAll(List<Person> persons);
+
+    /**
+     * Evicts the cached results of the name finders.
+     * Purpose: To drop name query results that persons inserted by insertAll are missing from,
+     * once for a whole import rather than for each of its inserts.
+     */
+    void evictNameQueries();
+}
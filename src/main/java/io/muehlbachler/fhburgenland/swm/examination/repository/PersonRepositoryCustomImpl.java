@@ -0,0 +1,69 @@
+package io.muehlbachler.fhburgenland.swm.examination.repository;
+
+import java.util.List;
+
+import org.hibernate.Cache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.collect.Lists;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.Person;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Implementation of the custom Person repository fragment.
+ * Uses the EntityManager directly where Spring Data derived queries fall short.
+ */
+
+public class PersonRepositoryCustomImpl implements PersonRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ChangeRepository changeRepository;
+    @Value("${examination.bulk.batch-size:500}")
+    private int batchSize;
+    @Value("${examination.bulk.chunk-size:5000}")
+    private int chunkSize;
+
+    /**
+     * Inserts persons with JDBC batches of 'examination.bulk.batch-size' statements,
+     * committing a transaction every 'examination.bulk.chunk-size' persons together with their
+     * entries in the change log.
+     * Hibernate does not see these inserts; the caller evicts the cached results of the name
+     * finders with {@link #evictNameQueries()} once it is done inserting.
+     *
+     * @param persons The persons to insert.
+     */
+    @Override
+    public void insertAll(List<Person> persons) {
+        for (List<Person> chunk : Lists.partition(persons, chunkSize)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(
+                        "insert into PERSON (id, first_name, last_name) values (?, ?, ?)",
+                        chunk, batchSize, (ps, person) -> {
+                            ps.setObject(1, person.getId());
+                            ps.setString(2, person.getFirstName());
+                            ps.setString(3, person.getLastName());
+                        });
+                changeRepository.appendPersons(chunk);
+            });
+        }
+    }
+
+    /**
+     * Evicts the cached results of the name finders.
+     */
+    @Override
+    public void evictNameQueries() {
+        entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class)
+                .evictQueryRegion(PersonRepository.NAMES_CACHE_REGION);
+    }
+}
@@ -0,0 +1,37 @@
+package io.muehlbachler.fhburgenland.swm.examination.repository;
+
+import java.util.UUID;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.NoteRow;
+import reactor.core.publisher.Flux;
+
+/**
+ * Manages non-blocking database operations for notes through R2DBC.
+ * Rows are emitted as they are read, as fast as the subscriber requests them.
+ * Shares the NOTE table and its indexes with {@link NoteRepository}.
+ */
+
+public interface ReactiveNoteRepository extends ReactiveCrudRepository<NoteRow, UUID> {
+
+    /**
+     * Finds notes whose content contains the specified string.
+     * Purpose: To scan notes by content when the content index cannot answer a query.
+     * Input: 'content' (String) - The text to search for within the notes' content.
+     * Output: Flux< NoteRow> - The notes containing the text.
+     * Errors: Signals errors related to database access issues.
+     *
+     * @param content The string to search for within the notes' content.
+     * @return The notes that contain the specified string.
+     */
+    Flux<NoteRow> findByContentContaining(String content);
+
+    /**
+     * Finds the notes of a person.
+     *
+     * @param personId The ID of the person.
+     * @return The notes of the person, using the person_id index.
+     */
+    Flux<NoteRow> findByPersonId(UUID personId);
+}
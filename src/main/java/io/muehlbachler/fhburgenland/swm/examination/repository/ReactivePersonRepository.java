@@ -0,0 +1,46 @@
+package io.muehlbachler.fhburgenland.swm.examination.repository;
+
+import java.util.UUID;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.PersonRow;
+import reactor.core.publisher.Flux;
+
+/**
+ * Manages non-blocking database operations for persons through R2DBC.
+ * Rows are emitted as they are read, as fast as the subscriber requests them.
+ * Shares the PERSON table and its indexes with {@link PersonRepository}.
+ */
+
+public interface ReactivePersonRepository extends ReactiveCrudRepository<PersonRow, UUID> {
+
+    /**
+     * Finds persons by their first and last name.
+     * Purpose: To search persons by both names, using the (first_name, last_name) index.
+     * Input: 'firstName' (String), 'lastName' (String) - The names to search for.
+     * Output: Flux< PersonRow> - The matching persons.
+     * Errors: Signals errors related to database access issues.
+     *
+     * @param firstName The first name to search for.
+     * @param lastName The last name to search for.
+     * @return The matching persons.
+     */
+    Flux<PersonRow> findByFirstNameAndLastName(String firstName, String lastName);
+
+    /**
+     * Finds persons by their first name.
+     *
+     * @param firstName The first name to search for.
+     * @return The matching persons.
+     */
+    Flux<PersonRow> findByFirstName(String firstName);
+
+    /**
+     * Finds persons by their last name.
+     *
+     * @param lastName The last name to search for.
+     * @return The matching persons.
+     */
+    Flux<PersonRow> findByLastName(String lastName);
+}
@@ -0,0 +1,296 @@
+package io.muehlbachler.fhburgenland.swm.examination.search;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import io.muehlbachler.fhburgenland.swm.examination.dto.NoteView;
+
+/**
+ * In-process inverted index over the content of notes.
+ * Tokenizes content into overlapping trigrams and keeps a postings list per trigram.
+ * Resolves substring queries to a small candidate set instead of scanning the NOTE table.
+ * Candidates still have to be verified, as sharing all trigrams does not imply containment.
+ * Every added note gets the next int document number, its ID is kept in a table indexed by
+ * that number. Postings lists hold ascending document numbers as variable length deltas in a
+ * byte array, about one to two bytes per trigram occurrence, with a skip entry every
+ * {@link #SKIP_INTERVAL} postings so intersections jump over blocks without decoding them.
+ */
+
+@Component
+public class NoteContentIndex {
+    /**
+     * Length of the grams the content is split into.
+     * Queries shorter than this cannot be answered from the index.
+     */
+    public static final int GRAM_LENGTH = 3;
+
+    private static final int SKIP_INTERVAL = 128;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int END = Integer.MAX_VALUE;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private long[] mostSignificantBits = new long[INITIAL_CAPACITY];
+    private long[] leastSignificantBits = new long[INITIAL_CAPACITY];
+    private int documents;
+    private volatile boolean ready;
+
+    /**
+     * Splits a text into its distinct trigrams.
+     * Purpose: To produce the index terms for note content and for queries alike.
+     * Input: 'text' (String) - The text to tokenize.
+     * Output: Set< String> - The distinct grams, empty if the text is shorter than a gram.
+     * Errors: A null text is treated like an empty one.
+     *
+     * @param text The text to tokenize.
+     * @return The distinct grams of the text.
+     */
+    public static Set<String> tokenize(String text) {
+        Set<String> grams = new HashSet<>();
+        if (text == null) {
+            return grams;
+        }
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * Adds a note to the index.
+     * Purpose: To keep the index in sync with newly committed notes.
+     * Input: 'id' (UUID) - The ID of the note, 'content' (String) - The content of the note.
+     * Errors: Notes without an ID are ignored, as they cannot be loaded later on.
+     *
+     * @param id The ID of the note.
+     * @param content The content of the note.
+     */
+    public void add(UUID id, String content) {
+        if (id == null) {
+            return;
+        }
+        Set<String> grams = tokenize(content);
+        lock.writeLock().lock();
+        try {
+            int document = documents;
+            if (document == mostSignificantBits.length) {
+                mostSignificantBits = Arrays.copyOf(mostSignificantBits, document * 2);
+                leastSignificantBits = Arrays.copyOf(leastSignificantBits, document * 2);
+            }
+            mostSignificantBits[document] = id.getMostSignificantBits();
+            leastSignificantBits[document] = id.getLeastSignificantBits();
+            documents++;
+            for (String gram : grams) {
+                postings.computeIfAbsent(gram, key -> new Postings()).append(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds all given notes and marks the index as ready to answer queries.
+     * Purpose: To populate the index from the notes already stored in the database.
+     * Input: 'notes' (Iterable< NoteView>) - The notes to index, e.g. read from a cursor.
+     * Errors: Entries are only ever added, so notes created concurrently are not lost; a note
+     * added twice only costs its postings twice.
+     *
+     * @param notes The notes to index.
+     */
+    public void rebuild(Iterable<NoteView> notes) {
+        for (NoteView note : notes) {
+            add(note.id(), note.content());
+        }
+        ready = true;
+    }
+
+    /**
+     * Checks whether the index has been populated.
+     *
+     * @return True if the index covers all stored notes.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the size of all postings lists.
+     * Purpose: To report the memory the postings take, without the ID table of 16 bytes per note.
+     * Output: long - The number of bytes the encoded postings and their skip entries occupy.
+     *
+     * @return The size of all postings lists in bytes.
+     */
+    public long postingsBytes() {
+        lock.readLock().lock();
+        try {
+            return postings.values().stream().mapToLong(Postings::bytes).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Resolves a query to the IDs of all notes that may contain it.
+     * Purpose: To narrow a substring query down to a candidate set by intersecting postings lists.
+     * Input: 'query' (String) - The text to search for.
+     * Output: Optional< Set< UUID>> - The candidate IDs, or empty if the index cannot answer.
+     * Errors: Returns empty for null or too short queries and while the index is not ready.
+     *
+     * @param query The text to search for.
+     * @return The candidate note IDs, if the index is able to answer the query.
+     */
+    public Optional<Set<UUID>> candidates(String query) {
+        Set<String> grams = tokenize(query);
+        if (!ready || grams.isEmpty()) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = grams.stream()
+                    .map(gram -> postings.getOrDefault(gram, Postings.EMPTY))
+                    .sorted(Comparator.comparingInt(Postings::size))
+                    .toList();
+
+            // Decode the shortest list and advance through the others to its documents only
+            int[] matches = lists.getFirst().decode();
+            int count = matches.length;
+            for (int i = 1; i < lists.size() && count > 0; i++) {
+                Cursor cursor = new Cursor(lists.get(i));
+                int kept = 0;
+                for (int j = 0; j < count; j++) {
+                    if (cursor.advance(matches[j]) == matches[j]) {
+                        matches[kept++] = matches[j];
+                    }
+                }
+                count = kept;
+            }
+
+            Set<UUID> ids = HashSet.newHashSet(count);
+            for (int j = 0; j < count; j++) {
+                ids.add(new UUID(mostSignificantBits[matches[j]],
+                        leastSignificantBits[matches[j]]));
+            }
+            return Optional.of(ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ascending document numbers, each stored as the difference to its predecessor in 7 bit
+     * groups. Skip entry k holds the last document before posting k * SKIP_INTERVAL and the
+     * offset that posting starts at.
+     */
+    private static final class Postings {
+        private static final Postings EMPTY = new Postings();
+
+        private byte[] data = new byte[8];
+        private int length;
+        private int size;
+        private int last = -1;
+        private int[] skipDocuments = new int[0];
+        private int[] skipOffsets = new int[0];
+        private int skips;
+
+        private void append(int document) {
+            if (size > 0 && size % SKIP_INTERVAL == 0) {
+                if (skips == skipDocuments.length) {
+                    skipDocuments = Arrays.copyOf(skipDocuments, Math.max(4, skips * 2));
+                    skipOffsets = Arrays.copyOf(skipOffsets, skipDocuments.length);
+                }
+                skipDocuments[skips] = last;
+                skipOffsets[skips] = length;
+                skips++;
+            }
+            if (length + 5 > data.length) {
+                data = Arrays.copyOf(data, Math.max(length + 5, data.length + (data.length >> 1)));
+            }
+            int delta = document - last;
+            while (delta >= 0x80) {
+                data[length++] = (byte) (delta | 0x80);
+                delta >>>= 7;
+            }
+            data[length++] = (byte) delta;
+            last = document;
+            size++;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private long bytes() {
+            return data.length + 8L * skipDocuments.length;
+        }
+
+        private int[] decode() {
+            int[] documents = new int[size];
+            Cursor cursor = new Cursor(this);
+            for (int i = 0; i < size; i++) {
+                documents[i] = cursor.next();
+            }
+            return documents;
+        }
+    }
+
+    /**
+     * Reads a postings list front to back; must be used under the read lock.
+     */
+    private static final class Cursor {
+        private final Postings postings;
+        private int offset;
+        private int document = -1;
+        private int skip;
+
+        private Cursor(Postings postings) {
+            this.postings = postings;
+        }
+
+        private int next() {
+            if (offset >= postings.length) {
+                document = END;
+                return END;
+            }
+            int delta = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = postings.data[offset++];
+                delta |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    break;
+                }
+            }
+            document += delta;
+            return document;
+        }
+
+        /**
+         * Moves to the first document at or after the target, skipping whole blocks whose
+         * documents all precede it. Targets must be ascending.
+         */
+        private int advance(int target) {
+            while (skip < postings.skips && postings.skipDocuments[skip] < target) {
+                if (postings.skipOffsets[skip] > offset) {
+                    document = postings.skipDocuments[skip];
+                    offset = postings.skipOffsets[skip];
+                }
+                skip++;
+            }
+            while (document < target) {
+                next();
+            }
+            return document;
+        }
+    }
+}
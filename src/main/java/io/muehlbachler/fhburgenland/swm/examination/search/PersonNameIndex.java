@@ -0,0 +1,368 @@
+package io.muehlbachler.fhburgenland.swm.examination.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+import io.muehlbachler.fhburgenland.swm.examination.dto.PersonSummary;
+
+/**
+ * In-process index over the first and last names of persons, for autocomplete and fuzzy search.
+ * Names are normalized, i.e. case folded and stripped of diacritics, and kept in a trie whose
+ * nodes hold the IDs of the persons with a first or last name ending there.
+ * A name matches a query if it starts with a string within the maximum edit distance of the
+ * query; with a distance of 0 that is a plain prefix match. The trie is walked with one row of
+ * the Levenshtein matrix per node, which prunes every branch that cannot match anymore.
+ * Matches are ranked by distance, then names equal to the query before longer ones, then
+ * alphabetically, so a prefix query stops after 'limit' names instead of visiting the subtree.
+ */
+
+@Component
+public class PersonNameIndex {
+    /**
+     * Largest edit distance a query may ask for; larger ones match too much to be useful.
+     */
+    public static final int MAX_DISTANCE = 2;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private volatile boolean ready;
+
+    /**
+     * A person matching a query.
+     *
+     * @param personId The ID of the person.
+     * @param name The first or last name that matched, as it was first added.
+     * @param distance The edit distance between the query and the closest prefix of the name.
+     */
+    public record Match(UUID personId, String name, int distance) {
+    }
+
+    private record Root(Node node, String path, int distance) {
+    }
+
+    /**
+     * Normalizes a name for indexing and querying.
+     * Purpose: To match names regardless of case, diacritics and surrounding whitespace.
+     * Input: 'name' (String) - The name to normalize.
+     * Output: String - The name in lower case without diacritics, "Jos&eacute;" becomes "jose".
+     * Errors: A null name is treated like an empty one.
+     *
+     * @param name The name to normalize.
+     * @return The normalized name.
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(name.strip(), Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Adds a person to the index.
+     * Purpose: To keep the index in sync with newly persisted persons.
+     * Input: 'id' (UUID) - The ID of the person, 'firstName', 'lastName' (String) - The names.
+     * Errors: Persons without an ID and empty names are ignored.
+     *
+     * @param id The ID of the person.
+     * @param firstName The first name of the person.
+     * @param lastName The last name of the person.
+     */
+    public void add(UUID id, String firstName, String lastName) {
+        if (id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            insert(id, firstName);
+            insert(id, lastName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a person from the index.
+     * Purpose: To drop the old names of a person before they are changed.
+     * Input: 'id' (UUID) - The ID of the person, 'firstName', 'lastName' (String) - Its names.
+     * Errors: Names the person is not indexed under are ignored.
+     *
+     * @param id The ID of the person.
+     * @param firstName The indexed first name of the person.
+     * @param lastName The indexed last name of the person.
+     */
+    public void remove(UUID id, String firstName, String lastName) {
+        if (id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            delete(id, firstName);
+            delete(id, lastName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds all given persons and marks the index as ready to answer queries.
+     * Purpose: To populate the index from the persons already stored in the database.
+     * Input: 'persons' (Iterable< PersonSummary>) - The persons to index.
+     * Errors: Entries are only ever added, so persons created concurrently are not lost.
+     *
+     * @param persons The persons to index.
+     */
+    public void rebuild(Iterable<PersonSummary> persons) {
+        for (PersonSummary person : persons) {
+            add(person.id(), person.firstName(), person.lastName());
+        }
+        ready = true;
+    }
+
+    /**
+     * Checks whether the index has been populated.
+     *
+     * @return True if the index covers all stored persons.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Finds the persons whose first or last name matches a query.
+     * Purpose: To answer autocomplete and fuzzy name searches without touching the database.
+     * Input: 'query' (String) - The beginning of a name, 'maxDistance' (int) - The edit distance
+     * allowed, capped at MAX_DISTANCE and below the query length, 'limit' (int) - The maximum
+     * number of persons.
+     * Output: Optional< List< Match>> - The best matches in rank order, each person once.
+     * Errors: Returns empty while the index is not ready; an empty query matches nobody.
+     *
+     * @param query The beginning of a name.
+     * @param maxDistance The edit distance allowed between the query and a prefix of a name.
+     * @param limit The maximum number of persons to return.
+     * @return The ranked matches, if the index is able to answer the query.
+     */
+    public Optional<List<Match>> search(String query, int maxDistance, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        List<Match> matches = new ArrayList<>();
+        Set<UUID> seen = new HashSet<>();
+        walk(query, maxDistance, limit, (node, distance) -> {
+            for (int i = 0; i < node.size && matches.size() < limit; i++) {
+                UUID id = new UUID(node.ids[2 * i], node.ids[2 * i + 1]);
+                if (seen.add(id)) {
+                    matches.add(new Match(id, node.name, distance));
+                }
+            }
+            return matches.size() < limit;
+        });
+        return Optional.of(matches);
+    }
+
+    /**
+     * Suggests names matching a query.
+     * Purpose: To complete a name while it is typed, from the index alone.
+     * Input: 'query' (String) - The beginning of a name, 'maxDistance' (int) - The edit distance
+     * allowed, 'limit' (int) - The maximum number of names.
+     * Output: Optional< List< String>> - Distinct names in rank order, as they were first added.
+     * Errors: Returns empty while the index is not ready; an empty query matches nothing.
+     *
+     * @param query The beginning of a name.
+     * @param maxDistance The edit distance allowed between the query and a prefix of a name.
+     * @param limit The maximum number of names to return.
+     * @return The ranked names, if the index is able to answer the query.
+     */
+    public Optional<List<String>> suggest(String query, int maxDistance, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        List<String> names = new ArrayList<>();
+        Set<Node> seen = new HashSet<>();
+        walk(query, maxDistance, limit, (node, distance) -> {
+            if (seen.add(node)) {
+                names.add(node.name);
+            }
+            return names.size() < limit;
+        });
+        return Optional.of(names);
+    }
+
+    private void insert(UUID id, String name) {
+        String key = normalize(name);
+        if (key.isEmpty()) {
+            return;
+        }
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+        }
+        if (node.name == null) {
+            node.name = name.strip();
+        }
+        node.add(id);
+    }
+
+    private void delete(UUID id, String name) {
+        String key = normalize(name);
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node != null && node != root) {
+            node.remove(id);
+        }
+    }
+
+    /**
+     * Hands the nodes holding persons to the visitor in rank order, until it returns false.
+     */
+    private void walk(String query, int maxDistance, int limit, Visitor visitor) {
+        String key = normalize(query);
+        if (key.isEmpty() || limit < 1) {
+            return;
+        }
+        int distance = Math.min(Math.max(maxDistance, 0), Math.min(MAX_DISTANCE, key.length() - 1));
+        lock.readLock().lock();
+        try {
+            List<Root> roots = new ArrayList<>();
+            int[] row = new int[key.length() + 1];
+            Arrays.setAll(row, i -> i);
+            collect(root, new StringBuilder(), row, key, distance, distance + 1, roots);
+            roots.sort(Comparator.comparingInt(Root::distance).thenComparing(Root::path));
+            for (Root match : roots) {
+                if (!visit(match.node(), node -> visitor.visit(node, match.distance()))) {
+                    return;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the subtrees whose names all match: the nodes where the distance between the query
+     * and the path drops to at most the maximum, below that of every matching ancestor.
+     */
+    private static void collect(Node node, StringBuilder path, int[] row, String key,
+                                int maxDistance, int covered, List<Root> roots) {
+        int distance = row[key.length()];
+        if (distance < covered) {
+            roots.add(new Root(node, path.toString(), distance));
+            covered = distance;
+        }
+        int best = Arrays.stream(row).min().orElseThrow();
+        if (best > maxDistance || best >= covered) {
+            return;
+        }
+        for (int c = 0; c < node.keys.length; c++) {
+            char character = node.keys[c];
+            int[] next = new int[row.length];
+            next[0] = row[0] + 1;
+            for (int j = 1; j < row.length; j++) {
+                int substitution = row[j - 1] + (key.charAt(j - 1) == character ? 0 : 1);
+                next[j] = Math.min(substitution, Math.min(row[j], next[j - 1]) + 1);
+            }
+            path.append(character);
+            collect(node.children[c], path, next, key, maxDistance, covered, roots);
+            path.setLength(path.length() - 1);
+        }
+    }
+
+    /**
+     * Visits the nodes holding persons in pre-order, i.e. shorter names first and alphabetically.
+     */
+    private static boolean visit(Node node, Predicate<Node> visitor) {
+        if (node.size > 0 && !visitor.test(node)) {
+            return false;
+        }
+        for (Node child : node.children) {
+            if (!visit(child, visitor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @FunctionalInterface
+    private interface Visitor {
+        boolean visit(Node node, int distance);
+    }
+
+    /**
+     * A trie node with its children in sorted arrays and the IDs of its persons as pairs of
+     * longs, which keeps millions of names compact.
+     */
+    private static final class Node {
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final long[] NO_IDS = new long[0];
+
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private String name;
+        private long[] ids = NO_IDS;
+        private int size;
+
+        Node child(char key) {
+            int i = Arrays.binarySearch(keys, key);
+            return i < 0 ? null : children[i];
+        }
+
+        Node childOrCreate(char key) {
+            int i = Arrays.binarySearch(keys, key);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newKeys[at] = key;
+            newChildren[at] = new Node();
+            System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[at];
+        }
+
+        void add(UUID id) {
+            if (2 * size == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(2, ids.length * 2));
+            }
+            ids[2 * size] = id.getMostSignificantBits();
+            ids[2 * size + 1] = id.getLeastSignificantBits();
+            size++;
+        }
+
+        void remove(UUID id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[2 * i] == id.getMostSignificantBits()
+                        && ids[2 * i + 1] == id.getLeastSignificantBits()) {
+                    size--;
+                    ids[2 * i] = ids[2 * size];
+                    ids[2 * i + 1] = ids[2 * size + 1];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package io.muehlbachler.fhburgenland.swm.examination.service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
 
+import io.muehlbachler.fhburgenland.swm.examination.dto.NoteView;
+import io.muehlbachler.fhburgenland.swm.examination.dto.Revision;
 import io.muehlbachler.fhburgenland.swm.examination.model.Note;
 
 /**
@@ -14,16 +19,38 @@ import io.muehlbachler.fhburgenland.swm.examination.model.Note;
 public interface NoteService {
 
     /**
-     * Retrieves a note by its ID.
-     * Purpose: To find a specific note by its unique identifier.
+     * Retrieves the read model of a note by its ID.
+     * Purpose: To serve a note without loading it into the persistence context.
      * Input: 'id' (String) - The unique identifier of the note to be retrieved.
-     * Output: Optional< Note> -found note, or empty if no note is found.
-     * Errors: may not directly throw exceptions.
+     * Output: Optional< NoteView> - the view of the note, or empty if no note is found.
+     * Errors: for a null or malformed 'id' an empty Optional is returned.
      *
      * @param id The unique identifier of the note.
-     * @return An Optional containing the note, if found.
+     * @return An Optional containing the view of the note, if found.
      */
-    Optional<Note> get(String id);
+    Optional<NoteView> getView(String id);
+
+    /**
+     * Retrieves the read models of the notes of the given persons.
+     * Purpose: To attach notes to person views without loading entities.
+     * Input: 'personIds' (Collection< UUID>) - The IDs of the persons.
+     * Output: List< NoteView> - The views of all notes of these persons.
+     * Errors: Underlying implementations may throw exceptions in case of a data access issue.
+     *
+     * @param personIds The IDs of the persons.
+     * @return The views of their notes.
+     */
+    List<NoteView> getViewsOfPersons(Collection<UUID> personIds);
+
+    /**
+     * Retrieves the revision of all notes.
+     * Purpose: To answer conditional requests for note queries.
+     * Output: Revision - The revision, changing with every note written.
+     * Errors: might throw exceptions related to data access issues.
+     *
+     * @return The revision of the note collection.
+     */
+    Revision getCollectionRevision();
 
     /**
      * Creates and saves a new note.
@@ -38,14 +65,87 @@ public interface NoteService {
     Note create(Note note);
 
     /**
-     * Queries notes by matching content.
-     * Purpose: To retrieve a list of notes that contain a specified query string in their content.
+     * Creates and saves many notes at once.
+     * Purpose: To ingest notes in bulk with batched inserts instead of one save per note.
+     * Input: 'notes' (List< Note>) - The notes to be saved, each already associated with a person.
+     * Output: List< Note> - The saved notes with their generated IDs.
+     * Errors: might throw exceptions if a note is invalid; earlier chunks stay committed.
+     *
+     * @param notes The notes to be created and saved.
+     * @return The saved notes.
+     */
+    List<Note> createAll(List<Note> notes);
+
+    /**
+     * Saves many notes whose IDs are already assigned.
+     * Purpose: To store notes accepted earlier, e.g. by the write-behind queue, under their IDs.
+     * Input: 'notes' (List< Note>) - The notes to be saved, with IDs and persons assigned.
+     * Errors: might throw exceptions if a note is invalid or exists; earlier chunks stay committed.
+     * Caches are left to the caller, who knows which persons are affected.
+     *
+     * @param notes The notes to be saved.
+     */
+    void insertAll(List<Note> notes);
+
+    /**
+     * Queries the read models of notes by matching content.
+     * Purpose: To answer content queries without loading entities.
+     * Input: 'query' (String) - The text used to search in the content of notes.
+     * Output: List< NoteView> - The views of the notes containing the query string; with the
+     * content store, long notes match on their full content but carry only the preview, marked
+     * as truncated.
+     * Errors: handle empty or null query differently and might throw exceptions on invalid queries.
+     *
+     * @param query The string to search for within the notes' content.
+     * @return The views of the notes that contain the query string.
+     */
+    List<NoteView> queryViewsByContent(String query);
+
+    /**
+     * Streams the read models of notes matching a content query, like
+     * {@link #queryViewsByContent(String)}.
+     * Purpose: To write large query results while they are read from the database.
+     * Input: 'query' (String) - The text to search for, 'consumer' (Consumer< NoteView>) -
+     * Receives the views one by one.
+     * Errors: Exceptions thrown by the consumer abort the stream and are propagated.
+     *
+     * @param query The string to search for within the notes' content.
+     * @param consumer Receives the views one by one.
+     */
+    void streamViewsByContent(String query, Consumer<? super NoteView> consumer);
+
+    /**
+     * Counts all notes.
+     * Purpose: To tell how many notes exist without loading any of them.
+     * Output: long - The number of notes.
+     * Errors: Underlying implementations may throw exceptions in case of a data access issue.
+     *
+     * @return The number of notes.
+     */
+    long count();
+
+    /**
+     * Checks whether a note exists.
+     * Purpose: To answer existence checks without loading the note.
+     * Input: 'id' (String) - The unique identifier of the note.
+     * Output: boolean - True if the note exists.
+     * Errors: for a null or malformed 'id' false is returned.
+     *
+     * @param id The unique identifier of the note.
+     * @return True if the note exists.
+     */
+    boolean exists(String id);
+
+    /**
+     * Counts notes by matching content.
+     * Purpose: To count the notes {@link #queryViewsByContent(String)} would return, without
+     * loading them.
      * Input: 'query' (String) - The text used to search in the content of notes.
-     * Output: List< Note> - A list of notes containing the query string in their content.
+     * Output: long - The number of notes containing the query string in their content.
      * Errors: handle empty or null query differently and might throw exceptions on invalid queries.
      *
      * @param query The string to search for within the notes' content.
-     * @return A list of notes that contain the query string.
+     * @return The number of notes that contain the query string.
      */
-    List<Note> queryByContent(String query);
+    long countByContent(String query);
 }
@@ -1,8 +1,13 @@
 package io.muehlbachler.fhburgenland.swm.examination.service;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import io.muehlbachler.fhburgenland.swm.examination.dto.PersonSummary;
+import io.muehlbachler.fhburgenland.swm.examination.dto.PersonView;
+import io.muehlbachler.fhburgenland.swm.examination.dto.Revision;
 import io.muehlbachler.fhburgenland.swm.examination.model.Note;
 import io.muehlbachler.fhburgenland.swm.examination.model.Person;
 
@@ -15,26 +20,162 @@ import io.muehlbachler.fhburgenland.swm.examination.model.Person;
 public interface PersonService {
 
     /**
-     * Retrieves all persons.
-     * Purpose: To fetch all person entities from the database.
-     * Output: List< Person> - A list of all persons.
+     * Retrieves summaries of all persons, without their notes.
+     * Purpose: To list persons without paying for loading their notes.
+     * Output: List< PersonSummary> - A summary of every person.
      * Errors: Underlying implementations may throw exceptions,in case of a data access issue.
      *
-     * @return A list of all persons.
+     * @return A list of summaries of all persons.
      */
-    List<Person> getAll();
+    List<PersonSummary> getAllSummaries();
 
     /**
-     * Retrieves a person by their ID.
-     * Purpose: To find a specific person by their unique identifier.
+     * Retrieves the read models of all persons with their notes.
+     * Purpose: To list persons without loading entities into the persistence context.
+     * Output: List< PersonView> - The views of all persons, ordered by ID.
+     * Errors: Underlying implementations may throw exceptions,in case of a data access issue.
+     *
+     * @return The views of all persons.
+     */
+    List<PersonView> getAllViews();
+
+    /**
+     * Retrieves the read models of a page of persons ordered by their ID.
+     * Purpose: To page through persons with a keyset on the ID, without entities.
+     * Input: 'after' (String) - The last ID of the previous page, 'limit' (int) - The page size.
+     * Output: List< PersonView> - The views of at most 'limit' persons following 'after'.
+     * Errors: Implementations may cap the page size; a non-positive limit yields an empty list.
+     *
+     * @param after The last ID of the previous page, or null for the first page.
+     * @param limit The maximum number of persons to return.
+     * @return The views of the persons of the requested page.
+     */
+    List<PersonView> getViewPage(String after, int limit);
+
+    /**
+     * Retrieves the read model of a person by their ID.
+     * Purpose: To serve a person with their notes without loading entities.
+     * Input: 'id' (String) - The unique identifier of the person.
+     * Output: Optional< PersonView> - The view of the person, or empty if not found.
+     * Errors: for a null or malformed 'id' an empty Optional is returned.
+     *
+     * @param id The unique identifier of the person.
+     * @return An Optional containing the view of the person, if found.
+     */
+    Optional<PersonView> getView(String id);
+
+    /**
+     * Finds the read models of persons by their first or last name.
+     * Purpose: To search persons by first and/or last name, without entities.
+     * Input: 'firstName' (String), 'lastName' (String) - Names used for the search.
+     * Output: List< PersonView> - The views of the matching persons with their notes.
+     * Errors: for null or empty names, an empty list is returned.
+     *
+     * @param firstName The first name of the person.
+     * @param lastName The last name of the person.
+     * @return The views of the matching persons.
+     */
+    List<PersonView> findViewsByName(String firstName, String lastName);
+
+    /**
+     * Searches persons by the beginning of their first or last name.
+     * Purpose: To find persons while their name is typed, tolerating typos if asked to.
+     * Input: 'query' (String) - The beginning of a name, case and diacritics are ignored,
+     * 'fuzziness' (int) - The edit distance allowed, 'limit' (int) - The maximum results.
+     * Output: List< PersonView> - The views of the best matching persons with their notes,
+     * closest and shortest names first.
+     * Errors: for a null or empty query, an empty list is returned.
+     *
+     * @param query The beginning of a first or last name.
+     * @param fuzziness The edit distance allowed between the query and a name prefix.
+     * @param limit The maximum number of persons to return.
+     * @return The views of the matching persons in rank order.
+     */
+    List<PersonView> searchByName(String query, int fuzziness, int limit);
+
+    /**
+     * Suggests first and last names completing a query.
+     * Purpose: To autocomplete names from memory, without querying the database.
+     * Input: 'query' (String) - The beginning of a name, 'fuzziness' (int) - The edit distance
+     * allowed, 'limit' (int) - The maximum number of names.
+     * Output: List< String> - Distinct names, closest and shortest first.
+     * Errors: for a null or empty query, or before the index is populated, an empty list.
+     *
+     * @param query The beginning of a first or last name.
+     * @param fuzziness The edit distance allowed between the query and a name prefix.
+     * @param limit The maximum number of names to return.
+     * @return The suggested names in rank order.
+     */
+    List<String> suggestNames(String query, int fuzziness, int limit);
+
+    /**
+     * Streams the read models of all persons with their notes, ordered by ID.
+     * Purpose: To write listings of any size while holding only one page of persons at a time.
+     * Input: 'consumer' (Consumer< PersonView>) - Receives the views one by one.
+     * Errors: Exceptions thrown by the consumer abort the stream and are propagated.
+     *
+     * @param consumer Receives the views one by one.
+     */
+    void streamViews(Consumer<? super PersonView> consumer);
+
+    /**
+     * Streams the read models of persons matching a first and/or last name, like
+     * {@link #findViewsByName(String, String)}.
+     * Purpose: To write large name query results without collecting the notes of all matches.
+     * Input: 'firstName' (String), 'lastName' (String) - Names used for the search,
+     * 'consumer' (Consumer< PersonView>) - Receives the views one by one.
+     * Errors: for null or empty names, nothing is handed out.
+     *
+     * @param firstName The first name of the person.
+     * @param lastName The last name of the person.
+     * @param consumer Receives the views one by one.
+     */
+    void streamViewsByName(String firstName, String lastName,
+                           Consumer<? super PersonView> consumer);
+
+    /**
+     * Counts all persons.
+     * Purpose: To tell how many persons exist without loading any of them.
+     * Output: long - The number of persons.
+     * Errors: Underlying implementations may throw exceptions,in case of a data access issue.
+     *
+     * @return The number of persons.
+     */
+    long count();
+
+    /**
+     * Checks whether a person exists.
+     * Purpose: To answer existence checks without loading the person and their notes.
      * Input: 'id' (String) - The unique identifier of the person.
-     * Output: Optional<'Person'> - Contains the found person, or empty if no person is found.
-     * Errors: Underlying implementations might throw exceptions, for example, if 'id' is null.
+     * Output: boolean - True if the person exists.
+     * Errors: for a null or malformed 'id' false is returned.
      *
      * @param id The unique identifier of the person.
-     * @return An Optional containing the person, if found.
+     * @return True if the person exists.
      */
-    Optional<Person> get(String id);
+    boolean exists(String id);
+
+    /**
+     * Counts the notes of a person.
+     * Purpose: To tell how many notes a person has without loading the person or the notes.
+     * Input: 'id' (String) - The unique identifier of the person.
+     * Output: Optional< Long> - The number of notes, or empty if the person does not exist.
+     * Errors: for a null or malformed 'id' an empty Optional is returned.
+     *
+     * @param id The unique identifier of the person.
+     * @return An Optional containing the number of notes, if the person exists.
+     */
+    Optional<Long> countNotes(String id);
+
+    /**
+     * Retrieves the revision of all persons.
+     * Purpose: To answer conditional requests for person listings and queries.
+     * Output: Revision - The revision, changing with every person and note written.
+     * Errors: Underlying implementations may throw exceptions,in case of a data access issue.
+     *
+     * @return The revision of the person collection.
+     */
+    Revision getCollectionRevision();
 
     /**
      * Creates and saves a new person.
@@ -49,19 +190,30 @@ public interface PersonService {
     Person create(Person person);
 
     /**
-     * Finds persons by their first or last name.
-     * Purpose: If any name (first or last) is empty, only the other one is searched for.
-     * Input: 'firstName' (String), 'lastName' (String) - Names used for the search.
-     * Output: List< Person> - A list of persons that match the search criteria.
-     * Errors: for null or , potentially returning an empty list.
+     * Creates and saves many persons at once.
+     * Purpose: To ingest persons in bulk with batched inserts instead of one save per person.
+     * Input: 'persons' (List< Person>) - The persons to be saved; their notes are not imported.
+     * Output: List< Person> - The saved persons with their generated IDs.
+     * Errors: Implementations might throw exceptions if a person is invalid.
      *
-     * @param firstName The first name to search for.
-     * @param lastName The last name to search for.
-     * @return A list of persons that match the name criteria.
+     * @param persons The persons to be created and saved.
+     * @return The saved persons.
      */
+    List<Person> createAll(List<Person> persons);
 
-
-    List<Person> findByName(String firstName, String lastName);
+    /**
+     * Creates and saves persons handed over chunk by chunk.
+     * Purpose: To import persons in bulk while they are still being read, committing each chunk
+     * and updating the caches only once all chunks are stored.
+     * Input: 'chunks' (Iterator< List< Person>>) - The persons to be saved, one chunk at a time.
+     * Output: long - The number of persons saved.
+     * Errors: An exception thrown by 'chunks' or a failing chunk ends the import; earlier
+     * chunks stay committed.
+     *
+     * @param chunks The chunks of persons to be created and saved.
+     * @return The number of persons saved.
+     */
+    long importAll(Iterator<List<Person>> chunks);
 
     /**
      * Creates a note and associates it with a specific person.
@@ -75,4 +227,34 @@ public interface PersonService {
      * @return An Optional containing the created note, if the person exists.
      */
     Optional<Note> createNote(String personId, Note note);
+
+    /**
+     * Creates many notes at once and associates them with a specific person.
+     * Purpose: To add notes to a person in bulk, identified by their ID.
+     * Input: 'personId' (String) - The ID of the person, 'notes' (List< Note>) - Notes to be added.
+     * Output: Optional< List< Note>> - The created notes, in an Optional if the person exists.
+     * Errors: in the case of not existing an empty Optional is returned.
+     *
+     * @param personId The ID of the person to whom the notes will be added.
+     * @param notes The notes to be created and associated with the person.
+     * @return An Optional containing the created notes, if the person exists.
+     */
+    Optional<List<Note>> createNotes(String personId, List<Note> notes);
+
+    /**
+     * Creates notes handed over chunk by chunk and associates them with a specific person.
+     * Purpose: To import notes of a person in bulk while they are still being read, checking
+     * the person and marking them as modified once for all chunks.
+     * Input: 'personId' (String) - The ID of the person,
+     * 'chunks' (Iterator< List< Note>>) - The notes to be added, one chunk at a time.
+     * Output: Optional< Long> - The number of notes saved, in an Optional if the person exists.
+     * Errors: in the case of not existing an empty Optional is returned and 'chunks' is not
+     * read; an exception thrown by 'chunks' or a failing chunk ends the import, earlier
+     * chunks stay committed.
+     *
+     * @param personId The ID of the person to whom the notes will be added.
+     * @param chunks The chunks of notes to be created and associated with the person.
+     * @return An Optional containing the number of notes saved, if the person exists.
+     */
+    Optional<Long> importNotes(String personId, Iterator<List<Note>> chunks);
 }
@@ -0,0 +1,39 @@
+package io.muehlbachler.fhburgenland.swm.examination.service;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.NoteRow;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking service interface for managing notes.
+ * Mirrors the reads of {@link NoteService} with Flux and Mono results that honor backpressure.
+ * Writes go through {@link NoteService}, which keeps the change log, content store and caches.
+ * Ensures abstraction and decoupling between the service layer.
+ */
+
+public interface ReactiveNoteService {
+
+    /**
+     * Retrieves a note by its ID.
+     * Purpose: To find a specific note by its unique identifier.
+     * Input: 'id' (String) - The unique identifier of the note.
+     * Output: Mono< NoteRow> - The note, or empty if not found.
+     * Errors: Signals an error if 'id' is null.
+     *
+     * @param id The unique identifier of the note.
+     * @return The note, if found.
+     */
+    Mono<NoteRow> get(String id);
+
+    /**
+     * Queries notes by matching content.
+     * Purpose: To emit the notes that contain a specified query string in their content.
+     * Input: 'query' (String) - The text used to search in the content of notes.
+     * Output: Flux< NoteRow> - The notes containing the query string.
+     * Errors: Signals errors related to database access issues.
+     *
+     * @param query The string to search for within the notes' content.
+     * @return The notes that contain the query string.
+     */
+    Flux<NoteRow> queryByContent(String query);
+}
@@ -0,0 +1,63 @@
+package io.muehlbachler.fhburgenland.swm.examination.service;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.NoteRow;
+import io.muehlbachler.fhburgenland.swm.examination.model.PersonRow;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking service interface for managing persons.
+ * Mirrors the reads of {@link PersonService} with Flux and Mono results that honor backpressure.
+ * Writes go through {@link PersonService}, which keeps the change log, name index and caches.
+ * Ensures abstraction and decoupling between the service layer.
+ */
+
+public interface ReactivePersonService {
+
+    /**
+     * Retrieves all persons.
+     * Purpose: To emit every person without their notes as it is read from the database.
+     * Output: Flux< PersonRow> - All persons, emitted as fast as they are requested.
+     * Errors: Signals errors related to database access issues.
+     *
+     * @return All persons.
+     */
+    Flux<PersonRow> getAll();
+
+    /**
+     * Retrieves a person by their ID.
+     * Purpose: To find a specific person by their unique identifier.
+     * Input: 'id' (String) - The unique identifier of the person.
+     * Output: Mono< PersonRow> - The person, or empty if not found.
+     * Errors: Signals an error if 'id' is null.
+     *
+     * @param id The unique identifier of the person.
+     * @return The person, if found.
+     */
+    Mono<PersonRow> get(String id);
+
+    /**
+     * Finds persons by their first or last name.
+     * Purpose: To search for persons using their first or last name.
+     * Input: 'firstName' (String), 'lastName' (String) - Names used for the search.
+     * Output: Flux< PersonRow> - The matching persons.
+     * Errors: for null or empty input parameters, completes without emitting anything.
+     *
+     * @param firstName The first name to search for.
+     * @param lastName The last name to search for.
+     * @return The matching persons.
+     */
+    Flux<PersonRow> findByName(String firstName, String lastName);
+
+    /**
+     * Retrieves the notes of a person.
+     * Purpose: To emit the notes of a person, identified by their ID.
+     * Input: 'personId' (String) - The ID of the person.
+     * Output: Flux< NoteRow> - The notes of the person, none if the person does not exist.
+     * Errors: Signals errors related to database access issues.
+     *
+     * @param personId The ID of the person.
+     * @return The notes of the person.
+     */
+    Flux<NoteRow> getNotes(String personId);
+}
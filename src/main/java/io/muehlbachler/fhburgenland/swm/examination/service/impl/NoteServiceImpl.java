@@ -1,13 +1,40 @@
 package io.muehlbachler.fhburgenland.swm.examination.service.impl;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
+import io.micrometer.core.annotation.Timed;
+import io.muehlbachler.fhburgenland.swm.examination.config.CacheConfig;
+import io.muehlbachler.fhburgenland.swm.examination.content.NoteContentStore;
+import io.muehlbachler.fhburgenland.swm.examination.dto.NoteView;
+import io.muehlbachler.fhburgenland.swm.examination.dto.Revision;
 import io.muehlbachler.fhburgenland.swm.examination.model.Note;
+import io.muehlbachler.fhburgenland.swm.examination.model.UuidKeys;
+import io.muehlbachler.fhburgenland.swm.examination.repository.ChangeRepository;
 import io.muehlbachler.fhburgenland.swm.examination.repository.NoteRepository;
+import io.muehlbachler.fhburgenland.swm.examination.search.NoteContentIndex;
 import io.muehlbachler.fhburgenland.swm.examination.service.NoteService;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
@@ -17,28 +44,98 @@ import lombok.NoArgsConstructor;
  * Service implementation for managing Note entities.
  * Performs CRUD operations and queries related to notes.
  * Ensures proper data access and manipulation.
+ * Queries run read-only, so rebuilding the index does not snapshot every note it reads.
+ * createAll and insertAll are left without a transaction to commit chunk by chunk.
+ * With the content store, content longer than its preview is moved there before the note is
+ * stored. The content index holds the full content and candidates are verified against it,
+ * so only the fallback scans of the repository are limited to the preview.
  */
 
 @NoArgsConstructor
 @AllArgsConstructor
 @Service
+@Timed("examination.service")
 public class NoteServiceImpl implements NoteService {
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
     @Autowired
     private NoteRepository noteRepository;
+    @Autowired
+    private NoteContentIndex noteContentIndex;
+    @Autowired
+    private ChangeRepository changeRepository;
+    @Autowired(required = false)
+    private NoteContentStore noteContentStore;
 
     /**
-     * Retrieves a note by its ID.
-     * Purpose: To find and return a note if it exists in the database.
+     * Populates the content index from all stored notes.
+     * Purpose: To make the index authoritative once the application has started.
+     * Notes are read as views from a cursor, so they are never all held in memory; the full
+     * content of previews is read from the content store.
+     * Errors: Until this has run, queries fall back to the repository.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildIndex() {
+        try (Stream<NoteView> notes = noteRepository.streamAllViews()) {
+            noteContentIndex.rebuild(notes.map(note -> new NoteView(note.id(), note.personId(),
+                    body(note.id(), note.content(), note.contentSize()), note.version(),
+                    note.modifiedAt(), null))::iterator);
+        }
+    }
+
+    /**
+     * Retrieves the read model of a note by its ID.
+     * Purpose: To serve a note with a constructor expression instead of a managed entity.
      * Input: 'id' (String) - The unique identifier of the note to be retrieved.
-     * Output: If a note with the given ID exists, otherwise, an empty Optional is returned.
-     * Errors:  If 'id' is null or not exist,an empty (null) Optional is returned.
+     * Output: The view of the note, if it exists, otherwise an empty Optional.
+     * Errors: If 'id' is null, malformed or not exist, an empty Optional is returned.
+     * Found views are cached by their lower case ID, missing ones are not.
      *
      * @param id The unique identifier of the note.
-     * @return An Optional containing the requested note or empty if not found.
+     * @return An Optional containing the view of the note or empty if not found.
+     * */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.NOTES, key = "#id.toLowerCase()",
+            condition = "#id != null", unless = "#result == null")
+    @Transactional(readOnly = true)
+    public Optional<NoteView> getView(String id) {
+        return UuidKeys.parse(id).flatMap(noteRepository::findViewById);
+    }
+
+    /**
+     * Retrieves the read models of the notes of the given persons.
+     * Purpose: To attach notes to person views with chunked queries on the foreign key.
+     * Input: 'personIds' (Collection< UUID>) - The IDs of the persons.
+     * Output: The views of all notes of these persons.
+     * Errors: If the database cannot be accessed, the repository throws.
+     *
+     * @param personIds The IDs of the persons.
+     * @return The views of their notes.
+     * */
+    @Override
+    @Transactional(readOnly = true)
+    public List<NoteView> getViewsOfPersons(Collection<UUID> personIds) {
+        List<NoteView> notes = Lists.newArrayList();
+        for (List<UUID> chunk : Iterables.partition(personIds, LOAD_CHUNK_SIZE)) {
+            notes.addAll(noteRepository.findViewsByPersonIdIn(chunk));
+        }
+        return notes;
+    }
+
+    /**
+     * Retrieves the revision of all notes.
+     * Purpose: To validate conditional requests for queries from the tail of the change log.
+     * Output: The latest change log sequence and the entries of the trailing ones.
+     * Errors: If the database cannot be accessed, the repository throws.
+     * Person writes change it as well, as the log is shared.
+     *
+     * @return The revision of the note collection.
      * */
     @Override
-    public Optional<Note> get(String id) {
-        return noteRepository.findById(id);
+    @Transactional(readOnly = true)
+    public Revision getCollectionRevision() {
+        return changeRepository.findRevision();
     }
 
     /**
@@ -47,27 +144,257 @@ public class NoteServiceImpl implements NoteService {
      * Input: 'note' (Note) - The note object to be saved.
      * Output: The saved note with updated information.
      * Errors: If object is null or invalid, the repository may throw an exception or in database.
+     * Content too large for the content store throws ContentTooLargeException and rolls back.
+     * Evicts the note, if it already existed, and its person, whose notes changed, from the cache.
+     * The write is recorded in the change log within the same transaction; the note is added
+     * to the content index only once that has committed.
      *
      * @param note The note object to be created.
      * @return The created note with updated information.
      * */
     @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.NOTES, key = "#note.id.toString()",
+                condition = "#note?.id != null"),
+        @CacheEvict(cacheNames = CacheConfig.PERSONS, key = "#note.person.id.toString()",
+                condition = "#note?.person?.id != null")
+    })
+    @Transactional
     public Note create(Note note) {
-        return noteRepository.save(note);
+        byte[] content = shorten(note);
+        Note saved = noteRepository.save(note);
+        if (content != null && saved != null) {
+            noteContentStore.put(saved.getId(), content);
+        }
+        if (saved != null) {
+            changeRepository.appendNotes(List.of(saved));
+            indexAfterCommit(List.of(saved));
+        }
+        return saved;
+    }
+
+    /**
+     * Creates and saves many notes with batched inserts.
+     * Purpose: To persist notes in bulk, assigning their IDs up front.
+     * Input: 'notes' (List< Note>) - The notes to be saved, each with its person set.
+     * Output: The saved notes with their generated IDs, also added to the content index.
+     * Errors: If a note is invalid, the repository throws; earlier chunks stay committed.
+     * The notes may belong to any person, so all cached persons are evicted.
+     *
+     * @param notes The notes to be created.
+     * @return The created notes.
+     * */
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PERSONS, allEntries = true)
+    public List<Note> createAll(List<Note> notes) {
+        List<Note> prepared = notes.stream()
+                .map(note -> new Note(UuidKeys.next(), note.getPerson(),
+                        note.getContent()))
+                .toList();
+        insertAll(prepared);
+        return prepared;
+    }
+
+    /**
+     * Saves many notes whose IDs are already assigned with batched inserts.
+     * Purpose: To store notes under the IDs they were handed out with.
+     * Input: 'notes' (List< Note>) - The notes to be saved, with IDs and persons assigned.
+     * Output: The notes are added to the content index chunk by chunk, once committed.
+     * Errors: If a note is invalid or exists, the repository throws; earlier chunks stay committed.
+     * Long content goes to the content store first; that of notes never stored is reclaimed by
+     * its compaction.
+     *
+     * @param notes The notes to be saved.
+     * */
+    @Override
+    public void insertAll(List<Note> notes) {
+        for (Note note : notes) {
+            byte[] content = shorten(note);
+            if (content != null) {
+                noteContentStore.put(note.getId(), content);
+            }
+        }
+        noteRepository.insertAll(notes, this::index);
+    }
+
+    /**
+     * Queries the read models of notes based on content.
+     * Purpose: To answer content queries without entities.
+     * Candidates are resolved from the content index and only those are loaded by ID.
+     * Input: 'query' (String) - The string used to search within the content of notes.
+     * Output: 'List< NoteView>' - The views of the notes that match the query.
+     * Errors: queries the index cannot answer (null, too short) fall back to the repository.
+     *
+     * @param query The string to search for within the notes' content.
+     * @return The views of the matching notes.
+     * */
+    @Override
+    @Transactional(readOnly = true)
+    public List<NoteView> queryViewsByContent(String query) {
+        List<NoteView> notes = Lists.newArrayList();
+        streamViewsByContent(query, notes::add);
+        return notes;
+    }
+
+    /**
+     * Streams the read models of notes matching a content query.
+     * Purpose: To hand out matches chunk by chunk of index candidates, or from the cursor of
+     * the repository scan, instead of collecting them first.
+     * Input: 'query' (String) - The string used to search within the content of notes,
+     * 'consumer' (Consumer< NoteView>) - Receives the matching views one by one.
+     * Errors: queries the index cannot answer (null, too short) fall back to the repository.
+     *
+     * @param query The string to search for within the notes' content.
+     * @param consumer Receives the matching views one by one.
+     * */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamViewsByContent(String query, Consumer<? super NoteView> consumer) {
+        Optional<Set<UUID>> candidates = noteContentIndex.candidates(query);
+        if (candidates.isEmpty()) {
+            try (Stream<NoteView> notes = noteRepository.streamViewsByContentContaining(query)) {
+                notes.forEach(consumer);
+            }
+            return;
+        }
+
+        for (List<UUID> chunk : Iterables.partition(candidates.get(), LOAD_CHUNK_SIZE)) {
+            for (NoteView note : noteRepository.findViewsByIdIn(chunk)) {
+                if (contains(note.id(), note.content(), note.contentSize(), query)) {
+                    consumer.accept(note);
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts all notes.
+     * Purpose: To count notes with a COUNT query instead of loading them.
+     * Output: The number of notes.
+     * Errors: If the database cannot be accessed, the repository throws.
+     *
+     * @return The number of notes.
+     * */
+    @Override
+    @Transactional(readOnly = true)
+    public long count() {
+        return noteRepository.count();
+    }
+
+    /**
+     * Checks whether a note exists.
+     * Purpose: To check existence with a query on the primary key only.
+     * Input: 'id' (String) - The unique identifier of the note.
+     * Output: True if the note exists.
+     * Errors: for a null or malformed 'id' false is returned.
+     *
+     * @param id The unique identifier of the note.
+     * @return True if the note exists.
+     * */
+    @Override
+    @Transactional(readOnly = true)
+    public boolean exists(String id) {
+        return UuidKeys.parse(id).map(noteRepository::existsById).orElse(false);
     }
 
     /**
-     * Queries and returns notes based on content.
-     * Purpose: To find and return a list of notes that contain the given query.
+     * Counts notes based on content.
+     * Purpose: To count the notes that contain the given query without loading them.
+     * Candidates of the content index are counted with COUNT queries that check the content,
+     * even for a query of a single gram, so the count always agrees with the stored notes.
+     * Candidates whose full content is in the content store are loaded as views instead and
+     * checked against that content.
      * Input: 'query' (String) - The string used to search within the content of notes.
-     * Output: 'List< Note>' - A list of notes that match the query.
-     * Errors: needed handling for null or special character inputs to avoid unexpected behavior.
+     * Output: The number of notes that match the query.
+     * Errors: queries the index cannot answer (null, too short) fall back to the repository.
      *
-     * @param query The note object to be created.
-     * @return The founded query note with updated information.
+     * @param query The string to search for within the notes' content.
+     * @return The number of matching notes.
      * */
     @Override
-    public List<Note> queryByContent(String query) {
-        return noteRepository.findByContentContaining(query);
+    @Transactional(readOnly = true)
+    public long countByContent(String query) {
+        Optional<Set<UUID>> candidates = noteContentIndex.candidates(query);
+        if (candidates.isEmpty()) {
+            return noteRepository.countByContentContaining(query);
+        }
+        long count = 0;
+        for (List<UUID> chunk : Iterables.partition(candidates.get(), LOAD_CHUNK_SIZE)) {
+            Map<Boolean, List<UUID>> stored = chunk.stream().collect(Collectors.partitioningBy(
+                    id -> noteContentStore != null && noteContentStore.get(id).isPresent()));
+            if (!stored.get(false).isEmpty()) {
+                count += noteRepository.countByIdInAndContentContaining(stored.get(false), query);
+            }
+            if (!stored.get(true).isEmpty()) {
+                count += noteRepository.findViewsByIdIn(stored.get(true)).stream()
+                        .filter(note -> contains(note.id(), note.content(), note.contentSize(),
+                                query))
+                        .count();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds notes to the content index once the current transaction has committed, or at once
+     * without one, so a rollback leaves no postings of notes that were never stored.
+     */
+    private void indexAfterCommit(List<Note> notes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            index(notes);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                index(notes);
+            }
+        });
+    }
+
+    private void index(List<Note> notes) {
+        notes.forEach(note -> noteContentIndex.add(note.getId(),
+                body(note.getId(), note.getContent(), note.getContentSize())));
+    }
+
+    /**
+     * Returns the full content of a note, read from the content store if 'content' is only
+     * its preview.
+     */
+    private String body(UUID id, String content, Integer contentSize) {
+        if (contentSize == null || noteContentStore == null) {
+            return content;
+        }
+        return noteContentStore.get(id)
+                .map(buffer -> StandardCharsets.UTF_8.decode(buffer).toString())
+                .orElse(content);
+    }
+
+    private boolean contains(UUID id, String content, Integer contentSize, String query) {
+        String body = body(id, content, contentSize);
+        return body != null && body.contains(query);
+    }
+
+    /**
+     * Cuts the content of a note down to the preview of the content store, if it is longer.
+     *
+     * @param note The note, whose content and content size are replaced.
+     * @return The full content encoded as UTF-8, to be put into the store, or null if the
+     *         content stays in the note.
+     */
+    private byte[] shorten(Note note) {
+        String content = note.getContent();
+        if (noteContentStore == null || content == null
+                || content.length() <= noteContentStore.previewLength()) {
+            return null;
+        }
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        int end = noteContentStore.previewLength();
+        if (Character.isHighSurrogate(content.charAt(end - 1))) {
+            end--;
+        }
+        note.setContent(content.substring(0, end));
+        note.setContentSize(bytes.length);
+        return bytes;
     }
 }
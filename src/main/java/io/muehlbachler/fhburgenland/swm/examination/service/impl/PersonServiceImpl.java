@@ -1,18 +1,45 @@
 package io.muehlbachler.fhburgenland.swm.examination.service.impl;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 
+import io.micrometer.core.annotation.Timed;
+import io.muehlbachler.fhburgenland.swm.examination.config.CacheConfig;
+import io.muehlbachler.fhburgenland.swm.examination.dto.NoteView;
+import io.muehlbachler.fhburgenland.swm.examination.dto.PersonSummary;
+import io.muehlbachler.fhburgenland.swm.examination.dto.PersonView;
+import io.muehlbachler.fhburgenland.swm.examination.dto.Revision;
 import io.muehlbachler.fhburgenland.swm.examination.model.Note;
 import io.muehlbachler.fhburgenland.swm.examination.model.Person;
+import io.muehlbachler.fhburgenland.swm.examination.model.UuidKeys;
+import io.muehlbachler.fhburgenland.swm.examination.repository.ChangeRepository;
 import io.muehlbachler.fhburgenland.swm.examination.repository.PersonRepository;
+import io.muehlbachler.fhburgenland.swm.examination.search.PersonNameIndex;
 import io.muehlbachler.fhburgenland.swm.examination.service.NoteService;
 import io.muehlbachler.fhburgenland.swm.examination.service.PersonService;
+import io.muehlbachler.fhburgenland.swm.examination.writebehind.NoteWriteBehind;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 
@@ -20,36 +47,177 @@ import lombok.NoArgsConstructor;
  * Service implementation for managing Person entities.
  * Performs CRUD operations and queries related to persons.
  * Ensures proper data access and manipulation.
+ * Reads run in read-only transactions, so the entities they load are neither snapshotted
+ * nor flushed. Bulk inserts run without one, so each of their chunks commits on its own.
  */
 
 @NoArgsConstructor
 @AllArgsConstructor
 @Service
+@Timed("examination.service")
 public class PersonServiceImpl implements PersonService {
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     @Autowired
     private PersonRepository personRepository;
     @Autowired
     private NoteService noteService;
+    @Autowired
+    private PersonNameIndex personNameIndex;
+    @Autowired
+    private ChangeRepository changeRepository;
+    @Autowired(required = false)
+    private NoteWriteBehind noteWriteBehind;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Populates the name index from all stored persons.
+     * Purpose: To make the name index authoritative once the application has started.
+     * Errors: Until this has run, name searches fall back to a prefix query on the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildNameIndex() {
+        try (Stream<PersonSummary> persons = personRepository.streamAllSummaries()) {
+            personNameIndex.rebuild(persons::iterator);
+        }
+    }
 
     /**
-     * Retrieves all persons.
-     * Purpose: To fetch all person entities from the database.
-     * Output: List< Person> - A list of all persons.
+     * Retrieves summaries of all persons.
+     * Purpose: To list persons with a projection that never touches their notes.
+     * Output: List< PersonSummary> - A summary of every person.
      * Errors: Might throw DataAccessException if there are issues accessing the data.
      * */
-    public List<Person> getAll() {
-        return Lists.newArrayList(personRepository.findAll());
+    @Override
+    @Transactional(readOnly = true)
+    public List<PersonSummary> getAllSummaries() {
+        return personRepository.findAllSummaries();
     }
 
     /**
-     * Retrieves a person by their ID.
-     * Purpose: To find and return a person if they exist in the database.
+     * Retrieves the read model of a person by their ID.
+     * Purpose: To serve a person and their notes from two constructor-expression queries.
      * Input: `String` id of the person
-     * Output: Optional< Person> - If exists, it is returned; otherwise, an empty Optional.
-     * Errors: IllegalArgumentException may be thrown if 'id' is null.
+     * Output: Optional< PersonView> - If exists, its view is returned; otherwise, an empty one.
+     * Errors: for a null or malformed 'id' an empty Optional is returned.
+     * Found views are cached by their lower case ID, missing ones are not.
+     * */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.PERSONS, key = "#id.toLowerCase()",
+            condition = "#id != null", unless = "#result == null")
+    @Transactional(readOnly = true)
+    public Optional<PersonView> getView(String id) {
+        return UuidKeys.parse(id).flatMap(personRepository::findViewById)
+                .map(person -> withNotes(List.of(person)).getFirst());
+    }
+
+    /**
+     * Retrieves the read models of all persons.
+     * Purpose: To list all persons and their notes without entities.
+     * Output: List< PersonView> - The views of all persons, ordered by ID.
+     * Errors: Might throw DataAccessException if there are issues accessing the data.
+     * */
+    @Override
+    @Transactional(readOnly = true)
+    public List<PersonView> getAllViews() {
+        return withNotes(personRepository.findAllViews());
+    }
+
+    /**
+     * Streams the read models of all persons ordered by their ID.
+     * Purpose: To list persons in keyset pages of MAX_PAGE_SIZE, so only one page of persons
+     * and their notes is held while it is handed out.
+     * Input: 'consumer' (Consumer< PersonView>) - Receives the views with their notes.
+     * Errors: exceptions thrown by the consumer abort the stream.
+     * */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamViews(Consumer<? super PersonView> consumer) {
+        Limit pageSize = Limit.of(MAX_PAGE_SIZE);
+        List<PersonView> page = personRepository.findViews(pageSize);
+        while (!page.isEmpty()) {
+            withNotes(page).forEach(consumer);
+            if (page.size() < MAX_PAGE_SIZE) {
+                return;
+            }
+            page = personRepository.findViewsByIdGreaterThan(page.getLast().id(), pageSize);
+        }
+    }
+
+    /**
+     * Retrieves the read models of a page of persons ordered by their ID.
+     * Purpose: To page through persons with a keyset on the primary key without entities.
+     * Input: 'after' (String) - last ID of the previous page, 'limit' (int) - the page size.
+     * Output: List< PersonView> - At most 'limit' views, capped at MAX_PAGE_SIZE.
+     * Errors: for a non-positive limit or a malformed 'after' an empty list is returned.
+     * */
+    @Override
+    @Transactional(readOnly = true)
+    public List<PersonView> getViewPage(String after, int limit) {
+        if (limit < 1) {
+            return Lists.newArrayList();
+        }
+        Limit pageSize = Limit.of(Math.min(limit, MAX_PAGE_SIZE));
+        if (after == null) {
+            return withNotes(personRepository.findViews(pageSize));
+        }
+        return UuidKeys.parse(after)
+                .map(id -> withNotes(personRepository.findViewsByIdGreaterThan(id, pageSize)))
+                .orElseGet(Lists::newArrayList);
+    }
+
+    /**
+     * Counts all persons.
+     * Purpose: To count persons with a COUNT query instead of loading them.
+     * Output: long - The number of persons.
+     * Errors: Might throw DataAccessException if there are issues accessing the data.
+     * */
+    @Override
+    @Transactional(readOnly = true)
+    public long count() {
+        return personRepository.count();
+    }
+
+    /**
+     * Checks whether a person exists.
+     * Purpose: To check existence with a query on the primary key only.
+     * Input: 'id' (String) - The ID of the person.
+     * Output: boolean - True if the person exists.
+     * Errors: for a null or malformed 'id' false is returned.
+     * */
+    @Override
+    @Transactional(readOnly = true)
+    public boolean exists(String id) {
+        return UuidKeys.parse(id).map(personRepository::existsById).orElse(false);
+    }
+
+    /**
+     * Counts the notes of a person.
+     * Purpose: To count notes with a single grouped COUNT query on the person's ID.
+     * Input: 'id' (String) - The ID of the person.
+     * Output: Optional< Long> - The number of notes, or empty if the person does not exist.
+     * Errors: for a null or malformed 'id' an empty Optional is returned.
+     * */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> countNotes(String id) {
+        return UuidKeys.parse(id).flatMap(personRepository::countNotesById);
+    }
+
+    /**
+     * Retrieves the revision of all persons.
+     * Purpose: To validate conditional requests for listings from the tail of the change log.
+     * Output: Revision - The latest change log sequence and the entries of the trailing ones.
+     * Errors: Might throw DataAccessException if there are issues accessing the data.
+     * Every person and note write is logged, the notes being part of the person views.
      * */
-    public Optional<Person> get(String id) {
-        return personRepository.findById(id);
+    @Override
+    @Transactional(readOnly = true)
+    public Revision getCollectionRevision() {
+        return changeRepository.findRevision();
     }
 
     /**
@@ -58,45 +226,146 @@ public class PersonServiceImpl implements PersonService {
      * Input: 'firstName' (String), 'lastName' (String) - Names used for the search.
      * Output: person with potentially updated information
      * Errors: might throw exception if 'person' is null or has invalid fields.
+     * Saving an existing person evicts it from the cache. The write is recorded in the change
+     * log within the same transaction.
+     * An update carrying a version fails if the person changed since; one without a version
+     * overwrites the names of the stored person, the last write winning.
      * */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PERSONS, key = "#person.id.toString()",
+            condition = "#person != null && #person.id != null")
+    @Transactional
     public Person create(Person person) {
-        return personRepository.save(person);
+        Person toSave = person;
+        if (person != null && person.getId() != null) {
+            Optional<Person> current = personRepository.findWritableById(person.getId());
+            current.ifPresent(old ->
+                    personNameIndex.remove(old.getId(), old.getFirstName(), old.getLastName()));
+            if (current.isPresent() && person.getVersion() == null) {
+                toSave = current.get();
+                toSave.setFirstName(person.getFirstName());
+                toSave.setLastName(person.getLastName());
+            }
+        }
+        Person saved = personRepository.save(toSave);
+        if (saved != null) {
+            personNameIndex.add(saved.getId(), saved.getFirstName(), saved.getLastName());
+            changeRepository.appendPersons(List.of(saved));
+        }
+        return saved;
+    }
+
+    /**
+     * Creates many persons with batched inserts.
+     * Purpose: To persist persons in bulk, assigning their IDs up front.
+     * Input: 'persons' (List< Person>) - The persons to be saved; nested notes are ignored.
+     * Output: The saved persons with their generated IDs, recorded in the change log.
+     * Errors: might throw exception if a person has invalid fields; earlier chunks stay committed.
+     * */
+    @Override
+    public List<Person> createAll(List<Person> persons) {
+        List<Person> created = new ArrayList<>(persons.size());
+        importAll(List.of(persons).iterator(), created::addAll);
+        return created;
+    }
+
+    /**
+     * Creates persons handed over chunk by chunk with batched inserts.
+     * Purpose: To import persons while they are read, assigning their IDs up front.
+     * Input: 'chunks' (Iterator< List< Person>>) - The persons to be saved; nested notes are
+     * ignored.
+     * Output: The number of saved persons, each recorded in the change log.
+     * Errors: might throw exception if a person has invalid fields; earlier chunks stay committed.
+     * The cached name query results are evicted once after the last chunk, also if one failed.
+     * */
+    @Override
+    public long importAll(Iterator<List<Person>> chunks) {
+        return importAll(chunks, created -> { });
     }
 
     /**
-     * Finds persons by their first or last name.
-     * Purpose: To search for persons using their first or last name.
+     * Finds the read models of persons by their first or last name.
+     * Purpose: To search persons by name with the indexes of V2__indexes.sql, without entities.
      * Input: 'firstName' (String), 'lastName' (String) - Names used for the search.
-     * Output: List< Person> - A list of persons
-     * Errors: for null or empty input parameters, potentially returning an empty list.
+     * Output: List< PersonView> - The views of the matching persons with their notes.
+     * Errors: for null or empty input parameters, an empty list is returned.
      * */
+    @Override
+    @Transactional(readOnly = true)
+    public List<PersonView> findViewsByName(String firstName, String lastName) {
+        return withNotes(viewsByName(firstName, lastName));
+    }
 
+    /**
+     * Streams the read models of persons by their first or last name.
+     * Purpose: To attach notes to the matching persons one page at a time while handing them
+     * out, instead of to all of them at once.
+     * Input: 'firstName' (String), 'lastName' (String) - Names used for the search,
+     * 'consumer' (Consumer< PersonView>) - Receives the views with their notes.
+     * Errors: for null or empty input parameters, nothing is handed out.
+     * */
     @Override
-    public List<Person> findByName(String firstName, String lastName) {
-        // Handle null or empty inputs for both names
-        if ((firstName == null || firstName.isEmpty())
-                && (lastName == null || lastName.isEmpty())) {
-            return Lists.newArrayList();
+    @Transactional(readOnly = true)
+    public void streamViewsByName(String firstName, String lastName,
+                                  Consumer<? super PersonView> consumer) {
+        for (List<PersonView> page : Lists.partition(viewsByName(firstName, lastName),
+                MAX_PAGE_SIZE)) {
+            withNotes(page).forEach(consumer);
         }
+    }
 
-        // Search by both names if both are provided and not empty
-        if (firstName != null && !firstName.isEmpty()
-                && lastName != null && !lastName.isEmpty()) {
-            return personRepository.findByFirstNameAndLastName(firstName, lastName);
+    /**
+     * Searches persons by the beginning of their first or last name.
+     * Purpose: To rank persons by how well one of their names completes the query, from the
+     * name index, and to load only the best ones.
+     * Input: 'query' (String), 'fuzziness' (int) - The edit distance allowed, capped at
+     * PersonNameIndex.MAX_DISTANCE, 'limit' (int) - capped at MAX_SEARCH_RESULTS.
+     * Output: List< PersonView> - The views of the best matches in rank order.
+     * Errors: for a null or empty query an empty list is returned. Until the index is populated,
+     * a case-insensitive prefix query on the database answers without fuzziness.
+     * */
+    @Override
+    @Transactional(readOnly = true)
+    public List<PersonView> searchByName(String query, int fuzziness, int limit) {
+        String prefix = PersonNameIndex.normalize(query);
+        if (prefix.isEmpty() || limit < 1) {
+            return Lists.newArrayList();
         }
-
-        // If only firstName is provided and not empty
-        if (firstName != null && !firstName.isEmpty()) {
-            return personRepository.findByFirstName(firstName);
+        int pageSize = Math.min(limit, MAX_SEARCH_RESULTS);
+        Optional<List<PersonNameIndex.Match>> matches =
+                personNameIndex.search(prefix, fuzziness, pageSize);
+        if (matches.isEmpty()) {
+            return withNotes(personRepository.findViewsByNamePrefix(prefix, Limit.of(pageSize)));
         }
-
-        // If only lastName is provided and not empty
-        if (lastName != null && !lastName.isEmpty()) {
-            return personRepository.findByLastName(lastName);
+        if (matches.get().isEmpty()) {
+            return Lists.newArrayList();
         }
 
-        throw new IllegalStateException("findByName method reached an unexpected state.");
+        // The index may briefly lag behind renames, so the loaded names are checked again
+        Map<UUID, PersonView> persons = personRepository.findViewsByIdIn(matches.get().stream()
+                        .map(PersonNameIndex.Match::personId).toList())
+                .stream()
+                .collect(Collectors.toMap(PersonView::id, Function.identity()));
+        List<PersonView> ranked = matches.get().stream()
+                .map(match -> Optional.ofNullable(persons.get(match.personId()))
+                        .filter(person -> hasName(person, match.name())))
+                .flatMap(Optional::stream)
+                .toList();
+        return withNotes(ranked);
+    }
+
+    /**
+     * Suggests first and last names completing a query.
+     * Purpose: To autocomplete names from the name index alone.
+     * Input: 'query' (String), 'fuzziness' (int) - The edit distance allowed,
+     * 'limit' (int) - capped at MAX_SEARCH_RESULTS.
+     * Output: List< String> - Distinct names in rank order.
+     * Errors: for a null or empty query, or before the index is populated, an empty list.
+     * */
+    @Override
+    public List<String> suggestNames(String query, int fuzziness, int limit) {
+        return personNameIndex.suggest(query, fuzziness, Math.min(limit, MAX_SEARCH_RESULTS))
+                .orElseGet(Lists::newArrayList);
     }
 
     /**
@@ -105,12 +374,145 @@ public class PersonServiceImpl implements PersonService {
      * Input: 'personId' (String) - The ID of the person, 'note' (Note) - The note to be added.
      * Output: Optional< Note> - wrapped in an Optional if the person exists.
      * Errors: If the personId does not exist cannot be created, an empty Optional is returned.
+     * The person is marked as modified and evicted from the cache, as its notes changed. The
+     * note is recorded in the change log in the transaction that stores it. The person is
+     * changed as a managed entity rather than by 'touch', so the second-level cache keeps the
+     * other persons.
+     * In write-behind mode, the note gets its ID and is only journaled and queued; the person
+     * is marked once the note is flushed. A full queue throws QueueFullException. The person
+     * is only checked to exist, and the note is journaled outside of any transaction, so
+     * forcing the journal does not hold a pooled connection.
      */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PERSONS, key = "#personId.toLowerCase()",
+            condition = "#personId != null")
     public Optional<Note> createNote(String personId, Note note) {
-        return get(personId).map((Person person) -> {
-            note.setPerson(person);
-            return noteService.create(note);
-        });
+        if (noteWriteBehind != null) {
+            return UuidKeys.parse(personId).filter(personRepository::existsById)
+                    .map(id -> noteWriteBehind.enqueue(new Note(UuidKeys.next(),
+                            new Person(id, null, null, null), note.getContent())));
+        }
+        return transactionTemplate.execute(status -> UuidKeys.parse(personId)
+                .flatMap(personRepository::findWritableById)
+                .map((Person person) -> {
+                    note.setPerson(person);
+                    Note created = noteService.create(note);
+                    // Flushed with a new version, which updates only its own cache entries
+                    person.setModifiedAt(Instant.now());
+                    return created;
+                }));
+    }
+
+    /**
+     * Creates many notes for a specific person.
+     * Purpose: To add notes in bulk to a person, identified by their ID.
+     * Input: 'personId' (String) - The ID of the person, 'notes' (List< Note>) - Notes to be added.
+     * Output: Optional< List< Note>> - wrapped in an Optional if the person exists.
+     * Errors: If the personId does not exist, an empty Optional is returned.
+     * The person is marked as modified and evicted from the cache, as its notes changed.
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PERSONS, key = "#personId.toLowerCase()",
+            condition = "#personId != null")
+    public Optional<List<Note>> createNotes(String personId, List<Note> notes) {
+        List<Note> created = new ArrayList<>(notes.size());
+        return importNotes(personId, List.of(notes).iterator(), created::addAll)
+                .map(count -> created);
+    }
+
+    /**
+     * Creates notes handed over chunk by chunk for a specific person.
+     * Purpose: To import notes of a person while they are read, with batched inserts.
+     * Input: 'personId' (String) - The ID of the person,
+     * 'chunks' (Iterator< List< Note>>) - The notes to be added, one chunk at a time.
+     * Output: Optional< Long> - The number of saved notes, if the person exists.
+     * Errors: If the personId does not exist, an empty Optional is returned.
+     * The person is checked once, and marked as modified and evicted from the cache once after
+     * the last chunk, also if one failed; each chunk only evicts the cached note IDs of the
+     * person.
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PERSONS, key = "#personId.toLowerCase()",
+            condition = "#personId != null")
+    public Optional<Long> importNotes(String personId, Iterator<List<Note>> chunks) {
+        return importNotes(personId, chunks, created -> { });
+    }
+
+    private long importAll(Iterator<List<Person>> chunks, Consumer<List<Person>> created) {
+        long count = 0;
+        try {
+            while (chunks.hasNext()) {
+                List<Person> prepared = chunks.next().stream()
+                        .map(person -> new Person(UuidKeys.next(), person.getFirstName(),
+                                person.getLastName(), Lists.newArrayList()))
+                        .toList();
+                personRepository.insertAll(prepared);
+                prepared.forEach(person -> personNameIndex.add(person.getId(),
+                        person.getFirstName(), person.getLastName()));
+                created.accept(prepared);
+                count += prepared.size();
+            }
+        } finally {
+            personRepository.evictNameQueries();
+        }
+        return count;
+    }
+
+    private Optional<Long> importNotes(String personId, Iterator<List<Note>> chunks,
+                                      Consumer<List<Note>> created) {
+        Optional<UUID> id = UuidKeys.parse(personId).filter(personRepository::existsById);
+        if (id.isEmpty()) {
+            return Optional.empty();
+        }
+        Person person = new Person(id.get(), null, null, null);
+        long count = 0;
+        try {
+            while (chunks.hasNext()) {
+                List<Note> prepared = chunks.next().stream()
+                        .map(note -> new Note(UuidKeys.next(), person, note.getContent()))
+                        .toList();
+                noteService.insertAll(prepared);
+                created.accept(prepared);
+                count += prepared.size();
+            }
+        } finally {
+            personRepository.touch(id.get(), Instant.now());
+        }
+        return Optional.of(count);
+    }
+
+    private List<PersonView> viewsByName(String firstName, String lastName) {
+        boolean hasFirstName = !Strings.isNullOrEmpty(firstName);
+        boolean hasLastName = !Strings.isNullOrEmpty(lastName);
+
+        if (hasFirstName && hasLastName) {
+            return personRepository.findViewsByFirstNameAndLastName(firstName, lastName);
+        }
+        if (hasFirstName) {
+            return personRepository.findViewsByFirstName(firstName);
+        }
+        if (hasLastName) {
+            return personRepository.findViewsByLastName(lastName);
+        }
+        return Lists.newArrayList();
+    }
+
+    private static boolean hasName(PersonView person, String name) {
+        String normalized = PersonNameIndex.normalize(name);
+        return normalized.equals(PersonNameIndex.normalize(person.firstName()))
+                || normalized.equals(PersonNameIndex.normalize(person.lastName()));
+    }
+
+    private List<PersonView> withNotes(List<PersonView> persons) {
+        if (persons.isEmpty()) {
+            return persons;
+        }
+        Map<UUID, List<NoteView>> notes = noteService.getViewsOfPersons(
+                        persons.stream().map(PersonView::id).toList())
+                .stream()
+                .collect(Collectors.groupingBy(NoteView::personId));
+        return persons.stream()
+                .map(person -> person.withNotes(notes.getOrDefault(person.id(), List.of())))
+                .toList();
     }
 }
@@ -0,0 +1,71 @@
+package io.muehlbachler.fhburgenland.swm.examination.service.impl;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.google.common.collect.Iterables;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.NoteRow;
+import io.muehlbachler.fhburgenland.swm.examination.model.UuidKeys;
+import io.muehlbachler.fhburgenland.swm.examination.repository.ReactiveNoteRepository;
+import io.muehlbachler.fhburgenland.swm.examination.search.NoteContentIndex;
+import io.muehlbachler.fhburgenland.swm.examination.service.ReactiveNoteService;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking service implementation for managing notes.
+ * Performs the read operations of {@link NoteServiceImpl} through R2DBC,
+ * sharing its content index.
+ */
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Service
+public class ReactiveNoteServiceImpl implements ReactiveNoteService {
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private ReactiveNoteRepository noteRepository;
+    @Autowired
+    private NoteContentIndex noteContentIndex;
+
+    /**
+     * Retrieves a note by its ID.
+     * Purpose: To find and emit a note if it exists in the database.
+     * Input: 'id' (String) - The unique identifier of the note to be retrieved.
+     * Output: Mono< NoteRow> - The note, or empty if not found.
+     * Errors: for a null or malformed 'id' completes empty.
+     * */
+    @Override
+    public Mono<NoteRow> get(String id) {
+        return Mono.justOrEmpty(UuidKeys.parse(id)).flatMap(key -> noteRepository.findById(key));
+    }
+
+    /**
+     * Queries and emits notes based on content.
+     * Purpose: To emit the notes that contain the given query.
+     * Candidates are resolved from the content index and only those are loaded by ID.
+     * Input: 'query' (String) - The string used to search within the content of notes.
+     * Output: Flux< NoteRow> - The notes that match the query.
+     * Errors: queries the index cannot answer (null, too short) fall back to the repository.
+     * */
+    @Override
+    public Flux<NoteRow> queryByContent(String query) {
+        return Flux.defer(() -> {
+            Optional<Set<UUID>> candidates = noteContentIndex.candidates(query);
+            if (candidates.isEmpty()) {
+                return noteRepository.findByContentContaining(query);
+            }
+            return Flux.fromIterable(Iterables.partition(candidates.get(), LOAD_CHUNK_SIZE))
+                    .concatMap(ids -> noteRepository.findAllById(ids))
+                    .filter(note -> note.content() != null && note.content().contains(query));
+        });
+    }
+}
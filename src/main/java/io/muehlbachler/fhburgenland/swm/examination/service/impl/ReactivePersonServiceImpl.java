@@ -0,0 +1,94 @@
+package io.muehlbachler.fhburgenland.swm.examination.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.google.common.base.Strings;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.NoteRow;
+import io.muehlbachler.fhburgenland.swm.examination.model.PersonRow;
+import io.muehlbachler.fhburgenland.swm.examination.model.UuidKeys;
+import io.muehlbachler.fhburgenland.swm.examination.repository.ReactiveNoteRepository;
+import io.muehlbachler.fhburgenland.swm.examination.repository.ReactivePersonRepository;
+import io.muehlbachler.fhburgenland.swm.examination.service.ReactivePersonService;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking service implementation for managing persons.
+ * Performs the read operations of {@link PersonServiceImpl} through R2DBC.
+ * Nothing is read or written before the result is subscribed to.
+ */
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Service
+public class ReactivePersonServiceImpl implements ReactivePersonService {
+    @Autowired
+    private ReactivePersonRepository personRepository;
+    @Autowired
+    private ReactiveNoteRepository noteRepository;
+
+    /**
+     * Retrieves all persons.
+     * Purpose: To emit every person as it is read, bounded by the demand of the subscriber.
+     * Output: Flux< PersonRow> - All persons, without their notes.
+     * Errors: Signals errors related to database access issues.
+     * */
+    @Override
+    public Flux<PersonRow> getAll() {
+        return personRepository.findAll();
+    }
+
+    /**
+     * Retrieves a person by their ID.
+     * Purpose: To find and emit a person if they exist in the database.
+     * Input: `String` id of the person
+     * Output: Mono< PersonRow> - The person, or empty if not found.
+     * Errors: for a null or malformed 'id' completes empty.
+     * */
+    @Override
+    public Mono<PersonRow> get(String id) {
+        return Mono.justOrEmpty(UuidKeys.parse(id)).flatMap(key -> personRepository.findById(key));
+    }
+
+    /**
+     * Finds persons by their first or last name.
+     * Purpose: To search for persons using their first or last name.
+     * Input: 'firstName' (String), 'lastName' (String) - Names used for the search.
+     * Output: Flux< PersonRow> - The matching persons.
+     * Errors: for null or empty input parameters, completes without emitting anything.
+     * */
+    @Override
+    public Flux<PersonRow> findByName(String firstName, String lastName) {
+        boolean hasFirstName = !Strings.isNullOrEmpty(firstName);
+        boolean hasLastName = !Strings.isNullOrEmpty(lastName);
+
+        // Same branches, and therefore the same indexes, as PersonServiceImpl.findByName
+        if (hasFirstName && hasLastName) {
+            return personRepository.findByFirstNameAndLastName(firstName, lastName);
+        }
+        if (hasFirstName) {
+            return personRepository.findByFirstName(firstName);
+        }
+        if (hasLastName) {
+            return personRepository.findByLastName(lastName);
+        }
+        return Flux.empty();
+    }
+
+    /**
+     * Retrieves the notes of a person.
+     * Purpose: To emit the notes of a person with a single query on the person_id index.
+     * Input: 'personId' (String) - The ID of the person.
+     * Output: Flux< NoteRow> - The notes of the person.
+     * Errors: Signals errors related to database access issues.
+     * */
+    @Override
+    public Flux<NoteRow> getNotes(String personId) {
+        return Mono.justOrEmpty(UuidKeys.parse(personId))
+                .flatMapMany(key -> noteRepository.findByPersonId(key));
+    }
+}
@@ -0,0 +1,73 @@
+package io.muehlbachler.fhburgenland.swm.examination.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Actuator endpoint creating an online backup of the file backed database at /actuator/backup.
+ * H2's 'BACKUP TO' copies a consistent MVStore snapshot into a zip file without locking any table,
+ * so writers continue while the backup is taken. Restore by unzipping into the storage directory.
+ */
+
+@Endpoint(id = "backup")
+public class BackupEndpoint {
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path directory;
+    private final Clock clock;
+
+    /**
+     * Creates the endpoint.
+     *
+     * @param jdbcTemplate The template to run the backup with.
+     * @param directory The directory backups are written to.
+     * @param clock The clock naming the backup files.
+     */
+    public BackupEndpoint(JdbcTemplate jdbcTemplate, Path directory, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.directory = directory;
+        this.clock = clock;
+    }
+
+    /**
+     * Backs up the database.
+     *
+     * @return The written backup file, its size and the time it took.
+     */
+    @WriteOperation
+    public Backup backup() {
+        Instant start = clock.instant();
+        Path file = directory.resolve("examination-" + FILE_TIMESTAMP.format(start) + ".zip")
+                .toAbsolutePath();
+        try {
+            Files.createDirectories(directory);
+            jdbcTemplate.execute("BACKUP TO '" + file.toString().replace("'", "''") + "'");
+            return new Backup(file.toString(), Files.size(file),
+                    clock.millis() - start.toEpochMilli());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Represents a written backup.
+     *
+     * @param file The absolute path of the backup file.
+     * @param bytes The size of the backup file.
+     * @param millis The time taken to write the backup.
+     */
+    public record Backup(String file, long bytes, long millis) {
+    }
+}
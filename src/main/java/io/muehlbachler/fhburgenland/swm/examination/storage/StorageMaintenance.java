@@ -0,0 +1,32 @@
+package io.muehlbachler.fhburgenland.swm.examination.storage;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Periodically checkpoints the file backed database.
+ * A checkpoint writes all pending changes, bounding what a crash can lose to the checkpoint
+ * interval instead of the write delay backlog, and lets the MVStore free and compact old chunks.
+ */
+
+public class StorageMaintenance {
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates the maintenance job.
+     *
+     * @param jdbcTemplate The template to run the checkpoint with.
+     */
+    public StorageMaintenance(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Writes a checkpoint every 'examination.storage.checkpoint-interval'.
+     */
+    @Scheduled(fixedDelayString = "${examination.storage.checkpoint-interval:PT1M}",
+            initialDelayString = "${examination.storage.checkpoint-interval:PT1M}")
+    public void checkpoint() {
+        jdbcTemplate.execute("CHECKPOINT");
+    }
+}
@@ -0,0 +1,72 @@
+package io.muehlbachler.fhburgenland.swm.examination.streaming;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Pools the byte buffers and deflaters of streamed responses.
+ * A deflater holds about 256 KiB of native memory that is only freed by 'end()' or the
+ * finalization of the object, so creating one per response costs far more than its compression.
+ * Both pools are bounded; objects released to a full pool are dropped, deflaters are ended.
+ */
+
+final class BufferPool {
+    private final int bufferSize;
+    private final int level;
+    private final BlockingQueue<byte[]> buffers;
+    private final BlockingQueue<Deflater> gzipDeflaters;
+    private final BlockingQueue<Deflater> zlibDeflaters;
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param size The maximum number of pooled buffers, and of pooled deflaters per coding.
+     * @param bufferSize The size of the buffers in bytes.
+     * @param level The compression level of the deflaters, 1 (fastest) to 9 (smallest).
+     */
+    BufferPool(int size, int bufferSize, int level) {
+        this.bufferSize = bufferSize;
+        this.level = level;
+        this.buffers = new ArrayBlockingQueue<>(size);
+        this.gzipDeflaters = new ArrayBlockingQueue<>(size);
+        this.zlibDeflaters = new ArrayBlockingQueue<>(size);
+    }
+
+    int bufferSize() {
+        return bufferSize;
+    }
+
+    byte[] buffer() {
+        byte[] buffer = buffers.poll();
+        return buffer == null ? new byte[bufferSize] : buffer;
+    }
+
+    void release(byte[] buffer) {
+        if (buffer != null) {
+            buffers.offer(buffer);
+        }
+    }
+
+    /**
+     * Takes a deflater writing raw deflate data for gzip, or zlib data for deflate.
+     */
+    Deflater deflater(ContentCoding coding) {
+        Deflater deflater = deflaters(coding).poll();
+        return deflater == null ? new Deflater(level, coding == ContentCoding.GZIP) : deflater;
+    }
+
+    void release(ContentCoding coding, Deflater deflater) {
+        if (deflater == null) {
+            return;
+        }
+        deflater.reset();
+        if (!deflaters(coding).offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    private BlockingQueue<Deflater> deflaters(ContentCoding coding) {
+        return coding == ContentCoding.GZIP ? gzipDeflaters : zlibDeflaters;
+    }
+}
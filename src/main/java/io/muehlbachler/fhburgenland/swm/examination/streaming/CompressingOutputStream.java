@@ -0,0 +1,189 @@
+package io.muehlbachler.fhburgenland.swm.examination.streaming;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.springframework.http.HttpHeaders;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Writes a response body to the servlet output stream, compressed once it outgrows a minimum.
+ * The first 'minSize' bytes are held back in a pooled buffer. A body that ends within them is
+ * sent as is, with a Content-Length. A longer one gets its Content-Encoding header and is
+ * deflated from then on, and the held back bytes are flushed right away, so the time to the
+ * first byte does not depend on the compression ratio.
+ * Flushing before that is ignored, as it would commit the response without its headers.
+ * Not thread-safe; the pooled buffers and deflater are returned when the stream is closed or
+ * aborted.
+ */
+
+final class CompressingOutputStream extends OutputStream {
+    private static final byte[] GZIP_HEADER =
+            {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final HttpServletResponse response;
+    private final ContentCoding coding;
+    private final BufferPool pool;
+    private final int minSize;
+    private final CRC32 crc = new CRC32();
+    private byte[] prefix;
+    private int buffered;
+    private OutputStream target;
+    private Deflater deflater;
+    private byte[] output;
+    private boolean closed;
+
+    /**
+     * Creates the stream.
+     *
+     * @param response The response to write to, not committed yet.
+     * @param coding The coding negotiated with the client; identity never compresses.
+     * @param minSize The size a body must exceed to be compressed, at most the buffer size.
+     * @param pool The pool to take the buffers and the deflater from.
+     */
+    CompressingOutputStream(HttpServletResponse response, ContentCoding coding, int minSize,
+                            BufferPool pool) {
+        this.response = response;
+        this.coding = coding;
+        this.pool = pool;
+        this.minSize = Math.min(minSize, pool.bufferSize());
+        this.prefix = pool.buffer();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (target == null) {
+            if (buffered + len <= minSize) {
+                System.arraycopy(b, off, prefix, buffered, len);
+                buffered += len;
+                return;
+            }
+            start();
+        }
+        emit(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (target == null || closed) {
+            return;
+        }
+        if (deflater != null) {
+            deflate(Deflater.SYNC_FLUSH);
+        }
+        target.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (target == null) {
+                response.setContentLength(buffered);
+                response.getOutputStream().write(prefix, 0, buffered);
+                return;
+            }
+            if (deflater != null) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    deflate(Deflater.NO_FLUSH);
+                }
+                if (coding == ContentCoding.GZIP) {
+                    writeTrailer();
+                }
+            }
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Gives up the stream without finishing the body, e.g. after its producer failed.
+     * A response that is not committed yet is left empty for the error handling; otherwise the
+     * client sees a truncated body rather than one that looks complete.
+     */
+    void abort() {
+        if (!closed) {
+            closed = true;
+            release();
+        }
+    }
+
+    private void release() {
+        pool.release(prefix);
+        pool.release(output);
+        pool.release(coding, deflater);
+        prefix = null;
+        output = null;
+        deflater = null;
+    }
+
+    private void start() throws IOException {
+        if (coding != ContentCoding.IDENTITY) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, coding.token());
+            // The compressed bytes differ from the identity ones, so a strong tag would lie
+            String etag = response.getHeader(HttpHeaders.ETAG);
+            if (etag != null && !etag.startsWith("W/")) {
+                response.setHeader(HttpHeaders.ETAG, "W/" + etag);
+            }
+            deflater = pool.deflater(coding);
+            output = pool.buffer();
+        }
+        target = response.getOutputStream();
+        if (coding == ContentCoding.GZIP) {
+            target.write(GZIP_HEADER);
+        }
+        emit(prefix, 0, buffered);
+        buffered = 0;
+        flush();
+    }
+
+    private void emit(byte[] b, int off, int len) throws IOException {
+        if (deflater == null) {
+            target.write(b, off, len);
+            return;
+        }
+        if (coding == ContentCoding.GZIP) {
+            crc.update(b, off, len);
+        }
+        deflater.setInput(b, off, len);
+        while (!deflater.needsInput()) {
+            deflate(Deflater.NO_FLUSH);
+        }
+    }
+
+    private void deflate(int mode) throws IOException {
+        int length;
+        do {
+            length = deflater.deflate(output, 0, output.length, mode);
+            target.write(output, 0, length);
+        } while (length == output.length);
+    }
+
+    private void writeTrailer() throws IOException {
+        byte[] trailer = new byte[8];
+        writeInt(trailer, 0, (int) crc.getValue());
+        writeInt(trailer, 4, (int) deflater.getBytesRead());
+        target.write(trailer);
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        for (int i = 0; i < 4; i++) {
+            bytes[offset + i] = (byte) (value >>> (8 * i));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package io.muehlbachler.fhburgenland.swm.examination.streaming;
+
+import java.util.Locale;
+
+/**
+ * The content codings a streamed response can be sent with, see RFC 9110, section 8.4.1.
+ * The coding is negotiated from the 'Accept-Encoding' header of the request.
+ */
+
+public enum ContentCoding {
+    GZIP("gzip"),
+    DEFLATE("deflate"),
+    IDENTITY("identity");
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Returns the token of the coding, as used in the 'Content-Encoding' header.
+     *
+     * @return The token, e.g. 'gzip'.
+     */
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Picks the coding for a response.
+     * Purpose: To compress only with a coding the client accepts, preferring the one with the
+     * highest quality value and gzip on ties.
+     * Input: 'acceptEncoding' (String) - The 'Accept-Encoding' header, e.g. "gzip;q=0.5, br".
+     * Output: ContentCoding - gzip or deflate if accepted with a quality above 0, otherwise
+     * identity.
+     * Errors: A missing or malformed header, and malformed quality values, are treated as
+     * accepting identity only.
+     *
+     * @param acceptEncoding The 'Accept-Encoding' header of the request, or null.
+     * @return The coding to send the response with.
+     */
+    public static ContentCoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return IDENTITY;
+        }
+        double gzip = -1;
+        double deflate = -1;
+        double wildcard = -1;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parameters = element.split(";");
+            String coding = parameters[0].strip().toLowerCase(Locale.ROOT);
+            double quality = quality(parameters);
+            switch (coding) {
+                case "gzip", "x-gzip" -> gzip = Math.max(gzip, quality);
+                case "deflate" -> deflate = Math.max(deflate, quality);
+                case "*" -> wildcard = Math.max(wildcard, quality);
+                default -> {
+                }
+            }
+        }
+        gzip = gzip < 0 ? wildcard : gzip;
+        deflate = deflate < 0 ? wildcard : deflate;
+        if (gzip <= 0 && deflate <= 0) {
+            return IDENTITY;
+        }
+        return gzip >= deflate ? GZIP : DEFLATE;
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].strip();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,117 @@
+package io.muehlbachler.fhburgenland.swm.examination.streaming;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.WebRequest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Writes JSON arrays straight to the servlet response while their elements are produced.
+ * Jackson serializes each element into its recycled buffer, from where the bytes go through the
+ * optional compression to the servlet output stream; neither the list of elements nor the
+ * serialized body is ever held in memory as a whole.
+ * The body is compressed with the coding negotiated from 'Accept-Encoding', once it exceeds
+ * the minimum size; shorter bodies are sent as is, with a Content-Length.
+ */
+
+public class JsonStreamer {
+    /**
+     * The smallest pooled buffer, the size of Jackson's own output buffer.
+     */
+    private static final int MIN_BUFFER_SIZE = 8192;
+
+    private final ObjectWriter writer;
+    private final boolean compression;
+    private final int minSize;
+    private final BufferPool pool;
+
+    /**
+     * Produces the elements of a streamed array.
+     *
+     * @param <T> The type of the elements.
+     */
+    @FunctionalInterface
+    public interface Source<T> {
+        /**
+         * Hands every element to the consumer, in the order they are written.
+         *
+         * @param consumer Receives the elements one by one.
+         */
+        void forEach(Consumer<? super T> consumer);
+    }
+
+    /**
+     * Creates the streamer.
+     *
+     * @param objectMapper The mapper configured for the application.
+     * @param compression Whether bodies are compressed at all.
+     * @param minSize The size in bytes a body must exceed to be compressed.
+     * @param level The compression level, 1 (fastest) to 9 (smallest).
+     * @param poolSize The maximum number of pooled buffers and deflaters.
+     */
+    public JsonStreamer(ObjectMapper objectMapper, boolean compression, int minSize, int level,
+                        int poolSize) {
+        this.writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.compression = compression;
+        this.minSize = Math.max(0, minSize);
+        this.pool = new BufferPool(poolSize, Math.max(this.minSize, MIN_BUFFER_SIZE), level);
+    }
+
+    /**
+     * Writes the elements of a source as a JSON array to the response.
+     * Purpose: To send large results without materializing them, compressed if the client
+     * accepts gzip or deflate.
+     * Input: 'request' - For its 'Accept-Encoding' header, 'response' - Not committed yet,
+     * 'source' - Produces the elements while they are written.
+     * Output: The response carries status 200 unless set before, and the JSON array.
+     * Errors: Exceptions of the source propagate. Before the first bytes are sent the response
+     * is left for the error handling, afterwards the client receives a truncated body. Write
+     * errors, e.g. of a disconnected client, are thrown as IOException.
+     *
+     * @param <T> The type of the elements.
+     * @param request The current request.
+     * @param response The response to write to.
+     * @param source Produces the elements to write.
+     * @throws IOException If writing to the response fails.
+     */
+    public <T> void writeArray(WebRequest request, HttpServletResponse response,
+                               Source<T> source) throws IOException {
+        ContentCoding coding = ContentCoding.IDENTITY;
+        if (compression) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            coding = ContentCoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        CompressingOutputStream body = new CompressingOutputStream(response, coding, minSize, pool);
+        try {
+            SequenceWriter array = writer.writeValuesAsArray(body);
+            source.forEach(element -> {
+                try {
+                    array.write(element);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            // Only a completed source closes the array, a failed one must not look complete
+            array.close();
+            body.close();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            body.abort();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package io.muehlbachler.fhburgenland.swm.examination.writebehind;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.Note;
+import io.muehlbachler.fhburgenland.swm.examination.model.Person;
+
+/**
+ * Append-only journal of the notes accepted by the write-behind queue.
+ * Notes are appended to the current segment file; rotating seals it, so it can be deleted once
+ * all of its notes are stored. Segments left over by a crash are replayed on the next start.
+ * Every record carries a CRC32, so a record torn by a crash ends the replay of its segment.
+ * Appending and rotating must be serialized by the caller, syncing may happen concurrently.
+ */
+
+final class NoteJournal implements Closeable {
+    private static final String PREFIX = "notes-";
+    private static final String SUFFIX = ".journal";
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int IDS_BYTES = 4 * Long.BYTES;
+
+    private final Path directory;
+    private final List<Path> recovered;
+    private final Object syncLock = new Object();
+    private long sequence;
+    private Path segment;
+    private FileChannel channel;
+    private long segmentRecords;
+    private volatile long appended;
+    private long synced;
+
+    private NoteJournal(Path directory, List<Path> recovered, long sequence) throws IOException {
+        this.directory = directory;
+        this.recovered = recovered;
+        this.sequence = sequence;
+        openSegment();
+    }
+
+    /**
+     * Opens the journal in a directory, starting a new segment after the existing ones.
+     *
+     * @param directory The directory holding the segments, created if missing.
+     * @return The journal.
+     * @throws IOException If the directory cannot be created or listed.
+     */
+    static NoteJournal open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files.filter(file -> number(file) >= 0)
+                    .sorted((a, b) -> Long.compare(number(a), number(b)))
+                    .toList();
+        }
+        long next = segments.isEmpty() ? 0 : number(segments.get(segments.size() - 1)) + 1;
+        return new NoteJournal(directory, segments, next);
+    }
+
+    /**
+     * Returns the segments that existed when the journal was opened, oldest first.
+     *
+     * @return The segments to replay.
+     */
+    List<Path> recovered() {
+        return recovered;
+    }
+
+    /**
+     * Appends a note to the current segment, without forcing it to the disk.
+     *
+     * @param note The note to append, with its ID and person assigned.
+     * @return The position to pass to {@link #sync(long)}.
+     * @throws IOException If the record cannot be written.
+     */
+    long append(Note note) throws IOException {
+        byte[] content = note.getContent() == null
+                ? null : note.getContent().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(IDS_BYTES + Integer.BYTES
+                + (content == null ? 0 : content.length));
+        UUID personId = note.getPerson().getId();
+        payload.putLong(note.getId().getMostSignificantBits())
+                .putLong(note.getId().getLeastSignificantBits())
+                .putLong(personId.getMostSignificantBits())
+                .putLong(personId.getLeastSignificantBits())
+                .putInt(content == null ? -1 : content.length);
+        if (content != null) {
+            payload.put(content);
+        }
+        payload.flip();
+
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(payload.remaining())
+                .putInt((int) crc.getValue())
+                .flip();
+        ByteBuffer[] record = {header, payload};
+        while (payload.hasRemaining()) {
+            channel.write(record);
+        }
+        segmentRecords++;
+        appended++;
+        return appended;
+    }
+
+    /**
+     * Forces all records up to a position to the disk.
+     * Concurrent callers share a single force, so records are committed in groups.
+     *
+     * @param position The position returned by {@link #append(Note)}.
+     * @throws IOException If the segment cannot be forced.
+     */
+    void sync(long position) throws IOException {
+        synchronized (syncLock) {
+            if (synced >= position) {
+                return;
+            }
+            long target = appended;
+            channel.force(false);
+            synced = target;
+        }
+    }
+
+    /**
+     * Seals the current segment and starts a new one, unless the current one is empty.
+     *
+     * @return The sealed segment, or an empty list.
+     * @throws IOException If the segment cannot be forced or the new one cannot be created.
+     */
+    List<Path> rotate() throws IOException {
+        synchronized (syncLock) {
+            if (segmentRecords == 0) {
+                return List.of();
+            }
+            Path sealed = segment;
+            channel.force(false);
+            channel.close();
+            synced = appended;
+            openSegment();
+            return List.of(sealed);
+        }
+    }
+
+    /**
+     * Deletes segments whose notes are all stored.
+     *
+     * @param segments The segments to delete.
+     * @throws IOException If a segment cannot be deleted.
+     */
+    void delete(List<Path> segments) throws IOException {
+        for (Path sealed : segments) {
+            Files.deleteIfExists(sealed);
+        }
+    }
+
+    /**
+     * Closes the current segment, deleting it if it is empty.
+     *
+     * @throws IOException If the segment cannot be forced or deleted.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            channel.force(false);
+            channel.close();
+            if (segmentRecords == 0) {
+                Files.deleteIfExists(segment);
+            }
+        }
+    }
+
+    /**
+     * Reads the notes of a segment, up to the first incomplete or corrupt record.
+     * The notes reference their person by ID only.
+     *
+     * @param segment The segment to read.
+     * @return The notes in the order they were appended.
+     * @throws IOException If the segment cannot be read.
+     */
+    static List<Note> read(Path segment) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        List<Note> notes = new ArrayList<>();
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length < IDS_BYTES + Integer.BYTES || length > buffer.remaining()) {
+                break;
+            }
+            ByteBuffer payload = buffer.slice(buffer.position(), length);
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            buffer.position(buffer.position() + length);
+
+            UUID id = new UUID(payload.getLong(), payload.getLong());
+            UUID personId = new UUID(payload.getLong(), payload.getLong());
+            int contentLength = payload.getInt();
+            String content = null;
+            if (contentLength >= 0) {
+                byte[] bytes = new byte[contentLength];
+                payload.get(bytes);
+                content = new String(bytes, StandardCharsets.UTF_8);
+            }
+            notes.add(new Note(id, new Person(personId, null, null, null), content));
+        }
+        return notes;
+    }
+
+    private void openSegment() throws IOException {
+        segment = directory.resolve(PREFIX + sequence++ + SUFFIX);
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+        segmentRecords = 0;
+    }
+
+    private static long number(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(),
+                    name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
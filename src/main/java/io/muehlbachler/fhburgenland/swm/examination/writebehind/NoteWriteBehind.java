@@ -0,0 +1,328 @@
+package io.muehlbachler.fhburgenland.swm.examination.writebehind;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.cache.Cache;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.muehlbachler.fhburgenland.swm.examination.model.Note;
+import io.muehlbachler.fhburgenland.swm.examination.replica.ReplicaRoutingDataSource;
+import io.muehlbachler.fhburgenland.swm.examination.repository.NoteRepository;
+import io.muehlbachler.fhburgenland.swm.examination.repository.PersonRepository;
+import io.muehlbachler.fhburgenland.swm.examination.service.NoteService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Accepts notes into a bounded in-memory queue and writes them to the database in batches.
+ * A note is acknowledged once it is forced to the {@link NoteJournal}, so a crash loses nothing:
+ * journal segments left over are replayed on the next start, skipping notes already stored.
+ * When the queue is full, enqueueing waits up to the enqueue timeout and then fails, which
+ * pushes back on clients instead of growing the heap.
+ * Segments are deleted once their notes are stored and the retention has passed, which covers
+ * databases that write commits to the disk with a delay.
+ * Publishes 'examination.write-behind.queue' (queued and in-flight notes), the flush latency
+ * 'examination.write-behind.flush', the batch sizes 'examination.write-behind.batch' and the
+ * counters 'examination.write-behind.rejected' (queue full) and '.failed' (dropped notes).
+ */
+
+@Slf4j
+public class NoteWriteBehind implements SmartLifecycle {
+    private final NoteService noteService;
+    private final NoteRepository noteRepository;
+    private final PersonRepository personRepository;
+    private final Cache persons;
+    private final Settings settings;
+    private final Semaphore permits;
+    private final Object lock = new Object();
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter rejected;
+    private final Counter failed;
+    private final Deque<Stored> retained = new ArrayDeque<>();
+    private List<Note> pending = new ArrayList<>();
+    private NoteJournal journal;
+    private ScheduledExecutorService flusher;
+    private volatile boolean running;
+
+    /**
+     * Configures the write-behind queue.
+     *
+     * @param directory The directory of the journal.
+     * @param capacity The maximum number of queued and in-flight notes.
+     * @param enqueueTimeout How long enqueueing waits for space in a full queue.
+     * @param flushDelay The delay between two flushes, during which notes are batched.
+     * @param retention How long segments are kept after their notes were stored.
+     */
+    public record Settings(Path directory, int capacity, Duration enqueueTimeout,
+                           Duration flushDelay, Duration retention) {
+    }
+
+    private record Stored(List<Path> segments, Instant at) {
+    }
+
+    /**
+     * Creates the write-behind queue; it accepts notes once started.
+     *
+     * @param noteService The service storing the notes.
+     * @param noteRepository The repository to check which replayed notes are stored already.
+     * @param personRepository The repository marking the persons of stored notes as modified.
+     * @param persons The cache of persons, whose notes change with every flush.
+     * @param meterRegistry The registry to publish the metrics to.
+     * @param settings The settings of the queue.
+     */
+    public NoteWriteBehind(NoteService noteService, NoteRepository noteRepository,
+                           PersonRepository personRepository, Cache persons,
+                           MeterRegistry meterRegistry, Settings settings) {
+        this.noteService = noteService;
+        this.noteRepository = noteRepository;
+        this.personRepository = personRepository;
+        this.persons = persons;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.capacity());
+        Gauge.builder("examination.write-behind.queue", permits,
+                        available -> settings.capacity() - available.availablePermits())
+                .description("Notes queued or being flushed")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("examination.write-behind.flush")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("examination.write-behind.batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = meterRegistry.counter("examination.write-behind.rejected");
+        this.failed = meterRegistry.counter("examination.write-behind.failed");
+    }
+
+    /**
+     * Journals a note and queues it for the next flush.
+     * If the journal cannot be forced, the note is taken off the queue again and fails,
+     * unless a flush took it already, whose rotation forced it to the disk.
+     *
+     * @param note The note, with its ID and person assigned.
+     * @return The note, durable but not yet visible in the database.
+     * @throws QueueFullException If the queue stays full for the enqueue timeout.
+     * @throws UncheckedIOException If the journal cannot be written.
+     */
+    public Note enqueue(Note note) {
+        acquire();
+        long position;
+        try {
+            synchronized (lock) {
+                position = journal.append(note);
+                pending.add(note);
+            }
+        } catch (IOException e) {
+            permits.release();
+            throw new UncheckedIOException(e);
+        }
+        try {
+            journal.sync(position);
+        } catch (IOException e) {
+            synchronized (lock) {
+                // A flush taking the note meanwhile forced it to the disk when rotating
+                if (!pending.removeIf(queued -> queued == note)) {
+                    return note;
+                }
+            }
+            permits.release();
+            throw new UncheckedIOException(e);
+        }
+        return note;
+    }
+
+    /**
+     * Writes all queued notes in one batch and retains their journal segment for deletion.
+     * If the batch fails, the notes are written one by one and those still failing are dropped;
+     * their segment is kept and replayed on the next start.
+     */
+    void flush() {
+        List<Note> batch;
+        List<Path> sealed;
+        synchronized (lock) {
+            deleteExpired(Instant.now());
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new ArrayList<>();
+            try {
+                sealed = journal.rotate();
+            } catch (IOException e) {
+                log.error("Rotating the note journal failed, keeping its segment", e);
+                sealed = List.of();
+            }
+        }
+        try {
+            batchSizes.record(batch.size());
+            boolean complete = flushTimer.record(() -> write(batch));
+            if (complete) {
+                synchronized (lock) {
+                    retained.add(new Stored(sealed, Instant.now()));
+                }
+            }
+        } finally {
+            permits.release(batch.size());
+        }
+    }
+
+    /**
+     * Replays the segments of the journal left over by the last run and starts flushing.
+     * A segment is deleted once all of its notes are stored; one with notes failing to be
+     * written is kept and replayed again on the next start.
+     */
+    @Override
+    public void start() {
+        try {
+            journal = NoteJournal.open(settings.directory());
+            for (Path segment : journal.recovered()) {
+                List<Note> notes = NoteJournal.read(segment);
+                log.info("Replaying {} journaled notes of {}", notes.size(), segment);
+                if (write(unstored(notes))) {
+                    journal.delete(List.of(segment));
+                } else {
+                    log.error("Replaying {} failed, keeping it for the next start", segment);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("note-write-behind").daemon().factory());
+        long delay = settings.flushDelay().toMillis();
+        flusher.scheduleWithFixedDelay(this::flushSafely, delay, delay, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    /**
+     * Stops flushing, writes the remaining notes and closes the journal.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(settings.flushDelay().toMillis() + 1000,
+                    TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushSafely();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.error("Closing the note journal failed", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the web server, so no request finds the queue stopped.
+     *
+     * @return The lifecycle phase.
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 4096;
+    }
+
+    private void acquire() {
+        try {
+            if (permits.tryAcquire(settings.enqueueTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        throw new QueueFullException(settings.capacity());
+    }
+
+    private void deleteExpired(Instant now) {
+        while (!retained.isEmpty()
+                && !retained.peek().at().plus(settings.retention()).isAfter(now)) {
+            List<Path> segments = retained.poll().segments();
+            try {
+                journal.delete(segments);
+            } catch (IOException e) {
+                log.error("Deleting the note journal segments {} failed", segments, e);
+            }
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Flushing the note queue failed", e);
+        }
+    }
+
+    private boolean write(List<Note> notes) {
+        if (notes.isEmpty()) {
+            return true;
+        }
+        try {
+            noteService.insertAll(notes);
+            stored(notes);
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Writing {} notes failed, retrying them one by one", notes.size(), e);
+        }
+
+        List<Note> written = new ArrayList<>();
+        List<Note> remaining = unstored(notes);
+        for (Note note : remaining) {
+            try {
+                noteService.insertAll(List.of(note));
+                written.add(note);
+            } catch (DataAccessException e) {
+                failed.increment();
+                log.error("Dropping note {} of person {}", note.getId(),
+                        note.getPerson().getId(), e);
+            }
+        }
+        stored(written);
+        return written.size() == remaining.size();
+    }
+
+    private List<Note> unstored(List<Note> notes) {
+        Set<UUID> stored = new HashSet<>();
+        ReplicaRoutingDataSource.onPrimary(() ->
+                noteRepository.findAllById(notes.stream().map(Note::getId).toList()))
+                .forEach(note -> stored.add(note.getId()));
+        return notes.stream().filter(note -> !stored.contains(note.getId())).toList();
+    }
+
+    private void stored(List<Note> notes) {
+        Instant now = Instant.now();
+        notes.stream().map(note -> note.getPerson().getId()).distinct().forEach(personId -> {
+            personRepository.touch(personId, now);
+            persons.evict(personId.toString());
+        });
+    }
+}
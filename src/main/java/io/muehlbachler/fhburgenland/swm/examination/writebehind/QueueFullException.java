@@ -0,0 +1,21 @@
+package io.muehlbachler.fhburgenland.swm.examination.writebehind;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the write-behind queue stays full for longer than the enqueue timeout.
+ * Answered with 503, so clients back off until the flusher has caught up.
+ */
+
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Note queue is full")
+public class QueueFullException extends RuntimeException {
+    /**
+     * Creates the exception.
+     *
+     * @param capacity The capacity of the queue.
+     */
+    public QueueFullException(int capacity) {
+        super("Note queue is full (" + capacity + " notes)");
+    }
+}
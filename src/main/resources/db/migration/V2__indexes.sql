@@ -0,0 +1,8 @@
+-- person: name finders
+-- (first_name, last_name) serves findByFirstNameAndLastName and, as prefix, findByFirstName
+CREATE INDEX idx_person_first_name_last_name ON PERSON (first_name, last_name);
+CREATE INDEX idx_person_last_name ON PERSON (last_name);
+
+-- note: join to person
+CREATE INDEX idx_note_person_id ON NOTE (person_id);
+ALTER TABLE NOTE ADD CONSTRAINT fk_note_person FOREIGN KEY (person_id) REFERENCES PERSON (id);
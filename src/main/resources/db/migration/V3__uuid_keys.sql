@@ -0,0 +1,9 @@
+-- keys: 16 byte UUID instead of varchar(255) holding the 36 character canonical form
+-- existing keys are converted in place; the foreign key is recreated on the new column types
+ALTER TABLE NOTE DROP CONSTRAINT fk_note_person;
+
+ALTER TABLE PERSON ALTER COLUMN id SET DATA TYPE UUID;
+ALTER TABLE NOTE ALTER COLUMN id SET DATA TYPE UUID;
+ALTER TABLE NOTE ALTER COLUMN person_id SET DATA TYPE UUID;
+
+ALTER TABLE NOTE ADD CONSTRAINT fk_note_person FOREIGN KEY (person_id) REFERENCES PERSON (id);
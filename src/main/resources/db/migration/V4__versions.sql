@@ -0,0 +1,7 @@
+-- versions: incremented on every update of a row, and for persons also when their notes change
+-- they back the strong ETags, the modification time the Last-Modified header
+ALTER TABLE PERSON ADD COLUMN version bigint DEFAULT 0 NOT NULL;
+ALTER TABLE PERSON ADD COLUMN modified_at timestamp with time zone DEFAULT CURRENT_TIMESTAMP NOT NULL;
+
+ALTER TABLE NOTE ADD COLUMN version bigint DEFAULT 0 NOT NULL;
+ALTER TABLE NOTE ADD COLUMN modified_at timestamp with time zone DEFAULT CURRENT_TIMESTAMP NOT NULL;
@@ -0,0 +1,9 @@
+-- change log: outbox of person and note writes, appended in the transaction of the write
+-- consumers read it in sequence order and resume after the last sequence they have seen
+CREATE TABLE CHANGE_LOG (
+    sequence bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    entity varchar(16) NOT NULL,
+    entity_id UUID NOT NULL,
+    person_id UUID,
+    recorded_at timestamp with time zone NOT NULL
+);
@@ -0,0 +1,3 @@
+-- content store: the full content of large notes is kept in mapped segment files by note ID,
+-- CONTENT then only holds a preview; null for notes whose CONTENT is complete
+ALTER TABLE NOTE ADD COLUMN content_size integer;
@@ -0,0 +1,128 @@
+package io.muehlbachler.fhburgenland.swm.examination.changes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.muehlbachler.fhburgenland.swm.examination.model.Change;
+import io.muehlbachler.fhburgenland.swm.examination.repository.ChangeRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedTest {
+    private static final Instant OLD = Instant.now().minus(Duration.ofMinutes(1));
+
+    @Mock
+    private ChangeRepository changeRepository;
+
+    private final List<Change> log = new CopyOnWriteArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private ChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(changeRepository.findBySequenceGreaterThanOrderBySequenceAsc(anyLong(),
+                any())).thenAnswer(call -> {
+                    long since = call.getArgument(0);
+                    Limit limit = call.getArgument(1);
+                    return log.stream().filter(change -> change.getSequence() > since)
+                            .limit(limit.max()).toList();
+                });
+        meterRegistry = new SimpleMeterRegistry();
+        // no periodic polls, waiting polls are only answered on appends
+        feed = new ChangeFeed(changeRepository, meterRegistry, new ChangeFeed.Settings(
+                Duration.ofSeconds(5), Duration.ofSeconds(10), Duration.ofHours(1)));
+        feed.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.stop();
+    }
+
+    @Test
+    void readsAfterTheSequence() throws Exception {
+        append(1, OLD);
+        append(2, OLD);
+        append(3, OLD);
+
+        assertEquals(List.of(2L, 3L), sequences(feed.read(1, 10, Duration.ZERO)));
+        assertEquals(List.of(1L, 2L), sequences(feed.read(-5, 2, Duration.ZERO)));
+        assertEquals(List.of(), sequences(feed.read(3, 10, Duration.ZERO)));
+    }
+
+    @Test
+    void stopsBeforeARecentGap() throws Exception {
+        append(1, OLD);
+        append(3, Instant.now());
+
+        assertEquals(List.of(1L), sequences(feed.read(0, 10, Duration.ZERO)));
+    }
+
+    @Test
+    void skipsAGapOlderThanTheCommitTimeout() throws Exception {
+        append(1, OLD);
+        append(3, OLD);
+        append(4, Instant.now());
+
+        assertEquals(List.of(1L, 3L, 4L), sequences(feed.read(0, 10, Duration.ZERO)));
+    }
+
+    @Test
+    void waitingPollIsAnsweredOnceAnAppendCommitted() throws Exception {
+        append(1, OLD);
+        CompletableFuture<List<Change>> result = feed.read(1, 10, Duration.ofSeconds(5));
+        assertFalse(result.isDone());
+
+        append(2, Instant.now());
+        feed.appended(new ChangesAppended(1));
+
+        assertEquals(List.of(2L), sequences(result));
+    }
+
+    @Test
+    void waitingPollTimesOutEmpty() throws Exception {
+        CompletableFuture<List<Change>> result = feed.read(0, 10, Duration.ofMillis(50));
+
+        assertEquals(List.of(), sequences(result));
+    }
+
+    @Test
+    void stopAnswersWaitingPolls() throws Exception {
+        CompletableFuture<List<Change>> result = feed.read(0, 10, Duration.ofSeconds(5));
+        assertEquals(1, meterRegistry.get("examination.changes.waiting").gauge().value());
+
+        feed.stop();
+
+        assertTrue(result.isDone());
+        assertEquals(List.of(), sequences(result));
+        feed.start();
+    }
+
+    private void append(long sequence, Instant recordedAt) {
+        log.add(new Change(sequence, Change.Kind.NOTE, UUID.randomUUID(), null, recordedAt));
+    }
+
+    private static List<Long> sequences(CompletableFuture<List<Change>> result) throws Exception {
+        return result.get(5, TimeUnit.SECONDS).stream().map(Change::getSequence).toList();
+    }
+}
@@ -0,0 +1,61 @@
+package io.muehlbachler.fhburgenland.swm.examination.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import com.google.common.cache.CacheBuilder;
+
+class GuavaCacheTest {
+    private GuavaCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new GuavaCache("test", CacheBuilder.newBuilder().maximumSize(2).build());
+    }
+
+    @Test
+    void putAndEvict() {
+        cache.put("1", "John");
+
+        assertEquals("John", cache.get("1", String.class));
+
+        cache.evict("1");
+
+        assertNull(cache.get("1"));
+    }
+
+    @Test
+    void getLoadsOnlyOnMiss() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("1", () -> "John" + loads.incrementAndGet());
+        String value = cache.get("1", () -> "John" + loads.incrementAndGet());
+
+        assertEquals("John1", value);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getWrapsLoaderFailures() {
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get("1", () -> {
+            throw new IllegalStateException("database down");
+        }));
+    }
+
+    @Test
+    void clearRemovesAllEntries() {
+        cache.put("1", "John");
+        cache.put("2", "Jane");
+
+        cache.clear();
+
+        assertEquals(0, cache.getNativeCache().size());
+    }
+}
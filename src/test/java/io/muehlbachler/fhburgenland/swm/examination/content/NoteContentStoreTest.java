@@ -0,0 +1,150 @@
+package io.muehlbachler.fhburgenland.swm.examination.content;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.muehlbachler.fhburgenland.swm.examination.model.UuidKeys;
+import io.muehlbachler.fhburgenland.swm.examination.repository.NoteRepository;
+
+@ExtendWith(MockitoExtension.class)
+class NoteContentStoreTest {
+    // two records of 60 bytes fit into a segment, a third one starts the next segment
+    private static final int SEGMENT_SIZE = 200;
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    @TempDir
+    private Path directory;
+
+    private NoteContentStore store;
+
+    @AfterEach
+    void tearDown() {
+        if (store != null && store.isRunning()) {
+            store.stop();
+        }
+    }
+
+    @Test
+    void contentIsReadBackAfterARestart() {
+        store = start();
+        UUID id = UuidKeys.next();
+        store.put(id, bytes("a long note"));
+        assertEquals("a long note", text(store.get(id)));
+        store.stop();
+
+        store = start();
+
+        assertEquals("a long note", text(store.get(id)));
+        assertTrue(store.get(UuidKeys.next()).isEmpty());
+    }
+
+    @Test
+    void fullSegmentsRollOver() {
+        store = start();
+        List<UUID> ids = List.of(UuidKeys.next(), UuidKeys.next(), UuidKeys.next());
+        ids.forEach(id -> store.put(id, bytes(id.toString().repeat(2))));
+
+        ids.forEach(id -> assertEquals(id.toString().repeat(2), text(store.get(id))));
+        assertTrue(Files.exists(directory.resolve("content-1.segment")));
+    }
+
+    @Test
+    void concurrentlyWrittenContentIsReadBackAfterARestart() {
+        store = start();
+        List<UUID> ids = IntStream.range(0, 200).mapToObj(i -> UuidKeys.next()).toList();
+        try (ExecutorService writers = Executors.newFixedThreadPool(8)) {
+            for (UUID id : ids) {
+                writers.submit(() -> store.put(id, bytes(id.toString())));
+            }
+        }
+        store.stop();
+
+        store = start();
+
+        ids.forEach(id -> assertEquals(id.toString(), text(store.get(id))));
+    }
+
+    @Test
+    void contentLargerThanASegmentIsRejected() {
+        store = start();
+
+        assertThrows(ContentTooLargeException.class,
+                () -> store.put(UuidKeys.next(), new byte[SEGMENT_SIZE]));
+    }
+
+    @Test
+    void compactionReclaimsSupersededAndUnstoredContent() {
+        store = start();
+        UUID rewritten = UuidKeys.next();
+        UUID kept = UuidKeys.next();
+        UUID unstored = UuidKeys.next();
+        store.put(rewritten, body('a'));
+        store.put(rewritten, body('b'));
+        store.put(kept, body('c'));
+        store.put(unstored, body('d'));
+        store.put(UuidKeys.next(), body('e'));
+        when(noteRepository.findIdsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> !id.equals(unstored)).toList();
+        });
+
+        store.compact();
+
+        assertFalse(Files.exists(directory.resolve("content-0.segment")));
+        assertFalse(Files.exists(directory.resolve("content-1.segment")));
+        assertEquals(new String(body('b'), StandardCharsets.UTF_8), text(store.get(rewritten)));
+        assertEquals(new String(body('c'), StandardCharsets.UTF_8), text(store.get(kept)));
+        assertTrue(store.get(unstored).isEmpty());
+    }
+
+    private NoteContentStore start() {
+        NoteContentStore started = new NoteContentStore(noteRepository, new SimpleMeterRegistry(),
+                new NoteContentStore.Settings(directory, SEGMENT_SIZE, 10, Duration.ofHours(1),
+                        0.5, Duration.ZERO),
+                Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
+        started.start();
+        return started;
+    }
+
+    private static byte[] body(char fill) {
+        return String.valueOf(fill).repeat(60).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(Optional<ByteBuffer> content) {
+        return StandardCharsets.UTF_8.decode(content.orElseThrow()).toString();
+    }
+}
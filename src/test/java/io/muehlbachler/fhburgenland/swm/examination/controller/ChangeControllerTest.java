@@ -0,0 +1,78 @@
+package io.muehlbachler.fhburgenland.swm.examination.controller;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import io.muehlbachler.fhburgenland.swm.examination.changes.ChangeFeed;
+import io.muehlbachler.fhburgenland.swm.examination.model.Change;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeControllerTest {
+    private MockMvc mockMvc;
+
+    @Mock
+    private ChangeFeed changeFeed;
+
+    @InjectMocks
+    private ChangeController changeController;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = standaloneSetup(changeController).build();
+    }
+
+    @Test
+    void listChangesAfterSequence() throws Exception {
+        UUID personId = UUID.randomUUID();
+        when(changeFeed.read(41, 100, Duration.ZERO)).thenReturn(CompletableFuture.completedFuture(
+                List.of(new Change(42, Change.Kind.PERSON, personId, personId, Instant.EPOCH))));
+
+        MvcResult result = mockMvc.perform(get("/changes").param("since", "41"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].sequence").value(42))
+                .andExpect(jsonPath("$[0].entity").value("PERSON"))
+                .andExpect(jsonPath("$[0].entityId").value(personId.toString()));
+    }
+
+    @Test
+    void longPollPassesLimitAndWait() throws Exception {
+        when(changeFeed.read(0, 10, Duration.ofSeconds(15)))
+                .thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        MvcResult result = mockMvc.perform(get("/changes").param("limit", "10")
+                        .param("wait", "15"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        verify(changeFeed).read(0, 10, Duration.ofSeconds(15));
+    }
+}
@@ -1,24 +1,44 @@
 package io.muehlbachler.fhburgenland.swm.examination.controller;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
 
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-import io.muehlbachler.fhburgenland.swm.examination.model.Note;
+import io.muehlbachler.fhburgenland.swm.examination.content.NoteContentStore;
+import io.muehlbachler.fhburgenland.swm.examination.dto.NoteView;
+import io.muehlbachler.fhburgenland.swm.examination.dto.Revision;
 import io.muehlbachler.fhburgenland.swm.examination.service.NoteService;
+import io.muehlbachler.fhburgenland.swm.examination.streaming.JsonStreamer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 import java.util.Optional;
 
@@ -30,6 +50,15 @@ class NoteControllerTest {
     @Mock
     private NoteService noteService;
 
+    @Mock
+    private NoteContentStore noteContentStore;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private JsonStreamer jsonStreamer = new JsonStreamer(new ObjectMapper(), true, 2048, 6, 2);
+
     @InjectMocks
     private NoteController noteController;
 
@@ -41,17 +70,35 @@ class NoteControllerTest {
 
     @Test
     void getNoteById_found() throws Exception {
-        Optional<Note> note = Optional.of(new Note());
-        when(noteService.get("1")).thenReturn(note);
+        Optional<NoteView> note = Optional.of(view());
+        when(noteService.getView("1")).thenReturn(note);
 
         mockMvc.perform(get("/note/1"))
                 .andExpect(status().isOk());
     }
 
 
+    @Test
+    void getNoteById_streamsStoredContent() throws Exception {
+        NoteView note = view();
+        when(noteService.getView("1")).thenReturn(Optional.of(note));
+        when(noteContentStore.get(note.id())).thenReturn(Optional.of(ByteBuffer.wrap(
+                "A \"long\" note \u00e4".getBytes(StandardCharsets.UTF_8))));
+
+        MvcResult result = mockMvc.perform(get("/note/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(note.id().toString()))
+                .andExpect(jsonPath("$.content").value("A \"long\" note \u00e4"))
+                .andExpect(jsonPath("$.version").value(0));
+    }
+
+
     @Test
     void getNoteById_notFound() throws Exception {
-        when(noteService.get("unknown")).thenReturn(Optional.empty());
+        when(noteService.getView("unknown")).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/note/unknown"))
                 .andExpect(status().isNotFound());
@@ -60,7 +107,7 @@ class NoteControllerTest {
 
     @Test
     void queryNotesByContent_found() throws Exception {
-        when(noteService.queryByContent("test")).thenReturn(Arrays.asList(new Note(), new Note()));
+        streamViewsByContent("test", view(), view());
 
         mockMvc.perform(get("/note/query").param("query", "test"))
                 .andExpect(status().isOk())
@@ -69,9 +116,23 @@ class NoteControllerTest {
     }
 
 
+    @Test
+    void queryNotesByContent_marksPreviews() throws Exception {
+        NoteView preview = new NoteView(UUID.randomUUID(), UUID.randomUUID(), "Test", 0,
+                Instant.EPOCH, 1000);
+        streamViewsByContent("test", preview, view());
+
+        mockMvc.perform(get("/note/query").param("query", "test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].truncated").value(true))
+                .andExpect(jsonPath("$[0].contentSize").doesNotExist())
+                .andExpect(jsonPath("$[1].truncated").doesNotExist());
+    }
+
+
     @Test
     void queryNotesByContent_notFound() throws Exception {
-        when(noteService.queryByContent("nothing")).thenReturn(Collections.emptyList());
+        streamViewsByContent("nothing");
 
         mockMvc.perform(get("/note/query").param("query", "nothing"))
                 .andExpect(status().isOk())
@@ -82,7 +143,7 @@ class NoteControllerTest {
 
     @Test
     void queryNotesByContent_emptyQuery() throws Exception {
-        when(noteService.queryByContent("")).thenReturn(Collections.emptyList());
+        streamViewsByContent("");
 
         mockMvc.perform(get("/note/query").param("query", ""))
                 .andExpect(status().isOk())
@@ -99,4 +160,63 @@ class NoteControllerTest {
     }
 
 
-}
\ No newline at end of file
+    @Test
+    void getNoteById_notModified() throws Exception {
+        when(noteService.getView("1")).thenReturn(Optional.of(
+                new NoteView(UUID.randomUUID(), null, "Test", 0, Instant.now(), null)));
+
+        mockMvc.perform(get("/note/1").header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+
+    @Test
+    void queryNotesByContent_notModified() throws Exception {
+        when(noteService.getCollectionRevision()).thenReturn(new Revision(1, 0, Instant.now()));
+
+        mockMvc.perform(get("/note/query").param("query", "test")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1-0\""))
+                .andExpect(status().isNotModified());
+
+        verify(noteService, never()).streamViewsByContent(any(), any());
+    }
+
+    @Test
+    void headNoteChecksExistenceOnly() throws Exception {
+        when(noteService.exists("1")).thenReturn(true);
+        when(noteService.exists("unknown")).thenReturn(false);
+
+        mockMvc.perform(head("/note/1"))
+                .andExpect(status().isOk());
+        mockMvc.perform(head("/note/unknown"))
+                .andExpect(status().isNotFound());
+
+        verify(noteService, never()).get(any());
+    }
+
+    @Test
+    void countNotes() throws Exception {
+        when(noteService.count()).thenReturn(5L);
+        when(noteService.countByContent("test")).thenReturn(2L);
+
+        mockMvc.perform(get("/note/count"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("5"));
+        mockMvc.perform(get("/note/count").param("query", "test"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2"));
+    }
+
+    private void streamViewsByContent(String query, NoteView... notes) {
+        doAnswer(invocation -> {
+            Consumer<NoteView> consumer = invocation.getArgument(1);
+            Arrays.stream(notes).forEach(consumer);
+            return null;
+        }).when(noteService).streamViewsByContent(eq(query), any());
+    }
+
+    private static NoteView view() {
+        return new NoteView(UUID.randomUUID(), UUID.randomUUID(), "Test", 0, Instant.EPOCH, null);
+    }
+}
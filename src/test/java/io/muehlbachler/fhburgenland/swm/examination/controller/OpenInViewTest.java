@@ -0,0 +1,110 @@
+package io.muehlbachler.fhburgenland.swm.examination.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.hibernate.Hibernate;
+import org.hibernate.LazyInitializationException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.Person;
+import io.muehlbachler.fhburgenland.swm.examination.repository.PersonRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Tests that requests run without an open persistence context.
+ * Whatever a response serializes must have been read inside the read-only transactions of the
+ * services: the read models need no session at all, and a lazy association left uninitialized
+ * fails instead of being loaded by one hidden query per entity.
+ */
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:open-in-view",
+    "spring.r2dbc.url=r2dbc:h2:mem:///open-in-view",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "examination.cache.maximum-size=0"
+})
+@AutoConfigureMockMvc
+class OpenInViewTest {
+    private static final UUID JOHN_DOE = UUID.fromString("81150016-8501-4b97-9168-01113e21d8a5");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void noPersistenceContextIsBoundToRequests() {
+        assertTrue(context.getBeansOfType(OpenEntityManagerInViewInterceptor.class).isEmpty());
+    }
+
+    @Test
+    void responsesAreSerializedWithoutLoadingEntities() throws Exception {
+        mockMvc.perform(get("/person/" + JOHN_DOE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.notes").isArray());
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    void fetchedNotesAreSerializedWithoutQueries() throws Exception {
+        Person person = personRepository.findById(JOHN_DOE).orElseThrow();
+        statistics.clear();
+
+        objectMapper.writeValueAsString(person);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void lazyNotesAreNotLoadedDuringSerialization() {
+        Person person = personRepository.findWritableById(JOHN_DOE).orElseThrow();
+        assertFalse(Hibernate.isInitialized(person.getNotes()));
+        statistics.clear();
+
+        JsonMappingException e = assertThrows(JsonMappingException.class,
+                () -> objectMapper.writeValueAsString(person));
+
+        assertTrue(e.getCause() instanceof LazyInitializationException);
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+}
@@ -1,32 +1,60 @@
 package io.muehlbachler.fhburgenland.swm.examination.controller;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import io.muehlbachler.fhburgenland.swm.examination.dto.PersonSummary;
+import io.muehlbachler.fhburgenland.swm.examination.dto.PersonView;
+import io.muehlbachler.fhburgenland.swm.examination.dto.Revision;
 import io.muehlbachler.fhburgenland.swm.examination.model.Note;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.muehlbachler.fhburgenland.swm.examination.model.Person;
 import io.muehlbachler.fhburgenland.swm.examination.service.PersonService;
+import io.muehlbachler.fhburgenland.swm.examination.streaming.JsonStreamer;
+import io.muehlbachler.fhburgenland.swm.examination.writebehind.QueueFullException;
 
 @ExtendWith(MockitoExtension.class)
 class PersonControllerTest {
@@ -36,38 +64,45 @@ class PersonControllerTest {
     @Mock
     private PersonService personService;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private JsonStreamer jsonStreamer = new JsonStreamer(new ObjectMapper(), true, 2048, 6, 2);
+
     @InjectMocks
     private PersonController personController;
 
     @BeforeEach
     void setup() {
+        ReflectionTestUtils.setField(personController, "chunkSize", 2);
         mockMvc = standaloneSetup(personController).build();
     }
 
     @Test
     void listPersons() throws Exception {
-        when(personService.getAll()).thenReturn(Arrays.asList(new Person(), new Person()));
+        streamViews(view(), view());
 
         mockMvc.perform(get("/person/"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(2));
 
-        verify(personService).getAll();
+        verify(personService).streamViews(any());
     }
 
     @Test
     void getAllPersons_success() throws Exception {
-        // Assume that personService.getAll() has been defined to return a list of all persons.
-        List<Person> allPersons = Arrays.asList(new Person(), new Person());
-        when(personService.getAll()).thenReturn(allPersons);
+        // Assume that personService.streamViews() has been defined to hand out all persons.
+        List<PersonView> allPersons = Arrays.asList(view(), view());
+        streamViews(allPersons.toArray(PersonView[]::new));
 
         mockMvc.perform(get("/person/"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(allPersons.size()));
 
-        verify(personService).getAll();
+        verify(personService).streamViews(any());
     }
 
     @Test
@@ -89,7 +124,7 @@ class PersonControllerTest {
 
     @Test
     void queryPersons() throws Exception {
-        when(personService.findByName("John", "")).thenReturn(List.of(new Person()));
+        streamViewsByName("John", "", view());
 
         mockMvc.perform(get("/person/query")
                         .param("firstName", "John")
@@ -98,7 +133,7 @@ class PersonControllerTest {
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(1));
 
-        verify(personService).findByName("John", "");
+        verify(personService).streamViewsByName(eq("John"), eq(""), any());
     }
 
     @Test
@@ -117,21 +152,32 @@ class PersonControllerTest {
         verify(personService).createNote(eq("1"), any(Note.class));
     }
 
+    @Test
+    void createNoteWithFullQueueIsUnavailable() throws Exception {
+        when(personService.createNote(eq("1"), any(Note.class)))
+                .thenThrow(new QueueFullException(10));
+
+        mockMvc.perform(post("/person/1/note")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"Test note content\"}"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
     @Test
     void listPersons_emptyList() throws Exception {
-        when(personService.getAll()).thenReturn(Collections.emptyList());
+        streamViews();
 
         mockMvc.perform(get("/person/"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(0));
 
-        verify(personService).getAll();
+        verify(personService).streamViews(any());
     }
 
     @Test
     void queryPersons_emptyQueryParameters() throws Exception {
-        when(personService.findByName("", "")).thenReturn(Collections.emptyList());
+        streamViewsByName("", "");
 
         mockMvc.perform(get("/person/query")
                         .param("firstName", "")
@@ -140,12 +186,12 @@ class PersonControllerTest {
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(0));
 
-        verify(personService).findByName("", "");
+        verify(personService).streamViewsByName(eq(""), eq(""), any());
     }
 
     @Test
     void queryPersons_noMatchingPersons() throws Exception {
-        when(personService.findByName("Nonexistent", "Person")).thenReturn(Collections.emptyList());
+        streamViewsByName("Nonexistent", "Person");
 
         mockMvc.perform(get("/person/query")
                         .param("firstName", "Nonexistent")
@@ -154,7 +200,7 @@ class PersonControllerTest {
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(0));
 
-        verify(personService).findByName("Nonexistent", "Person");
+        verify(personService).streamViewsByName(eq("Nonexistent"), eq("Person"), any());
     }
 
     @Test
@@ -186,4 +232,312 @@ class PersonControllerTest {
 
         verify(personService).createNote(eq(personId), any(Note.class));
     }
+
+    @Test
+    void listPersons_page() throws Exception {
+        when(personService.getViewPage("1", 2)).thenReturn(List.of(view(), view()));
+
+        mockMvc.perform(get("/person/")
+                        .param("after", "1")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$.length()").value(2));
+
+        verify(personService).getViewPage("1", 2);
+    }
+
+    @Test
+    void listPersons_firstPageWithDefaultAfter() throws Exception {
+        when(personService.getViewPage(null, 5)).thenReturn(List.of(view()));
+
+        mockMvc.perform(get("/person/")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+
+        verify(personService).getViewPage(null, 5);
+    }
+
+    @Test
+    void streamPersons() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<PersonView> consumer = invocation.getArgument(0);
+            consumer.accept(view());
+            consumer.accept(new PersonView(UUID.randomUUID(), "Jane", "Doe", 0, Instant.EPOCH));
+            return null;
+        }).when(personService).streamViews(any());
+
+        MvcResult result = mockMvc.perform(get("/person/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"firstName\":\"John\"")))
+                .andExpect(content().string(containsString("}\n{")))
+                .andExpect(content().string(containsString("\"firstName\":\"Jane\"")));
+
+        verify(personService).streamViews(any());
+    }
+
+    @Test
+    void listPersonSummaries() throws Exception {
+        when(personService.getAllSummaries())
+                .thenReturn(List.of(new PersonSummary(UUID.randomUUID(), "John", "Doe")));
+
+        mockMvc.perform(get("/person/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].firstName").value("John"))
+                .andExpect(jsonPath("$[0].notes").doesNotExist());
+
+        verify(personService).getAllSummaries();
+    }
+
+    @Test
+    void createPersonsBulkFromJsonArray() throws Exception {
+        when(personService.importAll(any()))
+                .thenAnswer(invocation -> count(invocation.getArgument(0)));
+
+        mockMvc.perform(post("/person/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"firstName\":\"Jane\",\"lastName\":\"Doe\"},"
+                                + "{\"firstName\":\"John\",\"lastName\":\"Doe\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2));
+
+        verify(personService).importAll(any());
+    }
+
+    @Test
+    void createPersonsBulkFromNdjson() throws Exception {
+        when(personService.importAll(any()))
+                .thenAnswer(invocation -> count(invocation.getArgument(0)));
+
+        mockMvc.perform(post("/person/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"firstName\":\"Jane\",\"lastName\":\"Doe\"}\n"
+                                + "{\"firstName\":\"John\",\"lastName\":\"Doe\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2));
+
+        verify(personService).importAll(any());
+    }
+
+    @Test
+    void createPersonsBulkHandsOverChunksWhileReading() throws Exception {
+        List<List<String>> chunks = new ArrayList<>();
+        when(personService.importAll(any())).thenAnswer(invocation -> {
+            Iterator<List<Person>> persons = invocation.getArgument(0);
+            persons.forEachRemaining(chunk ->
+                    chunks.add(chunk.stream().map(Person::getFirstName).toList()));
+            return 3L;
+        });
+
+        mockMvc.perform(post("/person/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"firstName\":\"Jane\"},{\"firstName\":\"John\"},"
+                                + "{\"firstName\":\"Max\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(3));
+
+        assertEquals(List.of(List.of("Jane", "John"), List.of("Max")), chunks);
+        verify(personService).importAll(any());
+    }
+
+    @Test
+    void createPersonsBulkFromMalformedNdjson() throws Exception {
+        when(personService.importAll(any()))
+                .thenAnswer(invocation -> count(invocation.getArgument(0)));
+
+        mockMvc.perform(post("/person/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"firstName\":\"Jane\"\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createNotesBulkForPerson() throws Exception {
+        when(personService.importNotes(eq("1"), any()))
+                .thenAnswer(invocation -> Optional.of(count(invocation.getArgument(1))));
+
+        mockMvc.perform(post("/person/1/note/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"content\":\"First\"}\n{\"content\":\"Second\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2));
+
+        verify(personService).importNotes(eq("1"), any());
+    }
+
+    @Test
+    void createNotesBulkForInvalidPerson() throws Exception {
+        when(personService.importNotes(eq("invalid"), any())).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/person/invalid/note/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"content\":\"First\"}]"))
+                .andExpect(status().isNotFound());
+
+        verify(personService).importNotes(eq("invalid"), any());
+    }
+
+    @Test
+    void getPersonCarriesVersionAsEtag() throws Exception {
+        PersonView person = new PersonView(UUID.randomUUID(), "John", "Doe", 3,
+                Instant.parse("2024-01-01T10:00:00Z"));
+        when(personService.getView("1")).thenReturn(Optional.of(person));
+
+        mockMvc.perform(get("/person/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().string(HttpHeaders.LAST_MODIFIED,
+                        "Mon, 01 Jan 2024 10:00:00 GMT"));
+    }
+
+    @Test
+    void getPersonNotModifiedFromView() throws Exception {
+        PersonView person = new PersonView(UUID.randomUUID(), "John", "Doe", 3, Instant.now());
+        when(personService.getView("1")).thenReturn(Optional.of(person));
+
+        mockMvc.perform(get("/person/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getPersonWithStaleEtagReturnsPerson() throws Exception {
+        PersonView person = new PersonView(UUID.randomUUID(), "John", "Doe", 4, Instant.now());
+        when(personService.getView("1")).thenReturn(Optional.of(person));
+
+        mockMvc.perform(get("/person/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.firstName").value("John"));
+    }
+
+    @Test
+    void listPersonsNotModifiedSkipsQuery() throws Exception {
+        when(personService.getCollectionRevision()).thenReturn(new Revision(2, 5, Instant.now()));
+
+        mockMvc.perform(get("/person/").header(HttpHeaders.IF_NONE_MATCH, "\"2-5\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/person/query").param("firstName", "John").param("lastName", "")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2-5\""))
+                .andExpect(status().isNotModified());
+
+        verify(personService, never()).streamViews(any());
+        verify(personService, never()).streamViewsByName(any(), any(), any());
+    }
+
+    @Test
+    void listPersonsCarriesCollectionEtag() throws Exception {
+        when(personService.getCollectionRevision()).thenReturn(new Revision(2, 6, Instant.now()));
+        streamViews(view());
+
+        mockMvc.perform(get("/person/").header(HttpHeaders.IF_NONE_MATCH, "\"2-5\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2-6\""))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void headPersonChecksExistenceOnly() throws Exception {
+        when(personService.exists("1")).thenReturn(true);
+        when(personService.exists("unknown")).thenReturn(false);
+
+        mockMvc.perform(head("/person/1"))
+                .andExpect(status().isOk());
+        mockMvc.perform(head("/person/unknown"))
+                .andExpect(status().isNotFound());
+
+        verify(personService, never()).get(any());
+    }
+
+    @Test
+    void countPersons() throws Exception {
+        when(personService.count()).thenReturn(7L);
+
+        mockMvc.perform(get("/person/count"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("7"));
+    }
+
+    @Test
+    void countNotesOfPerson() throws Exception {
+        when(personService.countNotes("1")).thenReturn(Optional.of(3L));
+        when(personService.countNotes("unknown")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/person/1/note/count"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("3"));
+        mockMvc.perform(get("/person/unknown/note/count"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void searchPersonsByName() throws Exception {
+        when(personService.searchByName("jon", 1, 10)).thenReturn(List.of(view()));
+
+        mockMvc.perform(get("/person/search").param("name", "jon").param("fuzziness", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].firstName").value("John"));
+    }
+
+    @Test
+    void suggestNames() throws Exception {
+        when(personService.suggestNames("do", 0, 5)).thenReturn(List.of("Doe", "Dorian"));
+
+        mockMvc.perform(get("/person/suggest").param("name", "do").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1]").value("Dorian"));
+    }
+
+    @Test
+    void listPersonsIsCompressedWhenAccepted() throws Exception {
+        when(personService.getCollectionRevision()).thenReturn(new Revision(2, 6, Instant.now()));
+        streamViews(IntStream.range(0, 100).mapToObj(i -> view()).toArray(PersonView[]::new));
+
+        byte[] body = mockMvc.perform(get("/person/")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "deflate;q=0.5, gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"2-6\""))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (InputStream json = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals(100, objectMapper.readTree(json).size());
+        }
+    }
+
+    private void streamViews(PersonView... persons) {
+        doAnswer(invocation -> {
+            Consumer<PersonView> consumer = invocation.getArgument(0);
+            Arrays.stream(persons).forEach(consumer);
+            return null;
+        }).when(personService).streamViews(any());
+    }
+
+    private void streamViewsByName(String firstName, String lastName, PersonView... persons) {
+        doAnswer(invocation -> {
+            Consumer<PersonView> consumer = invocation.getArgument(2);
+            Arrays.stream(persons).forEach(consumer);
+            return null;
+        }).when(personService).streamViewsByName(eq(firstName), eq(lastName), any());
+    }
+
+    private static PersonView view() {
+        return new PersonView(UUID.randomUUID(), "John", "Doe", 0, Instant.EPOCH);
+    }
+
+    private static long count(Iterator<? extends List<?>> chunks) {
+        long count = 0;
+        while (chunks.hasNext()) {
+            count += chunks.next().size();
+        }
+        return count;
+    }
 }
@@ -0,0 +1,92 @@
+package io.muehlbachler.fhburgenland.swm.examination.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.NoteRow;
+import io.muehlbachler.fhburgenland.swm.examination.service.ReactiveNoteService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveNoteControllerTest {
+    private static final UUID PERSON_ID = UUID.fromString("81150016-8501-4b97-9168-01113e21d8a5");
+    private static final UUID NOTE_ID = UUID.fromString("c5b38625-7eed-4705-858d-c685f18ed47d");
+    private static final UUID OTHER_NOTE_ID =
+            UUID.fromString("0190a6b2-3c4d-7e5f-8a9b-0c1d2e3f4a5b");
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private ReactiveNoteService noteService;
+
+    @InjectMocks
+    private ReactiveNoteController noteController;
+
+    @BeforeEach
+    void setup() {
+        mockMvc = standaloneSetup(noteController).build();
+    }
+
+    @Test
+    void getNoteFound() throws Exception {
+        when(noteService.get(NOTE_ID.toString()))
+                .thenReturn(Mono.just(new NoteRow(NOTE_ID, PERSON_ID, "Note")));
+
+        MvcResult result = mockMvc.perform(get("/reactive/note/" + NOTE_ID))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").value("Note"));
+    }
+
+    @Test
+    void getNoteNotFound() throws Exception {
+        when(noteService.get("missing")).thenReturn(Mono.empty());
+
+        MvcResult result = mockMvc.perform(get("/reactive/note/missing"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void queryNotesAsNdjson() throws Exception {
+        when(noteService.queryByContent("Note")).thenReturn(Flux.just(
+                new NoteRow(NOTE_ID, PERSON_ID, "Note 1"),
+                new NoteRow(OTHER_NOTE_ID, PERSON_ID, "Note 2")));
+
+        MvcResult result = mockMvc.perform(get("/reactive/note/query").param("query", "Note")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"content\":\"Note 1\"}\n{")))
+                .andExpect(content().string(containsString("\"content\":\"Note 2\"")));
+    }
+}
@@ -0,0 +1,135 @@
+package io.muehlbachler.fhburgenland.swm.examination.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.NoteRow;
+import io.muehlbachler.fhburgenland.swm.examination.model.PersonRow;
+import io.muehlbachler.fhburgenland.swm.examination.service.ReactivePersonService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class ReactivePersonControllerTest {
+    private static final UUID JOHN_ID = UUID.fromString("81150016-8501-4b97-9168-01113e21d8a5");
+    private static final UUID JANE_ID = UUID.fromString("d891323f-a3ad-4a95-b340-2e1c8aa8d1bd");
+    private static final UUID NOTE_ID = UUID.fromString("c5b38625-7eed-4705-858d-c685f18ed47d");
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private ReactivePersonService personService;
+
+    @InjectMocks
+    private ReactivePersonController personController;
+
+    @BeforeEach
+    void setup() {
+        mockMvc = standaloneSetup(personController).build();
+    }
+
+    @Test
+    void listPersonsAsJsonArray() throws Exception {
+        when(personService.getAll()).thenReturn(Flux.just(new PersonRow(JOHN_ID, "John", "Doe"),
+                new PersonRow(JANE_ID, "Jane", "Doe")));
+
+        MvcResult result = mockMvc.perform(get("/reactive/person/"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].firstName").value("Jane"));
+    }
+
+    @Test
+    void listPersonsAsNdjson() throws Exception {
+        when(personService.getAll()).thenReturn(Flux.just(new PersonRow(JOHN_ID, "John", "Doe"),
+                new PersonRow(JANE_ID, "Jane", "Doe")));
+
+        MvcResult result = mockMvc.perform(get("/reactive/person/")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"firstName\":\"John\"")))
+                .andExpect(content().string(containsString("}\n{")))
+                .andExpect(content().string(containsString("\"firstName\":\"Jane\"")));
+    }
+
+    @Test
+    void listPersonsAsServerSentEvents() throws Exception {
+        when(personService.getAll()).thenReturn(Flux.just(new PersonRow(JOHN_ID, "John", "Doe")));
+
+        MvcResult result = mockMvc.perform(get("/reactive/person/")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("data:{\"id\":\"" + JOHN_ID + "\"")));
+    }
+
+    @Test
+    void getPersonFound() throws Exception {
+        when(personService.get(JOHN_ID.toString()))
+                .thenReturn(Mono.just(new PersonRow(JOHN_ID, "John", "Doe")));
+
+        MvcResult result = mockMvc.perform(get("/reactive/person/" + JOHN_ID))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lastName").value("Doe"));
+    }
+
+    @Test
+    void getPersonNotFound() throws Exception {
+        when(personService.get("missing")).thenReturn(Mono.empty());
+
+        MvcResult result = mockMvc.perform(get("/reactive/person/missing"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void listNotesOfPerson() throws Exception {
+        when(personService.getNotes(JOHN_ID.toString()))
+                .thenReturn(Flux.just(new NoteRow(NOTE_ID, JOHN_ID, "Note")));
+
+        MvcResult result = mockMvc.perform(get("/reactive/person/" + JOHN_ID + "/note"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].personId").value(JOHN_ID.toString()));
+    }
+}
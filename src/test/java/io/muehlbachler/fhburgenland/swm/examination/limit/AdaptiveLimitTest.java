@@ -0,0 +1,87 @@
+package io.muehlbachler.fhburgenland.swm.examination.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdaptiveLimitTest {
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofMillis(200).toNanos();
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveLimit limit;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limit = new AdaptiveLimit(EndpointClass.SCAN,
+                new AdaptiveLimit.Settings(4, 1, 8, Duration.ofMillis(100), 0.5), meterRegistry);
+    }
+
+    @Test
+    void requestsBeyondTheLimitAreRejectedAndCounted() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+
+        assertFalse(limit.tryAcquire());
+        assertEquals(4, limit.inFlight());
+        assertEquals(1.0, meterRegistry.get("examination.concurrency-limit.rejected")
+                .tag("class", "scan").counter().count());
+        assertEquals(4.0, meterRegistry.get("examination.concurrency-limit.in-flight")
+                .tag("class", "scan").gauge().value());
+    }
+
+    @Test
+    void fastRequestsRaiseAFullyUsedLimitUpToTheMaximum() {
+        for (int round = 0; round < 100; round++) {
+            fill();
+            drain(FAST);
+        }
+
+        assertEquals(8, limit.limit());
+        assertEquals(0, limit.inFlight());
+    }
+
+    @Test
+    void slowRequestsInFlightTogetherDecreaseTheLimitOnce() {
+        fill();
+        drain(SLOW);
+
+        assertEquals(2, limit.limit());
+
+        fill();
+        drain(SLOW);
+
+        assertEquals(1, limit.limit());
+        fill();
+        drain(SLOW);
+        assertEquals(1, limit.limit());
+    }
+
+    private void fill() {
+        while (limit.tryAcquire()) {
+            // admit up to the limit
+        }
+    }
+
+    /**
+     * Releases the requests in flight, admitted after all earlier releases.
+     */
+    private void drain(long latency) {
+        long start = now;
+        now += latency;
+        while (limit.inFlight() > 0) {
+            limit.release(start, now);
+        }
+        now++;
+    }
+}
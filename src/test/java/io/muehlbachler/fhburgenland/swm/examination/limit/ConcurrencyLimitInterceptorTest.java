@@ -0,0 +1,102 @@
+package io.muehlbachler.fhburgenland.swm.examination.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+
+class ConcurrencyLimitInterceptorTest {
+    private AdaptiveLimit lookupLimit;
+    private AdaptiveLimit scanLimit;
+    private ConcurrencyLimitInterceptor interceptor;
+
+    @ConcurrencyLimited(EndpointClass.LOOKUP)
+    static class LimitedController {
+        public void get() {
+        }
+
+        @ConcurrencyLimited(EndpointClass.SCAN)
+        public void list() {
+        }
+    }
+
+    static class UnlimitedController {
+        public void get() {
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        lookupLimit = new AdaptiveLimit(EndpointClass.LOOKUP,
+                new AdaptiveLimit.Settings(2, 1, 2, Duration.ofSeconds(1), 0.9), meterRegistry);
+        scanLimit = new AdaptiveLimit(EndpointClass.SCAN,
+                new AdaptiveLimit.Settings(1, 1, 1, Duration.ofSeconds(1), 0.9), meterRegistry);
+        interceptor = new ConcurrencyLimitInterceptor(
+                Map.of(EndpointClass.LOOKUP, lookupLimit, EndpointClass.SCAN, scanLimit),
+                Duration.ofSeconds(2));
+    }
+
+    @Test
+    void saturatedScansAreRejectedWhileLookupsPass() throws Exception {
+        HandlerMethod list = handler(new LimitedController(), "list");
+        HandlerMethod get = handler(new LimitedController(), "get");
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(),
+                new MockHttpServletResponse(), list));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(new MockHttpServletRequest(), rejected, list));
+        assertEquals(503, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(),
+                new MockHttpServletResponse(), get));
+        assertEquals(1, scanLimit.inFlight());
+        assertEquals(1, lookupLimit.inFlight());
+    }
+
+    @Test
+    void permitIsHeldUntilTheAsyncDispatchCompletes() throws Exception {
+        HandlerMethod list = handler(new LimitedController(), "list");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(request, response, list));
+        interceptor.afterConcurrentHandlingStarted(request, response, list);
+        assertEquals(1, scanLimit.inFlight());
+
+        request.setDispatcherType(DispatcherType.ASYNC);
+        assertTrue(interceptor.preHandle(request, response, list));
+        assertEquals(1, scanLimit.inFlight());
+        interceptor.afterCompletion(request, response, list, null);
+
+        assertEquals(0, scanLimit.inFlight());
+        interceptor.afterCompletion(request, response, list, null);
+        assertEquals(0, scanLimit.inFlight());
+    }
+
+    @Test
+    void unannotatedHandlersAreNotLimited() throws Exception {
+        HandlerMethod get = handler(new UnlimitedController(), "get");
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(interceptor.preHandle(new MockHttpServletRequest(),
+                    new MockHttpServletResponse(), get));
+        }
+        assertEquals(0, lookupLimit.inFlight());
+        assertEquals(0, scanLimit.inFlight());
+    }
+
+    private static HandlerMethod handler(Object controller, String name) throws Exception {
+        return new HandlerMethod(controller, controller.getClass().getMethod(name));
+    }
+}
@@ -0,0 +1,61 @@
+package io.muehlbachler.fhburgenland.swm.examination.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ResultSizeAspectTest {
+    private SimpleMeterRegistry meterRegistry;
+    private Finder finder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Finder());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ResultSizeAspect(meterRegistry));
+        finder = factory.getProxy();
+    }
+
+    @Test
+    void recordsSizeOfReturnedCollections() {
+        finder.findAll(3);
+        finder.findAll(1);
+
+        DistributionSummary summary = meterRegistry.get(ResultSizeAspect.METRIC_NAME)
+                .tag("method", "findAll")
+                .summary();
+        assertEquals(2, summary.count());
+        assertEquals(4, summary.totalAmount());
+        assertEquals(3, summary.max());
+    }
+
+    @Test
+    void ignoresOtherResults() {
+        finder.findOne();
+
+        assertNull(meterRegistry.find(ResultSizeAspect.METRIC_NAME).summary());
+    }
+
+    @Timed("test")
+    public static class Finder {
+        public List<String> findAll(int count) {
+            return Collections.nCopies(count, "John");
+        }
+
+        public Optional<String> findOne() {
+            return Optional.of("John");
+        }
+    }
+}
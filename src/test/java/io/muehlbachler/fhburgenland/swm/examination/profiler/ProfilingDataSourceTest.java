@@ -0,0 +1,99 @@
+package io.muehlbachler.fhburgenland.swm.examination.profiler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ProfilingDataSourceTest {
+    private static final String SQL = "select * from PERSON";
+
+    @Mock
+    private DataSource target;
+    @Mock
+    private Connection connection;
+    @Mock
+    private PreparedStatement statement;
+    @Mock
+    private ResultSet resultSet;
+    @Mock
+    private SqlProfiler profiler;
+
+    private ProfilingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        dataSource = new ProfilingDataSource(target, profiler);
+    }
+
+    @Test
+    void queryIsRecordedWithRowsOnClose() throws SQLException {
+        when(connection.prepareStatement(SQL)).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, true, false);
+
+        ResultSet rows = dataSource.getConnection().prepareStatement(SQL).executeQuery();
+        while (rows.next()) {
+            rows.getString(1);
+        }
+        verify(profiler, never()).record(eq(SQL), anyLong(), anyLong(), eq(false));
+        rows.close();
+        rows.close();
+
+        verify(profiler).record(eq(SQL), anyLong(), eq(2L), eq(false));
+        verify(resultSet, times(2)).getString(1);
+    }
+
+    @Test
+    void batchIsRecordedWithUpdateCounts() throws SQLException {
+        when(connection.prepareStatement(SQL)).thenReturn(statement);
+        when(statement.executeBatch())
+                .thenReturn(new int[] {1, 1, PreparedStatement.SUCCESS_NO_INFO});
+
+        dataSource.getConnection().prepareStatement(SQL).executeBatch();
+
+        verify(profiler).record(eq(SQL), anyLong(), eq(2L), eq(false));
+    }
+
+    @Test
+    void failureIsRecordedAndRethrown() throws SQLException {
+        SQLException failure = new SQLException("table not found");
+        when(connection.prepareStatement(SQL)).thenReturn(statement);
+        when(statement.executeUpdate()).thenThrow(failure);
+
+        PreparedStatement prepared = dataSource.getConnection().prepareStatement(SQL);
+
+        assertSame(failure, assertThrows(SQLException.class, prepared::executeUpdate));
+        verify(profiler).record(eq(SQL), anyLong(), eq(0L), eq(true));
+    }
+
+    @Test
+    void unwrapDelegatesToTarget() throws SQLException {
+        when(connection.unwrap(String.class)).thenReturn("h2");
+
+        Connection wrapped = dataSource.getConnection();
+
+        assertSame(wrapped, wrapped.unwrap(Connection.class));
+        assertEquals("h2", wrapped.unwrap(String.class));
+    }
+}
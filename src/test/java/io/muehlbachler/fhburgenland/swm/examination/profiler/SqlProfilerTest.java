@@ -0,0 +1,97 @@
+package io.muehlbachler.fhburgenland.swm.examination.profiler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SqlProfilerTest {
+    private static final String SELECT_PERSON = "select * from PERSON where id = ?";
+    private static final String SELECT_NOTES = "select * from NOTE where person_id = ?";
+
+    private SqlProfiler profiler;
+
+    @BeforeEach
+    void setUp() {
+        profiler = new SqlProfiler(Duration.ofSeconds(1), 3);
+    }
+
+    @Test
+    void normalizeReplacesLiteralsAndInLists() {
+        assertEquals("select * from NOTE n1_0 where n1_0.id in (?) and n1_0.content like ?",
+                SqlProfiler.normalize("select * from NOTE n1_0\n  where n1_0.id in (?, ?,?) "
+                        + "and n1_0.content like 'it''s %'"));
+        assertEquals("select * from PERSON fetch first ? rows only",
+                SqlProfiler.normalize("select * from PERSON fetch first 10 rows only"));
+    }
+
+    @Test
+    void topAggregatesPerStatement() {
+        profiler.record(SELECT_PERSON, 2_000_000, 1, false);
+        profiler.record(SELECT_PERSON, 4_000_000, 1, false);
+        profiler.record(SELECT_NOTES, 5_000_000, 10, true);
+
+        List<StatementReport> byTime = profiler.top("time", 10);
+        List<StatementReport> byCount = profiler.top("count", 1);
+
+        assertEquals(2, byTime.size());
+        StatementReport person = byTime.get(0);
+        assertEquals(SELECT_PERSON, person.sql());
+        assertEquals(2, person.count());
+        assertEquals(6.0, person.totalMillis());
+        assertEquals(3.0, person.meanMillis());
+        assertEquals(4.0, person.maxMillis());
+        assertEquals(1.0, person.meanRows());
+        assertEquals(1, byTime.get(1).errors());
+        assertEquals(List.of(person), byCount);
+    }
+
+    @Test
+    void recordAttributesToCurrentCaller() {
+        String previous = profiler.enter("PersonServiceImpl.get");
+        profiler.record(SELECT_PERSON, 1, 1, false);
+        profiler.enter(previous);
+        profiler.record(SELECT_PERSON, 1, 1, false);
+
+        assertEquals(Set.of("PersonServiceImpl.get", "<none>"),
+                profiler.top(null, 1).get(0).callers());
+    }
+
+    @Test
+    void endRequestFlagsRepeatedStatements() {
+        profiler.beginRequest();
+        for (int i = 0; i < 3; i++) {
+            profiler.record(SELECT_NOTES, 1, 1, false);
+        }
+        profiler.record(SELECT_PERSON, 1, 1, false);
+        profiler.endRequest("GET /person/");
+
+        assertEquals(SELECT_NOTES, profiler.top("repeated", 1).get(0).sql());
+        assertEquals(1, profiler.top("repeated", 1).get(0).repeatedRequests());
+        assertEquals(0, profiler.top("repeated", 2).get(1).repeatedRequests());
+    }
+
+    @Test
+    void statementsOutsideRequestsAreNotFlagged() {
+        for (int i = 0; i < 5; i++) {
+            profiler.record(SELECT_NOTES, 1, 1, false);
+        }
+        profiler.endRequest("GET /person/");
+
+        assertEquals(0, profiler.top("repeated", 1).get(0).repeatedRequests());
+    }
+
+    @Test
+    void resetDiscardsStatistics() {
+        profiler.record(SELECT_PERSON, 1, 1, false);
+
+        profiler.reset();
+
+        assertTrue(profiler.top(null, 10).isEmpty());
+    }
+}
@@ -0,0 +1,137 @@
+package io.muehlbachler.fhburgenland.swm.examination.replica;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests the health and lag checks with in-memory H2 databases standing in for the primary and
+ * a replica, whose watermarks are set by hand.
+ */
+
+class ReplicaMonitorTest {
+    private static final String LAG_QUERY = "select max(recorded_at) from CHANGE_LOG "
+            + "where sequence = (select max(sequence) from CHANGE_LOG)";
+    private static final OffsetDateTime NOW = OffsetDateTime.parse("2024-03-01T12:00:00Z");
+
+    private HikariDataSource primary;
+    private Replica replica;
+    private MeterRegistry meterRegistry;
+    private ReplicaMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        primary = database();
+        replica = new Replica("replica-0", database());
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new ReplicaMonitor(List.of(replica), LAG_QUERY, Duration.ofSeconds(1),
+                Duration.ofSeconds(1), meterRegistry);
+        monitor.setPrimary(primary);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.close();
+        monitor.close();
+    }
+
+    @Test
+    void replicasAreUnavailableUntilChecked() {
+        assertFalse(replica.isAvailable());
+        assertEquals(0, meterRegistry.get("examination.replicas.available").gauge().value());
+    }
+
+    @Test
+    void replicaInSyncBecomesAvailable() {
+        write(primary, NOW);
+        write(replica.dataSource(), NOW);
+
+        monitor.check();
+
+        assertTrue(replica.isAvailable());
+        assertEquals(Duration.ZERO, replica.lag());
+        assertEquals(1, meterRegistry.get("examination.replicas.available").gauge().value());
+    }
+
+    @Test
+    void lagBeyondTheMaximumMakesTheReplicaUnavailable() {
+        write(primary, NOW);
+        write(replica.dataSource(), NOW.minusSeconds(10));
+
+        monitor.check();
+
+        assertFalse(replica.isAvailable());
+        assertEquals(Duration.ofSeconds(10), replica.lag());
+        assertEquals(10, meterRegistry.get("examination.replicas.lag").gauge().value());
+
+        write(replica.dataSource(), NOW);
+        monitor.check();
+
+        assertTrue(replica.isAvailable());
+    }
+
+    @Test
+    void emptyReplicaLagsBehindAnyWrite() {
+        write(primary, NOW);
+
+        monitor.check();
+
+        assertFalse(replica.isAvailable());
+    }
+
+    @Test
+    void unreachableReplicaIsUnavailable() {
+        write(primary, NOW);
+        write(replica.dataSource(), NOW);
+        monitor.check();
+
+        replica.dataSource().close();
+        monitor.check();
+
+        assertFalse(replica.isAvailable());
+        assertNull(replica.lag());
+    }
+
+    @Test
+    void failingPrimaryKeepsTheReplicaState() {
+        write(primary, NOW);
+        write(replica.dataSource(), NOW);
+        monitor.check();
+
+        primary.close();
+        monitor.check();
+
+        assertTrue(replica.isAvailable());
+    }
+
+    private static void write(HikariDataSource dataSource, OffsetDateTime recordedAt) {
+        new JdbcTemplate(dataSource)
+                .update("insert into CHANGE_LOG (recorded_at) values (?)", recordedAt);
+    }
+
+    private static HikariDataSource database() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:monitor-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(2);
+        new JdbcTemplate(dataSource).execute("create table CHANGE_LOG (sequence bigint "
+                + "generated by default as identity primary key, "
+                + "recorded_at timestamp with time zone not null)");
+        return dataSource;
+    }
+}
@@ -0,0 +1,137 @@
+package io.muehlbachler.fhburgenland.swm.examination.replica;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests the routing of transactions with in-memory H2 databases standing in for the primary and
+ * two replicas. Every database holds its own name, so a query tells where it was routed to.
+ */
+
+class ReplicaRoutingDataSourceTest {
+    private HikariDataSource primary;
+    private Replica first;
+    private Replica second;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        first = new Replica("replica-0", database("replica-0"));
+        second = new Replica("replica-1", database("replica-1"));
+        first.update(Duration.ZERO, true);
+        second.update(Duration.ZERO, true);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.close();
+        first.dataSource().close();
+        second.dataSource().close();
+    }
+
+    @Test
+    void writesAndReadsOutsideTransactionsGoToThePrimary() {
+        DataSource routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN);
+
+        assertEquals("primary", target(routing, false));
+        assertEquals("primary", new JdbcTemplate(routing)
+                .queryForObject("select name from TARGET", String.class));
+    }
+
+    @Test
+    void readOnlyTransactionsTakeTheReplicasInTurns() {
+        DataSource routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN);
+
+        Set<String> targets = IntStream.range(0, 4)
+                .mapToObj(i -> target(routing, true))
+                .collect(Collectors.toSet());
+
+        assertEquals(Set.of("replica-0", "replica-1"), targets);
+        assertEquals(2, meterRegistry.counter("examination.replicas.routed",
+                "replica", "replica-0").count());
+    }
+
+    @Test
+    void unavailableReplicasAreSkipped() {
+        DataSource routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN);
+        first.update(Duration.ofMinutes(1), false);
+
+        assertEquals("replica-1", target(routing, true));
+        assertEquals("replica-1", target(routing, true));
+    }
+
+    @Test
+    void readOnlyTransactionsFallBackToThePrimary() {
+        DataSource routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN);
+        first.update(null, false);
+        second.update(Duration.ofMinutes(1), false);
+
+        assertEquals("primary", target(routing, true));
+        assertEquals(1, meterRegistry.counter("examination.replicas.fallback").count());
+    }
+
+    @Test
+    void leastLoadedTakesTheReplicaWithFewerConnectionsInUse() throws Exception {
+        DataSource routing = routing(ReplicaRoutingDataSource.Selection.LEAST_LOADED);
+
+        try (Connection busy = first.dataSource().getConnection()) {
+            assertEquals("replica-1", target(routing, true));
+            assertEquals("replica-1", target(routing, true));
+        }
+    }
+
+    @Test
+    void pinnedWorkReadsFromThePrimary() {
+        DataSource routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN);
+
+        assertEquals("primary", ReplicaRoutingDataSource.onPrimary(() -> target(routing, true)));
+        assertEquals("replica-0", target(routing, true));
+    }
+
+    private DataSource routing(ReplicaRoutingDataSource.Selection selection) {
+        return ReplicaRoutingDataSource.lazy(primary, List.of(first, second), selection,
+                meterRegistry);
+    }
+
+    private static String target(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transaction =
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> new JdbcTemplate(dataSource)
+                .queryForObject("select name from TARGET", String.class));
+    }
+
+    private static HikariDataSource database(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID()
+                + ";DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(2);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table TARGET (name varchar(20))");
+        jdbcTemplate.update("insert into TARGET values (?)", name);
+        return dataSource;
+    }
+}
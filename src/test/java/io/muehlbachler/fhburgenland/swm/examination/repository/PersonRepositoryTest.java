@@ -0,0 +1,183 @@
+package io.muehlbachler.fhburgenland.swm.examination.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import io.muehlbachler.fhburgenland.swm.examination.dto.NoteView;
+import io.muehlbachler.fhburgenland.swm.examination.dto.PersonSummary;
+import io.muehlbachler.fhburgenland.swm.examination.dto.PersonView;
+import io.muehlbachler.fhburgenland.swm.examination.dto.Revision;
+import io.muehlbachler.fhburgenland.swm.examination.model.Change;
+import io.muehlbachler.fhburgenland.swm.examination.model.Note;
+import io.muehlbachler.fhburgenland.swm.examination.model.Person;
+import io.muehlbachler.fhburgenland.swm.examination.model.UuidKeys;
+
+/**
+ * Tests the fetch plans and batch inserts of the repositories against the Flyway schema.
+ * Counts the JDBC statements with Hibernate statistics to make sure that listing persons
+ * and touching their notes takes a constant number of queries instead of one per person.
+ */
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class PersonRepositoryTest {
+    private static final int PERSONS = 20;
+    private static final int NOTES_PER_PERSON = 3;
+    // two persons are seeded by V1__init.sql
+    private static final int SEEDED_PERSONS = 2;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private ChangeRepository changeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+    private List<Person> persons;
+
+    @BeforeEach
+    void setUp() {
+        persons = new ArrayList<>();
+        for (int i = 0; i < PERSONS; i++) {
+            Person person = entityManager.persist(
+                    new Person(null, "First" + i, "Last", new ArrayList<>()));
+            persons.add(person);
+            for (int j = 0; j < NOTES_PER_PERSON; j++) {
+                entityManager.persist(new Note(null, person, "Note " + j));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findByIdFetchesNotesInSameQuery() {
+        Person person = personRepository.findById(persons.getFirst().getId()).orElseThrow();
+
+        assertEquals(NOTES_PER_PERSON, person.getNotes().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void generatedIdsFollowInsertionOrder() {
+        List<String> firstNames = personRepository.findViews(
+                        Limit.of(PERSONS + SEEDED_PERSONS)).stream()
+                .filter(person -> "Last".equals(person.lastName()))
+                .map(PersonView::firstName)
+                .toList();
+
+        assertEquals(IntStream.range(0, PERSONS).mapToObj(i -> "First" + i).toList(), firstNames);
+    }
+
+    @Test
+    void summariesSkipNotes() {
+        List<PersonSummary> summaries = personRepository.findAllSummaries();
+
+        assertEquals(PERSONS + SEEDED_PERSONS, summaries.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    void insertAllWritesPersonsAndNotesInBatches() {
+        Person person = new Person(UuidKeys.next(), "Bulk", "Person", new ArrayList<>());
+        personRepository.insertAll(List.of(person,
+                new Person(UuidKeys.next(), "Bulk", "Person", new ArrayList<>())));
+        UUID noteId = UuidKeys.next();
+        noteRepository.insertAll(List.of(new Note(noteId, person, "Bulk note")));
+
+        assertEquals(2, personRepository.findViewsByFirstName("Bulk").size());
+        assertEquals(List.of(noteId), noteRepository.findViewsByPersonIdIn(
+                List.of(person.getId())).stream().map(NoteView::id).toList());
+
+        List<Change> changes = changeRepository.findBySequenceGreaterThanOrderBySequenceAsc(0,
+                Limit.of(10));
+        assertEquals(List.of(Change.Kind.PERSON, Change.Kind.PERSON, Change.Kind.NOTE),
+                changes.stream().map(Change::getEntity).toList());
+        assertEquals(person.getId(), changes.getFirst().getEntityId());
+        assertEquals(noteId, changes.getLast().getEntityId());
+        assertEquals(person.getId(), changes.getLast().getPersonId());
+        assertEquals(List.of(), changeRepository.findBySequenceGreaterThanOrderBySequenceAsc(
+                changes.getLast().getSequence(), Limit.of(10)));
+    }
+
+    @Test
+    void touchChangesPersonRevision() {
+        Person person = persons.getFirst();
+        Revision before = personRepository.findViewById(person.getId()).orElseThrow().revision();
+
+        assertEquals(1, personRepository.touch(person.getId(), Instant.now()));
+
+        Revision after = personRepository.findViewById(person.getId()).orElseThrow().revision();
+        assertEquals(Long.toString(person.getVersion() + 1), after.tag());
+        assertNotEquals(before, after);
+    }
+
+    @Test
+    void collectionRevisionFollowsTheChangeLog() {
+        Revision before = changeRepository.findRevision();
+        assertEquals("0-0", before.tag());
+
+        changeRepository.appendPersons(persons.subList(0, 2));
+        // sequences of rolled back appends of other tests are not reused
+        long sequence = changeRepository.findBySequenceGreaterThanOrderBySequenceAsc(0,
+                Limit.of(10)).getLast().getSequence();
+        Revision appended = changeRepository.findRevision();
+        assertEquals(sequence + "-2", appended.tag());
+        assertNotNull(appended.modifiedAt());
+
+        // only the trailing sequences are counted
+        changeRepository.appendPersons(persons);
+        assertEquals((sequence + PERSONS) + "-3", changeRepository.findRevisionWithin(3).tag());
+    }
+
+    @Test
+    void viewsAreReadWithoutLoadingEntities() {
+        List<PersonView> persons = personRepository.findViewsByLastName("Last");
+        List<NoteView> notes = noteRepository.findViewsByPersonIdIn(
+                persons.stream().map(PersonView::id).toList());
+
+        assertEquals(PERSONS, persons.size());
+        assertEquals(PERSONS * NOTES_PER_PERSON, notes.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void viewPagesFollowTheKeyset() {
+        List<PersonView> first = personRepository.findViews(Limit.of(5));
+        List<PersonView> second = personRepository.findViewsByIdGreaterThan(
+                first.getLast().id(), Limit.of(5));
+
+        assertEquals(5, first.size());
+        assertEquals(5, second.size());
+        assertTrue(Collections.disjoint(first, second));
+    }
+}
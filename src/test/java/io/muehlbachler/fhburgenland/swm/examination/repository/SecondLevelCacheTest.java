@@ -0,0 +1,106 @@
+package io.muehlbachler.fhburgenland.swm.examination.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import io.muehlbachler.fhburgenland.swm.examination.config.SecondLevelCacheConfig;
+import io.muehlbachler.fhburgenland.swm.examination.dto.PersonView;
+import io.muehlbachler.fhburgenland.swm.examination.model.Person;
+import io.muehlbachler.fhburgenland.swm.examination.model.UuidKeys;
+import jakarta.persistence.Cache;
+
+/**
+ * Tests the second-level cache of persons and the name finders against the Flyway schema.
+ * Works on the persons seeded by the migrations, which Hibernate has not written itself and
+ * therefore has not invalidated for the query cache within the test transaction.
+ */
+
+@DataJpaTest(properties = "examination.second-level-cache.statistics=true")
+@Import(SecondLevelCacheConfig.class)
+class SecondLevelCacheTest {
+    private static final UUID JOHN = UUID.fromString("81150016-8501-4b97-9168-01113e21d8a5");
+    private static final UUID JANE = UUID.fromString("d891323f-a3ad-4a95-b340-2e1c8aa8d1bd");
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = entityManager.getEntityManager().getEntityManagerFactory().getCache();
+        cache.evictAll();
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void nameFinderIsAnsweredFromTheQueryCache() {
+        personRepository.findViewsByLastName("Doe");
+        entityManager.clear();
+        statistics.clear();
+
+        List<PersonView> persons = personRepository.findViewsByLastName("Doe");
+
+        assertEquals(2, persons.size());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void changingAPersonKeepsTheOthersCached() {
+        entityManager.find(Person.class, JOHN);
+        entityManager.find(Person.class, JANE);
+        entityManager.clear();
+        assertTrue(cache.contains(Person.class, JANE));
+
+        personRepository.findWritableById(JOHN).orElseThrow().setModifiedAt(Instant.now());
+        entityManager.flush();
+
+        assertTrue(cache.contains(Person.class, JANE));
+    }
+
+    @Test
+    void touchEvictsAllPersons() {
+        entityManager.find(Person.class, JANE);
+        entityManager.clear();
+
+        personRepository.touch(JOHN, Instant.now());
+
+        assertFalse(cache.contains(Person.class, JANE));
+    }
+
+    @Test
+    void evictNameQueriesDropsTheNameResults() {
+        personRepository.findViewsByLastName("Doe");
+        entityManager.clear();
+
+        personRepository.insertAll(List.of(
+                new Person(UuidKeys.next(), "Ada", "Doe", new ArrayList<>())));
+        personRepository.evictNameQueries();
+        statistics.clear();
+
+        assertEquals(3, personRepository.findViewsByLastName("Doe").size());
+        assertEquals(0, statistics.getQueryCacheHitCount());
+    }
+}
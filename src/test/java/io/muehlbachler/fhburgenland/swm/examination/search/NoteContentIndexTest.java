@@ -0,0 +1,104 @@
+package io.muehlbachler.fhburgenland.swm.examination.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.muehlbachler.fhburgenland.swm.examination.dto.NoteView;
+
+class NoteContentIndexTest {
+    private static final UUID ID_1 = new UUID(0L, 1L);
+    private static final UUID ID_2 = new UUID(0L, 2L);
+    private static final UUID ID_3 = new UUID(0L, 3L);
+    private static final UUID ID_4 = new UUID(0L, 4L);
+
+    private NoteContentIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NoteContentIndex();
+    }
+
+    @Test
+    void tokenizeSplitsIntoDistinctTrigrams() {
+        assertEquals(Set.of("Not", "ote", "te ", "e 1"), NoteContentIndex.tokenize("Note 1"));
+        assertTrue(NoteContentIndex.tokenize("ab").isEmpty());
+        assertTrue(NoteContentIndex.tokenize(null).isEmpty());
+    }
+
+    @Test
+    void candidatesEmptyUntilRebuilt() {
+        index.add(ID_1, "Note 1");
+
+        assertFalse(index.isReady());
+        assertEquals(Optional.empty(), index.candidates("Note"));
+    }
+
+    @Test
+    void candidatesIntersectPostings() {
+        index.rebuild(List.of(view(ID_1, "Shopping list"),
+                view(ID_2, "Shopping cart"),
+                view(ID_3, "Reading list")));
+
+        assertEquals(Optional.of(Set.of(ID_1, ID_2)), index.candidates("Shopping"));
+        assertEquals(Optional.of(Set.of(ID_1, ID_3)), index.candidates("list"));
+        assertEquals(Optional.of(Set.of()), index.candidates("unknown"));
+    }
+
+    @Test
+    void candidatesNotAnsweredForShortQueries() {
+        index.rebuild(List.of(view(ID_1, "Note 1")));
+
+        assertEquals(Optional.empty(), index.candidates("No"));
+        assertEquals(Optional.empty(), index.candidates(null));
+    }
+
+    @Test
+    void addIsVisibleAfterRebuild() {
+        index.rebuild(List.of());
+        index.add(ID_4, "Fresh note");
+        index.add(null, "Ignored note");
+
+        assertEquals(Optional.of(Set.of(ID_4)), index.candidates("note"));
+    }
+
+    @Test
+    void candidatesSkipThroughLongPostings() {
+        index.rebuild(List.of());
+        Set<UUID> expected = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = new UUID(1L, i);
+            boolean match = i % 1000 == 999;
+            index.add(id, match ? "common rare" : "common");
+            if (match) {
+                expected.add(id);
+            }
+        }
+
+        assertEquals(Optional.of(expected), index.candidates("common rare"));
+        assertEquals(10_000, index.candidates("common").orElseThrow().size());
+    }
+
+    @Test
+    void postingsTakeAboutOneBytePerOccurrence() {
+        index.rebuild(List.of());
+        for (int i = 0; i < 10_000; i++) {
+            index.add(new UUID(1L, i), "abc");
+        }
+
+        assertTrue(index.postingsBytes() < 2 * 10_000, "postings: " + index.postingsBytes());
+    }
+
+    private static NoteView view(UUID id, String content) {
+        return new NoteView(id, null, content, 0, null, null);
+    }
+}
@@ -0,0 +1,115 @@
+package io.muehlbachler.fhburgenland.swm.examination.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.muehlbachler.fhburgenland.swm.examination.dto.PersonSummary;
+
+class PersonNameIndexTest {
+    private static final UUID ANN = new UUID(0L, 1L);
+    private static final UUID ANNA = new UUID(0L, 2L);
+    private static final UUID BOB = new UUID(0L, 3L);
+    private static final UUID ANDREW = new UUID(0L, 4L);
+    private static final UUID ZOE = new UUID(0L, 5L);
+    private static final UUID SMYTH = new UUID(0L, 6L);
+
+    private PersonNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PersonNameIndex();
+        index.rebuild(List.of(new PersonSummary(ANN, "Ann", "Smith"),
+                new PersonSummary(ANNA, "Anna", "Jones"),
+                new PersonSummary(BOB, "Bob", "Annabel"),
+                new PersonSummary(ANDREW, "Andrew", "Miller"),
+                new PersonSummary(ZOE, "Zo\u00eb", "M\u00fcller"),
+                new PersonSummary(SMYTH, "Sam", "Smyth")));
+    }
+
+    @Test
+    void normalizeFoldsCaseAndDiacritics() {
+        assertEquals("jose", PersonNameIndex.normalize("  Jos\u00e9 "));
+        assertEquals("muller", PersonNameIndex.normalize("M\u00dcLLER"));
+        assertEquals("", PersonNameIndex.normalize(null));
+    }
+
+    @Test
+    void searchEmptyUntilRebuilt() {
+        PersonNameIndex empty = new PersonNameIndex();
+        empty.add(ANN, "Ann", "Smith");
+
+        assertFalse(empty.isReady());
+        assertEquals(Optional.empty(), empty.search("ann", 0, 10));
+        assertEquals(Optional.empty(), empty.suggest("ann", 0, 10));
+    }
+
+    @Test
+    void prefixSearchRanksEqualNamesFirstThenAlphabetically() {
+        assertEquals(List.of(ANN, ANNA, BOB), ids(index.search("ann", 0, 10)));
+        assertEquals(List.of(ANDREW, ANN), ids(index.search("AN", 0, 2)));
+    }
+
+    @Test
+    void searchIgnoresCaseAndDiacritics() {
+        assertEquals(List.of(ZOE), ids(index.search("mull", 0, 10)));
+        assertEquals(List.of(ZOE), ids(index.search("ZOE", 0, 10)));
+        assertEquals("M\u00fcller", index.search("muller", 0, 10).orElseThrow().getFirst().name());
+    }
+
+    @Test
+    void fuzzySearchRanksCloserNamesFirst() {
+        assertEquals(List.of(), ids(index.search("jnes", 0, 10)));
+        assertEquals(List.of(ANNA), ids(index.search("jnes", 1, 10)));
+
+        List<PersonNameIndex.Match> matches = index.search("smit", 1, 10).orElseThrow();
+
+        assertEquals(List.of(ANN, SMYTH), matches.stream().map(PersonNameIndex.Match::personId)
+                .toList());
+        assertEquals(0, matches.get(0).distance());
+        assertEquals(1, matches.get(1).distance());
+    }
+
+    @Test
+    void fuzzinessIsCappedBelowTheQueryLength() {
+        assertEquals(List.of(BOB), ids(index.search("b", 2, 10)));
+        assertEquals(List.of(ZOE, BOB), ids(index.search("zo", 5, 10)));
+    }
+
+    @Test
+    void personsMatchingTwiceAreListedOnce() {
+        UUID lee = new UUID(0L, 7L);
+        index.add(lee, "Lee", "Lee");
+
+        assertEquals(List.of(lee), ids(index.search("lee", 0, 10)));
+    }
+
+    @Test
+    void removedNamesNoLongerMatch() {
+        index.remove(ANNA, "Anna", "Jones");
+        index.add(ANNA, "Anna", "Smith");
+
+        assertEquals(List.of(), ids(index.search("jones", 0, 10)));
+        assertEquals(List.of(ANN, ANNA), ids(index.search("smith", 0, 10)));
+    }
+
+    @Test
+    void suggestReturnsDistinctNamesInRankOrder() {
+        index.add(new UUID(0L, 8L), "anna", "Taylor");
+
+        assertEquals(Optional.of(List.of("Andrew", "Ann", "Anna", "Annabel")),
+                index.suggest("an", 0, 10));
+        assertEquals(Optional.of(List.of("Smith", "Smyth")), index.suggest("smit", 1, 10));
+        assertEquals(Optional.of(List.of()), index.suggest("", 0, 10));
+    }
+
+    private static List<UUID> ids(Optional<List<PersonNameIndex.Match>> matches) {
+        return matches.orElseThrow().stream().map(PersonNameIndex.Match::personId).toList();
+    }
+}
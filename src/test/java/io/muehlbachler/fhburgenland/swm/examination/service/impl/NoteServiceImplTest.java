@@ -1,16 +1,33 @@
 package io.muehlbachler.fhburgenland.swm.examination.service.impl;
 
+import io.muehlbachler.fhburgenland.swm.examination.content.NoteContentStore;
+import io.muehlbachler.fhburgenland.swm.examination.dto.NoteView;
+import io.muehlbachler.fhburgenland.swm.examination.dto.Revision;
 import io.muehlbachler.fhburgenland.swm.examination.model.Note;
+import io.muehlbachler.fhburgenland.swm.examination.repository.ChangeRepository;
 import io.muehlbachler.fhburgenland.swm.examination.repository.NoteRepository;
+import io.muehlbachler.fhburgenland.swm.examination.search.NoteContentIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -19,11 +36,29 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class NoteServiceImplTest {
+    private static final UUID NOTE_ID = UUID.fromString("c5b38625-7eed-4705-858d-c685f18ed47d");
+    private static final UUID OTHER_NOTE_ID =
+            UUID.fromString("0190a6b2-3c4d-7e5f-8a9b-0c1d2e3f4a5b");
+
     @Mock
     private NoteRepository noteRepository;
+    @Mock
+    private ChangeRepository changeRepository;
+
+    @Spy
+    private NoteContentIndex noteContentIndex = new NoteContentIndex();
 
     @InjectMocks
     private NoteServiceImpl noteService;
@@ -34,81 +69,320 @@ class NoteServiceImplTest {
     }
 
     @Test
-    public void testGetNoteByIdFound() {
-        Note note = new Note("1", null, "Test Note");
-        when(noteRepository.findById("1")).thenReturn(Optional.of(note));
-        Optional<Note> foundNote = noteService.get("1");
-        assertTrue(foundNote.isPresent());
-        assertEquals("Test Note", foundNote.get().getContent());
-    }
+    public void testGetCollectionRevision() {
+        Revision revision = new Revision(3, 4, Instant.now());
+        when(changeRepository.findRevision()).thenReturn(revision);
 
-    @Test
-    public void testGetNoteByIdNotFound() {
-        when(noteRepository.findById("nonexistent"))
-                .thenReturn(Optional.empty());
-        Optional<Note> foundNote = noteService.get("nonexistent");
-        assertFalse(foundNote.isPresent());
+        assertEquals(revision, noteService.getCollectionRevision());
     }
 
     @Test
     public void testCreateNote() {
         Note newNote = new Note(null,
                 null, "New Note");
-        Note savedNote = new Note("1",
+        Note savedNote = new Note(NOTE_ID,
                 null, "New Note");
         when(noteRepository.save(any(Note.class))).thenReturn(savedNote);
         Note result = noteService.create(newNote);
         assertNotNull(result);
         assertEquals("New Note", result.getContent());
+        verify(changeRepository).appendNotes(List.of(savedNote));
     }
 
     @Test
-    public void testQueryByContentFound() {
-        List<Note> notes = List.of(new Note("1",
-                null, "Note Content"));
-        when(noteRepository.findByContentContaining("Content")).thenReturn(notes);
-        List<Note> result = noteService.queryByContent("Content");
-        assertFalse(result.isEmpty());
-        assertEquals(1, result.size());
-        assertEquals("Note Content",
-                result.getFirst().getContent());
+    public void testCreateNoteWithNull() {
+
+        try {
+            Note result = noteService.create(null);
+            assertNull(result, "Expected a null result when creating a note with null input");
+        } catch (Exception e) {
+            fail("Did not expect an exception to be thrown when creating a note with null input");
+        }
     }
 
     @Test
-    public void testQueryByContentNotFound() {
-        when(noteRepository.findByContentContaining("nonexistent")).thenReturn(List.of());
-        List<Note> result = noteService.queryByContent("nonexistent");
+    public void testQueryViewsByContentDropsIndexFalsePositives() {
+        // contains every trigram of "abcbc", but not the query itself
+        rebuildIndex(new Note(NOTE_ID, null, "bcb abc cbc"));
+        when(noteRepository.findViewsByIdIn(any())).thenReturn(List.of(
+                new NoteView(NOTE_ID, null, "bcb abc cbc", 0, Instant.EPOCH, null)));
+
+        List<NoteView> result = noteService.queryViewsByContent("abcbc");
+
         assertTrue(result.isEmpty());
     }
 
-
     @Test
-    public void testGetNoteByNullId() {
-        Optional<Note> foundNote = noteService.get(null);
-        assertFalse(foundNote.isPresent(), "Expected an empty Optional for null ID");
+    public void testCreateNoteUpdatesIndex() {
+        rebuildIndex();
+        Note savedNote = new Note(NOTE_ID, null, "Fresh Content");
+        when(noteRepository.save(any(Note.class))).thenReturn(savedNote);
+
+        noteService.create(new Note(null, null, "Fresh Content"));
+
+        assertEquals(Optional.of(Set.of(NOTE_ID)),
+                noteContentIndex.candidates("Fresh"));
     }
 
     @Test
-    public void testCreateNoteWithNull() {
+    public void testRebuildIndexStreamsViewsAndClosesTheCursor() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(noteRepository.streamAllViews()).thenReturn(Stream.of(
+                new NoteView(NOTE_ID, null, "Stored Content", 0, Instant.EPOCH, null))
+                .onClose(() -> closed.set(true)));
 
-        try {
-            Note result = noteService.create(null);
-            assertNull(result, "Expected a null result when creating a note with null input");
-        } catch (Exception e) {
-            fail("Did not expect an exception to be thrown when creating a note with null input");
-        }
+        noteService.rebuildIndex();
+
+        assertEquals(Optional.of(Set.of(NOTE_ID)), noteContentIndex.candidates("Stored"));
+        assertTrue(closed.get());
+        verify(noteRepository, never()).findAll();
     }
 
     @Test
-    public void testQueryByContentWithNull() {
+    public void testCreateNoteIndexesOnlyOnceCommitted() {
+        rebuildIndex();
+        Note savedNote = new Note(NOTE_ID, null, "Fresh Content");
+        when(noteRepository.save(any(Note.class))).thenReturn(savedNote);
+        TransactionSynchronizationManager.initSynchronization();
         try {
-            var results = noteService.queryByContent(null);
-            assertNotNull(results,
-                    "Expected a non-null result for query by null content");
-            assertTrue(results.isEmpty(),
-                    "Expected an empty list when querying by null content");
-        } catch (Exception e) {
-            fail("Did not expect an exception to be thrown when querying by null content");
+            noteService.create(new Note(null, null, "Fresh Content"));
+
+            assertEquals(Optional.of(Set.of()), noteContentIndex.candidates("Fresh"));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
         }
+
+        assertEquals(Optional.of(Set.of(NOTE_ID)), noteContentIndex.candidates("Fresh"));
+    }
+
+    @Test
+    public void testCreateAllAssignsIdsAndUpdatesIndex() {
+        rebuildIndex();
+        commitInsertedChunks();
+
+        List<Note> created = noteService.createAll(List.of(new Note(null, null, "Bulk Content"),
+                new Note(null, null, "Other")));
+
+        assertEquals(2, created.size());
+        assertNotNull(created.getFirst().getId());
+        assertEquals(7, created.getFirst().getId().version());
+        assertTrue(created.getFirst().getId().compareTo(created.get(1).getId()) < 0);
+        verify(noteRepository).insertAll(eq(created), any());
+        assertEquals(Optional.of(Set.of(created.getFirst().getId())),
+                noteContentIndex.candidates("Bulk"));
+    }
+
+    @Test
+    public void testInsertAllKeepsIdsAndUpdatesIndex() {
+        rebuildIndex();
+        commitInsertedChunks();
+        List<Note> notes = List.of(new Note(NOTE_ID, null, "Journaled Content"));
+
+        noteService.insertAll(notes);
+
+        verify(noteRepository).insertAll(eq(notes), any());
+        assertEquals(Optional.of(Set.of(NOTE_ID)), noteContentIndex.candidates("Journaled"));
+    }
+
+    @Test
+    public void testCreateMovesLongContentToTheStore() {
+        NoteContentStore store = mock(NoteContentStore.class);
+        when(store.previewLength()).thenReturn(5);
+        NoteServiceImpl service = new NoteServiceImpl(noteRepository, noteContentIndex,
+                changeRepository, store);
+        Note note = new Note(NOTE_ID, null, "Hello world");
+        when(noteRepository.save(note)).thenReturn(note);
+
+        Note result = service.create(note);
+
+        assertEquals("Hello", result.getContent());
+        assertEquals(11, result.getContentSize());
+        verify(store).put(eq(NOTE_ID), aryEq("Hello world".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testCreateIndexesTheFullContentOfLongNotes() {
+        NoteServiceImpl service = new NoteServiceImpl(noteRepository, noteContentIndex,
+                changeRepository, storeHolding("Hello world"));
+        rebuildIndex();
+        Note note = new Note(NOTE_ID, null, "Hello world");
+        when(noteRepository.save(note)).thenReturn(note);
+
+        service.create(note);
+
+        assertEquals(Optional.of(Set.of(NOTE_ID)), noteContentIndex.candidates("world"));
+    }
+
+    @Test
+    public void testContentQueriesMatchTheFullContentOfPreviews() {
+        NoteServiceImpl service = new NoteServiceImpl(noteRepository, noteContentIndex,
+                changeRepository, storeHolding("Hello world"));
+        NoteView preview = new NoteView(NOTE_ID, null, "Hello", 0, Instant.EPOCH, 11);
+        when(noteRepository.streamAllViews()).thenReturn(Stream.of(preview));
+        when(noteRepository.findViewsByIdIn(any())).thenReturn(List.of(preview));
+        service.rebuildIndex();
+
+        List<NoteView> result = service.queryViewsByContent("world");
+
+        assertEquals(List.of(preview), result);
+        assertTrue(result.getFirst().truncated());
+        assertEquals(1, service.countByContent("world"));
+        verify(noteRepository, never()).countByIdInAndContentContaining(any(), anyString());
+    }
+
+    @Test
+    public void testInsertAllDoesNotIndexUncommittedNotes() {
+        rebuildIndex();
+
+        noteService.insertAll(List.of(new Note(NOTE_ID, null, "Journaled Content")));
+
+        assertEquals(Optional.of(Set.of()), noteContentIndex.candidates("Journaled"));
+    }
+
+    @Test
+    public void testInsertAllKeepsShortContentInTheNote() {
+        NoteContentStore store = mock(NoteContentStore.class);
+        when(store.previewLength()).thenReturn(5);
+        NoteServiceImpl service = new NoteServiceImpl(noteRepository, noteContentIndex,
+                changeRepository, store);
+        Note longNote = new Note(NOTE_ID, null, "Journaled Content");
+        Note shortNote = new Note(OTHER_NOTE_ID, null, "Short");
+
+        service.insertAll(List.of(longNote, shortNote));
+
+        assertEquals("Journ", longNote.getContent());
+        assertEquals("Short", shortNote.getContent());
+        assertNull(shortNote.getContentSize());
+        verify(store).put(eq(NOTE_ID), any());
+        verify(store, never()).put(eq(OTHER_NOTE_ID), any());
+        verify(noteRepository).insertAll(eq(List.of(longNote, shortNote)), any());
+    }
+
+    @Test
+    public void testCountAndExistsDoNotLoadNotes() {
+        when(noteRepository.count()).thenReturn(42L);
+        when(noteRepository.existsById(NOTE_ID)).thenReturn(true);
+
+        assertEquals(42, noteService.count());
+        assertTrue(noteService.exists(NOTE_ID.toString()));
+        assertFalse(noteService.exists("malformed"));
+        verify(noteRepository, never()).findById(any());
+        verify(noteRepository, never()).findAll();
+    }
+
+    @Test
+    public void testCountByContentOfOneGramVerifiesTheCandidates() {
+        rebuildIndex(new Note(NOTE_ID, null, "abc"),
+                new Note(OTHER_NOTE_ID, null, "xabcx"));
+        // one of the candidates is not (or no longer) stored
+        when(noteRepository.countByIdInAndContentContaining(any(), eq("abc"))).thenReturn(1L);
+
+        assertEquals(1, noteService.countByContent("abc"));
+        verify(noteRepository).countByIdInAndContentContaining(any(), eq("abc"));
+        verify(noteRepository, never()).countByContentContaining(anyString());
+    }
+
+    @Test
+    public void testCountByContentCountsCandidates() {
+        rebuildIndex(new Note(NOTE_ID, null, "Test Note"),
+                new Note(OTHER_NOTE_ID, null, "Note Test"));
+        when(noteRepository.countByIdInAndContentContaining(any(), eq("Test Note")))
+                .thenReturn(1L);
+
+        assertEquals(1, noteService.countByContent("Test Note"));
+        verify(noteRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    public void testCountByContentFallsBackWithoutIndex() {
+        when(noteRepository.countByContentContaining("Te")).thenReturn(3L);
+
+        assertEquals(3, noteService.countByContent("Te"));
+    }
+
+    @Test
+    public void testGetView() {
+        NoteView view = new NoteView(NOTE_ID, null, "Test Note", 0, Instant.EPOCH, null);
+        when(noteRepository.findViewById(NOTE_ID)).thenReturn(Optional.of(view));
+
+        assertEquals(Optional.of(view), noteService.getView(NOTE_ID.toString()));
+        assertFalse(noteService.getView("malformed").isPresent());
+        verify(noteRepository, never()).findById(any());
+    }
+
+    @Test
+    public void testQueryViewsByContentVerifiesCandidates() {
+        rebuildIndex(new Note(NOTE_ID, null, "Test Note"),
+                new Note(OTHER_NOTE_ID, null, "Note Test"));
+        when(noteRepository.findViewsByIdIn(any())).thenReturn(List.of(
+                new NoteView(NOTE_ID, null, "Test Note", 0, Instant.EPOCH, null),
+                new NoteView(OTHER_NOTE_ID, null, "Note Test", 0, Instant.EPOCH, null)));
+
+        List<NoteView> result = noteService.queryViewsByContent("Test Note");
+
+        assertEquals(1, result.size());
+        assertEquals(NOTE_ID, result.getFirst().id());
+        verify(noteRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    public void testQueryViewsByContentFallsBackWithoutIndex() {
+        when(noteRepository.streamViewsByContentContaining("Te")).thenReturn(Stream.empty());
+
+        assertTrue(noteService.queryViewsByContent("Te").isEmpty());
+        verify(noteRepository).streamViewsByContentContaining("Te");
+    }
+
+    @Test
+    public void testStreamViewsByContentClosesTheCursor() {
+        NoteView view = new NoteView(NOTE_ID, null, "Test Note", 0, Instant.EPOCH, null);
+        AtomicBoolean closed = new AtomicBoolean();
+        when(noteRepository.streamViewsByContentContaining("Te"))
+                .thenReturn(Stream.of(view).onClose(() -> closed.set(true)));
+        List<NoteView> result = new ArrayList<>();
+
+        noteService.streamViewsByContent("Te", result::add);
+
+        assertEquals(List.of(view), result);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testGetViewsOfPersons() {
+        UUID personId = UUID.randomUUID();
+        NoteView view = new NoteView(NOTE_ID, personId, "Test Note", 0, Instant.EPOCH, null);
+        when(noteRepository.findViewsByPersonIdIn(List.of(personId))).thenReturn(List.of(view));
+
+        assertEquals(List.of(view), noteService.getViewsOfPersons(List.of(personId)));
+    }
+
+    private void rebuildIndex(Note... notes) {
+        noteContentIndex.rebuild(Arrays.stream(notes)
+                .map(note -> new NoteView(note.getId(), null, note.getContent(), 0, null, null))
+                .toList());
+    }
+
+    /**
+     * Creates a content store with a preview of 5 chars, holding the content for NOTE_ID.
+     */
+    private static NoteContentStore storeHolding(String content) {
+        NoteContentStore store = mock(NoteContentStore.class);
+        when(store.previewLength()).thenReturn(5);
+        when(store.get(NOTE_ID)).thenAnswer(invocation ->
+                Optional.of(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8))));
+        when(store.get(OTHER_NOTE_ID)).thenReturn(Optional.empty());
+        return store;
+    }
+
+    /**
+     * Lets the mocked repository report all inserted notes as one committed chunk.
+     */
+    private void commitInsertedChunks() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<List<Note>>>getArgument(1).accept(invocation.getArgument(0));
+            return null;
+        }).when(noteRepository).insertAll(anyList(), any());
     }
-}
\ No newline at end of file
+}
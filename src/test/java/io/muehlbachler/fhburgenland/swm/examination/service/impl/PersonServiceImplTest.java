@@ -3,34 +3,52 @@ package io.muehlbachler.fhburgenland.swm.examination.service.impl;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.any;
-import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.util.Arrays;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import io.muehlbachler.fhburgenland.swm.examination.dto.NoteView;
+import io.muehlbachler.fhburgenland.swm.examination.dto.PersonSummary;
+import io.muehlbachler.fhburgenland.swm.examination.dto.PersonView;
+import io.muehlbachler.fhburgenland.swm.examination.dto.Revision;
 import io.muehlbachler.fhburgenland.swm.examination.model.Note;
-import org.assertj.core.util.Lists;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import io.muehlbachler.fhburgenland.swm.examination.model.Person;
+import io.muehlbachler.fhburgenland.swm.examination.repository.ChangeRepository;
 import io.muehlbachler.fhburgenland.swm.examination.repository.PersonRepository;
+import io.muehlbachler.fhburgenland.swm.examination.search.PersonNameIndex;
 import io.muehlbachler.fhburgenland.swm.examination.service.NoteService;
 import io.muehlbachler.fhburgenland.swm.examination.service.PersonService;
+import io.muehlbachler.fhburgenland.swm.examination.writebehind.NoteWriteBehind;
 
 /**
  * Tests for PersonServiceImpl, covering CRUD operations, note management, and searches. Utilizes
@@ -42,16 +60,28 @@ import io.muehlbachler.fhburgenland.swm.examination.service.PersonService;
 
 @ExtendWith(MockitoExtension.class)
 public class PersonServiceImplTest {
+    private static final UUID PERSON_ID = UUID.fromString("81150016-8501-4b97-9168-01113e21d8a5");
+    private static final UUID OTHER_PERSON_ID =
+            UUID.fromString("d891323f-a3ad-4a95-b340-2e1c8aa8d1bd");
+    private static final UUID MISSING_ID = UUID.fromString("00000000-0000-7000-8000-000000000000");
+    private static final TransactionTemplate TRANSACTION_TEMPLATE =
+            new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class));
+
     @Mock
     private NoteService noteService;
     @Mock
     private PersonRepository personRepository;
+    @Mock
+    private ChangeRepository changeRepository;
 
+    private PersonNameIndex personNameIndex;
     private PersonService personService;
 
     @BeforeEach
     void setUp() {
-        personService = new PersonServiceImpl(personRepository, noteService);
+        personNameIndex = new PersonNameIndex();
+        personService = new PersonServiceImpl(personRepository, noteService, personNameIndex,
+                changeRepository, null, TRANSACTION_TEMPLATE);
     }
 
     @AfterEach
@@ -61,63 +91,24 @@ public class PersonServiceImplTest {
     }
 
     @Test
-    void testGetById() {
-        when(personRepository.findById("1"))
-                .thenReturn(Optional.of(new Person("1", "John",
-                        "Doe", Lists.newArrayList())));
-
-        Optional<Person> person = personService.get("1");
-
-        assertTrue(person.isPresent());
-        assertEquals("John", person.get().getFirstName(),
-                "firstName should be John");
-
-        Mockito.verify(personRepository,times(1)).findById("1");
-    }
-
-
-    @Test
-    void testGetAll() {
-        when(personRepository.findAll()).thenReturn(Arrays.asList(new Person("1",
-                        "John", "Doe", Collections.emptyList()),
-                new Person("2", "Jane", "Doe", Collections.emptyList())));
-
-        List<Person> persons = personService.getAll();
+    void testFindViewsByFullName() {
+        when(personRepository.findViewsByFirstNameAndLastName("John", "Doe"))
+                .thenReturn(List.of(new PersonView(PERSON_ID, "John", "Doe", 0, Instant.EPOCH)));
+        when(noteService.getViewsOfPersons(List.of(PERSON_ID))).thenReturn(List.of());
 
-        assertNotNull(persons);
-        assertEquals(2, persons.size());
-        verify(personRepository).findAll();
-    }
-
-    @Test
-    void testGetByIdNotFound() {
-        when(personRepository.findById("nonexistent")).thenReturn(Optional.empty());
+        List<PersonView> persons = personService.findViewsByName("John", "Doe");
 
-        Optional<Person> person = personService.get("nonexistent");
-
-        assertFalse(person.isPresent());
-        verify(personRepository).findById("nonexistent");
-    }
-
-    @Test
-    void testFindByName() {
-        when(personRepository.findByFirstNameAndLastName("John", "Doe"))
-                .thenReturn(Collections.singletonList(new Person(
-                        "1", "John", "Doe", Collections.emptyList())));
-
-        List<Person> persons = personService.findByName("John", "Doe");
-
-        assertNotNull(persons);
         assertEquals(1, persons.size());
-        assertEquals("John", persons.get(0).getFirstName());
-        verify(personRepository).findByFirstNameAndLastName("John", "Doe");
+        assertEquals("John", persons.get(0).firstName());
+        verify(personRepository).findViewsByFirstNameAndLastName("John", "Doe");
+        verify(noteService).getViewsOfPersons(List.of(PERSON_ID));
     }
 
     @Test
     void testCreatePerson() {
         Person newPerson = new Person(null,
                 "New", "Person", Collections.emptyList());
-        Person savedPerson = new Person("1",
+        Person savedPerson = new Person(PERSON_ID,
                 "New", "Person", Collections.emptyList());
         when(personRepository.save(any(Person.class))).thenReturn(savedPerson);
 
@@ -126,63 +117,412 @@ public class PersonServiceImplTest {
         assertNotNull(result);
         assertEquals("New", result.getFirstName());
         verify(personRepository).save(newPerson);
+        verify(changeRepository).appendPersons(List.of(savedPerson));
     }
 
- @Test
-    void findByName_withNullParameters() {
-        List<Person> result = personService.findByName(null, null);
+    @Test
+    void testUpdatePersonWithoutVersionOverwritesStoredPerson() {
+        personNameIndex.rebuild(List.of());
+        Person stored = new Person(PERSON_ID, "Old", "Name", Collections.emptyList());
+        stored.setVersion(3L);
+        when(personRepository.findWritableById(PERSON_ID)).thenReturn(Optional.of(stored));
+        when(personRepository.save(stored)).thenReturn(stored);
 
-        assertTrue(result.isEmpty(),
-         "Expected no persons to be found when querying with null parameters");
+        Person result = personService.create(
+                new Person(PERSON_ID, "New", "Name", Collections.emptyList()));
+
+        assertEquals("New", result.getFirstName());
+        assertEquals(3L, result.getVersion());
+        verify(personRepository).save(stored);
+        assertEquals(Optional.of(List.of()), personNameIndex.suggest("old", 0, 10));
+        assertEquals(Optional.of(List.of("New")), personNameIndex.suggest("new", 0, 10));
+    }
+
+    @Test
+    void testUpdatePersonWithVersionIsCheckedOnSave() {
+        Person stored = new Person(PERSON_ID, "Old", "Name", Collections.emptyList());
+        stored.setVersion(3L);
+        Person update = new Person(PERSON_ID, "New", "Name", Collections.emptyList());
+        update.setVersion(2L);
+        when(personRepository.findWritableById(PERSON_ID)).thenReturn(Optional.of(stored));
+        when(personRepository.save(update))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Person.class, PERSON_ID));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> personService.create(update));
+        assertEquals("Old", stored.getFirstName());
     }
 
     @Test
     void testCreateNoteSuccess() {
-        String personId = "1";
+        String personId = PERSON_ID.toString();
         Note newNote = new Note();
         newNote.setContent("Test Note");
-        Person person = new Person(personId,
+        Person person = new Person(PERSON_ID,
                 "John", "Doe", Collections.emptyList());
 
-        when(personRepository.findById(anyString())).thenReturn(Optional.of(person));
+        when(personRepository.findWritableById(any(UUID.class))).thenReturn(Optional.of(person));
         when(noteService.create(any(Note.class))).thenReturn(newNote);
 
         Optional<Note> createdNote = personService.createNote(personId, newNote);
 
         assertTrue(createdNote.isPresent());
         assertEquals("Test Note", createdNote.get().getContent());
-        verify(personRepository).findById(personId);
+        assertEquals(person, newNote.getPerson());
+        assertNotNull(person.getModifiedAt(), "Expected the person to be marked as modified");
+        verify(personRepository).findWritableById(PERSON_ID);
         verify(noteService).create(newNote);
     }
 
+    @Test
+    void testCreateNoteEnqueuesInWriteBehindMode() {
+        NoteWriteBehind noteWriteBehind = Mockito.mock(NoteWriteBehind.class);
+        personService = new PersonServiceImpl(personRepository, noteService, personNameIndex,
+                changeRepository, noteWriteBehind, TRANSACTION_TEMPLATE);
+        when(personRepository.existsById(PERSON_ID)).thenReturn(true);
+        when(noteWriteBehind.enqueue(any(Note.class))).thenAnswer(call -> call.getArgument(0));
+
+        Optional<Note> created = personService.createNote(PERSON_ID.toString(),
+                new Note(null, null, "Queued"));
+
+        assertTrue(created.isPresent());
+        assertNotNull(created.get().getId());
+        assertEquals(PERSON_ID, created.get().getPerson().getId());
+        assertEquals("Queued", created.get().getContent());
+        verify(personRepository).existsById(PERSON_ID);
+        verify(noteWriteBehind).enqueue(created.get());
+    }
+
+    @Test
+    void testCreateNoteInWriteBehindModeForNonExistentPerson() {
+        NoteWriteBehind noteWriteBehind = Mockito.mock(NoteWriteBehind.class);
+        personService = new PersonServiceImpl(personRepository, noteService, personNameIndex,
+                changeRepository, noteWriteBehind, TRANSACTION_TEMPLATE);
+        when(personRepository.existsById(MISSING_ID)).thenReturn(false);
+
+        assertFalse(personService.createNote(MISSING_ID.toString(), new Note()).isPresent());
+        verify(personRepository).existsById(MISSING_ID);
+        Mockito.verifyNoInteractions(noteWriteBehind);
+    }
+
     @Test
     void testCreateNoteForNonExistentPerson() {
-        String personId = "nonexistent";
+        String personId = MISSING_ID.toString();
         Note newNote = new Note();
 
-        when(personRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(personRepository.findWritableById(any(UUID.class))).thenReturn(Optional.empty());
 
         Optional<Note> createdNote = personService.createNote(personId, newNote);
 
         assertFalse(createdNote.isPresent());
-        verify(personRepository).findById(personId);
+        verify(personRepository).findWritableById(MISSING_ID);
         verify(noteService, never()).create(any(Note.class));
     }
 
     @Test
-    void findByName_whenNoPersonsMatch() {
-        lenient().when(personRepository.findByFirstName(anyString()))
-                .thenReturn(Lists.newArrayList());
-        lenient().when(personRepository.findByLastName(anyString()))
-                .thenReturn(Lists.newArrayList());
-        lenient().when(personRepository.findByFirstNameAndLastName(anyString(), anyString()))
-                .thenReturn(Lists.newArrayList());
-        when(personRepository.findByFirstNameAndLastName(anyString(), anyString()))
-                .thenReturn(Lists.newArrayList());
+    void testGetAllSummaries() {
+        when(personRepository.findAllSummaries())
+                .thenReturn(List.of(new PersonSummary(PERSON_ID, "John", "Doe")));
+
+        List<PersonSummary> summaries = personService.getAllSummaries();
+
+        assertEquals(1, summaries.size());
+        verify(personRepository).findAllSummaries();
+    }
+
+    @Test
+    void testCreateAllAssignsIds() {
+        List<Person> persons = List.of(
+                new Person(null, "John", "Doe", Collections.emptyList()),
+                new Person(null, "Jane", "Doe", Collections.emptyList()));
+
+        List<Person> created = personService.createAll(persons);
+
+        assertEquals(2, created.size());
+        assertNotNull(created.get(0).getId());
+        assertNotNull(created.get(1).getId());
+        assertEquals("Jane", created.get(1).getFirstName());
+        verify(personRepository).insertAll(created);
+        verify(personRepository).evictNameQueries();
+    }
+
+    @Test
+    void testImportAllEvictsNameQueriesOnceAfterTheLastChunk() {
+        List<List<Person>> chunks = List.of(
+                List.of(new Person(null, "John", "Doe", Collections.emptyList())),
+                List.of(new Person(null, "Jane", "Doe", Collections.emptyList())));
+
+        assertEquals(2, personService.importAll(chunks.iterator()));
+
+        InOrder inOrder = Mockito.inOrder(personRepository);
+        inOrder.verify(personRepository, times(2)).insertAll(anyList());
+        inOrder.verify(personRepository).evictNameQueries();
+    }
+
+    @Test
+    void testImportAllEvictsNameQueriesIfAChunkFails() {
+        Iterator<List<Person>> chunks = List.of(
+                List.of(new Person(null, "John", "Doe", Collections.emptyList()))).iterator();
+        Mockito.doThrow(new DataIntegrityViolationException("invalid"))
+                .when(personRepository).insertAll(anyList());
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> personService.importAll(chunks));
+        verify(personRepository).evictNameQueries();
+    }
+
+    @Test
+    void testCreateNotesSuccess() {
+        List<Note> notes = List.of(new Note(null, null, "First"), new Note(null, null, "Second"));
+        when(personRepository.existsById(PERSON_ID)).thenReturn(true);
+
+        Optional<List<Note>> created = personService.createNotes(PERSON_ID.toString(), notes);
+
+        assertTrue(created.isPresent());
+        assertEquals(2, created.get().size());
+        assertNotNull(created.get().get(0).getId());
+        assertEquals("Second", created.get().get(1).getContent());
+        assertEquals(PERSON_ID, created.get().get(0).getPerson().getId());
+        verify(personRepository).existsById(PERSON_ID);
+        verify(noteService).insertAll(created.get());
+        verify(noteService, never()).createAll(any());
+        verify(personRepository).touch(eq(PERSON_ID), any(Instant.class));
+    }
+
+    @Test
+    void testImportNotesChecksAndTouchesThePersonOnce() {
+        when(personRepository.existsById(PERSON_ID)).thenReturn(true);
+        List<List<Note>> chunks = List.of(
+                List.of(new Note(null, null, "First"), new Note(null, null, "Second")),
+                List.of(new Note(null, null, "Third")));
+
+        assertEquals(Optional.of(3L),
+                personService.importNotes(PERSON_ID.toString(), chunks.iterator()));
+
+        InOrder inOrder = Mockito.inOrder(personRepository, noteService);
+        inOrder.verify(personRepository).existsById(PERSON_ID);
+        inOrder.verify(noteService, times(2)).insertAll(anyList());
+        inOrder.verify(personRepository).touch(eq(PERSON_ID), any(Instant.class));
+    }
+
+    @Test
+    void testImportNotesForNonExistentPersonReadsNoChunk() {
+        when(personRepository.existsById(MISSING_ID)).thenReturn(false);
+        Iterator<List<Note>> chunks = Mockito.mock();
+
+        assertFalse(personService.importNotes(MISSING_ID.toString(), chunks).isPresent());
+        Mockito.verifyNoInteractions(chunks, noteService);
+        verify(personRepository, never()).touch(any(), any());
+    }
+
+    @Test
+    void testCreateNotesForNonExistentPerson() {
+        when(personRepository.existsById(MISSING_ID)).thenReturn(false);
+
+        Optional<List<Note>> created = personService.createNotes(MISSING_ID.toString(),
+                List.of(new Note()));
+
+        assertFalse(created.isPresent());
+        verify(personRepository).existsById(MISSING_ID);
+        verify(noteService, never()).insertAll(any());
+    }
+
+    @Test
+    void testGetCollectionRevision() {
+        Revision revision = new Revision(2, 3, Instant.now());
+        when(changeRepository.findRevision()).thenReturn(revision);
+
+        assertEquals(revision, personService.getCollectionRevision());
+        verify(changeRepository).findRevision();
+    }
+
+    @Test
+    void testCountAndExists() {
+        when(personRepository.count()).thenReturn(2L);
+        when(personRepository.existsById(PERSON_ID)).thenReturn(true);
+        when(personRepository.existsById(MISSING_ID)).thenReturn(false);
+
+        assertEquals(2, personService.count());
+        assertTrue(personService.exists(PERSON_ID.toString()));
+        assertFalse(personService.exists(MISSING_ID.toString()));
+        assertFalse(personService.exists("malformed"));
+        verify(personRepository).count();
+        verify(personRepository).existsById(PERSON_ID);
+        verify(personRepository).existsById(MISSING_ID);
+    }
+
+    @Test
+    void testCountNotes() {
+        when(personRepository.countNotesById(PERSON_ID)).thenReturn(Optional.of(3L));
+        when(personRepository.countNotesById(MISSING_ID)).thenReturn(Optional.empty());
+
+        assertEquals(Optional.of(3L), personService.countNotes(PERSON_ID.toString()));
+        assertEquals(Optional.empty(), personService.countNotes(MISSING_ID.toString()));
+        assertEquals(Optional.empty(), personService.countNotes(null));
+        verify(personRepository).countNotesById(PERSON_ID);
+        verify(personRepository).countNotesById(MISSING_ID);
+    }
+
+    @Test
+    void testGetViewAttachesNotes() {
+        NoteView note = new NoteView(UUID.randomUUID(), PERSON_ID, "Note", 0, Instant.EPOCH, null);
+        when(personRepository.findViewById(PERSON_ID)).thenReturn(Optional.of(
+                new PersonView(PERSON_ID, "John", "Doe", 1, Instant.EPOCH)));
+        when(noteService.getViewsOfPersons(List.of(PERSON_ID))).thenReturn(List.of(note));
+
+        Optional<PersonView> view = personService.getView(PERSON_ID.toString());
+
+        assertTrue(view.isPresent());
+        assertEquals("John", view.get().firstName());
+        assertEquals(List.of(note), view.get().notes());
+        verify(personRepository).findViewById(PERSON_ID);
+        verify(noteService).getViewsOfPersons(List.of(PERSON_ID));
+    }
+
+    @Test
+    void testGetViewOfMissingPersonSkipsNotes() {
+        when(personRepository.findViewById(MISSING_ID)).thenReturn(Optional.empty());
+
+        assertFalse(personService.getView(MISSING_ID.toString()).isPresent());
+        assertFalse(personService.getView("malformed").isPresent());
+        verify(personRepository).findViewById(MISSING_ID);
+    }
+
+    @Test
+    void testViewPageAndNameQueryGroupNotesByPerson() {
+        NoteView note = new NoteView(UUID.randomUUID(), OTHER_PERSON_ID, "Note", 0, Instant.EPOCH,
+                null);
+        List<PersonView> persons = List.of(
+                new PersonView(PERSON_ID, "John", "Doe", 0, Instant.EPOCH),
+                new PersonView(OTHER_PERSON_ID, "Jane", "Doe", 0, Instant.EPOCH));
+        when(personRepository.findViews(Limit.of(2))).thenReturn(persons);
+        when(personRepository.findViewsByLastName("Doe")).thenReturn(persons);
+        when(noteService.getViewsOfPersons(List.of(PERSON_ID, OTHER_PERSON_ID)))
+                .thenReturn(List.of(note));
+
+        List<PersonView> page = personService.getViewPage(null, 2);
+        List<PersonView> found = personService.findViewsByName("", "Doe");
+
+        assertEquals(List.of(), page.getFirst().notes());
+        assertEquals(List.of(note), page.get(1).notes());
+        assertEquals(page, found);
+        assertTrue(personService.findViewsByName(null, null).isEmpty());
+        verify(personRepository).findViews(Limit.of(2));
+        verify(personRepository).findViewsByLastName("Doe");
+        verify(noteService, times(2)).getViewsOfPersons(List.of(PERSON_ID, OTHER_PERSON_ID));
+    }
+
+    @Test
+    void testStreamViewsPagesByKeyset() {
+        List<PersonView> first = IntStream.range(0, 1000)
+                .mapToObj(i -> new PersonView(new UUID(0, i), "John", "Doe", 0, Instant.EPOCH))
+                .toList();
+        PersonView last = new PersonView(PERSON_ID, "Jane", "Doe", 0, Instant.EPOCH);
+        when(personRepository.findViews(Limit.of(1000))).thenReturn(first);
+        when(personRepository.findViewsByIdGreaterThan(new UUID(0, 999), Limit.of(1000)))
+                .thenReturn(List.of(last));
+        List<PersonView> streamed = new ArrayList<>();
+
+        personService.streamViews(streamed::add);
+
+        assertEquals(1001, streamed.size());
+        assertEquals(PERSON_ID, streamed.getLast().id());
+        verify(personRepository, times(1)).findViewsByIdGreaterThan(any(), any());
+        verify(noteService, times(2)).getViewsOfPersons(any());
+    }
+
+    @Test
+    void testStreamViewsByNameAttachesNotes() {
+        NoteView note = new NoteView(UUID.randomUUID(), PERSON_ID, "Note", 0, Instant.EPOCH, null);
+        when(personRepository.findViewsByFirstName("John"))
+                .thenReturn(List.of(new PersonView(PERSON_ID, "John", "Doe", 0, Instant.EPOCH)));
+        when(noteService.getViewsOfPersons(List.of(PERSON_ID))).thenReturn(List.of(note));
+        List<PersonView> streamed = new ArrayList<>();
+
+        personService.streamViewsByName("John", null, streamed::add);
+        personService.streamViewsByName(null, "", streamed::add);
+
+        assertEquals(1, streamed.size());
+        assertEquals(List.of(note), streamed.getFirst().notes());
+    }
+
+    @Test
+    void testRebuildNameIndex() {
+        when(personRepository.streamAllSummaries())
+                .thenReturn(Stream.of(new PersonSummary(PERSON_ID, "John", "Doe")));
+
+        personService.rebuildNameIndex();
+
+        assertTrue(personNameIndex.isReady());
+        assertEquals(Optional.of(List.of("John")), personNameIndex.suggest("jo", 0, 10));
+        verify(personRepository).streamAllSummaries();
+    }
+
+    @Test
+    void testCreatePersonReplacesItsIndexedNames() {
+        personNameIndex.rebuild(List.of());
+        Person stored = new Person(PERSON_ID, "Jane", "Doe", Collections.emptyList());
+        Person existing = new Person(PERSON_ID, "Jane", "Smith", Collections.emptyList());
+        existing.setVersion(1L);
+        when(personRepository.findWritableById(PERSON_ID)).thenReturn(Optional.of(stored));
+        when(personRepository.save(existing)).thenReturn(existing);
+        personNameIndex.add(PERSON_ID, "Jane", "Doe");
+
+        personService.create(existing);
+
+        assertEquals(Optional.of(List.of()), personNameIndex.suggest("doe", 0, 10));
+        assertEquals(Optional.of(List.of("Smith")), personNameIndex.suggest("smi", 0, 10));
+        verify(personRepository).findWritableById(PERSON_ID);
+        verify(personRepository).save(existing);
+    }
+
+    @Test
+    void testSearchByNameLoadsMatchesInRankOrder() {
+        personNameIndex.rebuild(List.of(new PersonSummary(PERSON_ID, "Johnny", "Doe"),
+                new PersonSummary(OTHER_PERSON_ID, "John", "Doe")));
+        PersonView johnny = new PersonView(PERSON_ID, "Johnny", "Doe", 0, Instant.EPOCH);
+        PersonView john = new PersonView(OTHER_PERSON_ID, "John", "Doe", 0, Instant.EPOCH);
+        when(personRepository.findViewsByIdIn(List.of(OTHER_PERSON_ID, PERSON_ID)))
+                .thenReturn(List.of(johnny, john));
+
+        List<PersonView> found = personService.searchByName("JOHM", 1, 10);
+
+        assertEquals(List.of(john, johnny), found);
+        assertTrue(personService.searchByName(" ", 1, 10).isEmpty());
+        assertTrue(personService.searchByName("xyz", 0, 10).isEmpty());
+        verify(personRepository).findViewsByIdIn(List.of(OTHER_PERSON_ID, PERSON_ID));
+        verify(noteService).getViewsOfPersons(List.of(OTHER_PERSON_ID, PERSON_ID));
+    }
+
+    @Test
+    void testSearchByNameSkipsPersonsRenamedSinceIndexing() {
+        personNameIndex.rebuild(List.of(new PersonSummary(PERSON_ID, "John", "Doe")));
+        when(personRepository.findViewsByIdIn(List.of(PERSON_ID))).thenReturn(List.of(
+                new PersonView(PERSON_ID, "Jane", "Doe", 1, Instant.EPOCH)));
+
+        assertTrue(personService.searchByName("john", 0, 10).isEmpty());
+        verify(personRepository).findViewsByIdIn(List.of(PERSON_ID));
+    }
+
+    @Test
+    void testSearchByNameFallsBackToPrefixQueryUntilIndexIsReady() {
+        PersonView john = new PersonView(PERSON_ID, "John", "Doe", 0, Instant.EPOCH);
+        when(personRepository.findViewsByNamePrefix("jo", Limit.of(100)))
+                .thenReturn(List.of(john));
+
+        assertEquals(List.of(john), personService.searchByName(" Jo", 2, 1000));
+        verify(personRepository).findViewsByNamePrefix("jo", Limit.of(100));
+        verify(noteService).getViewsOfPersons(List.of(PERSON_ID));
+    }
+
+    @Test
+    void testSuggestNames() {
+        assertTrue(personService.suggestNames("jo", 0, 10).isEmpty());
 
-        List<Person> result = personService.findByName("NonExistingFirstName",
-                "NonExistingLastName");
+        personNameIndex.rebuild(List.of(new PersonSummary(PERSON_ID, "John", "Doe"),
+                new PersonSummary(OTHER_PERSON_ID, "Jane", "Johnson")));
 
-        assertTrue(result.isEmpty(), "Expected no persons to be found with a non-matching name");
+        assertEquals(List.of("John", "Johnson"), personService.suggestNames("jo", 0, 10));
+        assertEquals(List.of("John"), personService.suggestNames("jo", 0, 1));
     }
 }
@@ -0,0 +1,76 @@
+package io.muehlbachler.fhburgenland.swm.examination.service.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.muehlbachler.fhburgenland.swm.examination.dto.NoteView;
+import io.muehlbachler.fhburgenland.swm.examination.model.NoteRow;
+import io.muehlbachler.fhburgenland.swm.examination.repository.ReactiveNoteRepository;
+import io.muehlbachler.fhburgenland.swm.examination.search.NoteContentIndex;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveNoteServiceImplTest {
+    private static final UUID PERSON_ID = UUID.fromString("81150016-8501-4b97-9168-01113e21d8a5");
+    private static final UUID NOTE_ID = UUID.fromString("c5b38625-7eed-4705-858d-c685f18ed47d");
+    private static final UUID OTHER_NOTE_ID =
+            UUID.fromString("0190a6b2-3c4d-7e5f-8a9b-0c1d2e3f4a5b");
+
+    @Mock
+    private ReactiveNoteRepository noteRepository;
+
+    @Spy
+    private NoteContentIndex noteContentIndex = new NoteContentIndex();
+
+    @InjectMocks
+    private ReactiveNoteServiceImpl noteService;
+
+    @Test
+    void getEmitsRepositoryRow() {
+        NoteRow note = new NoteRow(NOTE_ID, PERSON_ID, "Note");
+        when(noteRepository.findById(NOTE_ID)).thenReturn(Mono.just(note));
+
+        StepVerifier.create(noteService.get(NOTE_ID.toString())).expectNext(note).verifyComplete();
+    }
+
+    @Test
+    void queryByContentUsesIndexAndDropsFalsePositives() {
+        noteContentIndex.rebuild(List.of(
+                new NoteView(NOTE_ID, null, "Shopping list", 0, null, null),
+                new NoteView(OTHER_NOTE_ID, null, "list Shopping", 0, null, null)));
+        when(noteRepository.findAllById(anyIterable())).thenReturn(Flux.just(
+                new NoteRow(NOTE_ID, PERSON_ID, "Shopping list"),
+                new NoteRow(OTHER_NOTE_ID, PERSON_ID, "list Shopping")));
+
+        StepVerifier.create(noteService.queryByContent("Shopping list"))
+                .expectNext(new NoteRow(NOTE_ID, PERSON_ID, "Shopping list"))
+                .verifyComplete();
+
+        verify(noteRepository, never()).findByContentContaining(any());
+    }
+
+    @Test
+    void queryByContentFallsBackToRepository() {
+        NoteRow note = new NoteRow(NOTE_ID, PERSON_ID, "Note");
+        when(noteRepository.findByContentContaining("No")).thenReturn(Flux.just(note));
+
+        StepVerifier.create(noteService.queryByContent("No")).expectNext(note).verifyComplete();
+
+        verify(noteRepository, never()).findAllById(anyIterable());
+    }
+}
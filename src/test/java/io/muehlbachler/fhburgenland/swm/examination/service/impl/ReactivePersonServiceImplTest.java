@@ -0,0 +1,86 @@
+package io.muehlbachler.fhburgenland.swm.examination.service.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.NoteRow;
+import io.muehlbachler.fhburgenland.swm.examination.model.PersonRow;
+import io.muehlbachler.fhburgenland.swm.examination.repository.ReactiveNoteRepository;
+import io.muehlbachler.fhburgenland.swm.examination.repository.ReactivePersonRepository;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class ReactivePersonServiceImplTest {
+    private static final UUID JOHN_ID = UUID.fromString("81150016-8501-4b97-9168-01113e21d8a5");
+    private static final UUID JANE_ID = UUID.fromString("d891323f-a3ad-4a95-b340-2e1c8aa8d1bd");
+    private static final UUID NOTE_ID = UUID.fromString("c5b38625-7eed-4705-858d-c685f18ed47d");
+
+    @Mock
+    private ReactivePersonRepository personRepository;
+
+    @Mock
+    private ReactiveNoteRepository noteRepository;
+
+    @InjectMocks
+    private ReactivePersonServiceImpl personService;
+
+    @Test
+    void getAllEmitsRepositoryRows() {
+        PersonRow john = new PersonRow(JOHN_ID, "John", "Doe");
+        PersonRow jane = new PersonRow(JANE_ID, "Jane", "Doe");
+        when(personRepository.findAll()).thenReturn(Flux.just(john, jane));
+
+        StepVerifier.create(personService.getAll(), 1)
+                .expectNext(john)
+                .thenRequest(1)
+                .expectNext(jane)
+                .verifyComplete();
+    }
+
+    @Test
+    void findByNameUsesMostSelectiveFinder() {
+        PersonRow john = new PersonRow(JOHN_ID, "John", "Doe");
+        when(personRepository.findByFirstNameAndLastName("John", "Doe"))
+                .thenReturn(Flux.just(john));
+        when(personRepository.findByFirstName("John")).thenReturn(Flux.just(john));
+        when(personRepository.findByLastName("Doe")).thenReturn(Flux.just(john));
+
+        StepVerifier.create(personService.findByName("John", "Doe")).expectNext(john)
+                .verifyComplete();
+        StepVerifier.create(personService.findByName("John", "")).expectNext(john)
+                .verifyComplete();
+        StepVerifier.create(personService.findByName(null, "Doe")).expectNext(john)
+                .verifyComplete();
+        StepVerifier.create(personService.findByName("", null)).verifyComplete();
+    }
+
+    @Test
+    void malformedIdsCompleteEmpty() {
+        StepVerifier.create(personService.get("missing")).verifyComplete();
+        StepVerifier.create(personService.getNotes("missing")).verifyComplete();
+        StepVerifier.create(personService.createNote("missing", new NoteRow(null, null, "Note")))
+                .verifyComplete();
+
+        verify(personRepository, never()).touch(any(UUID.class));
+    }
+
+    @Test
+    void getNotesQueriesByPerson() {
+        NoteRow note = new NoteRow(NOTE_ID, JOHN_ID, "Note");
+        when(noteRepository.findByPersonId(JOHN_ID)).thenReturn(Flux.just(note));
+
+        StepVerifier.create(personService.getNotes(JOHN_ID.toString())).expectNext(note)
+                .verifyComplete();
+    }
+}
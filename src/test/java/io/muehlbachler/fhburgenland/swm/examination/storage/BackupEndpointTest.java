@@ -0,0 +1,46 @@
+package io.muehlbachler.fhburgenland.swm.examination.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class BackupEndpointTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void backupWritesTimestampedZip() throws IOException {
+        Path backups = directory.resolve("backup");
+        Path expected = backups.resolve("examination-20240101-100000-000.zip").toAbsolutePath();
+        doAnswer(invocation -> Files.write(expected, new byte[] {1, 2, 3}))
+                .when(jdbcTemplate).execute(anyString());
+        BackupEndpoint endpoint = new BackupEndpoint(jdbcTemplate, backups,
+                Clock.fixed(Instant.parse("2024-01-01T10:00:00Z"), ZoneOffset.UTC));
+
+        BackupEndpoint.Backup backup = endpoint.backup();
+
+        verify(jdbcTemplate).execute("BACKUP TO '" + expected + "'");
+        assertEquals(expected.toString(), backup.file());
+        assertEquals(3, backup.bytes());
+        assertEquals(0, backup.millis());
+    }
+}
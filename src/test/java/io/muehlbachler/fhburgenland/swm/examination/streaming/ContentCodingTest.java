@@ -0,0 +1,30 @@
+package io.muehlbachler.fhburgenland.swm.examination.streaming;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class ContentCodingTest {
+    @Test
+    void missingHeaderMeansIdentity() {
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate(null));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate(" "));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate("br, identity"));
+    }
+
+    @Test
+    void prefersGzipOnTies() {
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("deflate, gzip"));
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("*"));
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("x-gzip"));
+    }
+
+    @Test
+    void honorsQualityValues() {
+        assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("gzip;q=0.5, deflate"));
+        assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("gzip;q=0, *;q=0.1"));
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("GZIP; Q=0.8, deflate;q=0.7"));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate("gzip;q=0, deflate;q=0"));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate("gzip;q=high"));
+    }
+}
@@ -0,0 +1,129 @@
+package io.muehlbachler.fhburgenland.swm.examination.streaming;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class JsonStreamerTest {
+    private static final List<String> ELEMENTS =
+            IntStream.range(0, 1000).mapToObj(i -> "element " + i).toList();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JsonStreamer streamer;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        streamer = new JsonStreamer(objectMapper, true, 1024, 6, 2);
+        request = new MockHttpServletRequest("GET", "/");
+        response = new MockHttpServletResponse();
+        response.setHeader(HttpHeaders.ETAG, "\"1-0\"");
+    }
+
+    @Test
+    void smallBodyIsSentAsIs() throws IOException {
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+        write(List.of("a", "b"));
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("[\"a\",\"b\"]", response.getContentAsString());
+        assertEquals(9, response.getContentLength());
+        assertEquals("\"1-0\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+    }
+
+    @Test
+    void largeBodyIsGzipped() throws IOException {
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+
+        write(ELEMENTS);
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("W/\"1-0\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(ELEMENTS, read(new GZIPInputStream(body())));
+    }
+
+    @Test
+    void largeBodyIsDeflated() throws IOException {
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "deflate");
+
+        write(ELEMENTS);
+        // the pooled deflater must start over for the next response
+        response = new MockHttpServletResponse();
+        write(ELEMENTS);
+
+        assertEquals("deflate", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(ELEMENTS, read(new InflaterInputStream(body())));
+    }
+
+    @Test
+    void largeBodyIsNotCompressedUnlessAccepted() throws IOException {
+        write(ELEMENTS);
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("\"1-0\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(ELEMENTS, read(body()));
+    }
+
+    @Test
+    void disabledCompressionIgnoresAcceptEncoding() throws IOException {
+        streamer = new JsonStreamer(objectMapper, false, 1024, 6, 2);
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+        write(ELEMENTS);
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertNull(response.getHeader(HttpHeaders.VARY));
+        assertEquals(ELEMENTS, read(body()));
+    }
+
+    @Test
+    void failingSourceLeavesTheResponseUncommitted() {
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+        assertThrows(IllegalStateException.class, () -> streamer.writeArray(
+                new ServletWebRequest(request, response), response, consumer -> {
+                    consumer.accept("a");
+                    throw new IllegalStateException("failed");
+                }));
+
+        assertFalse(response.isCommitted());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    private void write(List<String> elements) throws IOException {
+        streamer.writeArray(new ServletWebRequest(request, response), response, elements::forEach);
+    }
+
+    private InputStream body() {
+        return new ByteArrayInputStream(response.getContentAsByteArray());
+    }
+
+    private List<String> read(InputStream json) throws IOException {
+        try (json) {
+            return objectMapper.readValue(json, new TypeReference<>() {
+            });
+        }
+    }
+}
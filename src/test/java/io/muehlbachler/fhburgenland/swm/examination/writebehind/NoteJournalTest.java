@@ -0,0 +1,93 @@
+package io.muehlbachler.fhburgenland.swm.examination.writebehind;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.muehlbachler.fhburgenland.swm.examination.model.Note;
+import io.muehlbachler.fhburgenland.swm.examination.model.Person;
+
+class NoteJournalTest {
+    private static final Person PERSON = new Person(
+            UUID.fromString("81150016-8501-4b97-9168-01113e21d8a5"), "John", "Doe", List.of());
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void rotatedSegmentsAreReadBack() throws IOException {
+        Note first = new Note(UUID.randomUUID(), PERSON, "Gr\u00fc\u00dfe");
+        Note second = new Note(UUID.randomUUID(), PERSON, null);
+        List<Path> sealed;
+        try (NoteJournal journal = NoteJournal.open(directory)) {
+            journal.sync(journal.append(first));
+            journal.sync(journal.append(second));
+            sealed = journal.rotate();
+        }
+
+        assertEquals(1, sealed.size());
+        List<Note> notes = NoteJournal.read(sealed.getFirst());
+        assertEquals(2, notes.size());
+        assertEquals(first.getId(), notes.getFirst().getId());
+        assertEquals(PERSON.getId(), notes.getFirst().getPerson().getId());
+        assertEquals("Gr\u00fc\u00dfe", notes.getFirst().getContent());
+        assertEquals(second.getId(), notes.get(1).getId());
+        assertNull(notes.get(1).getContent());
+    }
+
+    @Test
+    void emptySegmentsAreNeitherRotatedNorKept() throws IOException {
+        try (NoteJournal journal = NoteJournal.open(directory)) {
+            assertTrue(journal.rotate().isEmpty());
+        }
+
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void reopeningRecoversUnsealedSegments() throws IOException {
+        Note note = new Note(UUID.randomUUID(), PERSON, "Crash");
+        try (NoteJournal journal = NoteJournal.open(directory)) {
+            journal.sync(journal.append(note));
+        }
+
+        try (NoteJournal journal = NoteJournal.open(directory)) {
+            assertEquals(1, journal.recovered().size());
+            assertEquals(note.getId(),
+                    NoteJournal.read(journal.recovered().getFirst()).getFirst().getId());
+            journal.delete(journal.recovered());
+            assertFalse(Files.exists(journal.recovered().getFirst()));
+        }
+    }
+
+    @Test
+    void readingStopsAtATornRecord() throws IOException {
+        Note note = new Note(UUID.randomUUID(), PERSON, "Complete");
+        Path segment;
+        try (NoteJournal journal = NoteJournal.open(directory)) {
+            journal.append(note);
+            journal.append(new Note(UUID.randomUUID(), PERSON, "Torn"));
+            segment = journal.rotate().getFirst();
+        }
+        byte[] bytes = Files.readAllBytes(segment);
+        Files.write(segment, Arrays.copyOf(bytes, bytes.length - 3));
+
+        List<Note> notes = NoteJournal.read(segment);
+
+        assertEquals(1, notes.size());
+        assertEquals(note.getId(), notes.getFirst().getId());
+    }
+}
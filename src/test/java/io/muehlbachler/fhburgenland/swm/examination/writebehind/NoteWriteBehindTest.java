@@ -0,0 +1,187 @@
+package io.muehlbachler.fhburgenland.swm.examination.writebehind;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.muehlbachler.fhburgenland.swm.examination.model.Note;
+import io.muehlbachler.fhburgenland.swm.examination.model.Person;
+import io.muehlbachler.fhburgenland.swm.examination.repository.NoteRepository;
+import io.muehlbachler.fhburgenland.swm.examination.repository.PersonRepository;
+import io.muehlbachler.fhburgenland.swm.examination.service.NoteService;
+
+@ExtendWith(MockitoExtension.class)
+class NoteWriteBehindTest {
+    private static final Person PERSON = new Person(
+            UUID.fromString("81150016-8501-4b97-9168-01113e21d8a5"), "John", "Doe", List.of());
+
+    @Mock
+    private NoteService noteService;
+    @Mock
+    private NoteRepository noteRepository;
+    @Mock
+    private PersonRepository personRepository;
+    @Mock
+    private Cache persons;
+    @Captor
+    private ArgumentCaptor<List<Note>> replayed;
+
+    @TempDir
+    private Path directory;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NoteWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(noteRepository.findAllById(anyIterable())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writeBehind != null && writeBehind.isRunning()) {
+            writeBehind.stop();
+        }
+    }
+
+    @Test
+    void flushWritesQueuedNotesInOneBatch() {
+        writeBehind = start(10);
+        Note first = writeBehind.enqueue(new Note(UUID.randomUUID(), PERSON, "First"));
+        Note second = writeBehind.enqueue(new Note(UUID.randomUUID(), PERSON, "Second"));
+        assertEquals(2, meterRegistry.get("examination.write-behind.queue").gauge().value());
+
+        writeBehind.flush();
+
+        verify(noteService).insertAll(List.of(first, second));
+        verify(personRepository).touch(eq(PERSON.getId()), any(Instant.class));
+        verify(persons).evict(PERSON.getId().toString());
+        assertEquals(0, meterRegistry.get("examination.write-behind.queue").gauge().value());
+        assertEquals(1, meterRegistry.get("examination.write-behind.flush").timer().count());
+    }
+
+    @Test
+    void fullQueueRejectsNotes() {
+        writeBehind = start(1);
+        writeBehind.enqueue(new Note(UUID.randomUUID(), PERSON, "First"));
+
+        assertThrows(QueueFullException.class,
+                () -> writeBehind.enqueue(new Note(UUID.randomUUID(), PERSON, "Second")));
+        assertEquals(1, meterRegistry.get("examination.write-behind.rejected").counter().count());
+
+        writeBehind.flush();
+        writeBehind.enqueue(new Note(UUID.randomUUID(), PERSON, "Third"));
+    }
+
+    @Test
+    void failingNotesAreDroppedAndTheirSegmentKept() throws IOException {
+        writeBehind = start(10);
+        Note valid = writeBehind.enqueue(new Note(UUID.randomUUID(), PERSON, "Valid"));
+        Note invalid = writeBehind.enqueue(new Note(UUID.randomUUID(), PERSON, "Invalid"));
+        doThrow(new DataIntegrityViolationException("batch"))
+                .when(noteService).insertAll(List.of(valid, invalid));
+        doThrow(new DataIntegrityViolationException("note"))
+                .when(noteService).insertAll(List.of(invalid));
+
+        writeBehind.flush();
+
+        verify(noteService).insertAll(List.of(valid));
+        assertEquals(1, meterRegistry.get("examination.write-behind.failed").counter().count());
+        try (var files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    void startReplaysJournaledNotesThatAreNotStored() throws IOException {
+        Note stored = new Note(UUID.randomUUID(), PERSON, "Stored");
+        Note lost = new Note(UUID.randomUUID(), PERSON, "Lost");
+        try (NoteJournal journal = NoteJournal.open(directory)) {
+            journal.sync(journal.append(stored));
+            journal.sync(journal.append(lost));
+        }
+        when(noteRepository.findAllById(List.of(stored.getId(), lost.getId())))
+                .thenReturn(List.of(stored));
+
+        writeBehind = start(10);
+
+        verify(noteService).insertAll(replayed.capture());
+        assertEquals(List.of(lost.getId()),
+                replayed.getValue().stream().map(Note::getId).toList());
+        verify(personRepository).touch(eq(PERSON.getId()), any(Instant.class));
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void startKeepsSegmentsWhoseReplayFails() throws IOException {
+        Note failing = new Note(UUID.randomUUID(), PERSON, "Failing");
+        try (NoteJournal journal = NoteJournal.open(directory)) {
+            journal.sync(journal.append(failing));
+        }
+        doThrow(new DataIntegrityViolationException("note"))
+                .when(noteService).insertAll(any());
+
+        writeBehind = start(10);
+
+        try (var files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+        writeBehind.stop();
+        try (NoteJournal journal = NoteJournal.open(directory)) {
+            assertEquals(1, journal.recovered().size());
+            assertEquals(List.of(failing.getId()), NoteJournal.read(journal.recovered().get(0))
+                    .stream().map(Note::getId).toList());
+        }
+    }
+
+    @Test
+    void stopFlushesRemainingNotes() {
+        writeBehind = start(10);
+        Note note = writeBehind.enqueue(new Note(UUID.randomUUID(), PERSON, "Pending"));
+
+        writeBehind.stop();
+
+        verify(noteService).insertAll(List.of(note));
+        verify(noteService, never()).createAll(any());
+    }
+
+    private NoteWriteBehind start(int capacity) {
+        NoteWriteBehind started = new NoteWriteBehind(noteService, noteRepository,
+                personRepository, persons, meterRegistry, new NoteWriteBehind.Settings(
+                        directory, capacity, Duration.ofMillis(10), Duration.ofHours(1),
+                        Duration.ZERO));
+        started.start();
+        return started;
+    }
+}